@@ -0,0 +1,67 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.clsDTOEspacioResponse;
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.servicio.clsServicioBusquedaEspacios;
+import com.integraupt.servicio.clsServicioBusquedaEspacios.Criterios;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Búsqueda de espacios libres sobre el índice en memoria y el motor de disponibilidad cargado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class BusquedaEspaciosBenchmark {
+
+    @Param({"200", "2000"})
+    public int espacios;
+
+    @Param({"50000"})
+    public int reservas;
+
+    private clsServicioBusquedaEspacios busqueda;
+    private Criterios unDia;
+    private Criterios unaSemanaConEquipo;
+
+    @Setup
+    public void preparar() {
+        DatosSinteticos datos = new DatosSinteticos(espacios, reservas, 2000, 42L);
+        ServiciosEnMemoria servicios = new ServiciosEnMemoria(datos);
+        busqueda = servicios.crearBusquedaEspacios(servicios.crearDisponibilidad(true));
+
+        LocalDate martes = datos.hoy.with(TemporalAdjusters.next(DayOfWeek.TUESDAY));
+        unDia = new Criterios(martes, null, List.of(3, 4), null, 30, null, null, 50);
+        unaSemanaConEquipo = new Criterios(martes, martes.plusDays(6), List.of(3), clsEntidadEspacio.TipoEspacio.Salon,
+                25, List.of("proyector"), null, 50);
+        busqueda.buscar(unDia);
+    }
+
+    @Benchmark
+    public List<clsDTOEspacioResponse.EspacioDTO> dosBloquesUnDia() {
+        return busqueda.buscar(unDia);
+    }
+
+    @Benchmark
+    public List<clsDTOEspacioResponse.EspacioDTO> semanaConEquipamiento() {
+        return busqueda.buscar(unaSemanaConEquipo);
+    }
+}
@@ -0,0 +1,106 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.clsDTOReserva;
+import com.integraupt.dto.clsDTOReservaUsuarioRequest;
+import com.integraupt.servicio.clsServicioDisponibilidad;
+import com.integraupt.servicio.clsServicioReserva;
+import java.time.LocalDate;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Muchos hilos compiten por el mismo espacio, bloque y fecha.
+ *
+ * Cada reserva creada se libera enseguida, como si se rechazara, para que el slot vuelva a disputarse.
+ * Los contadores {@code reservas} y {@code conflictos} reportan el throughput de cada resultado; si dos
+ * hilos llegan a ocupar el slot a la vez el benchmark falla.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(16)
+public class ContencionReservaBenchmark {
+
+    @Param({"true", "false"})
+    public boolean motorCargado;
+
+    private ServiciosEnMemoria servicios;
+    private clsServicioDisponibilidad disponibilidad;
+    private clsServicioReserva servicioReserva;
+    private clsDTOReservaUsuarioRequest solicitud;
+    private int espacioId;
+    private int bloqueId;
+    private LocalDate fecha;
+    private final AtomicInteger ocupantes = new AtomicInteger();
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Resultados {
+        public long reservas;
+        public long conflictos;
+
+        @Setup(Level.Iteration)
+        public void reiniciar() {
+            reservas = 0;
+            conflictos = 0;
+        }
+    }
+
+    @Setup
+    public void preparar() {
+        DatosSinteticos datos = new DatosSinteticos(200, 20000, 500, 42L);
+        servicios = new ServiciosEnMemoria(datos);
+        disponibilidad = servicios.crearDisponibilidad(motorCargado);
+        servicioReserva = servicios.crearServicioReserva(disponibilidad);
+
+        // Fecha fuera del rango de reservas sintéticas y bloque sin horario ni curso: solo compiten los hilos
+        espacioId = 1;
+        fecha = datos.hoy.plusDays(200);
+        while ((bloqueId = datos.bloqueLibre(espacioId, fecha)) < 0) {
+            fecha = fecha.plusDays(1);
+        }
+
+        solicitud = new clsDTOReservaUsuarioRequest();
+        solicitud.setUsuario(1);
+        solicitud.setEspacio(espacioId);
+        solicitud.setBloque(bloqueId);
+        solicitud.setFechaReserva(fecha.toString());
+        solicitud.setDescripcion("Reserva en slot disputado");
+    }
+
+    @Benchmark
+    public void reclamarSlot(Resultados resultados) {
+        clsDTOReserva creada;
+        try {
+            creada = servicioReserva.crearReservaUsuario(solicitud);
+        } catch (ResponseStatusException conflicto) {
+            resultados.conflictos++;
+            return;
+        }
+        if (ocupantes.incrementAndGet() > 1) {
+            throw new IllegalStateException("Dos reservas activas para el mismo slot");
+        }
+        resultados.reservas++;
+        ocupantes.decrementAndGet();
+        servicios.liberarSlot(espacioId, bloqueId, fecha, creada.getId());
+        disponibilidad.liberar(espacioId, bloqueId, fecha);
+    }
+}
@@ -0,0 +1,169 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.clsDTOAuditoriaReserva;
+import com.integraupt.dto.clsDTOReservaDetalle;
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.entidad.clsEntidadReserva;
+import com.integraupt.entidad.clsEntidadUsuario_Reserva;
+import com.integraupt.servicio.clsUtilDiaSemana;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Conjunto de datos sintético y reproducible (semilla fija) con el tamaño indicado por los parámetros JMH.
+ */
+final class DatosSinteticos {
+
+    static final int BLOQUES = 12;
+    static final String[] EQUIPAMIENTOS = {
+            "Proyector, pizarra acrílica",
+            "Proyector, aire acondicionado, 30 computadoras",
+            "Pizarra, parlantes",
+            "Proyector multimedia, pizarra interactiva, aire acondicionado",
+            "Ninguno"
+    };
+    static final int DIAS = clsEntidadHorario.DiaSemana.values().length;
+    private static final String[] ESTADOS = {"Pendiente", "Aprobada", "Aprobada", "Rechazada"};
+
+    final LocalDate hoy = LocalDate.now();
+    final List<clsEntidadBloqueHorario> bloques = new ArrayList<>();
+    final List<clsEntidadEspacio_Reserva> espacios = new ArrayList<>();
+    final List<clsEntidadEspacio> espaciosCompletos = new ArrayList<>();
+    final List<clsEntidadUsuario_Reserva> usuarios = new ArrayList<>();
+    final Map<Integer, Integer> rolPorUsuario = new HashMap<>();
+    final List<clsEntidadHorario> horariosOcupados = new ArrayList<>();
+    final Map<Long, clsEntidadHorario> horarioPorSlot = new HashMap<>();
+    final List<clsEntidadHorarioCurso> cursos = new ArrayList<>();
+    final List<clsEntidadReserva> reservas = new ArrayList<>();
+    final List<clsDTOReservaDetalle> detalles = new ArrayList<>();
+    final List<clsDTOAuditoriaReserva> auditorias = new ArrayList<>();
+
+    DatosSinteticos(int cantidadEspacios, int cantidadReservas, int cantidadUsuarios, long semilla) {
+        Random random = new Random(semilla);
+
+        for (int i = 1; i <= BLOQUES; i++) {
+            clsEntidadBloqueHorario bloque = new clsEntidadBloqueHorario();
+            bloque.setId(i);
+            bloque.setOrden(i);
+            bloque.setNombre("Bloque " + i);
+            bloque.setHoraInicio(LocalTime.of(7, 0).plusMinutes(50L * (i - 1)));
+            bloque.setHoraFin(LocalTime.of(7, 50).plusMinutes(50L * (i - 1)));
+            bloques.add(bloque);
+        }
+
+        for (int i = 1; i <= cantidadEspacios; i++) {
+            boolean laboratorio = i % 3 == 0;
+            clsEntidadEspacio_Reserva espacio = new clsEntidadEspacio_Reserva();
+            espacio.setId(i);
+            espacio.setCodigo("E-" + i);
+            espacio.setNombre((laboratorio ? "Laboratorio " : "Aula ") + i);
+            espacio.setTipo(laboratorio ? "Laboratorio" : "Salon");
+            espacios.add(espacio);
+
+            clsEntidadEspacio completo = new clsEntidadEspacio();
+            completo.setId(i);
+            completo.setCodigo(espacio.getCodigo());
+            completo.setNombre(espacio.getNombre());
+            completo.setTipo(laboratorio ? clsEntidadEspacio.TipoEspacio.Laboratorio : clsEntidadEspacio.TipoEspacio.Salon);
+            completo.setCapacidad(20 + random.nextInt(40));
+            completo.setEstado(1);
+            // Derivado del id y no del generador, para no alterar el resto de los datos
+            completo.setEquipamiento(EQUIPAMIENTOS[i % EQUIPAMIENTOS.length]);
+            completo.setEscuelaId(1 + i % 19);
+            espaciosCompletos.add(completo);
+
+            // ~15 % de la grilla semanal ocupada y tres cursos activos por espacio
+            for (clsEntidadHorario.DiaSemana dia : clsEntidadHorario.DiaSemana.values()) {
+                for (int bloque = 1; bloque <= BLOQUES; bloque++) {
+                    if (random.nextInt(100) < 15) {
+                        clsEntidadHorario horario = new clsEntidadHorario();
+                        horario.setId(horariosOcupados.size() + 1);
+                        horario.setEspacioId(i);
+                        horario.setBloqueId(bloque);
+                        horario.setDiaSemana(dia);
+                        horario.setOcupado(true);
+                        horariosOcupados.add(horario);
+                        horarioPorSlot.put(claveHorario(i, bloque, dia), horario);
+                    }
+                }
+            }
+            for (int c = 0; c < 3; c++) {
+                clsEntidadHorarioCurso curso = new clsEntidadHorarioCurso();
+                curso.setId(cursos.size() + 1);
+                curso.setCurso("Curso " + curso.getId());
+                curso.setEspacioId(i);
+                curso.setBloqueId(1 + random.nextInt(BLOQUES));
+                curso.setDiaSemana(clsEntidadHorarioCurso.DiaSemana.values()[random.nextInt(DIAS)]);
+                curso.setFechaInicio(hoy.minusDays(60));
+                curso.setFechaFin(hoy.plusDays(120));
+                curso.setEstado(true);
+                cursos.add(curso);
+            }
+        }
+
+        for (int i = 1; i <= cantidadUsuarios; i++) {
+            clsEntidadUsuario_Reserva usuario = new clsEntidadUsuario_Reserva();
+            usuario.setId(i);
+            usuario.setNombre("Nombre" + i);
+            usuario.setApellido("Apellido" + i);
+            usuario.setCodigo(String.valueOf(2020000000L + i));
+            usuario.setCorreo("usuario" + i + "@upt.pe");
+            usuarios.add(usuario);
+            rolPorUsuario.put(i, 1 + random.nextInt(3));
+        }
+
+        // Reservas entre 180 días atrás y 90 días adelante
+        for (int i = 1; i <= cantidadReservas; i++) {
+            clsEntidadReserva reserva = new clsEntidadReserva();
+            reserva.setIdReserva(i);
+            reserva.setUsuario(usuarios.get(random.nextInt(usuarios.size())));
+            reserva.setEspacio(espacios.get(random.nextInt(espacios.size())));
+            reserva.setBloque(bloques.get(random.nextInt(BLOQUES)));
+            reserva.setFechaReserva(hoy.plusDays(random.nextInt(271) - 180L));
+            reserva.setFechaSolicitud(reserva.getFechaReserva().minusDays(1 + random.nextInt(20)).atTime(10, 0));
+            reserva.setEstado(ESTADOS[random.nextInt(ESTADOS.length)]);
+            reserva.setDescripcion("Reserva sintética " + i);
+            reservas.add(reserva);
+
+            clsEntidadUsuario_Reserva usuario = reserva.getUsuario();
+            detalles.add(new clsDTOReservaDetalle(i, reserva.getEstado(), reserva.getFechaReserva(),
+                    reserva.getFechaSolicitud(), usuario.getNombre(), usuario.getApellido(), usuario.getCodigo(),
+                    reserva.getEspacio().getNombre(), reserva.getEspacio().getCodigo(), reserva.getBloque().getNombre(),
+                    reserva.getDescripcion()));
+            if (!"Pendiente".equals(reserva.getEstado())) {
+                auditorias.add(new clsDTOAuditoriaReserva(auditorias.size() + 1, i, "Pendiente", reserva.getEstado(),
+                        reserva.getFechaSolicitud().plusHours(2), 1));
+            }
+        }
+    }
+
+    /**
+     * Primer bloque sin horario semanal ocupado ni curso para el espacio y la fecha, o -1 si no hay.
+     */
+    int bloqueLibre(int espacioId, LocalDate fecha) {
+        clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(fecha);
+        for (int bloque = 1; bloque <= BLOQUES; bloque++) {
+            int candidato = bloque;
+            boolean conCurso = cursos.stream().anyMatch(c -> c.getEspacioId() == espacioId
+                    && c.getBloqueId() == candidato && dia != null && c.getDiaSemana().ordinal() == dia.ordinal()
+                    && !fecha.isBefore(c.getFechaInicio()) && !fecha.isAfter(c.getFechaFin()));
+            if (!conCurso && (dia == null || !horarioPorSlot.containsKey(claveHorario(espacioId, bloque, dia)))) {
+                return bloque;
+            }
+        }
+        return -1;
+    }
+
+    static long claveHorario(int espacioId, int bloqueId, clsEntidadHorario.DiaSemana dia) {
+        return ((long) espacioId * 64 + bloqueId) * 8 + dia.ordinal();
+    }
+}
@@ -0,0 +1,105 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.servicio.clsUtilDiaSemana;
+import java.text.Normalizer;
+import java.time.LocalDate;
+import java.time.format.TextStyle;
+import java.util.Collection;
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.results.Result;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Resolución del día de la semana de una fecha de reserva: versión por nombre localizado
+ * (la que usaba clsServicioReserva) frente a la tabla de {@link clsUtilDiaSemana}.
+ *
+ * Con {@code -prof gc}, {@code gc.alloc.rate.norm} debe ser 0 B/op para {@code tabla}. El main de
+ * esta clase hace esa comprobación y falla si la tabla asigna memoria:
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.main=com.integraupt.benchmark.DiaSemanaBenchmark -Djmh.args=}
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DiaSemanaBenchmark {
+
+    private static final Locale LOCALE_ES = new Locale("es", "ES");
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+
+    private LocalDate[] fechas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        fechas = new LocalDate[64];
+        LocalDate inicio = LocalDate.of(2025, 3, 3);
+        for (int i = 0; i < fechas.length; i++) {
+            fechas[i] = inicio.plusDays(i * 3L);
+        }
+    }
+
+    @Benchmark
+    public clsEntidadHorario.DiaSemana nombreLocalizado() {
+        return porNombre(fechas[siguiente++ & 63]);
+    }
+
+    @Benchmark
+    public clsEntidadHorario.DiaSemana tabla() {
+        return clsUtilDiaSemana.deFecha(fechas[siguiente++ & 63]);
+    }
+
+    private static clsEntidadHorario.DiaSemana porNombre(LocalDate fecha) {
+        String nombreDia = fecha.getDayOfWeek().getDisplayName(TextStyle.FULL, LOCALE_ES);
+        String capitalizado = nombreDia.substring(0, 1).toUpperCase(LOCALE_ES)
+                + nombreDia.substring(1).toLowerCase(LOCALE_ES);
+        String sinTildes = DIACRITICS.matcher(Normalizer.normalize(capitalizado, Normalizer.Form.NFD)).replaceAll("");
+        switch (sinTildes) {
+            case "Lunes": return clsEntidadHorario.DiaSemana.Lunes;
+            case "Martes": return clsEntidadHorario.DiaSemana.Martes;
+            case "Miercoles": return clsEntidadHorario.DiaSemana.Miercoles;
+            case "Jueves": return clsEntidadHorario.DiaSemana.Jueves;
+            case "Viernes": return clsEntidadHorario.DiaSemana.Viernes;
+            case "Sabado": return clsEntidadHorario.DiaSemana.Sabado;
+            default: return null;
+        }
+    }
+
+    /**
+     * Corre solo la variante {@code tabla} con el perfilador de GC y falla si asigna memoria por operación.
+     */
+    public static void main(String[] args) throws Exception {
+        Collection<RunResult> resultados = new Runner(new OptionsBuilder()
+                .include(DiaSemanaBenchmark.class.getName() + ".tabla$")
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+        for (RunResult resultado : resultados) {
+            Result<?> asignacion = resultado.getSecondaryResults().get("gc.alloc.rate.norm");
+            if (asignacion == null) {
+                throw new IllegalStateException("El perfilador de GC no reportó gc.alloc.rate.norm");
+            }
+            // Tolerancia mínima por el ruido de la propia infraestructura de JMH
+            if (asignacion.getScore() > 0.5) {
+                throw new IllegalStateException("clsUtilDiaSemana.deFecha asigna " + asignacion.getScore() + " B/op");
+            }
+            System.out.printf("clsUtilDiaSemana.deFecha: %.3f B/op%n", asignacion.getScore());
+        }
+    }
+}
@@ -0,0 +1,69 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.ReporteEstadisticasDTO;
+import com.integraupt.dto.ReservasMesDTO;
+import com.integraupt.dto.UsoEspacioDTO;
+import com.integraupt.servicio.ExportacionService;
+import com.integraupt.servicio.ReportesService;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Generación de los reportes PDF y Excel escribiendo a un destino nulo, con y sin detalle de reservas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx512m")
+public class ExportacionBenchmark {
+
+    @Param({"200"})
+    public int espacios;
+
+    @Param({"10000", "100000"})
+    public int reservas;
+
+    @Param({"false", "true"})
+    public boolean detalle;
+
+    private ExportacionService exportacion;
+    private ReporteEstadisticasDTO estadisticas;
+    private List<UsoEspacioDTO> usoEspacios;
+    private List<ReservasMesDTO> reservasPorMes;
+
+    @Setup
+    public void preparar() {
+        ServiciosEnMemoria servicios = new ServiciosEnMemoria(new DatosSinteticos(espacios, reservas, 2000, 42L));
+        ReportesService reportes = servicios.crearReportes(servicios.crearDisponibilidad(true));
+        exportacion = servicios.crearExportacion();
+        estadisticas = reportes.obtenerEstadisticasGenerales();
+        usoEspacios = reportes.obtenerUsoEspacios();
+        reservasPorMes = reportes.obtenerReservasPorMes();
+    }
+
+    @Benchmark
+    public void excel() throws Exception {
+        exportacion.escribirReporteExcel(OutputStream.nullOutputStream(), estadisticas, usoEspacios, reservasPorMes,
+                detalle, null, null);
+    }
+
+    @Benchmark
+    public void pdf() throws Exception {
+        exportacion.escribirReportePDF(OutputStream.nullOutputStream(), estadisticas, usoEspacios, reservasPorMes,
+                detalle, null, null);
+    }
+}
@@ -0,0 +1,147 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.clsDTOLoginRequest;
+import com.integraupt.dto.clsDTOLoginResponse;
+import com.integraupt.dto.clsDTOLogoutRequest;
+import com.integraupt.entidad.clsEntidadUsuario;
+import com.integraupt.repositorio.clsRepositorioAuth;
+import com.integraupt.servicio.clsServicioAuth;
+import com.integraupt.servicio.clsServicioPassword;
+import com.integraupt.servicio.clsServicioToken;
+import java.time.Duration;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Ráfaga de logins como la apertura de inscripciones a exámenes: muchos hilos autenticando
+ * usuarios distintos a la vez.
+ *
+ * Se mide en modo SampleTime, así que el reporte incluye percentiles (p0.99 es el que interesa).
+ * Un tercio de los intentos entra con el correo. Todos usan la contraseña correcta: los rechazos
+ * escriben un WARN y se mediría el log en lugar de la verificación.
+ * Cada login exitoso cierra su sesión enseguida para que el mismo usuario pueda volver a entrar;
+ * ninguno de los dos pasos escribe en la base de datos.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(32)
+public class LoginBenchmark {
+
+    private static final String CLAVE_CORRECTA = "Clave#2024";
+    // Debe coincidir con @Threads
+    private static final int HILOS = 32;
+
+    @Param({"AES", "BCRYPT"})
+    public String formato;
+
+    @Param({"5000"})
+    public int usuarios;
+
+    // Costo BCrypt (app.security.bcrypt.costo); con -p costo=8,10,12 se ve cuánto pesa en el p99
+    @Param({"10"})
+    public int costo;
+
+    private clsServicioAuth servicioAuth;
+    private final List<String> codigos = new ArrayList<>();
+    private final List<String> correos = new ArrayList<>();
+    private final AtomicInteger siguienteHilo = new AtomicInteger();
+
+    /**
+     * Cada hilo usa solo los usuarios con índice congruente con su número, así dos hilos nunca
+     * intentan entrar con el mismo usuario (el segundo sería rechazado por sesión activa).
+     */
+    @State(Scope.Thread)
+    public static class Hilo {
+        int numero = -1;
+    }
+
+    @Setup
+    public void preparar() throws Exception {
+        clsServicioPassword servicioPassword = new clsServicioPassword("IntegraUPTSecretKey!", "IntegraUPTInitVect", costo);
+        Method init = clsServicioPassword.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(servicioPassword);
+
+        String almacenada = "AES".equals(formato)
+                ? servicioPassword.encriptar(CLAVE_CORRECTA)
+                : servicioPassword.hashear(CLAVE_CORRECTA);
+        Map<String, Object[]> filas = new HashMap<>();
+        for (int i = 1; i <= usuarios; i++) {
+            String codigo = String.valueOf(2020000000L + i);
+            String correo = "u" + i + "@virtual.upt.pe";
+            Object[] fila = {i, codigo, correo, almacenada};
+            filas.put(codigo, fila);
+            filas.put(correo, fila);
+            codigos.add(codigo);
+            correos.add(correo);
+        }
+
+        clsRepositorioAuth repositorioAuth = RepositorioEnMemoria.de(clsRepositorioAuth.class)
+                .con("findPorCodigoOEmail", args -> {
+                    Object[] fila = filas.get(((String) args[0]).toLowerCase(Locale.ROOT));
+                    return fila != null ? List.of(entidad(fila)) : List.of();
+                })
+                .crear();
+        clsServicioToken servicioToken = new clsServicioToken("secreto-benchmark-de-32-bytes-o-mas", Duration.ofHours(8), false);
+        servicioAuth = new clsServicioAuth(repositorioAuth, servicioPassword, servicioToken);
+    }
+
+    private static clsEntidadUsuario entidad(Object[] fila) {
+        clsEntidadUsuario usuario = new clsEntidadUsuario();
+        usuario.setId((Integer) fila[0]);
+        usuario.setCodigo((String) fila[1]);
+        usuario.setEmail((String) fila[2]);
+        usuario.setPassword((String) fila[3]);
+        usuario.setNombres("Nombre");
+        usuario.setApellidos("Apellido");
+        usuario.setRolId(2);
+        usuario.setFacultadId(1);
+        usuario.setEscuelaId(2);
+        usuario.setEstado(1);
+        usuario.setSesion(Boolean.FALSE);
+        return usuario;
+    }
+
+    @Benchmark
+    public clsDTOLoginResponse login(Hilo hilo) {
+        if (hilo.numero < 0) {
+            hilo.numero = siguienteHilo.getAndIncrement() % HILOS;
+        }
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        int indice = hilo.numero + HILOS * aleatorio.nextInt(codigos.size() / HILOS);
+        clsDTOLoginRequest solicitud = new clsDTOLoginRequest();
+        solicitud.setCodigoOEmail(aleatorio.nextInt(3) == 0 ? correos.get(indice) : codigos.get(indice));
+        solicitud.setPassword(CLAVE_CORRECTA);
+        solicitud.setTipoLogin("academic");
+        clsDTOLoginResponse respuesta = servicioAuth.autenticarUsuario(solicitud);
+        if (respuesta.isSuccess()) {
+            clsDTOLogoutRequest salida = new clsDTOLogoutRequest();
+            salida.setUsuarioId(indice + 1);
+            servicioAuth.cerrarSesion(salida, respuesta.getToken());
+        }
+        return respuesta;
+    }
+}
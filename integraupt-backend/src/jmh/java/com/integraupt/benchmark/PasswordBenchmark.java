@@ -0,0 +1,62 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.servicio.clsServicioPassword;
+import java.lang.reflect.Method;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+
+/**
+ * Verificación de contraseñas en los dos formatos almacenados (AES heredado y BCrypt).
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PasswordBenchmark {
+
+    private static final String CLAVE = "Clave#2024";
+
+    @Param({"AES", "BCRYPT"})
+    public String formato;
+
+    private clsServicioPassword servicioPassword;
+    private String almacenada;
+
+    @Setup
+    public void preparar() throws Exception {
+        servicioPassword = new clsServicioPassword("IntegraUPTSecretKey!", "IntegraUPTInitVect", 10);
+        // init() es el @PostConstruct que Spring invoca al crear el bean
+        Method init = clsServicioPassword.class.getDeclaredMethod("init");
+        init.setAccessible(true);
+        init.invoke(servicioPassword);
+
+        almacenada = "AES".equals(formato)
+                ? servicioPassword.encriptar(CLAVE)
+                : new BCryptPasswordEncoder().encode(CLAVE);
+    }
+
+    @Benchmark
+    public boolean matches() {
+        return servicioPassword.matches(CLAVE, almacenada);
+    }
+
+    @Benchmark
+    @Threads(8)
+    public boolean matchesConcurrente() {
+        return servicioPassword.matches(CLAVE, almacenada);
+    }
+}
@@ -0,0 +1,63 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.ReporteEstadisticasDTO;
+import com.integraupt.dto.ReservasMesDTO;
+import com.integraupt.dto.UsoEspacioDTO;
+import com.integraupt.servicio.ReportesService;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Agregaciones del panel de reportes sobre los contadores en memoria.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReportesBenchmark {
+
+    @Param({"200", "2000"})
+    public int espacios;
+
+    @Param({"50000"})
+    public int reservas;
+
+    @Param({"true", "false"})
+    public boolean motorCargado;
+
+    private ReportesService reportes;
+
+    @Setup
+    public void preparar() {
+        ServiciosEnMemoria servicios = new ServiciosEnMemoria(new DatosSinteticos(espacios, reservas, 2000, 42L));
+        reportes = servicios.crearReportes(servicios.crearDisponibilidad(motorCargado));
+    }
+
+    @Benchmark
+    public ReporteEstadisticasDTO estadisticasGenerales() {
+        return reportes.obtenerEstadisticasGenerales();
+    }
+
+    @Benchmark
+    public List<UsoEspacioDTO> usoEspacios() {
+        return reportes.obtenerUsoEspacios();
+    }
+
+    @Benchmark
+    public List<ReservasMesDTO> reservasPorMes() {
+        return reportes.obtenerReservasPorMes();
+    }
+}
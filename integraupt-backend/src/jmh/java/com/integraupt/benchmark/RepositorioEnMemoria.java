@@ -0,0 +1,54 @@
+package com.integraupt.benchmark;
+
+import java.lang.reflect.Proxy;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Crea implementaciones en memoria de los repositorios Spring Data para los benchmarks.
+ *
+ * Solo responden los métodos registrados por nombre; cualquier otro lanza
+ * UnsupportedOperationException para detectar dependencias nuevas de los servicios.
+ */
+final class RepositorioEnMemoria<R> {
+
+    private final Class<R> tipo;
+    private final Map<String, Function<Object[], Object>> metodos = new HashMap<>();
+
+    private RepositorioEnMemoria(Class<R> tipo) {
+        this.tipo = tipo;
+    }
+
+    static <R> RepositorioEnMemoria<R> de(Class<R> tipo) {
+        return new RepositorioEnMemoria<>(tipo);
+    }
+
+    RepositorioEnMemoria<R> con(String metodo, Function<Object[], Object> respuesta) {
+        metodos.put(metodo, respuesta);
+        return this;
+    }
+
+    R crear() {
+        Map<String, Function<Object[], Object>> registrados = Map.copyOf(metodos);
+        Object proxy = Proxy.newProxyInstance(tipo.getClassLoader(), new Class<?>[] {tipo}, (instancia, metodo, args) -> {
+            switch (metodo.getName()) {
+                case "toString":
+                    return "RepositorioEnMemoria[" + tipo.getSimpleName() + "]";
+                case "hashCode":
+                    return System.identityHashCode(instancia);
+                case "equals":
+                    return instancia == args[0];
+                default:
+                    break;
+            }
+            Function<Object[], Object> respuesta = registrados.get(metodo.getName());
+            if (respuesta == null) {
+                throw new UnsupportedOperationException(tipo.getSimpleName() + "." + metodo.getName()
+                        + " no está disponible en el repositorio en memoria");
+            }
+            return respuesta.apply(args != null ? args : new Object[0]);
+        });
+        return tipo.cast(proxy);
+    }
+}
@@ -0,0 +1,88 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.dto.clsDTOReserva;
+import com.integraupt.dto.clsDTOReservaUsuarioRequest;
+import com.integraupt.servicio.clsServicioDisponibilidad;
+import com.integraupt.servicio.clsServicioReserva;
+import java.time.LocalDate;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Creación de reservas con verificación de conflictos, con y sin el índice de disponibilidad cargado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ReservaBenchmark {
+
+    private static final int SOLICITUDES = 4096;
+
+    @Param({"200"})
+    public int espacios;
+
+    @Param({"50000"})
+    public int reservas;
+
+    @Param({"true", "false"})
+    public boolean motorCargado;
+
+    private clsServicioDisponibilidad disponibilidad;
+    private clsServicioReserva servicioReserva;
+    private clsDTOReservaUsuarioRequest[] solicitudes;
+    private LocalDate[] fechas;
+    private int siguiente;
+
+    @Setup
+    public void preparar() {
+        DatosSinteticos datos = new DatosSinteticos(espacios, reservas, 500, 42L);
+        ServiciosEnMemoria servicios = new ServiciosEnMemoria(datos);
+        disponibilidad = servicios.crearDisponibilidad(motorCargado);
+        servicioReserva = servicios.crearServicioReserva(disponibilidad);
+
+        // Solicitudes dentro de los próximos 60 días: una parte choca con reservas, horarios o cursos
+        Random random = new Random(7L);
+        solicitudes = new clsDTOReservaUsuarioRequest[SOLICITUDES];
+        fechas = new LocalDate[SOLICITUDES];
+        for (int i = 0; i < SOLICITUDES; i++) {
+            clsDTOReservaUsuarioRequest solicitud = new clsDTOReservaUsuarioRequest();
+            solicitud.setUsuario(1 + random.nextInt(500));
+            solicitud.setEspacio(1 + random.nextInt(espacios));
+            solicitud.setBloque(1 + random.nextInt(DatosSinteticos.BLOQUES));
+            fechas[i] = datos.hoy.plusDays(random.nextInt(60));
+            solicitud.setFechaReserva(fechas[i].toString());
+            solicitud.setDescripcion("Práctica de laboratorio");
+            solicitudes[i] = solicitud;
+        }
+    }
+
+    @Benchmark
+    public void crearReservaUsuario(Blackhole bh) {
+        int indice = siguiente++ & (SOLICITUDES - 1);
+        clsDTOReservaUsuarioRequest solicitud = solicitudes[indice];
+        try {
+            clsDTOReserva creada = servicioReserva.crearReservaUsuario(solicitud);
+            bh.consume(creada);
+            // Devuelve el slot para que la proporción de conflictos no cambie entre iteraciones
+            disponibilidad.liberar(solicitud.getEspacio(), solicitud.getBloque(), fechas[indice]);
+        } catch (ResponseStatusException conflicto) {
+            bh.consume(conflicto.getStatusCode());
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.integraupt.benchmark;
+
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadReserva;
+import com.integraupt.entidad.clsEntidadUsuario_Reserva;
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import com.integraupt.repositorio.clsRepositorioEspacioReserva;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioUsuario;
+import com.integraupt.repositorio.clsRepositorioUsuarioReserva;
+import com.integraupt.servicio.ExportacionService;
+import com.integraupt.servicio.ReportesService;
+import com.integraupt.servicio.clsServicioBusquedaEspacios;
+import com.integraupt.servicio.clsServicioCatalogos;
+import com.integraupt.servicio.clsServicioDisponibilidad;
+import com.integraupt.servicio.clsServicioEstadisticasReserva;
+import com.integraupt.servicio.clsServicioRechazosReserva;
+import com.integraupt.servicio.clsServicioReserva;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
+
+/**
+ * Arma los servicios reales sobre repositorios en memoria alimentados por {@link DatosSinteticos}.
+ *
+ * Las consultas agrupadas se resuelven recorriendo la lista de reservas, igual que lo haría
+ * la base de datos, para que la carga inicial de los almacenes en memoria sea realista.
+ */
+final class ServiciosEnMemoria {
+
+    // Mismo criterio que clsServicioDisponibilidad.ESTADOS_BLOQUEANTES (visible solo en su paquete)
+    private static final List<String> ESTADOS_BLOQUEANTES = List.of("Pendiente", "Aprobada");
+
+    final DatosSinteticos datos;
+
+    final clsRepositorioReserva repositorioReserva;
+    final clsRepositorioHorario repositorioHorario;
+    final clsRepositorioHorarioCurso repositorioHorarioCurso;
+    final clsRepositorioEspacioReserva repositorioEspacioReserva;
+    final clsRepositorioEspacio repositorioEspacio;
+    final clsRepositorioBloqueHorario repositorioBloqueHorario;
+    final clsRepositorioUsuarioReserva repositorioUsuarioReserva;
+    final clsRepositorioUsuario repositorioUsuario;
+    final clsRepositorioAuditoriaReserva repositorioAuditoria;
+
+    // Emula el índice único uk_reserva_slot_activo: slot activo -> id de la reserva que lo ocupa
+    private final ConcurrentHashMap<Long, Integer> slotsActivos = new ConcurrentHashMap<>();
+    private final AtomicInteger secuenciaReserva;
+
+    ServiciosEnMemoria(DatosSinteticos datos) {
+        this.datos = datos;
+        this.secuenciaReserva = new AtomicInteger(datos.reservas.size());
+        for (clsEntidadReserva reserva : datos.reservas) {
+            if (ESTADOS_BLOQUEANTES.contains(reserva.getEstado())) {
+                slotsActivos.put(claveSlot(reserva.getEspacio().getId(), reserva.getBloque().getId(),
+                        reserva.getFechaReserva()), reserva.getIdReserva());
+            }
+        }
+
+        Map<Integer, clsEntidadEspacio_Reserva> espaciosPorId = datos.espacios.stream()
+                .collect(Collectors.toMap(clsEntidadEspacio_Reserva::getId, e -> e));
+        Map<Integer, clsEntidadBloqueHorario> bloquesPorId = datos.bloques.stream()
+                .collect(Collectors.toMap(clsEntidadBloqueHorario::getId, b -> b));
+        Map<Integer, clsEntidadUsuario_Reserva> usuariosPorId = datos.usuarios.stream()
+                .collect(Collectors.toMap(clsEntidadUsuario_Reserva::getId, u -> u));
+
+        this.repositorioReserva = RepositorioEnMemoria.de(clsRepositorioReserva.class)
+                .con("findSlotsOcupadosDesde", args -> slotsOcupadosDesde((Collection<?>) args[0], (LocalDate) args[1]))
+                .con("countAgrupadoPorEstado", args -> contarPorEstado())
+                .con("countPorEspacioConEstado", args -> contarPorEspacio((String) args[0]))
+                .con("countPorMesSolicitudYEstado", args -> contarPorMesYEstado())
+                .con("countPorFechaReservaConEstadoDesde", args -> contarPorFechaDesde((String) args[0], (LocalDate) args[1]))
+                .con("existsByEspacioAndFechaReservaAndBloqueAndEstadoIn", args -> slotsActivos.containsKey(claveSlot(
+                        ((clsEntidadEspacio_Reserva) args[0]).getId(), ((clsEntidadBloqueHorario) args[2]).getId(),
+                        (LocalDate) args[1])))
+                .con("save", args -> guardar((clsEntidadReserva) args[0]))
+                .con("saveAndFlush", args -> guardar((clsEntidadReserva) args[0]))
+                .con("streamDetalleReservas", args -> datos.detalles.stream()
+                        .filter(d -> args[0] == null || !d.getFechaReserva().isBefore((LocalDate) args[0]))
+                        .filter(d -> args[1] == null || !d.getFechaReserva().isAfter((LocalDate) args[1])))
+                .crear();
+
+        this.repositorioHorario = RepositorioEnMemoria.de(clsRepositorioHorario.class)
+                .con("findByOcupado", args -> Boolean.TRUE.equals(args[0]) ? datos.horariosOcupados : List.of())
+                .con("countByOcupado", args -> Boolean.TRUE.equals(args[0]) ? (long) datos.horariosOcupados.size() : 0L)
+                .con("findByEspacioIdAndBloqueIdAndDiaSemana", args -> args[2] instanceof clsEntidadHorario.DiaSemana dia
+                        ? Optional.ofNullable(datos.horarioPorSlot.get(
+                                DatosSinteticos.claveHorario((Integer) args[0], (Integer) args[1], dia)))
+                        : Optional.empty())
+                .crear();
+
+        this.repositorioHorarioCurso = RepositorioEnMemoria.de(clsRepositorioHorarioCurso.class)
+                .con("findByEstadoTrue", args -> datos.cursos)
+                .con("findActivosEnRango", args -> datos.cursos.stream()
+                        .filter(c -> c.getEspacioId().equals(args[0]) && c.getBloqueId().equals(args[1]))
+                        .filter(c -> !c.getFechaInicio().isAfter((LocalDate) args[3])
+                                && !c.getFechaFin().isBefore((LocalDate) args[2]))
+                        .toList())
+                .crear();
+
+        this.repositorioEspacioReserva = RepositorioEnMemoria.de(clsRepositorioEspacioReserva.class)
+                .con("findAll", args -> datos.espacios)
+                .con("findById", args -> Optional.ofNullable(espaciosPorId.get(args[0])))
+                .crear();
+
+        this.repositorioEspacio = RepositorioEnMemoria.de(clsRepositorioEspacio.class)
+                .con("findAll", args -> datos.espaciosCompletos)
+                .con("findByEstado", args -> datos.espaciosCompletos.stream()
+                        .filter(e -> args[0].equals(e.getEstado()))
+                        .toList())
+                .crear();
+
+        this.repositorioBloqueHorario = RepositorioEnMemoria.de(clsRepositorioBloqueHorario.class)
+                .con("findAll", args -> datos.bloques)
+                .con("findById", args -> Optional.ofNullable(bloquesPorId.get(args[0])))
+                .crear();
+
+        this.repositorioUsuarioReserva = RepositorioEnMemoria.de(clsRepositorioUsuarioReserva.class)
+                .con("findById", args -> Optional.ofNullable(usuariosPorId.get(args[0])))
+                .crear();
+
+        this.repositorioUsuario = RepositorioEnMemoria.de(clsRepositorioUsuario.class)
+                .con("countAgrupadoPorRol", args -> agrupar(datos.rolPorUsuario.values()))
+                .crear();
+
+        this.repositorioAuditoria = RepositorioEnMemoria.de(clsRepositorioAuditoriaReserva.class)
+                .con("streamAuditorias", args -> datos.auditorias.stream()
+                        .filter(a -> args[0] == null || !a.getFechaCambio().isBefore((LocalDateTime) args[0]))
+                        .filter(a -> args[1] == null || a.getFechaCambio().isBefore((LocalDateTime) args[1])))
+                .crear();
+    }
+
+    clsServicioDisponibilidad crearDisponibilidad(boolean cargar) {
+        clsServicioDisponibilidad disponibilidad = new clsServicioDisponibilidad(repositorioReserva,
+                repositorioHorario, repositorioHorarioCurso, repositorioEspacioReserva, repositorioBloqueHorario,
+                Duration.ZERO);
+        if (cargar) {
+            disponibilidad.recargar();
+        }
+        return disponibilidad;
+    }
+
+    clsServicioEstadisticasReserva crearEstadisticas() {
+        clsServicioEstadisticasReserva estadisticas = new clsServicioEstadisticasReserva(repositorioReserva,
+                repositorioUsuario, Duration.ofDays(1));
+        estadisticas.recargar();
+        return estadisticas;
+    }
+
+    clsServicioReserva crearServicioReserva(clsServicioDisponibilidad disponibilidad) {
+        return new clsServicioReserva(repositorioReserva, repositorioHorario, repositorioHorarioCurso,
+                repositorioUsuarioReserva, repositorioEspacioReserva, repositorioBloqueHorario, disponibilidad,
+                crearEstadisticas(), new clsServicioRechazosReserva(new SimpleMeterRegistry()));
+    }
+
+    ReportesService crearReportes(clsServicioDisponibilidad disponibilidad) {
+        return new ReportesService(repositorioEspacio, repositorioHorario, crearEstadisticas(), disponibilidad);
+    }
+
+    clsServicioBusquedaEspacios crearBusquedaEspacios(clsServicioDisponibilidad disponibilidad) {
+        return new clsServicioBusquedaEspacios(repositorioEspacio, repositorioReserva, repositorioHorario,
+                repositorioHorarioCurso, new clsServicioCatalogos(repositorioBloqueHorario, Duration.ofHours(1)),
+                disponibilidad, Duration.ofHours(1));
+    }
+
+    ExportacionService crearExportacion() {
+        return new ExportacionService(repositorioReserva, repositorioAuditoria);
+    }
+
+    /**
+     * Libera el slot como lo haría el rechazo de la reserva que lo ocupa.
+     */
+    void liberarSlot(int espacioId, int bloqueId, LocalDate fecha, Integer idReserva) {
+        slotsActivos.remove(claveSlot(espacioId, bloqueId, fecha), idReserva);
+    }
+
+    // Las reservas creadas por el benchmark no se acumulan: solo se les asigna id y se actualiza el slot
+    private clsEntidadReserva guardar(clsEntidadReserva reserva) {
+        if (reserva.getIdReserva() == null) {
+            reserva.setIdReserva(secuenciaReserva.incrementAndGet());
+        }
+        long clave = claveSlot(reserva.getEspacio().getId(), reserva.getBloque().getId(), reserva.getFechaReserva());
+        if (ESTADOS_BLOQUEANTES.contains(reserva.getEstado())) {
+            Integer ocupante = slotsActivos.putIfAbsent(clave, reserva.getIdReserva());
+            if (ocupante != null && !ocupante.equals(reserva.getIdReserva())) {
+                throw new DataIntegrityViolationException("Duplicate entry '" + clave
+                        + "' for key 'reserva.uk_reserva_slot_activo'");
+            }
+        } else {
+            slotsActivos.remove(clave, reserva.getIdReserva());
+        }
+        return reserva;
+    }
+
+    private List<Object[]> slotsOcupadosDesde(Collection<?> estados, LocalDate desde) {
+        List<Object[]> filas = new ArrayList<>();
+        for (clsEntidadReserva reserva : datos.reservas) {
+            if (estados.contains(reserva.getEstado()) && !reserva.getFechaReserva().isBefore(desde)) {
+                filas.add(new Object[] {reserva.getEspacio().getId(), reserva.getBloque().getId(),
+                        reserva.getFechaReserva()});
+            }
+        }
+        return filas;
+    }
+
+    private List<Object[]> contarPorEstado() {
+        return agrupar(datos.reservas.stream().map(clsEntidadReserva::getEstado).toList());
+    }
+
+    private List<Object[]> contarPorEspacio(String estado) {
+        return agrupar(datos.reservas.stream()
+                .filter(r -> estado.equals(r.getEstado()))
+                .map(r -> r.getEspacio().getId())
+                .toList());
+    }
+
+    private List<Object[]> contarPorFechaDesde(String estado, LocalDate desde) {
+        return agrupar(datos.reservas.stream()
+                .filter(r -> estado.equals(r.getEstado()) && !r.getFechaReserva().isBefore(desde))
+                .map(clsEntidadReserva::getFechaReserva)
+                .toList());
+    }
+
+    private List<Object[]> contarPorMesYEstado() {
+        Map<List<Object>, Long> conteos = new HashMap<>();
+        for (clsEntidadReserva reserva : datos.reservas) {
+            LocalDateTime solicitud = reserva.getFechaSolicitud();
+            conteos.merge(List.of(solicitud.getYear(), solicitud.getMonthValue(), reserva.getEstado()), 1L, Long::sum);
+        }
+        List<Object[]> filas = new ArrayList<>(conteos.size());
+        conteos.forEach((clave, total) -> filas.add(new Object[] {clave.get(0), clave.get(1), clave.get(2), total}));
+        return filas;
+    }
+
+    private static <K> List<Object[]> agrupar(Collection<K> claves) {
+        Map<K, Long> conteos = new HashMap<>();
+        for (K clave : claves) {
+            conteos.merge(clave, 1L, Long::sum);
+        }
+        List<Object[]> filas = new ArrayList<>(conteos.size());
+        conteos.forEach((clave, total) -> filas.add(new Object[] {clave, total}));
+        return filas;
+    }
+
+    private static long claveSlot(int espacioId, int bloqueId, LocalDate fecha) {
+        return ((long) espacioId * 64 + bloqueId) * 100_000L + fecha.toEpochDay();
+    }
+}
@@ -0,0 +1,39 @@
+package com.integraupt.config;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Límites de concurrencia por grupo de endpoints.
+ *
+ * Los hilos virtuales se activan con spring.threads.virtual.enabled=true; en ese modo el pool de
+ * Tomcat deja de acotar la concurrencia y estos bulkheads son los que protegen el pool de conexiones.
+ */
+@Configuration
+public class clsConfigConcurrencia {
+
+    @Bean
+    public FilterRegistrationBean<clsFiltroBulkhead> filtroBulkhead(
+            @Value("${app.bulkhead.exportacion.max-concurrentes:4}") int maxExportaciones,
+            @Value("${app.bulkhead.reservas.max-concurrentes:32}") int maxReservas,
+            @Value("${app.bulkhead.importacion.max-concurrentes:2}") int maxImportaciones,
+            @Value("${app.bulkhead.espera-maxima:PT2S}") Duration esperaMaxima) {
+        List<clsFiltroBulkhead.Grupo> grupos = List.of(
+                new clsFiltroBulkhead.Grupo("exportacion", "/api/exportacion/", Set.of(), maxExportaciones, esperaMaxima),
+                new clsFiltroBulkhead.Grupo("reservas", "/api/reservas", Set.of("POST", "PUT"), maxReservas, esperaMaxima),
+                new clsFiltroBulkhead.Grupo("importacion", "/api/horarios-cursos/importar", Set.of("POST"),
+                        maxImportaciones, esperaMaxima)
+        );
+
+        FilterRegistrationBean<clsFiltroBulkhead> registro = new FilterRegistrationBean<>(new clsFiltroBulkhead(grupos));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+        return registro;
+    }
+}
@@ -1,7 +1,10 @@
 package com.integraupt.config;
 
+import com.integraupt.dto.clsDTOPaginaCursor;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
 import org.springframework.web.cors.CorsConfiguration;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 import org.springframework.web.filter.CorsFilter;
@@ -17,11 +20,12 @@ import org.springframework.web.filter.CorsFilter;
 public class clsConfigCors {
 
     /**
-     * Configura el filtro CORS para toda la aplicación
-     * @return CorsFilter configurado
+     * Configura el filtro CORS para toda la aplicación. Va primero en la cadena: las respuestas
+     * de error de los filtros siguientes (401 del token, 503 del bulkhead) también llevan CORS.
+     * @return CorsFilter registrado con la mayor precedencia
      */
     @Bean
-    public CorsFilter corsFilter() {
+    public FilterRegistrationBean<CorsFilter> corsFilter() {
         UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
         CorsConfiguration config = new CorsConfiguration();
         
@@ -37,6 +41,10 @@ public class clsConfigCors {
         
         // Permitir todos los headers
         config.addAllowedHeader("*");
+
+        // Cursor de la página siguiente en los listados paginados; este filtro responde antes que
+        // los @CrossOrigin de los controladores, así que el header debe exponerse aquí
+        config.addExposedHeader(clsDTOPaginaCursor.HEADER_SIGUIENTE_CURSOR);
         
         // Permitir todos los métodos HTTP
         config.addAllowedMethod("GET");
@@ -48,7 +56,9 @@ public class clsConfigCors {
         
         // Aplicar configuración a todas las rutas
         source.registerCorsConfiguration("/**", config);
-        
-        return new CorsFilter(source);
+
+        FilterRegistrationBean<CorsFilter> registro = new FilterRegistrationBean<>(new CorsFilter(source));
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registro;
     }
 }
@@ -0,0 +1,38 @@
+package com.integraupt.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Conteo de sentencias SQL por petición; solo se activa con app.diagnostico.sql.habilitado=true.
+ *
+ * Desactivado no se registra el inspector de Hibernate ni el filtro, así que no tiene costo.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.diagnostico.sql.habilitado", havingValue = "true")
+public class clsConfigDiagnosticoSql {
+
+    @Bean
+    public HibernatePropertiesCustomizer inspectorSentenciasSql() {
+        return propiedades -> propiedades.put(AvailableSettings.STATEMENT_INSPECTOR, new clsInspectorSentenciasSql());
+    }
+
+    @Bean
+    public FilterRegistrationBean<clsFiltroPresupuestoSql> filtroPresupuestoSql(
+            MeterRegistry registro,
+            @Value("${app.diagnostico.sql.presupuesto:20}") int presupuesto) {
+        FilterRegistrationBean<clsFiltroPresupuestoSql> registroFiltro =
+                new FilterRegistrationBean<>(new clsFiltroPresupuestoSql(registro, presupuesto));
+        registroFiltro.addUrlPatterns("/api/*");
+        // Después del token y del bulkhead: solo cuenta las peticiones que llegan al controlador
+        registroFiltro.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+        return registroFiltro;
+    }
+}
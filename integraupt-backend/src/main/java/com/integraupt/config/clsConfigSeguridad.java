@@ -0,0 +1,34 @@
+package com.integraupt.config;
+
+import com.integraupt.servicio.clsServicioPrincipales;
+import com.integraupt.servicio.clsServicioToken;
+import java.util.List;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Registro del filtro de tokens de sesión.
+ *
+ * Corre después del filtro CORS, para que un 401 llegue al navegador con los headers de CORS
+ * y no como un error de red, y antes del bulkhead: una petición sin credenciales válidas no debe
+ * ocupar un cupo.
+ */
+@Configuration
+public class clsConfigSeguridad {
+
+    @Bean
+    public FilterRegistrationBean<clsFiltroToken> filtroToken(
+            clsServicioToken servicioToken,
+            clsServicioPrincipales servicioPrincipales,
+            @Value("${app.security.token.obligatorio:false}") boolean obligatorio,
+            @Value("${app.security.token.rutas-publicas:/api/auth/}") List<String> rutasPublicas) {
+        FilterRegistrationBean<clsFiltroToken> registro = new FilterRegistrationBean<>(
+                new clsFiltroToken(servicioToken, servicioPrincipales, obligatorio, rutasPublicas));
+        registro.addUrlPatterns("/api/*");
+        registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registro;
+    }
+}
@@ -0,0 +1,140 @@
+package com.integraupt.config;
+
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Limita la cantidad de peticiones concurrentes por grupo de endpoints (bulkhead), de modo que
+ * una ráfaga en un grupo lento (por ejemplo, exportaciones) no agote las conexiones del resto.
+ *
+ * Si no hay cupo tras la espera máxima se responde 503 con Retry-After.
+ */
+public class clsFiltroBulkhead extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsFiltroBulkhead.class);
+
+    /**
+     * Grupo de endpoints que comparten un mismo límite de concurrencia.
+     */
+    public static final class Grupo {
+        private final String nombre;
+        private final String prefijoRuta;
+        private final Set<String> metodos;
+        private final Semaphore cupos;
+        private final long esperaMaximaNanos;
+
+        /**
+         * @param metodos métodos HTTP incluidos; vacío para incluir todos
+         */
+        public Grupo(String nombre, String prefijoRuta, Set<String> metodos, int maxConcurrentes, Duration esperaMaxima) {
+            this.nombre = nombre;
+            this.prefijoRuta = prefijoRuta;
+            this.metodos = metodos;
+            this.cupos = new Semaphore(maxConcurrentes, true);
+            this.esperaMaximaNanos = esperaMaxima.toNanos();
+        }
+
+        boolean aplica(HttpServletRequest request) {
+            return request.getRequestURI().startsWith(prefijoRuta)
+                    && (metodos.isEmpty() || metodos.contains(request.getMethod()));
+        }
+
+        public String getNombre() { return nombre; }
+
+        public int getCuposDisponibles() { return cupos.availablePermits(); }
+    }
+
+    private final List<Grupo> grupos;
+
+    public clsFiltroBulkhead(List<Grupo> grupos) {
+        this.grupos = grupos;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        Grupo grupo = buscarGrupo(request);
+        if (grupo == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        boolean adquirido;
+        try {
+            adquirido = grupo.cupos.tryAcquire(grupo.esperaMaximaNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            adquirido = false;
+        }
+        if (!adquirido) {
+            LOGGER.warn("Bulkhead '{}' sin cupo, se rechaza {} {}", grupo.nombre, request.getMethod(), request.getRequestURI());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            response.sendError(HttpStatus.SERVICE_UNAVAILABLE.value(), "Servicio ocupado, intente nuevamente");
+            return;
+        }
+
+        AtomicBoolean liberado = new AtomicBoolean();
+        Runnable liberar = () -> {
+            if (liberado.compareAndSet(false, true)) {
+                grupo.cupos.release();
+            }
+        };
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            // Las respuestas en streaming (p. ej. exportaciones) terminan después de salir del filtro
+            if (request.isAsyncStarted()) {
+                request.getAsyncContext().addListener(new LiberarAlTerminar(liberar));
+            } else {
+                liberar.run();
+            }
+        }
+    }
+
+    private Grupo buscarGrupo(HttpServletRequest request) {
+        for (Grupo grupo : grupos) {
+            if (grupo.aplica(request)) {
+                return grupo;
+            }
+        }
+        return null;
+    }
+
+    private static final class LiberarAlTerminar implements AsyncListener {
+        private final Runnable liberar;
+
+        LiberarAlTerminar(Runnable liberar) {
+            this.liberar = liberar;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) { liberar.run(); }
+
+        @Override
+        public void onTimeout(AsyncEvent event) { liberar.run(); }
+
+        @Override
+        public void onError(AsyncEvent event) { liberar.run(); }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
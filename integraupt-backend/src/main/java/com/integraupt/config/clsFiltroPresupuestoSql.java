@@ -0,0 +1,80 @@
+package com.integraupt.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+/**
+ * Mide cuántas sentencias SQL emite cada petición y marca las que superan el presupuesto.
+ *
+ * Una petición por encima del presupuesto suele ser un N+1 (una consulta por fila al armar los DTO),
+ * así que se registra un WARN con la ruta y el total. Los totales se publican como la distribución
+ * integraupt.sql.sentencias y el contador integraupt.sql.presupuesto.excedido, etiquetados por ruta.
+ */
+public class clsFiltroPresupuestoSql extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsFiltroPresupuestoSql.class);
+    static final String HEADER_PRESUPUESTO_EXCEDIDO = "X-Sql-Presupuesto-Excedido";
+
+    private final MeterRegistry registro;
+    private final int presupuesto;
+
+    public clsFiltroPresupuestoSql(MeterRegistry registro, int presupuesto) {
+        this.registro = registro;
+        this.presupuesto = presupuesto;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        clsInspectorSentenciasSql.iniciar(response);
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            clsInspectorSentenciasSql.Contador contador = clsInspectorSentenciasSql.terminar();
+            if (contador != null) {
+                registrar(request, response, contador.getSentencias());
+            }
+        }
+    }
+
+    private void registrar(HttpServletRequest request, HttpServletResponse response, int sentencias) {
+        // El patrón (/api/reservas/{id}) y no la URI concreta, para no crear una serie por id
+        Object patron = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String ruta = patron != null ? patron.toString() : "sin_ruta";
+        String metodo = request.getMethod();
+
+        if (!response.isCommitted()) {
+            response.setHeader(clsInspectorSentenciasSql.HEADER_SENTENCIAS, Integer.toString(sentencias));
+        }
+        DistributionSummary.builder("integraupt.sql.sentencias")
+                .description("Sentencias SQL emitidas por petición")
+                .tag("metodo", metodo)
+                .tag("ruta", ruta)
+                .register(registro)
+                .record(sentencias);
+
+        if (sentencias > presupuesto) {
+            if (!response.isCommitted()) {
+                response.setHeader(HEADER_PRESUPUESTO_EXCEDIDO, Integer.toString(presupuesto));
+            }
+            Counter.builder("integraupt.sql.presupuesto.excedido")
+                    .description("Peticiones que superaron el presupuesto de sentencias SQL")
+                    .tag("metodo", metodo)
+                    .tag("ruta", ruta)
+                    .register(registro)
+                    .increment();
+            LOGGER.warn("{} {} emitió {} sentencias SQL (presupuesto {}); posible N+1",
+                    metodo, ruta, sentencias, presupuesto);
+        }
+    }
+}
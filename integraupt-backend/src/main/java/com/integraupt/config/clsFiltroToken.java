@@ -0,0 +1,101 @@
+package com.integraupt.config;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioPrincipales;
+import com.integraupt.servicio.clsServicioToken;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.List;
+import java.util.Optional;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+/**
+ * Valida el token Bearer de cada petición y deja el principal en el atributo {@link #ATRIBUTO_PRINCIPAL}.
+ *
+ * La firma se comprueba en memoria y el rol, facultad y escuela salen de la caché de principales, así
+ * que una petición autenticada no consulta la base salvo en un fallo de caché. Un token presente pero
+ * inválido, vencido, revocado o de un usuario que ya no existe se rechaza con 401 siempre. Sin token,
+ * con {@code obligatorio} en false la petición sigue como anónima (los endpoints protegidos la rechazan
+ * al no encontrar principal); en true se responde 401.
+ */
+public class clsFiltroToken extends OncePerRequestFilter {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsFiltroToken.class);
+    public static final String ATRIBUTO_PRINCIPAL = "integraupt.principal";
+    private static final String PREFIJO_BEARER = "Bearer ";
+
+    private final clsServicioToken servicioToken;
+    private final clsServicioPrincipales servicioPrincipales;
+    private final boolean obligatorio;
+    private final List<String> rutasPublicas;
+
+    public clsFiltroToken(clsServicioToken servicioToken, clsServicioPrincipales servicioPrincipales,
+                          boolean obligatorio, List<String> rutasPublicas) {
+        this.servicioToken = servicioToken;
+        this.servicioPrincipales = servicioPrincipales;
+        this.obligatorio = obligatorio;
+        this.rutasPublicas = rutasPublicas;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        // Las preflight de CORS no traen el header Authorization
+        if ("OPTIONS".equals(request.getMethod()) || esPublica(request.getRequestURI())) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<String> token = extraerToken(request);
+        if (token.isEmpty()) {
+            if (obligatorio) {
+                rechazar(request, response, "Token ausente");
+                return;
+            }
+            chain.doFilter(request, response);
+            return;
+        }
+
+        Optional<clsDTOPrincipal> principal = servicioToken.validar(token.get())
+                .flatMap(sesion -> servicioPrincipales.resolver(sesion.usuarioId()));
+        if (principal.isEmpty()) {
+            // Quien envía credenciales inválidas no sigue como anónimo, sea cual sea el modo
+            rechazar(request, response, "Token inválido, expirado o revocado");
+            return;
+        }
+        request.setAttribute(ATRIBUTO_PRINCIPAL, principal.get());
+        chain.doFilter(request, response);
+    }
+
+    private static void rechazar(HttpServletRequest request, HttpServletResponse response, String motivo)
+            throws IOException {
+        LOGGER.debug("Petición rechazada ({}): {} {}", motivo, request.getMethod(), request.getRequestURI());
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+        response.sendError(HttpStatus.UNAUTHORIZED.value(), motivo);
+    }
+
+    private boolean esPublica(String uri) {
+        for (String ruta : rutasPublicas) {
+            if (uri.startsWith(ruta)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Optional<String> extraerToken(HttpServletRequest request) {
+        String autorizacion = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (autorizacion == null || !autorizacion.startsWith(PREFIJO_BEARER)) {
+            return Optional.empty();
+        }
+        String token = autorizacion.substring(PREFIJO_BEARER.length()).trim();
+        return token.isEmpty() ? Optional.empty() : Optional.of(token);
+    }
+}
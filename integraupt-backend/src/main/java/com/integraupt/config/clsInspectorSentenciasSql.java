@@ -0,0 +1,53 @@
+package com.integraupt.config;
+
+import jakarta.servlet.http.HttpServletResponse;
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+/**
+ * Cuenta las sentencias SQL que Hibernate prepara durante la petición HTTP del hilo actual.
+ *
+ * El contador vive en un ThreadLocal que abre y cierra {@link clsFiltroPresupuestoSql}; fuera de una
+ * petición (tareas de arranque, hilos en segundo plano) las sentencias no se cuentan. El header se
+ * actualiza en cada sentencia porque una respuesta grande se confirma antes de que el filtro termine.
+ * Las sentencias de JdbcTemplate (repositorios *Lote) no pasan por Hibernate y quedan fuera.
+ */
+public class clsInspectorSentenciasSql implements StatementInspector {
+
+    static final String HEADER_SENTENCIAS = "X-Sql-Sentencias";
+
+    private static final ThreadLocal<Contador> ACTUAL = new ThreadLocal<>();
+
+    static final class Contador {
+        private final HttpServletResponse response;
+        private int sentencias;
+
+        private Contador(HttpServletResponse response) {
+            this.response = response;
+        }
+
+        int getSentencias() {
+            return sentencias;
+        }
+    }
+
+    static void iniciar(HttpServletResponse response) {
+        ACTUAL.set(new Contador(response));
+    }
+
+    static Contador terminar() {
+        Contador contador = ACTUAL.get();
+        ACTUAL.remove();
+        return contador;
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Contador contador = ACTUAL.get();
+        if (contador != null) {
+            contador.sentencias++;
+            // Sin efecto si la respuesta ya se confirmó
+            contador.response.setHeader(HEADER_SENTENCIAS, Integer.toString(contador.sentencias));
+        }
+        return sql;
+    }
+}
@@ -7,12 +7,17 @@ import com.integraupt.dto.ReservasMesDTO;
 import com.integraupt.dto.UsoEspacioDTO;
 import com.integraupt.servicio.ExportacionService;
 import com.integraupt.servicio.ReportesService;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-// import java.io.IOException;
+import com.itextpdf.text.DocumentException;
+
+import java.io.IOException;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 
@@ -31,13 +36,24 @@ public class ExportacionController {
     }
 
     @GetMapping("/pdf")
-    public ResponseEntity<byte[]> descargarReportePDF() {
+    public ResponseEntity<StreamingResponseBody> descargarReportePDF(
+            @RequestParam(defaultValue = "false") boolean detalle,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
         try {
             ReporteEstadisticasDTO estadisticas = reportesService.obtenerEstadisticasGenerales();
             List<UsoEspacioDTO> usoEspacios = reportesService.obtenerUsoEspacios();
             List<ReservasMesDTO> reservasPorMes = reportesService.obtenerReservasPorMes();
 
-            byte[] pdfBytes = exportacionService.generarReportePDF(estadisticas, usoEspacios, reservasPorMes);
+            // Las páginas se escriben en la respuesta a medida que se generan
+            StreamingResponseBody cuerpo = salida -> {
+                try {
+                    exportacionService.escribirReportePDF(
+                            salida, estadisticas, usoEspacios, reservasPorMes, detalle, fechaInicio, fechaFin);
+                } catch (DocumentException e) {
+                    throw new IOException("No se pudo generar el reporte PDF", e);
+                }
+            };
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "reporte_estadisticas_" + timestamp + ".pdf";
@@ -45,7 +61,7 @@ public class ExportacionController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_PDF)
-                    .body(pdfBytes);
+                    .body(cuerpo);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
@@ -53,13 +69,18 @@ public class ExportacionController {
     }
 
     @GetMapping("/excel")
-    public ResponseEntity<byte[]> descargarReporteExcel() {
+    public ResponseEntity<StreamingResponseBody> descargarReporteExcel(
+            @RequestParam(defaultValue = "false") boolean detalle,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin) {
         try {
             ReporteEstadisticasDTO estadisticas = reportesService.obtenerEstadisticasGenerales();
             List<UsoEspacioDTO> usoEspacios = reportesService.obtenerUsoEspacios();
             List<ReservasMesDTO> reservasPorMes = reportesService.obtenerReservasPorMes();
 
-            byte[] excelBytes = exportacionService.generarReporteExcel(estadisticas, usoEspacios, reservasPorMes);
+            // El libro se escribe directamente en la respuesta, sin armarlo completo en memoria
+            StreamingResponseBody cuerpo = salida -> exportacionService.escribirReporteExcel(
+                    salida, estadisticas, usoEspacios, reservasPorMes, detalle, fechaInicio, fechaFin);
 
             String timestamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd_HHmmss"));
             String filename = "reporte_estadisticas_" + timestamp + ".xlsx";
@@ -67,10 +88,10 @@ public class ExportacionController {
             return ResponseEntity.ok()
                     .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"" + filename + "\"")
                     .contentType(MediaType.APPLICATION_OCTET_STREAM)
-                    .body(excelBytes);
+                    .body(cuerpo);
 
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+}
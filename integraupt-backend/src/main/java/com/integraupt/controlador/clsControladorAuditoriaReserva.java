@@ -1,6 +1,9 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOAuditoriaReserva;
+import com.integraupt.dto.clsDTOPaginaCursor;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.servicio.clsServiceAuditoriaReserva;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.format.annotation.DateTimeFormat;
@@ -9,21 +12,28 @@ import org.springframework.web.bind.annotation.*;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/auditoria-reservas")
-@CrossOrigin(origins = "http://localhost:3000")
+@CrossOrigin(origins = "http://localhost:3000", exposedHeaders = clsDTOPaginaCursor.HEADER_SIGUIENTE_CURSOR)
 public class clsControladorAuditoriaReserva {
 
     @Autowired
     private clsServiceAuditoriaReserva auditoriaReservaService;
 
-    // Obtener todos los registros de auditoría
+    // Obtener registros de auditoría paginados (más recientes primero)
     @GetMapping
-    public ResponseEntity<List<clsDTOAuditoriaReserva>> obtenerTodasAuditorias() {
+    public ResponseEntity<List<clsDTOAuditoriaReserva>> obtenerTodasAuditorias(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
         try {
-            List<clsDTOAuditoriaReserva> auditorias = auditoriaReservaService.obtenerTodasAuditorias();
-            return ResponseEntity.ok(auditorias);
+            clsDTOPaginaCursor<clsDTOAuditoriaReserva> pagina = auditoriaReservaService.obtenerPaginaAuditorias(
+                null, null, null, null, null, null, cursor, tamano
+            );
+            return responderPagina(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -48,13 +58,17 @@ public class clsControladorAuditoriaReserva {
             @RequestParam(required = false) String estadoAnterior,
             @RequestParam(required = false) String estadoNuevo,
             @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaInicio,
-            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin) {
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime fechaFin,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer tamano) {
         
         try {
-            List<clsDTOAuditoriaReserva> auditorias = auditoriaReservaService.buscarConFiltros(
-                idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin
+            clsDTOPaginaCursor<clsDTOAuditoriaReserva> pagina = auditoriaReservaService.obtenerPaginaAuditorias(
+                idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin, cursor, tamano
             );
-            return ResponseEntity.ok(auditorias);
+            return responderPagina(pagina);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
@@ -64,26 +78,42 @@ public class clsControladorAuditoriaReserva {
     @GetMapping("/estadisticas")
     public ResponseEntity<?> obtenerEstadisticas() {
         try {
-            List<clsDTOAuditoriaReserva> todasAuditorias = auditoriaReservaService.obtenerTodasAuditorias();
-            
-            // Calcular estadísticas básicas
-            long totalRegistros = todasAuditorias.size();
-            long cambiosAprobacion = todasAuditorias.stream()
-                .filter(a -> "Aprobada".equals(a.getEstadoNuevo()))
-                .count();
-            long cambiosCancelacion = todasAuditorias.stream()
-                .filter(a -> "Cancelado".equals(a.getEstadoNuevo()))
-                .count();
-            
-            // Puedes agregar más estadísticas según necesites
-            
-            return ResponseEntity.ok().body(
-                "{\"totalRegistros\": " + totalRegistros + 
-                ", \"cambiosAprobacion\": " + cambiosAprobacion + 
-                ", \"cambiosCancelacion\": " + cambiosCancelacion + "}"
-            );
+            // Totales materializados por día y estado; no se reagrega la tabla en cada carga del panel
+            return responderEstadisticas(auditoriaReservaService.obtenerEstadisticas());
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().build();
+        }
+    }
+
+    // Reconstruye las estadísticas materializadas (por ejemplo, tras cargas directas en la base)
+    @PostMapping("/estadisticas/recalcular")
+    public ResponseEntity<?> recalcularEstadisticas(
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        try {
+            return responderEstadisticas(auditoriaReservaService.recalcularEstadisticas());
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
     }
-}
\ No newline at end of file
+
+    private ResponseEntity<?> responderEstadisticas(Map<String, Object> estadisticas) {
+        long totalRegistros = ((Number) estadisticas.get("total")).longValue();
+        long cambiosAprobacion = ((Number) estadisticas.get("aprobadas")).longValue();
+        long cambiosCancelacion = ((Number) estadisticas.get("canceladas")).longValue();
+
+        return ResponseEntity.ok().body(
+            "{\"totalRegistros\": " + totalRegistros +
+            ", \"cambiosAprobacion\": " + cambiosAprobacion +
+            ", \"cambiosCancelacion\": " + cambiosCancelacion + "}"
+        );
+    }
+
+    private ResponseEntity<List<clsDTOAuditoriaReserva>> responderPagina(clsDTOPaginaCursor<clsDTOAuditoriaReserva> pagina) {
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            respuesta.header(clsDTOPaginaCursor.HEADER_SIGUIENTE_CURSOR, pagina.getSiguienteCursor());
+        }
+        return respuesta.body(pagina.getElementos());
+    }
+}
@@ -6,10 +6,12 @@ import com.integraupt.dto.clsDTOLogoutRequest;
 import com.integraupt.dto.clsDTOLogoutResponse;
 import com.integraupt.servicio.clsServicioAuth;
 import jakarta.validation.Valid;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -33,8 +35,13 @@ public class clsControladorAuth {
         return ResponseEntity.status(status).body(response);
     }
     @PostMapping("/logout")
-    public ResponseEntity<clsDTOLogoutResponse> logout(@Valid @RequestBody clsDTOLogoutRequest request) {
-        clsDTOLogoutResponse response = servicioAuth.cerrarSesion(request);
+    public ResponseEntity<clsDTOLogoutResponse> logout(
+            @RequestBody(required = false) clsDTOLogoutRequest request,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String autorizacion) {
+        String token = autorizacion != null && autorizacion.startsWith("Bearer ")
+                ? autorizacion.substring("Bearer ".length()).trim()
+                : null;
+        clsDTOLogoutResponse response = servicioAuth.cerrarSesion(request, token);
         HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
         return ResponseEntity.status(status).body(response);
     }
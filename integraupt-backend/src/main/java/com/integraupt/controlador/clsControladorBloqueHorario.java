@@ -1,22 +1,31 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOBloqueHorario;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.servicio.clsServicioCatalogos;
+import com.integraupt.servicio.clsServicioDisponibilidad;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/bloques-horarios")
 public class clsControladorBloqueHorario {
 
     private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
 
-    public clsControladorBloqueHorario(clsServicioCatalogos servicioCatalogos) {
+    public clsControladorBloqueHorario(clsServicioCatalogos servicioCatalogos,
+                                       clsServicioDisponibilidad servicioDisponibilidad) {
         this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
     }
 
     @GetMapping
@@ -24,4 +33,17 @@ public class clsControladorBloqueHorario {
         List<clsDTOBloqueHorario> bloques = servicioCatalogos.obtenerBloquesHorariosOrdenados();
         return ResponseEntity.ok(bloques);
     }
-}
\ No newline at end of file
+
+    /**
+     * Invalida el catálogo en memoria tras modificar los bloques directamente en la base de datos.
+     * También refresca la copia de bloques del motor de disponibilidad, que valida las reservas.
+     */
+    @PostMapping("/cache/invalidar")
+    public ResponseEntity<Map<String, Long>> invalidarCache(
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        servicioCatalogos.invalidar();
+        servicioDisponibilidad.recargarBloques();
+        return ResponseEntity.ok(Map.of("version", servicioCatalogos.obtenerVersion()));
+    }
+}
@@ -1,10 +1,16 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOEspacioRequest;
 import com.integraupt.dto.clsDTOEspacioResponse;
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.dto.clsDTOResultadoBusquedaEspacio;
 import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.servicio.clsServicioBusquedaEspacios;
 import com.integraupt.servicio.clsServicioEspacio;
+import com.integraupt.servicio.clsServicioIndiceEspacios;
 import jakarta.validation.Valid;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 
@@ -14,11 +20,13 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Map;
 
@@ -31,9 +39,14 @@ import java.util.Map;
 public class clsControladorEspacio {
 
     private final clsServicioEspacio servicioEspacio;
+    private final clsServicioBusquedaEspacios servicioBusqueda;
+    private final clsServicioIndiceEspacios indiceEspacios;
 
-    public clsControladorEspacio(clsServicioEspacio servicioEspacio) {
+    public clsControladorEspacio(clsServicioEspacio servicioEspacio, clsServicioBusquedaEspacios servicioBusqueda,
+                                 clsServicioIndiceEspacios indiceEspacios) {
         this.servicioEspacio = servicioEspacio;
+        this.servicioBusqueda = servicioBusqueda;
+        this.indiceEspacios = indiceEspacios;
     }
 
     /**
@@ -69,7 +82,9 @@ public class clsControladorEspacio {
      * Crear nuevo espacio
      */
     @PostMapping
-    public ResponseEntity<clsDTOEspacioResponse> crearEspacio(@Valid @RequestBody clsDTOEspacioRequest request) {
+    public ResponseEntity<clsDTOEspacioResponse> crearEspacio(@Valid @RequestBody clsDTOEspacioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOEspacioResponse response = servicioEspacio.crearEspacio(request);
             HttpStatus status = response.isSuccess() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
@@ -86,7 +101,9 @@ public class clsControladorEspacio {
     @PutMapping("/{id}")
     public ResponseEntity<clsDTOEspacioResponse> actualizarEspacio(
             @PathVariable Integer id, 
-            @Valid @RequestBody clsDTOEspacioRequest request) {
+            @Valid @RequestBody clsDTOEspacioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOEspacioResponse response = servicioEspacio.actualizarEspacio(id, request);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
@@ -101,7 +118,9 @@ public class clsControladorEspacio {
      * Eliminar espacio
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<clsDTOEspacioResponse> eliminarEspacio(@PathVariable Integer id) {
+    public ResponseEntity<clsDTOEspacioResponse> eliminarEspacio(@PathVariable Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOEspacioResponse response = servicioEspacio.eliminarEspacio(id);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND;
@@ -140,6 +159,37 @@ public class clsControladorEspacio {
         }
     }
 
+    /**
+     * Espacios activos libres en todos los bloques indicados para la fecha (o rango de fechas),
+     * ordenados de menor a mayor capacidad
+     */
+    @GetMapping("/libres")
+    public List<clsDTOEspacioResponse.EspacioDTO> buscarEspaciosLibres(
+            @RequestParam("fecha") @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fecha,
+            @RequestParam(value = "fechaFin", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam("bloques") List<Integer> bloques,
+            @RequestParam(value = "tipo", required = false) clsEntidadEspacio.TipoEspacio tipo,
+            @RequestParam(value = "capacidadMinima", required = false) Integer capacidadMinima,
+            @RequestParam(value = "equipamiento", required = false) List<String> equipamiento,
+            @RequestParam(value = "escuelaId", required = false) Integer escuelaId,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        return servicioBusqueda.buscar(new clsServicioBusquedaEspacios.Criterios(
+                fecha, fechaFin, bloques, tipo, capacidadMinima, equipamiento, escuelaId, limite));
+    }
+
+    /**
+     * Búsqueda de texto en nombre, código, ubicación y equipamiento ("proyector", "lab pcs"),
+     * ordenada por relevancia
+     */
+    @GetMapping("/busqueda-texto")
+    public List<clsDTOResultadoBusquedaEspacio> buscarEspaciosPorTexto(
+            @RequestParam("q") String consulta,
+            @RequestParam(value = "soloActivos", defaultValue = "true") boolean soloActivos,
+            @RequestParam(value = "limite", required = false) Integer limite) {
+        return indiceEspacios.buscar(consulta, soloActivos, limite);
+    }
+
     /**
      * Endpoint de salud del servicio
      */
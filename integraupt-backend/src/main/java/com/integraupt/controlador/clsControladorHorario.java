@@ -1,7 +1,9 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOHorarioRequest;
 import com.integraupt.dto.clsDTOHorarioResponse;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.servicio.clsServicioHorario;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
@@ -56,7 +58,9 @@ public class clsControladorHorario {
      * Crear nuevo horario
      */
     @PostMapping
-    public ResponseEntity<clsDTOHorarioResponse> crearHorario(@Valid @RequestBody clsDTOHorarioRequest request) {
+    public ResponseEntity<clsDTOHorarioResponse> crearHorario(@Valid @RequestBody clsDTOHorarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOHorarioResponse response = servicioHorario.crearHorario(request);
             HttpStatus status = response.isSuccess() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
@@ -73,7 +77,9 @@ public class clsControladorHorario {
     @PutMapping("/{id}")
     public ResponseEntity<clsDTOHorarioResponse> actualizarHorario(
             @PathVariable Integer id, 
-            @Valid @RequestBody clsDTOHorarioRequest request) {
+            @Valid @RequestBody clsDTOHorarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOHorarioResponse response = servicioHorario.actualizarHorario(id, request);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
@@ -88,7 +94,9 @@ public class clsControladorHorario {
      * Eliminar horario
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<clsDTOHorarioResponse> eliminarHorario(@PathVariable Integer id) {
+    public ResponseEntity<clsDTOHorarioResponse> eliminarHorario(@PathVariable Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOHorarioResponse response = servicioHorario.eliminarHorario(id);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND;
@@ -175,7 +183,9 @@ public class clsControladorHorario {
     @PatchMapping("/{id}/ocupacion")
     public ResponseEntity<clsDTOHorarioResponse> actualizarOcupacion(
             @PathVariable Integer id, 
-            @RequestBody Map<String, Boolean> request) {
+            @RequestBody Map<String, Boolean> request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             Boolean ocupado = request.get("ocupado");
             if (ocupado == null) {
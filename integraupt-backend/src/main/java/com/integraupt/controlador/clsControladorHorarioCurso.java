@@ -1,14 +1,19 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOCursoHorarioRequest;
 import com.integraupt.dto.clsDTOCursoHorarioResponse;
+import com.integraupt.dto.clsDTOImportacionHorarioCursoResponse;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.servicio.clsServicioHorarioCurso;
+import com.integraupt.servicio.clsServicioImportacionHorarioCurso;
 
 import jakarta.validation.Valid;
 
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
 
 import java.util.List;
 
@@ -17,9 +22,12 @@ import java.util.List;
 public class clsControladorHorarioCurso {
 
     private final clsServicioHorarioCurso servicioHorarioCurso;
+    private final clsServicioImportacionHorarioCurso servicioImportacion;
 
-    public clsControladorHorarioCurso(clsServicioHorarioCurso servicioHorarioCurso) {
+    public clsControladorHorarioCurso(clsServicioHorarioCurso servicioHorarioCurso,
+                                      clsServicioImportacionHorarioCurso servicioImportacion) {
         this.servicioHorarioCurso = servicioHorarioCurso;
+        this.servicioImportacion = servicioImportacion;
     }
 
     @GetMapping
@@ -48,7 +56,9 @@ public class clsControladorHorarioCurso {
     // CRUD
     @PostMapping
     public ResponseEntity<clsDTOCursoHorarioResponse> crearHorarioCurso(
-            @Valid @RequestBody clsDTOCursoHorarioRequest request) {
+            @Valid @RequestBody clsDTOCursoHorarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOCursoHorarioResponse response = servicioHorarioCurso.crearHorarioCurso(request);
             HttpStatus status = response.isSuccess() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
@@ -62,7 +72,9 @@ public class clsControladorHorarioCurso {
     @PutMapping("/{id}")
     public ResponseEntity<clsDTOCursoHorarioResponse> actualizarHorarioCurso(
             @PathVariable Integer id, 
-            @Valid @RequestBody clsDTOCursoHorarioRequest request) {
+            @Valid @RequestBody clsDTOCursoHorarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOCursoHorarioResponse response = servicioHorarioCurso.actualizarHorarioCurso(id, request);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
@@ -74,7 +86,9 @@ public class clsControladorHorarioCurso {
     }
 
     @DeleteMapping("/{id}")
-    public ResponseEntity<clsDTOCursoHorarioResponse> eliminarHorarioCurso(@PathVariable Integer id) {
+    public ResponseEntity<clsDTOCursoHorarioResponse> eliminarHorarioCurso(@PathVariable Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOCursoHorarioResponse response = servicioHorarioCurso.eliminarHorarioCurso(id);
             HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND;
@@ -85,6 +99,28 @@ public class clsControladorHorarioCurso {
         }
     }
 
+    // Importación masiva (CSV o XLSX); con parcial=true se importan las filas válidas aunque otras fallen
+    @PostMapping(value = "/importar", consumes = "multipart/form-data")
+    public ResponseEntity<clsDTOImportacionHorarioCursoResponse> importarHorariosCursos(
+            @RequestParam("archivo") MultipartFile archivo,
+            @RequestParam(value = "parcial", defaultValue = "false") boolean parcial,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        if (archivo.isEmpty()) {
+            return ResponseEntity.badRequest()
+                    .body(clsDTOImportacionHorarioCursoResponse.error("Debe adjuntar un archivo .csv o .xlsx"));
+        }
+        try (var contenido = archivo.getInputStream()) {
+            clsDTOImportacionHorarioCursoResponse response =
+                    servicioImportacion.importar(archivo.getOriginalFilename(), contenido, parcial);
+            HttpStatus status = response.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
+            return ResponseEntity.status(status).body(response);
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
+                    .body(clsDTOImportacionHorarioCursoResponse.error("Error al importar los horarios de curso: " + e.getMessage()));
+        }
+    }
+
     @GetMapping("/health")
     public ResponseEntity<String> healthCheck() {
         return ResponseEntity.ok("Servicio de Horarios de Cursos - OK");
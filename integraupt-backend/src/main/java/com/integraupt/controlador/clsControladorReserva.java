@@ -1,17 +1,32 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
 import com.integraupt.dto.clsDTOActualizarEstadoReserva;
+import com.integraupt.dto.clsDTOPaginaCursor;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.dto.clsDTOReserva;
+import com.integraupt.dto.clsDTOReservaLoteRequest;
+import com.integraupt.dto.clsDTOReservaLoteResponse;
+import com.integraupt.dto.clsDTOReservaSerieRequest;
+import com.integraupt.dto.clsDTOReservaSerieResponse;
 import com.integraupt.dto.clsDTOReservaUsuarioRequest;
+import com.integraupt.servicio.clsServicioDisponibilidad;
 import com.integraupt.servicio.clsServicioReserva;
+import com.integraupt.servicio.clsServicioReservaLote;
+import com.integraupt.servicio.clsServicioReservaSerie;
 import jakarta.validation.Valid;
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -23,35 +38,107 @@ import org.springframework.web.bind.annotation.RestController;
  */
 @RestController
 @RequestMapping("/api/reservas")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = clsDTOPaginaCursor.HEADER_SIGUIENTE_CURSOR)
 public class clsControladorReserva {
 
     private final clsServicioReserva servicioReserva;
+    private final clsServicioReservaLote servicioReservaLote;
+    private final clsServicioReservaSerie servicioReservaSerie;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
 
-    public clsControladorReserva(clsServicioReserva servicioReserva) {
+    public clsControladorReserva(clsServicioReserva servicioReserva, clsServicioReservaLote servicioReservaLote,
+                                 clsServicioReservaSerie servicioReservaSerie,
+                                 clsServicioDisponibilidad servicioDisponibilidad) {
         this.servicioReserva = servicioReserva;
+        this.servicioReservaLote = servicioReservaLote;
+        this.servicioReservaSerie = servicioReservaSerie;
+        this.servicioDisponibilidad = servicioDisponibilidad;
     }
 
+    /**
+     * Lista reservas paginadas por cursor; el cursor de la página siguiente viaja en el header X-Siguiente-Cursor.
+     */
     @GetMapping
-    public List<clsDTOReserva> listarPorEstado(@RequestParam(value = "estado", required = false) String estado) {
-        return servicioReserva.obtenerReservasPorEstado(estado);
+    public ResponseEntity<List<clsDTOReserva>> listarPorEstado(
+            @RequestParam(value = "estado", required = false) String estado,
+            @RequestParam(value = "espacioId", required = false) Integer espacioId,
+            @RequestParam(value = "bloqueId", required = false) Integer bloqueId,
+            @RequestParam(value = "usuarioId", required = false) Integer usuarioId,
+            @RequestParam(value = "fechaInicio", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaInicio,
+            @RequestParam(value = "fechaFin", required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate fechaFin,
+            @RequestParam(value = "cursor", required = false) String cursor,
+            @RequestParam(value = "tamano", required = false) Integer tamano) {
+        clsDTOPaginaCursor<clsDTOReserva> pagina = servicioReserva.obtenerPaginaReservas(
+                estado, espacioId, bloqueId, usuarioId, fechaInicio, fechaFin, cursor, tamano);
+        ResponseEntity.BodyBuilder respuesta = ResponseEntity.ok();
+        if (pagina.getSiguienteCursor() != null) {
+            respuesta.header(clsDTOPaginaCursor.HEADER_SIGUIENTE_CURSOR, pagina.getSiguienteCursor());
+        }
+        return respuesta.body(pagina.getElementos());
     }
 
     @PostMapping
     @ResponseStatus(HttpStatus.CREATED)
-    public clsDTOReserva crear(@Valid @RequestBody clsDTOReservaUsuarioRequest request) {
+    public clsDTOReserva crear(@Valid @RequestBody clsDTOReservaUsuarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirPropioOAdministrador(principal, request.getUsuario());
         return servicioReserva.crearReservaUsuario(request);
     }
 
+    /**
+     * Crea una serie recurrente; con omitirConflictos=false responde 409 si alguna fecha está ocupada.
+     */
+    @PostMapping("/serie")
+    @ResponseStatus(HttpStatus.CREATED)
+    public clsDTOReservaSerieResponse crearSerie(@Valid @RequestBody clsDTOReservaSerieRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirPropioOAdministrador(principal, request.getUsuario());
+        return servicioReservaSerie.crearSerie(request);
+    }
+
     @PutMapping("/{id}/aprobar")
-    public clsDTOReserva aprobar(@PathVariable("id") Integer id) {
+    public clsDTOReserva aprobar(@PathVariable("id") Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         return servicioReserva.aprobarReserva(id);
     }
 
     @PutMapping("/{id}/rechazar")
     @ResponseStatus(HttpStatus.OK)
     public clsDTOReserva rechazar(@PathVariable("id") Integer id,
-                                  @Valid @RequestBody clsDTOActualizarEstadoReserva dto) {
+                                  @Valid @RequestBody clsDTOActualizarEstadoReserva dto,
+                                  @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         return servicioReserva.rechazarReserva(id, dto.getMotivo());
     }
-}
\ No newline at end of file
+
+    /**
+     * Aprueba varias reservas en una transacción; el resultado detalla cada una.
+     */
+    @PutMapping("/lote/aprobar")
+    public clsDTOReservaLoteResponse aprobarLote(@Valid @RequestBody clsDTOReservaLoteRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        return servicioReservaLote.aprobar(request.getIds(), principal.getUsuarioId());
+    }
+
+    @PutMapping("/lote/rechazar")
+    public clsDTOReservaLoteResponse rechazarLote(@Valid @RequestBody clsDTOReservaLoteRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        return servicioReservaLote.rechazar(request.getIds(), request.getMotivo(), principal.getUsuarioId());
+    }
+
+    /**
+     * Recarga el motor de disponibilidad tras cambiar horarios, cursos o reservas directamente en la base.
+     */
+    @PostMapping("/disponibilidad/recargar")
+    public ResponseEntity<Map<String, Boolean>> recargarDisponibilidad(
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
+        servicioDisponibilidad.recargar();
+        return ResponseEntity.ok(Map.of("cargado", servicioDisponibilidad.estaCargado()));
+    }
+}
@@ -1,8 +1,10 @@
 package com.integraupt.controlador;
 
+import com.integraupt.config.clsFiltroToken;
+import com.integraupt.dto.clsDTOPrincipal;
 import com.integraupt.dto.clsDTOUsuarioRequest;
-import com.integraupt.dto.clsDTOUsuarioResponse;
 import com.integraupt.dto.clsDTOUsuarioResponse.UsuarioDTO;
+import com.integraupt.dto.clsDTOUsuarioResponse;
 import com.integraupt.servicio.clsServicioUsuario;
 import jakarta.validation.Valid;
 import java.util.List;
@@ -13,6 +15,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
+import org.springframework.web.bind.annotation.RequestAttribute;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
@@ -34,7 +37,9 @@ public class clsControladorUsuario {
      * Obtener todos los usuarios.
      */
     @GetMapping
-    public ResponseEntity<List<UsuarioDTO>> listarUsuarios() {
+    public ResponseEntity<List<UsuarioDTO>> listarUsuarios(
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             List<UsuarioDTO> usuarios = servicioUsuario.listarUsuarios();
             return ResponseEntity.ok(usuarios);
@@ -47,7 +52,9 @@ public class clsControladorUsuario {
      * Obtener usuario por ID.
      */
     @GetMapping("/{id}")
-    public ResponseEntity<clsDTOUsuarioResponse> obtenerUsuarioPorId(@PathVariable Integer id) {
+    public ResponseEntity<clsDTOUsuarioResponse> obtenerUsuarioPorId(@PathVariable Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirPropioOAdministrador(principal, id);
         try {
             clsDTOUsuarioResponse respuesta = servicioUsuario.obtenerUsuarioPorId(id);
             HttpStatus status = respuesta.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND;
@@ -62,7 +69,9 @@ public class clsControladorUsuario {
      * Crear un nuevo usuario.
      */
     @PostMapping
-    public ResponseEntity<clsDTOUsuarioResponse> crearUsuario(@Valid @RequestBody clsDTOUsuarioRequest request) {
+    public ResponseEntity<clsDTOUsuarioResponse> crearUsuario(@Valid @RequestBody clsDTOUsuarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOUsuarioResponse respuesta = servicioUsuario.crearUsuario(request);
             HttpStatus status = respuesta.isSuccess() ? HttpStatus.CREATED : HttpStatus.BAD_REQUEST;
@@ -79,7 +88,9 @@ public class clsControladorUsuario {
     @PutMapping("/{id}")
     public ResponseEntity<clsDTOUsuarioResponse> actualizarUsuario(
             @PathVariable Integer id,
-            @Valid @RequestBody clsDTOUsuarioRequest request) {
+            @Valid @RequestBody clsDTOUsuarioRequest request,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOUsuarioResponse respuesta = servicioUsuario.actualizarUsuario(id, request);
             HttpStatus status = respuesta.isSuccess() ? HttpStatus.OK : HttpStatus.BAD_REQUEST;
@@ -94,7 +105,9 @@ public class clsControladorUsuario {
      * Eliminar un usuario.
      */
     @DeleteMapping("/{id}")
-    public ResponseEntity<clsDTOUsuarioResponse> eliminarUsuario(@PathVariable Integer id) {
+    public ResponseEntity<clsDTOUsuarioResponse> eliminarUsuario(@PathVariable Integer id,
+            @RequestAttribute(value = clsFiltroToken.ATRIBUTO_PRINCIPAL, required = false) clsDTOPrincipal principal) {
+        clsUtilAutorizacion.exigirAdministrador(principal);
         try {
             clsDTOUsuarioResponse respuesta = servicioUsuario.eliminarUsuario(id);
             HttpStatus status = respuesta.isSuccess() ? HttpStatus.OK : HttpStatus.NOT_FOUND;
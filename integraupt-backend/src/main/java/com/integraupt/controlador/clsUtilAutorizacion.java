@@ -0,0 +1,38 @@
+package com.integraupt.controlador;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import java.util.Objects;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Reglas de autorización sobre el principal que deja el filtro de tokens.
+ *
+ * Un principal nulo significa que la petición llegó sin token (app.security.token.obligatorio=false);
+ * estos endpoints no se abren a anónimos en ningún modo y responden 401.
+ */
+final class clsUtilAutorizacion {
+
+    private clsUtilAutorizacion() {
+    }
+
+    static void exigirAdministrador(clsDTOPrincipal principal) {
+        exigirAutenticado(principal);
+        if (!principal.esAdministrador()) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "Operación reservada a administradores");
+        }
+    }
+
+    static void exigirPropioOAdministrador(clsDTOPrincipal principal, Integer usuarioId) {
+        exigirAutenticado(principal);
+        if (!principal.esAdministrador() && !Objects.equals(principal.getUsuarioId(), usuarioId)) {
+            throw new ResponseStatusException(HttpStatus.FORBIDDEN, "No puede operar en nombre de otro usuario");
+        }
+    }
+
+    private static void exigirAutenticado(clsDTOPrincipal principal) {
+        if (principal == null) {
+            throw new ResponseStatusException(HttpStatus.UNAUTHORIZED, "Debe iniciar sesión");
+        }
+    }
+}
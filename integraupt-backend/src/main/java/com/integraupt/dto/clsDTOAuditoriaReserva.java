@@ -26,6 +26,21 @@ public class clsDTOAuditoriaReserva {
         this.usuarioCambio = usuarioCambio;
     }
 
+    // Constructor para la proyección completa (auditoría + reserva + solicitante + usuario del cambio)
+    public clsDTOAuditoriaReserva(Integer idAudit, Integer idReserva, String estadoAnterior,
+                                 String estadoNuevo, LocalDateTime fechaCambio, Integer usuarioCambio,
+                                 String nombresUsuario, String apellidosUsuario, String espacioReserva,
+                                 String nombreSolicitante, String apellidoSolicitante) {
+        this(idAudit, idReserva, estadoAnterior, estadoNuevo, fechaCambio, usuarioCambio);
+        this.nombreUsuario = nombresUsuario != null
+                ? nombresUsuario + " " + apellidosUsuario
+                : "Usuario " + usuarioCambio;
+        this.espacioReserva = espacioReserva;
+        if (nombreSolicitante != null) {
+            this.solicitanteReserva = nombreSolicitante + " " + apellidoSolicitante;
+        }
+    }
+
     // Getters y Setters
     public Integer getIdAudit() { return idAudit; }
     public void setIdAudit(Integer idAudit) { this.idAudit = idAudit; }
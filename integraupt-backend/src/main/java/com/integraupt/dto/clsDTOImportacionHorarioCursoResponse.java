@@ -0,0 +1,64 @@
+package com.integraupt.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de la importación masiva de horarios de curso.
+ */
+public class clsDTOImportacionHorarioCursoResponse {
+
+    private boolean success;
+    private String message;
+    private int filasLeidas;
+    private int importadas;
+    private List<ErrorFilaDTO> errores;
+
+    public clsDTOImportacionHorarioCursoResponse() {}
+
+    public clsDTOImportacionHorarioCursoResponse(boolean success, String message, int filasLeidas, int importadas,
+                                                 List<ErrorFilaDTO> errores) {
+        this.success = success;
+        this.message = message;
+        this.filasLeidas = filasLeidas;
+        this.importadas = importadas;
+        this.errores = errores;
+    }
+
+    public static clsDTOImportacionHorarioCursoResponse error(String message) {
+        return new clsDTOImportacionHorarioCursoResponse(false, message, 0, 0, List.of());
+    }
+
+    public boolean isSuccess() { return success; }
+    public void setSuccess(boolean success) { this.success = success; }
+
+    public String getMessage() { return message; }
+    public void setMessage(String message) { this.message = message; }
+
+    public int getFilasLeidas() { return filasLeidas; }
+    public void setFilasLeidas(int filasLeidas) { this.filasLeidas = filasLeidas; }
+
+    public int getImportadas() { return importadas; }
+    public void setImportadas(int importadas) { this.importadas = importadas; }
+
+    public List<ErrorFilaDTO> getErrores() { return errores; }
+    public void setErrores(List<ErrorFilaDTO> errores) { this.errores = errores; }
+
+    // Fila del archivo (1 = encabezado) que no se pudo importar
+    public static class ErrorFilaDTO {
+        private int fila;
+        private String mensaje;
+
+        public ErrorFilaDTO() {}
+
+        public ErrorFilaDTO(int fila, String mensaje) {
+            this.fila = fila;
+            this.mensaje = mensaje;
+        }
+
+        public int getFila() { return fila; }
+        public void setFila(int fila) { this.fila = fila; }
+
+        public String getMensaje() { return mensaje; }
+        public void setMensaje(String mensaje) { this.mensaje = mensaje; }
+    }
+}
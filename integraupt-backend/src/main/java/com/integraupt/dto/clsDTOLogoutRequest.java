@@ -1,13 +1,11 @@
 package com.integraupt.dto;
 
-import jakarta.validation.constraints.NotNull;
-
 /**
- * DTO para recibir la solicitud de cierre de sesión.
+ * DTO para recibir la solicitud de cierre de sesión. La sesión a cerrar la indica el token;
+ * usuarioId es opcional y solo se contrasta con él.
  */
 public class clsDTOLogoutRequest {
 
-    @NotNull(message = "El identificador del usuario es obligatorio")
     private Integer usuarioId;
 
     public clsDTOLogoutRequest() {
@@ -0,0 +1,26 @@
+package com.integraupt.dto;
+
+import java.util.List;
+
+/**
+ * Página de resultados con el cursor opaco para solicitar la siguiente (null si no hay más).
+ */
+public class clsDTOPaginaCursor<T> {
+
+    // Header con el cursor de la página siguiente en los listados que responden un arreglo JSON
+    public static final String HEADER_SIGUIENTE_CURSOR = "X-Siguiente-Cursor";
+
+    private final List<T> elementos;
+    private final String siguienteCursor;
+
+    public clsDTOPaginaCursor(List<T> elementos, String siguienteCursor) {
+        this.elementos = elementos;
+        this.siguienteCursor = siguienteCursor;
+    }
+
+    public List<T> getElementos() { return elementos; }
+
+    public String getSiguienteCursor() { return siguienteCursor; }
+
+    public boolean isTieneMas() { return siguienteCursor != null; }
+}
@@ -0,0 +1,39 @@
+package com.integraupt.dto;
+
+/**
+ * Usuario autenticado de la petición, resuelto a partir del token de sesión.
+ */
+public final class clsDTOPrincipal {
+
+    public static final int ROL_PROFESOR = 1;
+    public static final int ROL_ESTUDIANTE = 2;
+    public static final int ROL_ADMINISTRADOR = 3;
+
+    private final Integer usuarioId;
+    private final String codigo;
+    private final Integer rolId;
+    private final Integer facultadId;
+    private final Integer escuelaId;
+
+    public clsDTOPrincipal(Integer usuarioId, String codigo, Integer rolId, Integer facultadId, Integer escuelaId) {
+        this.usuarioId = usuarioId;
+        this.codigo = codigo;
+        this.rolId = rolId;
+        this.facultadId = facultadId;
+        this.escuelaId = escuelaId;
+    }
+
+    public Integer getUsuarioId() { return usuarioId; }
+
+    public String getCodigo() { return codigo; }
+
+    public Integer getRolId() { return rolId; }
+
+    public Integer getFacultadId() { return facultadId; }
+
+    public Integer getEscuelaId() { return escuelaId; }
+
+    public boolean esAdministrador() {
+        return rolId != null && rolId == ROL_ADMINISTRADOR;
+    }
+}
@@ -0,0 +1,58 @@
+package com.integraupt.dto;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * DTO de solo lectura con el detalle de una reserva para las exportaciones.
+ */
+public class clsDTOReservaDetalle {
+
+    private final Integer idReserva;
+    private final String estado;
+    private final LocalDate fechaReserva;
+    private final LocalDateTime fechaSolicitud;
+    private final String solicitante;
+    private final String codigoSolicitante;
+    private final String espacio;
+    private final String codigoEspacio;
+    private final String bloque;
+    private final String descripcion;
+
+    public clsDTOReservaDetalle(Integer idReserva, String estado, LocalDate fechaReserva,
+                                LocalDateTime fechaSolicitud, String nombreSolicitante,
+                                String apellidoSolicitante, String codigoSolicitante, String espacio,
+                                String codigoEspacio, String bloque, String descripcion) {
+        this.idReserva = idReserva;
+        this.estado = estado;
+        this.fechaReserva = fechaReserva;
+        this.fechaSolicitud = fechaSolicitud;
+        this.solicitante = (nombreSolicitante != null ? nombreSolicitante.trim() : "")
+                + (apellidoSolicitante != null ? " " + apellidoSolicitante.trim() : "");
+        this.codigoSolicitante = codigoSolicitante;
+        this.espacio = espacio;
+        this.codigoEspacio = codigoEspacio;
+        this.bloque = bloque;
+        this.descripcion = descripcion;
+    }
+
+    public Integer getIdReserva() { return idReserva; }
+
+    public String getEstado() { return estado; }
+
+    public LocalDate getFechaReserva() { return fechaReserva; }
+
+    public LocalDateTime getFechaSolicitud() { return fechaSolicitud; }
+
+    public String getSolicitante() { return solicitante; }
+
+    public String getCodigoSolicitante() { return codigoSolicitante; }
+
+    public String getEspacio() { return espacio; }
+
+    public String getCodigoEspacio() { return codigoEspacio; }
+
+    public String getBloque() { return bloque; }
+
+    public String getDescripcion() { return descripcion; }
+}
@@ -0,0 +1,40 @@
+package com.integraupt.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO para aprobar o rechazar varias reservas en una sola solicitud.
+ */
+public class clsDTOReservaLoteRequest {
+
+    public static final int MAXIMO_RESERVAS = 500;
+
+    @NotEmpty(message = "Debe indicar al menos una reserva")
+    @Size(max = MAXIMO_RESERVAS, message = "No se pueden procesar más de 500 reservas por solicitud")
+    private List<@NotNull(message = "Los identificadores de reserva no pueden ser nulos") Integer> ids;
+
+    @Size(max = 255, message = "El motivo no debe exceder los 255 caracteres")
+    private String motivo;
+
+    public clsDTOReservaLoteRequest() {
+    }
+
+    public List<Integer> getIds() {
+        return ids;
+    }
+
+    public void setIds(List<Integer> ids) {
+        this.ids = ids;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+}
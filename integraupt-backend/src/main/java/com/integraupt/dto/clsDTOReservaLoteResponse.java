@@ -0,0 +1,72 @@
+package com.integraupt.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una aprobación o rechazo en lote, con el detalle de cada reserva.
+ */
+public class clsDTOReservaLoteResponse {
+
+    private int procesadas;
+    private int fallidas;
+    private List<ResultadoDTO> resultados;
+
+    public clsDTOReservaLoteResponse() {}
+
+    public clsDTOReservaLoteResponse(List<ResultadoDTO> resultados) {
+        this.resultados = resultados;
+        for (ResultadoDTO resultado : resultados) {
+            if (resultado.isExito()) {
+                procesadas++;
+            } else {
+                fallidas++;
+            }
+        }
+    }
+
+    public int getProcesadas() { return procesadas; }
+    public void setProcesadas(int procesadas) { this.procesadas = procesadas; }
+
+    public int getFallidas() { return fallidas; }
+    public void setFallidas(int fallidas) { this.fallidas = fallidas; }
+
+    public List<ResultadoDTO> getResultados() { return resultados; }
+    public void setResultados(List<ResultadoDTO> resultados) { this.resultados = resultados; }
+
+    // Resultado individual; estado es el estado final de la reserva cuando existe
+    public static class ResultadoDTO {
+        private Integer id;
+        private boolean exito;
+        private String estado;
+        private String mensaje;
+
+        public ResultadoDTO() {}
+
+        public ResultadoDTO(Integer id, boolean exito, String estado, String mensaje) {
+            this.id = id;
+            this.exito = exito;
+            this.estado = estado;
+            this.mensaje = mensaje;
+        }
+
+        public static ResultadoDTO exito(Integer id, String estado, String mensaje) {
+            return new ResultadoDTO(id, true, estado, mensaje);
+        }
+
+        public static ResultadoDTO error(Integer id, String estado, String mensaje) {
+            return new ResultadoDTO(id, false, estado, mensaje);
+        }
+
+        public Integer getId() { return id; }
+        public void setId(Integer id) { this.id = id; }
+
+        public boolean isExito() { return exito; }
+        public void setExito(boolean exito) { this.exito = exito; }
+
+        public String getEstado() { return estado; }
+        public void setEstado(String estado) { this.estado = estado; }
+
+        public String getMensaje() { return mensaje; }
+        public void setMensaje(String mensaje) { this.mensaje = mensaje; }
+    }
+}
@@ -0,0 +1,135 @@
+package com.integraupt.dto;
+
+import com.integraupt.entidad.clsEntidadHorario;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.util.List;
+
+/**
+ * DTO para solicitar una serie de reservas recurrentes (p. ej. todos los martes, bloque 3, durante el ciclo).
+ */
+public class clsDTOReservaSerieRequest {
+
+    @NotNull(message = "El identificador del usuario es obligatorio")
+    @Min(value = 1, message = "El identificador del usuario debe ser mayor a cero")
+    private Integer usuario;
+
+    @NotNull(message = "El identificador del espacio es obligatorio")
+    @Min(value = 1, message = "El identificador del espacio debe ser mayor a cero")
+    private Integer espacio;
+
+    @NotNull(message = "El identificador del bloque horario es obligatorio")
+    @Min(value = 1, message = "El identificador del bloque horario debe ser mayor a cero")
+    private Integer bloque;
+
+    @NotBlank(message = "La fecha de inicio es obligatoria")
+    private String fechaInicio;
+
+    @NotBlank(message = "La fecha de fin es obligatoria")
+    private String fechaFin;
+
+    @NotEmpty(message = "Debe indicar al menos un día de la semana")
+    private List<clsEntidadHorario.DiaSemana> dias;
+
+    // 1 = todas las semanas, 2 = semana por medio, ...
+    @Min(value = 1, message = "El intervalo debe ser de al menos una semana")
+    @Max(value = 4, message = "El intervalo no debe exceder las 4 semanas")
+    private Integer intervaloSemanas = 1;
+
+    @NotBlank(message = "La descripción de la reserva es obligatoria")
+    @Size(max = 255, message = "La descripción no debe exceder los 255 caracteres")
+    private String descripcion;
+
+    @Size(max = 255, message = "El motivo no debe exceder los 255 caracteres")
+    private String motivo;
+
+    // true: crea las fechas libres e informa las demás; false: si alguna fecha choca no se crea ninguna
+    private boolean omitirConflictos = true;
+
+    public clsDTOReservaSerieRequest() {
+    }
+
+    public Integer getUsuario() {
+        return usuario;
+    }
+
+    public void setUsuario(Integer usuario) {
+        this.usuario = usuario;
+    }
+
+    public Integer getEspacio() {
+        return espacio;
+    }
+
+    public void setEspacio(Integer espacio) {
+        this.espacio = espacio;
+    }
+
+    public Integer getBloque() {
+        return bloque;
+    }
+
+    public void setBloque(Integer bloque) {
+        this.bloque = bloque;
+    }
+
+    public String getFechaInicio() {
+        return fechaInicio;
+    }
+
+    public void setFechaInicio(String fechaInicio) {
+        this.fechaInicio = fechaInicio;
+    }
+
+    public String getFechaFin() {
+        return fechaFin;
+    }
+
+    public void setFechaFin(String fechaFin) {
+        this.fechaFin = fechaFin;
+    }
+
+    public List<clsEntidadHorario.DiaSemana> getDias() {
+        return dias;
+    }
+
+    public void setDias(List<clsEntidadHorario.DiaSemana> dias) {
+        this.dias = dias;
+    }
+
+    public Integer getIntervaloSemanas() {
+        return intervaloSemanas;
+    }
+
+    public void setIntervaloSemanas(Integer intervaloSemanas) {
+        this.intervaloSemanas = intervaloSemanas;
+    }
+
+    public String getDescripcion() {
+        return descripcion;
+    }
+
+    public void setDescripcion(String descripcion) {
+        this.descripcion = descripcion;
+    }
+
+    public String getMotivo() {
+        return motivo;
+    }
+
+    public void setMotivo(String motivo) {
+        this.motivo = motivo;
+    }
+
+    public boolean isOmitirConflictos() {
+        return omitirConflictos;
+    }
+
+    public void setOmitirConflictos(boolean omitirConflictos) {
+        this.omitirConflictos = omitirConflictos;
+    }
+}
@@ -0,0 +1,64 @@
+package com.integraupt.dto;
+
+import java.util.List;
+
+/**
+ * Resultado de una serie de reservas recurrentes, con el detalle de cada fecha.
+ */
+public class clsDTOReservaSerieResponse {
+
+    private int solicitadas;
+    private int creadas;
+    private int conflictos;
+    private List<OcurrenciaDTO> ocurrencias;
+
+    public clsDTOReservaSerieResponse() {}
+
+    public clsDTOReservaSerieResponse(List<OcurrenciaDTO> ocurrencias) {
+        this.ocurrencias = ocurrencias;
+        this.solicitadas = ocurrencias.size();
+        for (OcurrenciaDTO ocurrencia : ocurrencias) {
+            if (ocurrencia.getIdReserva() != null) {
+                creadas++;
+            } else if (ocurrencia.getConflicto() != null) {
+                conflictos++;
+            }
+        }
+    }
+
+    public int getSolicitadas() { return solicitadas; }
+    public void setSolicitadas(int solicitadas) { this.solicitadas = solicitadas; }
+
+    public int getCreadas() { return creadas; }
+    public void setCreadas(int creadas) { this.creadas = creadas; }
+
+    public int getConflictos() { return conflictos; }
+    public void setConflictos(int conflictos) { this.conflictos = conflictos; }
+
+    public List<OcurrenciaDTO> getOcurrencias() { return ocurrencias; }
+    public void setOcurrencias(List<OcurrenciaDTO> ocurrencias) { this.ocurrencias = ocurrencias; }
+
+    // Una fecha de la serie: idReserva si se creó, o el tipo de conflicto (RESERVA, HORARIO, CURSO)
+    public static class OcurrenciaDTO {
+        private String fecha;
+        private Integer idReserva;
+        private String conflicto;
+
+        public OcurrenciaDTO() {}
+
+        public OcurrenciaDTO(String fecha, Integer idReserva, String conflicto) {
+            this.fecha = fecha;
+            this.idReserva = idReserva;
+            this.conflicto = conflicto;
+        }
+
+        public String getFecha() { return fecha; }
+        public void setFecha(String fecha) { this.fecha = fecha; }
+
+        public Integer getIdReserva() { return idReserva; }
+        public void setIdReserva(Integer idReserva) { this.idReserva = idReserva; }
+
+        public String getConflicto() { return conflicto; }
+        public void setConflicto(String conflicto) { this.conflicto = conflicto; }
+    }
+}
@@ -0,0 +1,23 @@
+package com.integraupt.dto;
+
+/**
+ * Espacio encontrado por la búsqueda de texto, con su puntaje de relevancia.
+ */
+public class clsDTOResultadoBusquedaEspacio {
+
+    private clsDTOEspacioResponse.EspacioDTO espacio;
+    private double puntaje;
+
+    public clsDTOResultadoBusquedaEspacio() {}
+
+    public clsDTOResultadoBusquedaEspacio(clsDTOEspacioResponse.EspacioDTO espacio, double puntaje) {
+        this.espacio = espacio;
+        this.puntaje = puntaje;
+    }
+
+    public clsDTOEspacioResponse.EspacioDTO getEspacio() { return espacio; }
+    public void setEspacio(clsDTOEspacioResponse.EspacioDTO espacio) { this.espacio = espacio; }
+
+    public double getPuntaje() { return puntaje; }
+    public void setPuntaje(double puntaje) { this.puntaje = puntaje; }
+}
@@ -2,16 +2,40 @@ package com.integraupt.repositorio;
 
 import com.integraupt.dto.clsDTOAuditoriaReserva;
 import com.integraupt.entidad.clsEntidadAuditoriaReserva;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
 
 @Repository
 public interface clsRepositorioAuditoriaReserva extends JpaRepository<clsEntidadAuditoriaReserva, Integer> {
+
+    // Proyección completa: auditoría, espacio y solicitante de la reserva, y usuario que hizo el cambio
+    String SELECT_AUDITORIA_COMPLETA = "SELECT new com.integraupt.dto.clsDTOAuditoriaReserva(" +
+           "a.idAudit, a.idReserva, a.estadoAnterior, a.estadoNuevo, a.fechaCambio, a.usuarioCambio, " +
+           "u.nombres, u.apellidos, e.nombre, s.nombre, s.apellido) " +
+           "FROM clsEntidadAuditoriaReserva a " +
+           "LEFT JOIN a.reserva r LEFT JOIN r.espacio e LEFT JOIN r.usuario s LEFT JOIN a.usuario u ";
+
+    String FILTROS_AUDITORIA = "WHERE " +
+           "(:idReserva IS NULL OR a.idReserva = :idReserva) AND " +
+           "(:usuarioCambio IS NULL OR a.usuarioCambio = :usuarioCambio) AND " +
+           "(:estadoAnterior IS NULL OR a.estadoAnterior = :estadoAnterior) AND " +
+           "(:estadoNuevo IS NULL OR a.estadoNuevo = :estadoNuevo) AND " +
+           "(:fechaInicio IS NULL OR a.fechaCambio >= :fechaInicio) AND " +
+           "(:fechaFin IS NULL OR a.fechaCambio <= :fechaFin) ";
+
+    // En orden descendente MySQL deja los NULL al final; el cursor de una fila sin fecha sigue solo por id
+    String ORDEN_AUDITORIA = "ORDER BY a.fechaCambio DESC, a.idAudit DESC";
     
     // Buscar por ID de reserva
     List<clsEntidadAuditoriaReserva> findByIdReserva(Integer idReserva);
@@ -70,12 +94,12 @@ public interface clsRepositorioAuditoriaReserva extends JpaRepository<clsEntidad
     @Query("SELECT a FROM clsEntidadAuditoriaReserva a WHERE a.fechaCambio >= :fechaInicio ORDER BY a.fechaCambio DESC")
     List<clsEntidadAuditoriaReserva> findRecentChanges(@Param("fechaInicio") LocalDateTime fechaInicio);
 
-    // Consulta para buscar por texto en estados
-    @Query("SELECT a FROM clsEntidadAuditoriaReserva a WHERE " +
-           "LOWER(a.estadoAnterior) LIKE LOWER(CONCAT('%', :texto, '%')) OR " +
-           "LOWER(a.estadoNuevo) LIKE LOWER(CONCAT('%', :texto, '%')) " +
-           "ORDER BY a.fechaCambio DESC")
-    List<clsEntidadAuditoriaReserva> findByTextoEnEstados(@Param("texto") String texto);
+    // Estados distintos presentes en la auditoría; con los índices por estado MySQL los lee sin recorrer la tabla
+    @Query("SELECT DISTINCT a.estadoNuevo FROM clsEntidadAuditoriaReserva a WHERE a.estadoNuevo IS NOT NULL")
+    List<String> findEstadosNuevosDistintos();
+
+    @Query("SELECT DISTINCT a.estadoAnterior FROM clsEntidadAuditoriaReserva a WHERE a.estadoAnterior IS NOT NULL")
+    List<String> findEstadosAnterioresDistintos();
 
     // Consulta para obtener estadísticas por día
     @Query("SELECT DATE(a.fechaCambio), COUNT(a) FROM clsEntidadAuditoriaReserva a " +
@@ -85,6 +109,15 @@ public interface clsRepositorioAuditoriaReserva extends JpaRepository<clsEntidad
     List<Object[]> findEstadisticasPorDia(@Param("fechaInicio") LocalDateTime fechaInicio, 
                                          @Param("fechaFin") LocalDateTime fechaFin);
 
+    // Mayor IdAudit de la tabla (null si está vacía); marca hasta dónde llegan las estadísticas materializadas
+    @Query("SELECT MAX(a.idAudit) FROM clsEntidadAuditoriaReserva a")
+    Integer findMaxIdAudit();
+
+    // Registros por día y estado nuevo con IdAudit en (desde, hasta]; carga completa (desde 0) y puesta al día
+    @Query("SELECT DATE(a.fechaCambio), a.estadoNuevo, COUNT(a) FROM clsEntidadAuditoriaReserva a " +
+           "WHERE a.idAudit > :desde AND a.idAudit <= :hasta GROUP BY DATE(a.fechaCambio), a.estadoNuevo")
+    List<Object[]> countPorDiaYEstadoNuevoEntre(@Param("desde") Integer desde, @Param("hasta") Integer hasta);
+
     // Consulta para obtener el último cambio de una reserva específica
     @Query("SELECT a FROM clsEntidadAuditoriaReserva a WHERE a.idReserva = :idReserva " +
            "ORDER BY a.fechaCambio DESC LIMIT 1")
@@ -124,10 +157,71 @@ public interface clsRepositorioAuditoriaReserva extends JpaRepository<clsEntidad
     @Query("SELECT DISTINCT a.usuarioCambio FROM clsEntidadAuditoriaReserva a ORDER BY a.usuarioCambio")
     List<Integer> findDistinctUsuarioCambio();
 
-    // Consulta para obtener el total de cambios por mes
+    // Total de cambios por mes en [fechaInicio, fechaFin); el rango directo sobre fechaCambio permite
+    // descartar particiones, cosa que YEAR(fechaCambio) = :año no permite
     @Query("SELECT MONTH(a.fechaCambio), COUNT(a) FROM clsEntidadAuditoriaReserva a " +
-           "WHERE YEAR(a.fechaCambio) = :año " +
+           "WHERE a.fechaCambio >= :fechaInicio AND a.fechaCambio < :fechaFin " +
            "GROUP BY MONTH(a.fechaCambio) " +
            "ORDER BY MONTH(a.fechaCambio)")
-    List<Object[]> findTotalPorMes(@Param("año") int año);
-}
\ No newline at end of file
+    List<Object[]> findTotalPorMes(@Param("fechaInicio") LocalDateTime fechaInicio,
+                                   @Param("fechaFin") LocalDateTime fechaFin);
+
+    // Auditorías de un rango [desde, hasta) en orden cronológico, leídas en streaming para exportaciones
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.integraupt.dto.clsDTOAuditoriaReserva(" +
+           "a.idAudit, a.idReserva, a.estadoAnterior, a.estadoNuevo, a.fechaCambio, a.usuarioCambio) " +
+           "FROM clsEntidadAuditoriaReserva a " +
+           "WHERE (:desde IS NULL OR a.fechaCambio >= :desde) AND (:hasta IS NULL OR a.fechaCambio < :hasta) " +
+           "ORDER BY a.fechaCambio, a.idAudit")
+    Stream<clsDTOAuditoriaReserva> streamAuditorias(@Param("desde") LocalDateTime desde,
+                                                    @Param("hasta") LocalDateTime hasta);
+
+    // Primera página de auditorías completas filtradas, en una sola consulta; paginadas por keyset sobre (fechaCambio, idAudit)
+    @Query(SELECT_AUDITORIA_COMPLETA + FILTROS_AUDITORIA + ORDEN_AUDITORIA)
+    List<clsDTOAuditoriaReserva> findAuditoriasCompletas(
+            @Param("idReserva") Integer idReserva,
+            @Param("usuarioCambio") Integer usuarioCambio,
+            @Param("estadoAnterior") String estadoAnterior,
+            @Param("estadoNuevo") String estadoNuevo,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin,
+            Pageable pageable);
+
+    // Página siguiente a un cursor con fecha: las filas anteriores en el orden y luego las que no tienen fecha
+    @Query(SELECT_AUDITORIA_COMPLETA + FILTROS_AUDITORIA +
+           "AND (a.fechaCambio < :cursorFecha OR (a.fechaCambio = :cursorFecha AND a.idAudit < :cursorId) " +
+           "OR a.fechaCambio IS NULL) " + ORDEN_AUDITORIA)
+    List<clsDTOAuditoriaReserva> findAuditoriasCompletasDesde(
+            @Param("idReserva") Integer idReserva,
+            @Param("usuarioCambio") Integer usuarioCambio,
+            @Param("estadoAnterior") String estadoAnterior,
+            @Param("estadoNuevo") String estadoNuevo,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin,
+            @Param("cursorFecha") LocalDateTime cursorFecha,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    // Página siguiente a un cursor sin fecha: quedan solo filas sin fecha con id menor
+    @Query(SELECT_AUDITORIA_COMPLETA + FILTROS_AUDITORIA +
+           "AND a.fechaCambio IS NULL AND a.idAudit < :cursorId " + ORDEN_AUDITORIA)
+    List<clsDTOAuditoriaReserva> findAuditoriasCompletasSinFechaDesde(
+            @Param("idReserva") Integer idReserva,
+            @Param("usuarioCambio") Integer usuarioCambio,
+            @Param("estadoAnterior") String estadoAnterior,
+            @Param("estadoNuevo") String estadoNuevo,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin,
+            @Param("cursorId") Integer cursorId,
+            Pageable pageable);
+
+    // Auditorías completas con alguno de los estados (anterior o nuevo), opcionalmente acotadas por fecha
+    @Query(SELECT_AUDITORIA_COMPLETA + "WHERE " +
+           "(a.estadoAnterior IN :estados OR a.estadoNuevo IN :estados) AND " +
+           "(:fechaInicio IS NULL OR a.fechaCambio >= :fechaInicio) AND " +
+           "(:fechaFin IS NULL OR a.fechaCambio <= :fechaFin) " + ORDEN_AUDITORIA)
+    List<clsDTOAuditoriaReserva> findAuditoriasCompletasPorEstados(
+            @Param("estados") Collection<String> estados,
+            @Param("fechaInicio") LocalDateTime fechaInicio,
+            @Param("fechaFin") LocalDateTime fechaFin);
+}
@@ -1,9 +1,15 @@
 package com.integraupt.repositorio;
 
 import com.integraupt.entidad.clsEntidadUsuario;
+import java.util.List;
 import java.util.Optional;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
 /**
  * Repositorio para acceder a los usuarios registrados.
@@ -14,4 +20,29 @@ public interface clsRepositorioAuth extends JpaRepository<clsEntidadUsuario, Int
 
     Optional<clsEntidadUsuario> findFirstByEmailIgnoreCase(String email);
 
+    /**
+     * Usuarios cuyo código o correo coincide con el identificador, en una sola consulta.
+     * La comparación sin mayúsculas la resuelve la collation _ci de las columnas, lo que permite
+     * usar los índices de CodigoU y CorreoU (ver db/usuario_login.sql).
+     */
+    @Query("SELECT u FROM clsEntidadUsuario u WHERE u.codigo = :identificador OR u.email = :identificador")
+    List<clsEntidadUsuario> findPorCodigoOEmail(@Param("identificador") String identificador);
+
+    /**
+     * Siguiente lote de contraseñas que no están en BCrypt, en orden de id: [id, password].
+     */
+    @Query("SELECT u.id, u.password FROM clsEntidadUsuario u "
+            + "WHERE u.id > :desde AND u.password NOT LIKE '$2%' ORDER BY u.id")
+    List<Object[]> findPasswordsSinBCrypt(@Param("desde") Integer desde, Pageable pagina);
+
+    /**
+     * Reemplaza la contraseña solo si no cambió desde que se leyó; devuelve 0 si el usuario la modificó antes.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE clsEntidadUsuario u SET u.password = :nueva WHERE u.id = :id AND u.password = :anterior")
+    int actualizarPasswordSiCoincide(@Param("id") Integer id,
+                                     @Param("anterior") String anterior,
+                                     @Param("nueva") String nueva);
+
 }
@@ -2,9 +2,11 @@ package com.integraupt.repositorio;
 
 import com.integraupt.entidad.clsEntidadEspacio;
 import org.springframework.data.jpa.repository.JpaRepository;
-// import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -38,4 +40,13 @@ public interface clsRepositorioEspacio extends JpaRepository<clsEntidadEspacio,
     // Buscar por escuela y estado
     List<clsEntidadEspacio> findByEscuelaIdAndEstado(Integer escuelaId, Integer estado);
 
+    // Id, nombre y código de varios espacios en una sola consulta IN
+    @Query("SELECT e.id, e.nombre, e.codigo FROM clsEntidadEspacio e WHERE e.id IN :ids")
+    List<Object[]> findNombreYCodigoByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Id y código de los espacios indicados por id o por código, en una sola consulta
+    @Query("SELECT e.id, e.codigo FROM clsEntidadEspacio e WHERE e.id IN :ids OR e.codigo IN :codigos")
+    List<Object[]> findIdYCodigoPorIdOCodigo(@Param("ids") Collection<Integer> ids,
+                                             @Param("codigos") Collection<String> codigos);
+
 }
\ No newline at end of file
@@ -6,6 +6,7 @@ import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -50,4 +51,13 @@ public interface clsRepositorioHorario extends JpaRepository<clsEntidadHorario,
     Integer countHorariosOcupadosByEspacio(@Param("espacioId") Integer espacioId);
 
     Long countByOcupado(Boolean ocupado);
+
+    // Días de la semana en que el espacio y bloque están ocupados por la grilla semanal
+    @Query("SELECT h.diaSemana FROM clsEntidadHorario h " +
+           "WHERE h.espacioId = :espacioId AND h.bloqueId = :bloqueId AND h.ocupado = true")
+    List<clsEntidadHorario.DiaSemana> findDiasOcupados(@Param("espacioId") Integer espacioId,
+                                                       @Param("bloqueId") Integer bloqueId);
+
+    // Horarios ocupados de varios espacios en una sola consulta IN
+    List<clsEntidadHorario> findByEspacioIdInAndOcupadoTrue(Collection<Integer> espacioIds);
 }
\ No newline at end of file
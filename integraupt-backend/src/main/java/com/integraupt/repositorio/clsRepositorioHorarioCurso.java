@@ -2,9 +2,12 @@ package com.integraupt.repositorio;
 
 import com.integraupt.entidad.clsEntidadHorarioCurso;
 import org.springframework.data.jpa.repository.JpaRepository;
-// import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -21,4 +24,28 @@ public interface clsRepositorioHorarioCurso extends JpaRepository<clsEntidadHora
     
     // Buscar por espacio
     List<clsEntidadHorarioCurso> findByEspacioId(Integer espacioId);
+
+    // Cursos activos en el espacio y bloque cuya vigencia se cruza con el rango indicado
+    @Query("SELECT c FROM clsEntidadHorarioCurso c WHERE c.espacioId = :espacioId AND c.bloqueId = :bloqueId " +
+           "AND c.estado = true AND c.fechaInicio <= :hasta AND c.fechaFin >= :desde")
+    List<clsEntidadHorarioCurso> findActivosEnRango(@Param("espacioId") Integer espacioId,
+                                                    @Param("bloqueId") Integer bloqueId,
+                                                    @Param("desde") LocalDate desde,
+                                                    @Param("hasta") LocalDate hasta);
+
+    // Cursos activos de los espacios indicados que se cruzan con el rango (búsqueda de espacios libres)
+    @Query("SELECT c FROM clsEntidadHorarioCurso c WHERE c.estado = true " +
+           "AND c.fechaInicio <= :hasta AND c.fechaFin >= :desde AND c.espacioId IN :espacios")
+    List<clsEntidadHorarioCurso> findActivosPorEspacios(@Param("espacios") Collection<Integer> espacios,
+                                                        @Param("desde") LocalDate desde,
+                                                        @Param("hasta") LocalDate hasta);
+
+    // Cursos activos de los espacios o docentes indicados que se cruzan con el rango (importación masiva)
+    @Query("SELECT c FROM clsEntidadHorarioCurso c WHERE c.estado = true " +
+           "AND c.fechaInicio <= :hasta AND c.fechaFin >= :desde " +
+           "AND (c.espacioId IN :espacios OR c.docenteId IN :docentes)")
+    List<clsEntidadHorarioCurso> findActivosPorEspaciosODocentes(@Param("espacios") Collection<Integer> espacios,
+                                                                 @Param("docentes") Collection<Integer> docentes,
+                                                                 @Param("desde") LocalDate desde,
+                                                                 @Param("hasta") LocalDate hasta);
 }
\ No newline at end of file
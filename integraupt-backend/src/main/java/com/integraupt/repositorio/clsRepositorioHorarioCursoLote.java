@@ -0,0 +1,64 @@
+package com.integraupt.repositorio;
+
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import io.micrometer.core.annotation.Timed;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.List;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Inserción por lotes JDBC de horarios de curso para la importación semestral.
+ */
+@Repository
+public class clsRepositorioHorarioCursoLote {
+
+    private static final int TAMANO_LOTE = 200;
+
+    private static final String SQL_INSERTAR =
+            "INSERT INTO horario_curso (Curso, Docente, Espacio, Bloque, DiaSemana, FechaInicio, FechaFin, Estado) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public clsRepositorioHorarioCursoLote(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta los horarios y asigna a cada entidad el id generado.
+     */
+    @Timed("integraupt.repositorio.lote")
+    public void insertar(List<clsEntidadHorarioCurso> horarios) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) conexion -> {
+            try (PreparedStatement ps = conexion.prepareStatement(SQL_INSERTAR, Statement.RETURN_GENERATED_KEYS)) {
+                int asignados = 0;
+                for (int i = 0; i < horarios.size(); i++) {
+                    clsEntidadHorarioCurso horario = horarios.get(i);
+                    ps.setString(1, horario.getCurso());
+                    ps.setInt(2, horario.getDocenteId());
+                    ps.setInt(3, horario.getEspacioId());
+                    ps.setInt(4, horario.getBloqueId());
+                    ps.setString(5, horario.getDiaSemana().name());
+                    ps.setDate(6, Date.valueOf(horario.getFechaInicio()));
+                    ps.setDate(7, Date.valueOf(horario.getFechaFin()));
+                    ps.setBoolean(8, Boolean.TRUE.equals(horario.getEstado()));
+                    ps.addBatch();
+                    if ((i + 1) % TAMANO_LOTE == 0 || i == horarios.size() - 1) {
+                        ps.executeBatch();
+                        try (ResultSet claves = ps.getGeneratedKeys()) {
+                            while (claves.next()) {
+                                horarios.get(asignados++).setId(claves.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            return null;
+        });
+    }
+}
@@ -0,0 +1,199 @@
+package com.integraupt.repositorio;
+
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Mantenimiento de las particiones mensuales de auditoriareserva y de su tabla de resumen
+ * (ver db/auditoriareserva_particiones.sql).
+ *
+ * Los nombres de partición se arman a partir de un {@link YearMonth} y nunca de texto del
+ * usuario, por eso pueden ir concatenados en las sentencias DDL.
+ */
+@Repository
+public class clsRepositorioParticionesAuditoria {
+
+    public static final String PARTICION_FUTURO = "pfuturo";
+    public static final String PARTICION_ANTIGUO = "pantiguo";
+
+    private static final String SQL_PARTICIONES =
+            "SELECT PARTITION_NAME FROM information_schema.PARTITIONS " +
+            "WHERE TABLE_SCHEMA = DATABASE() AND TABLE_NAME = 'auditoriareserva' AND PARTITION_NAME IS NOT NULL " +
+            "ORDER BY PARTITION_ORDINAL_POSITION";
+    // VALUES() en ON DUPLICATE KEY UPDATE está obsoleto desde MySQL 8.0.20; se usa una tabla derivada con alias
+    private static final String SQL_RESUMIR_MES =
+            "INSERT INTO auditoriareserva_resumen_mes (Mes, EstadoNuevo, Total) " +
+            "SELECT * FROM (SELECT ? AS Mes, COALESCE(EstadoNuevo, '') AS EstadoNuevo, COUNT(*) AS Total " +
+            "FROM auditoriareserva WHERE FechaCambio >= ? AND FechaCambio < ? " +
+            "GROUP BY COALESCE(EstadoNuevo, '')) AS r " +
+            "ON DUPLICATE KEY UPDATE Total = r.Total";
+    // Suma en lugar de reemplazar: las filas de pantiguo ya archivadas no están en la tabla, pero sí en el resumen
+    private static final String SQL_RESUMIR_ANTIGUO =
+            "INSERT INTO auditoriareserva_resumen_mes (Mes, EstadoNuevo, Total) " +
+            "SELECT * FROM (SELECT CAST(DATE_FORMAT(FechaCambio, '%Y-%m-01') AS DATE) AS Mes, " +
+            "COALESCE(EstadoNuevo, '') AS EstadoNuevo, COUNT(*) AS Total " +
+            "FROM auditoriareserva PARTITION (" + PARTICION_ANTIGUO + ") GROUP BY 1, 2) AS r " +
+            "ON DUPLICATE KEY UPDATE Total = auditoriareserva_resumen_mes.Total + r.Total";
+    private static final String SQL_RESUMEN_VACIO =
+            "INSERT IGNORE INTO auditoriareserva_resumen_mes (Mes, EstadoNuevo, Total) VALUES (?, '', 0)";
+    private static final String SQL_MESES_RESUMIDOS =
+            "SELECT DISTINCT Mes FROM auditoriareserva_resumen_mes WHERE Mes >= ? AND Mes < ?";
+    private static final String SQL_RESUMEN =
+            "SELECT Mes, EstadoNuevo, Total FROM auditoriareserva_resumen_mes WHERE Mes >= ? AND Mes < ?";
+    private static final String SQL_CONTAR_MES =
+            "SELECT COUNT(*) FROM auditoriareserva WHERE FechaCambio >= ? AND FechaCambio < ?";
+    private static final String SQL_CONTAR_ANTIGUO =
+            "SELECT COUNT(*) FROM auditoriareserva PARTITION (" + PARTICION_ANTIGUO + ")";
+    private static final String SQL_LEER_MES =
+            "SELECT IdAudit, IdReserva, EstadoAnterior, EstadoNuevo, FechaCambio, UsuarioCambio " +
+            "FROM auditoriareserva WHERE FechaCambio >= ? AND FechaCambio < ? ORDER BY FechaCambio, IdAudit";
+    private static final String SQL_LEER_ANTIGUO =
+            "SELECT IdAudit, IdReserva, EstadoAnterior, EstadoNuevo, FechaCambio, UsuarioCambio " +
+            "FROM auditoriareserva PARTITION (" + PARTICION_ANTIGUO + ") ORDER BY FechaCambio, IdAudit";
+
+    public record TotalResumen(YearMonth mes, String estadoNuevo, long total) {
+    }
+
+    public record FilaAuditoria(int idAudit, int idReserva, String estadoAnterior, String estadoNuevo,
+                                LocalDateTime fechaCambio, Integer usuarioCambio) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public clsRepositorioParticionesAuditoria(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Nombres de las particiones de auditoriareserva en orden; vacío si la tabla no está particionada.
+     */
+    public List<String> listarParticiones() {
+        return jdbcTemplate.queryForList(SQL_PARTICIONES, String.class);
+    }
+
+    /**
+     * Meses con partición propia (pAAAAMM), en orden.
+     */
+    public List<YearMonth> mesesParticionados() {
+        List<YearMonth> meses = new ArrayList<>();
+        for (String particion : listarParticiones()) {
+            if (particion.length() == 7 && particion.charAt(0) == 'p' && Character.isDigit(particion.charAt(1))) {
+                meses.add(YearMonth.of(Integer.parseInt(particion.substring(1, 5)),
+                        Integer.parseInt(particion.substring(5, 7))));
+            }
+        }
+        return meses;
+    }
+
+    public static String nombreParticion(YearMonth mes) {
+        return String.format("p%04d%02d", mes.getYear(), mes.getMonthValue());
+    }
+
+    /**
+     * Separa de pfuturo la partición del mes indicado. pfuturo debe estar vacía en ese rango
+     * para que la reorganización no copie filas.
+     */
+    public void crearParticion(YearMonth mes) {
+        jdbcTemplate.execute("ALTER TABLE auditoriareserva REORGANIZE PARTITION " + PARTICION_FUTURO + " INTO (" +
+                "PARTITION " + nombreParticion(mes) + " VALUES LESS THAN (TO_DAYS('" + mes.plusMonths(1).atDay(1) + "')), " +
+                "PARTITION " + PARTICION_FUTURO + " VALUES LESS THAN MAXVALUE)");
+    }
+
+    public void eliminarParticion(YearMonth mes) {
+        jdbcTemplate.execute("ALTER TABLE auditoriareserva DROP PARTITION " + nombreParticion(mes));
+    }
+
+    /**
+     * Vacía pantiguo sin eliminarla: sigue recibiendo las filas con fechas anteriores al primer mes.
+     */
+    public void vaciarAntiguo() {
+        jdbcTemplate.execute("ALTER TABLE auditoriareserva TRUNCATE PARTITION " + PARTICION_ANTIGUO);
+    }
+
+    /**
+     * Recalcula los totales por estado del mes. Un mes sin registros queda con una fila en cero
+     * para distinguirlo de un mes todavía no resumido.
+     */
+    public void resumirMes(YearMonth mes) {
+        Date primerDia = Date.valueOf(mes.atDay(1));
+        int filas = jdbcTemplate.update(SQL_RESUMIR_MES, primerDia, inicio(mes), inicio(mes.plusMonths(1)));
+        if (filas == 0) {
+            jdbcTemplate.update(SQL_RESUMEN_VACIO, primerDia);
+        }
+    }
+
+    /**
+     * Meses de [desde, hasta) que ya tienen resumen.
+     */
+    public List<YearMonth> mesesResumidos(YearMonth desde, YearMonth hasta) {
+        return jdbcTemplate.query(SQL_MESES_RESUMIDOS,
+                (rs, fila) -> YearMonth.from(rs.getDate(1).toLocalDate()),
+                Date.valueOf(desde.atDay(1)), Date.valueOf(hasta.atDay(1)));
+    }
+
+    public List<TotalResumen> totalesResumidos(YearMonth desde, YearMonth hasta) {
+        return jdbcTemplate.query(SQL_RESUMEN,
+                (rs, fila) -> new TotalResumen(YearMonth.from(rs.getDate(1).toLocalDate()), rs.getString(2), rs.getLong(3)),
+                Date.valueOf(desde.atDay(1)), Date.valueOf(hasta.atDay(1)));
+    }
+
+    /**
+     * Suma al resumen mensual las filas de pantiguo, que no tiene un mes propio. No es idempotente:
+     * llamarlo solo justo antes de vaciar pantiguo.
+     */
+    public void resumirAntiguo() {
+        jdbcTemplate.update(SQL_RESUMIR_ANTIGUO);
+    }
+
+    public long contarAntiguo() {
+        Long total = jdbcTemplate.queryForObject(SQL_CONTAR_ANTIGUO, Long.class);
+        return total != null ? total : 0L;
+    }
+
+    public long contarMes(YearMonth mes) {
+        Long total = jdbcTemplate.queryForObject(SQL_CONTAR_MES, Long.class, inicio(mes), inicio(mes.plusMonths(1)));
+        return total != null ? total : 0L;
+    }
+
+    /**
+     * Recorre las filas del mes en orden cronológico sin cargarlas todas en memoria.
+     */
+    public void recorrerMes(YearMonth mes, Consumer<FilaAuditoria> consumidor) {
+        recorrer(SQL_LEER_MES, consumidor, inicio(mes), inicio(mes.plusMonths(1)));
+    }
+
+    public void recorrerAntiguo(Consumer<FilaAuditoria> consumidor) {
+        recorrer(SQL_LEER_ANTIGUO, consumidor);
+    }
+
+    private void recorrer(String sql, Consumer<FilaAuditoria> consumidor, Timestamp... parametros) {
+        jdbcTemplate.query(conexion -> {
+            PreparedStatement ps = conexion.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            // Integer.MIN_VALUE activa el modo streaming de Connector/J (fila por fila)
+            ps.setFetchSize(Integer.MIN_VALUE);
+            for (int i = 0; i < parametros.length; i++) {
+                ps.setTimestamp(i + 1, parametros[i]);
+            }
+            return ps;
+        }, (RowCallbackHandler) rs -> {
+            int usuario = rs.getInt(6);
+            Integer usuarioCambio = rs.wasNull() ? null : usuario;
+            consumidor.accept(new FilaAuditoria(rs.getInt(1), rs.getInt(2), rs.getString(3), rs.getString(4),
+                    rs.getTimestamp(5).toLocalDateTime(), usuarioCambio));
+        });
+    }
+
+    private static Timestamp inicio(YearMonth mes) {
+        return Timestamp.valueOf(mes.atDay(1).atStartOfDay());
+    }
+}
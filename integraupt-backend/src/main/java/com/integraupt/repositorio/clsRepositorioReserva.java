@@ -1,5 +1,6 @@
 package com.integraupt.repositorio;
 
+import com.integraupt.dto.clsDTOReservaDetalle;
 import com.integraupt.entidad.clsEntidadBloqueHorario;
 import com.integraupt.entidad.clsEntidadEspacio;
 import com.integraupt.entidad.clsEntidadEspacio_Reserva;
@@ -7,8 +8,17 @@ import com.integraupt.entidad.clsEntidadReserva;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.stream.Stream;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -27,4 +37,119 @@ boolean existsByEspacioAndFechaReservaAndBloqueAndEstadoIn(
         LocalDate fechaReserva,
         clsEntidadBloqueHorario bloque,
         List<String> estados);
-}
\ No newline at end of file
+
+    // Cambia el estado solo si la reserva sigue en el estado leído; 0 indica que otra solicitud se adelantó
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE clsEntidadReserva r SET r.estado = :estadoNuevo, r.motivo = :motivo " +
+           "WHERE r.idReserva = :id AND r.estado = :estadoAnterior")
+    int actualizarEstadoSiCoincide(@Param("id") Integer id,
+                                   @Param("estadoAnterior") String estadoAnterior,
+                                   @Param("estadoNuevo") String estadoNuevo,
+                                   @Param("motivo") String motivo);
+
+    // Espacio, bloque y fecha de las reservas que bloquean un horario a partir de una fecha
+    @Query("SELECT r.espacio.id, r.bloque.id, r.fechaReserva FROM clsEntidadReserva r " +
+           "WHERE r.estado IN :estados AND r.fechaReserva >= :desde")
+    List<Object[]> findSlotsOcupadosDesde(@Param("estados") List<String> estados,
+                                          @Param("desde") LocalDate desde);
+
+    // Estado y slot de varias reservas sin cargar las entidades: id, estado, espacio, bloque, fechaReserva, fechaSolicitud
+    @Query("SELECT r.idReserva, r.estado, r.espacio.id, r.bloque.id, r.fechaReserva, r.fechaSolicitud " +
+           "FROM clsEntidadReserva r WHERE r.idReserva IN :ids")
+    List<Object[]> findEstadoYSlotByIdIn(@Param("ids") Collection<Integer> ids);
+
+    // Reservas activas en los espacios y fechas indicados; el bloque se compara en memoria
+    @Query("SELECT r.espacio.id, r.bloque.id, r.fechaReserva FROM clsEntidadReserva r " +
+           "WHERE r.estado IN :estados AND r.espacio.id IN :espacios AND r.fechaReserva IN :fechas")
+    List<Object[]> findSlotsOcupadosEn(@Param("estados") List<String> estados,
+                                       @Param("espacios") Collection<Integer> espacios,
+                                       @Param("fechas") Collection<LocalDate> fechas);
+
+    // Fechas del rango en que el espacio y bloque ya tienen una reserva activa
+    @Query("SELECT r.fechaReserva FROM clsEntidadReserva r " +
+           "WHERE r.espacio.id = :espacioId AND r.bloque.id = :bloqueId AND r.estado IN :estados " +
+           "AND r.fechaReserva BETWEEN :desde AND :hasta")
+    List<LocalDate> findFechasOcupadas(@Param("espacioId") Integer espacioId,
+                                       @Param("bloqueId") Integer bloqueId,
+                                       @Param("estados") List<String> estados,
+                                       @Param("desde") LocalDate desde,
+                                       @Param("hasta") LocalDate hasta);
+
+    // Total de reservas por estado
+    @Query("SELECT r.estado, COUNT(r) FROM clsEntidadReserva r GROUP BY r.estado")
+    List<Object[]> countAgrupadoPorEstado();
+
+    // Total de reservas en un estado por espacio
+    @Query("SELECT r.espacio.id, COUNT(r) FROM clsEntidadReserva r WHERE r.estado = :estado GROUP BY r.espacio.id")
+    List<Object[]> countPorEspacioConEstado(@Param("estado") String estado);
+
+    // Total de reservas por año, mes de solicitud y estado
+    @Query("SELECT YEAR(r.fechaSolicitud), MONTH(r.fechaSolicitud), r.estado, COUNT(r) FROM clsEntidadReserva r " +
+           "WHERE r.fechaSolicitud IS NOT NULL " +
+           "GROUP BY YEAR(r.fechaSolicitud), MONTH(r.fechaSolicitud), r.estado")
+    List<Object[]> countPorMesSolicitudYEstado();
+
+    // Total de reservas en un estado por fecha de reserva a partir de una fecha
+    @Query("SELECT r.fechaReserva, COUNT(r) FROM clsEntidadReserva r " +
+           "WHERE r.estado = :estado AND r.fechaReserva >= :desde GROUP BY r.fechaReserva")
+    List<Object[]> countPorFechaReservaConEstadoDesde(@Param("estado") String estado,
+                                                      @Param("desde") LocalDate desde);
+
+    // Detalle de reservas para exportaciones; MySQL entrega las filas en streaming con fetch size Integer.MIN_VALUE
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"))
+    @Query("SELECT new com.integraupt.dto.clsDTOReservaDetalle(" +
+           "r.idReserva, r.estado, r.fechaReserva, r.fechaSolicitud, u.nombre, u.apellido, u.codigo, " +
+           "e.nombre, e.codigo, b.nombre, r.descripcion) " +
+           "FROM clsEntidadReserva r JOIN r.usuario u JOIN r.espacio e JOIN r.bloque b " +
+           "WHERE (:desde IS NULL OR r.fechaReserva >= :desde) AND (:hasta IS NULL OR r.fechaReserva <= :hasta) " +
+           "ORDER BY r.fechaReserva, r.idReserva")
+    Stream<clsDTOReservaDetalle> streamDetalleReservas(@Param("desde") LocalDate desde,
+                                                       @Param("hasta") LocalDate hasta);
+
+    // Listado paginado por keyset sobre (fechaSolicitud, idReserva) con filtros opcionales.
+    // En orden ascendente MySQL ubica primero las filas sin fechaSolicitud (ver db/reserva_listado_indices.sql)
+    String SELECT_PAGINA = "SELECT r FROM clsEntidadReserva r " +
+           "JOIN FETCH r.usuario u JOIN FETCH r.espacio e JOIN FETCH r.bloque b " +
+           "WHERE (:estado IS NULL OR r.estado = :estado) " +
+           "AND (:espacioId IS NULL OR e.id = :espacioId) " +
+           "AND (:bloqueId IS NULL OR b.id = :bloqueId) " +
+           "AND (:usuarioId IS NULL OR u.id = :usuarioId) " +
+           "AND (:desde IS NULL OR r.fechaReserva >= :desde) " +
+           "AND (:hasta IS NULL OR r.fechaReserva <= :hasta) ";
+    String ORDEN_PAGINA = "ORDER BY r.fechaSolicitud ASC, r.idReserva ASC";
+
+    // Primera página
+    @Query(SELECT_PAGINA + ORDEN_PAGINA)
+    List<clsEntidadReserva> findPagina(@Param("estado") String estado,
+                                       @Param("espacioId") Integer espacioId,
+                                       @Param("bloqueId") Integer bloqueId,
+                                       @Param("usuarioId") Integer usuarioId,
+                                       @Param("desde") LocalDate desde,
+                                       @Param("hasta") LocalDate hasta,
+                                       Pageable pageable);
+
+    // Página siguiente a una reserva con fechaSolicitud
+    @Query(SELECT_PAGINA + "AND (r.fechaSolicitud > :cursorFecha " +
+           "OR (r.fechaSolicitud = :cursorFecha AND r.idReserva > :cursorId)) " + ORDEN_PAGINA)
+    List<clsEntidadReserva> findPaginaDesde(@Param("estado") String estado,
+                                            @Param("espacioId") Integer espacioId,
+                                            @Param("bloqueId") Integer bloqueId,
+                                            @Param("usuarioId") Integer usuarioId,
+                                            @Param("desde") LocalDate desde,
+                                            @Param("hasta") LocalDate hasta,
+                                            @Param("cursorFecha") LocalDateTime cursorFecha,
+                                            @Param("cursorId") Integer cursorId,
+                                            Pageable pageable);
+
+    // Página siguiente a una reserva sin fechaSolicitud: el resto de las que no tienen fecha y luego todas las fechadas
+    @Query(SELECT_PAGINA + "AND ((r.fechaSolicitud IS NULL AND r.idReserva > :cursorId) " +
+           "OR r.fechaSolicitud IS NOT NULL) " + ORDEN_PAGINA)
+    List<clsEntidadReserva> findPaginaSinFechaDesde(@Param("estado") String estado,
+                                                    @Param("espacioId") Integer espacioId,
+                                                    @Param("bloqueId") Integer bloqueId,
+                                                    @Param("usuarioId") Integer usuarioId,
+                                                    @Param("desde") LocalDate desde,
+                                                    @Param("hasta") LocalDate hasta,
+                                                    @Param("cursorId") Integer cursorId,
+                                                    Pageable pageable);
+}
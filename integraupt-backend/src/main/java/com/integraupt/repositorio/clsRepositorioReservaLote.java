@@ -0,0 +1,153 @@
+package com.integraupt.repositorio;
+
+import com.integraupt.entidad.clsEntidadHorario;
+import io.micrometer.core.annotation.Timed;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Escrituras por lotes JDBC para las operaciones masivas sobre reservas.
+ *
+ * Usa la conexión de la transacción JPA en curso, por lo que cada lote se confirma
+ * o revierte junto con el resto del servicio. Fuera de una transacción (el escritor de
+ * auditoría) cada envío se confirma por sí solo.
+ */
+@Repository
+public class clsRepositorioReservaLote {
+
+    // Sentencias por envío JDBC; con rewriteBatchedStatements MySQL las agrupa en un solo paquete
+    private static final int TAMANO_LOTE = 100;
+
+    private static final String SQL_INSERTAR_RESERVA =
+            "INSERT INTO reserva (usuario, espacio, bloque, fechaReserva, estado, fechaSolicitud, Descripcion, Motivo) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String SQL_ACTUALIZAR_RESERVA =
+            "UPDATE reserva SET estado = ?, Motivo = ? WHERE IdReserva = ? AND estado = ?";
+    private static final String SQL_ACTUALIZAR_HORARIO =
+            "UPDATE horarios SET ocupado = ? WHERE espacio = ? AND bloque = ? AND diaSemana = ?";
+    private static final String SQL_INSERTAR_AUDITORIA =
+            "INSERT INTO auditoriareserva (IdReserva, EstadoAnterior, EstadoNuevo, FechaCambio, UsuarioCambio) " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    public record CambioEstado(Integer idReserva, String estadoAnterior, String estadoNuevo, String motivo) {
+    }
+
+    public record RegistroAuditoria(Integer idReserva, String estadoAnterior, String estadoNuevo,
+                                    Integer usuarioCambio, LocalDateTime fechaCambio) {
+    }
+
+    public record NuevaReserva(Integer usuarioId, Integer espacioId, Integer bloqueId, LocalDate fechaReserva,
+                               String estado, LocalDateTime fechaSolicitud, String descripcion, String motivo) {
+    }
+
+    public record OcupacionHorario(Integer espacioId, Integer bloqueId, clsEntidadHorario.DiaSemana dia,
+                                   boolean ocupado) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public clsRepositorioReservaLote(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Inserta las reservas por lotes y devuelve los ids generados en el mismo orden.
+     */
+    @Timed("integraupt.repositorio.lote")
+    public List<Integer> insertarReservas(List<NuevaReserva> reservas) {
+        return jdbcTemplate.execute((ConnectionCallback<List<Integer>>) conexion -> {
+            List<Integer> ids = new ArrayList<>(reservas.size());
+            try (PreparedStatement ps = conexion.prepareStatement(SQL_INSERTAR_RESERVA, Statement.RETURN_GENERATED_KEYS)) {
+                for (int i = 0; i < reservas.size(); i++) {
+                    NuevaReserva reserva = reservas.get(i);
+                    ps.setInt(1, reserva.usuarioId());
+                    ps.setInt(2, reserva.espacioId());
+                    ps.setInt(3, reserva.bloqueId());
+                    ps.setDate(4, Date.valueOf(reserva.fechaReserva()));
+                    ps.setString(5, reserva.estado());
+                    ps.setTimestamp(6, Timestamp.valueOf(reserva.fechaSolicitud()));
+                    ps.setString(7, reserva.descripcion());
+                    ps.setString(8, reserva.motivo());
+                    ps.addBatch();
+                    if ((i + 1) % TAMANO_LOTE == 0 || i == reservas.size() - 1) {
+                        ps.executeBatch();
+                        try (ResultSet claves = ps.getGeneratedKeys()) {
+                            while (claves.next()) {
+                                ids.add(claves.getInt(1));
+                            }
+                        }
+                    }
+                }
+            }
+            return ids;
+        });
+    }
+
+    /**
+     * Aplica los cambios solo si la reserva sigue en su estado anterior y devuelve los ids que no
+     * coincidieron (otra solicitud los cambió después de leerlos).
+     */
+    @Timed("integraupt.repositorio.lote")
+    public Set<Integer> actualizarEstados(List<CambioEstado> cambios) {
+        int[][] filas = jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_RESERVA, cambios, TAMANO_LOTE, (ps, cambio) -> {
+            ps.setString(1, cambio.estadoNuevo());
+            ps.setString(2, cambio.motivo());
+            ps.setInt(3, cambio.idReserva());
+            ps.setString(4, cambio.estadoAnterior());
+        });
+        Set<Integer> sinCambio = new HashSet<>();
+        int indice = 0;
+        for (int[] envio : filas) {
+            for (int actualizadas : envio) {
+                // SUCCESS_NO_INFO (-2) no dice nada de la guarda; solo 0 indica que el estado ya no coincidía
+                if (actualizadas == 0) {
+                    sinCambio.add(cambios.get(indice).idReserva());
+                }
+                indice++;
+            }
+        }
+        return sinCambio;
+    }
+
+    @Timed("integraupt.repositorio.lote")
+    public void actualizarHorarios(Collection<OcupacionHorario> horarios) {
+        jdbcTemplate.batchUpdate(SQL_ACTUALIZAR_HORARIO, horarios, TAMANO_LOTE, (ps, horario) -> {
+            ps.setBoolean(1, horario.ocupado());
+            ps.setInt(2, horario.espacioId());
+            ps.setInt(3, horario.bloqueId());
+            ps.setString(4, horario.dia().name());
+        });
+    }
+
+    /**
+     * Inserta registros de auditoría ya armados, cada uno con su propia fecha y usuario.
+     */
+    @Timed("integraupt.repositorio.lote")
+    public void insertarAuditorias(Collection<RegistroAuditoria> registros) {
+        jdbcTemplate.batchUpdate(SQL_INSERTAR_AUDITORIA, registros, TAMANO_LOTE, (ps, registro) -> {
+            ps.setInt(1, registro.idReserva());
+            ps.setString(2, registro.estadoAnterior());
+            ps.setString(3, registro.estadoNuevo());
+            ps.setTimestamp(4, Timestamp.valueOf(registro.fechaCambio()));
+            if (registro.usuarioCambio() != null) {
+                ps.setInt(5, registro.usuarioCambio());
+            } else {
+                ps.setNull(5, Types.INTEGER);
+            }
+        });
+    }
+}
@@ -2,9 +2,12 @@ package com.integraupt.repositorio;
 
 import com.integraupt.entidad.clsEntidadUsuario;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 @Repository
@@ -28,4 +31,12 @@ public interface clsRepositorioUsuario extends JpaRepository<clsEntidadUsuario,
 
     Long countByRolId(Integer rolId);
 
+    @Query("SELECT u.rolId, COUNT(u) FROM clsEntidadUsuario u GROUP BY u.rolId")
+    List<Object[]> countAgrupadoPorRol();
+
+    // Id, código y rol de los usuarios indicados por id o por código, en una sola consulta
+    @Query("SELECT u.id, u.codigo, u.rolId FROM clsEntidadUsuario u WHERE u.id IN :ids OR u.codigo IN :codigos")
+    List<Object[]> findIdCodigoYRolPorIdOCodigo(@Param("ids") Collection<Integer> ids,
+                                                @Param("codigos") Collection<String> codigos);
+
 }
\ No newline at end of file
@@ -3,6 +3,10 @@ package com.integraupt.servicio;
 import com.integraupt.dto.ReporteEstadisticasDTO;
 import com.integraupt.dto.ReservasMesDTO;
 import com.integraupt.dto.UsoEspacioDTO;
+import com.integraupt.dto.clsDTOAuditoriaReserva;
+import com.integraupt.dto.clsDTOReservaDetalle;
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import com.integraupt.repositorio.clsRepositorioReserva;
 
 // Importaciones para PDF
 import com.itextpdf.text.*;
@@ -11,16 +15,24 @@ import com.itextpdf.text.pdf.PdfPTable;
 import com.itextpdf.text.pdf.PdfWriter;
 
 // Importaciones para Excel
+import org.apache.poi.ss.SpreadsheetVersion;
 import org.apache.poi.ss.usermodel.*;
-import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.apache.poi.xssf.streaming.SXSSFWorkbook;
 
+import io.micrometer.core.annotation.Timed;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.Iterator;
 import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 public class ExportacionService {
@@ -35,45 +47,120 @@ public class ExportacionService {
     private static final com.itextpdf.text.Font NORMAL_FONT = 
         new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 10);
 
+    private static final com.itextpdf.text.Font DETAIL_FONT = 
+        new com.itextpdf.text.Font(com.itextpdf.text.Font.FontFamily.HELVETICA, 8);
+
+    // Filas que se acumulan en una PdfPTable antes de volcarla al documento
+    private static final int FILAS_POR_BLOQUE_PDF = 200;
+    private static final String[] HEADERS_AUDITORIA = {"ID", "Reserva", "Estado Anterior", "Estado Nuevo",
+        "Fecha Cambio", "Usuario"};
+
+    // Filas que SXSSF mantiene en memoria; el resto se vuelca a disco comprimido
+    private static final int VENTANA_FILAS_EXCEL = 100;
+    // Filas por columna que se miden para calcular el ancho (en lugar de autoSizeColumn)
+    private static final int MUESTRA_ANCHO_COLUMNAS = 200;
+    private static final int ANCHO_MAXIMO_COLUMNA = 80;
+    private static final int MAX_FILAS_HOJA = SpreadsheetVersion.EXCEL2007.getMaxRows();
+    private static final String[] HEADERS_DETALLE = {"ID", "Fecha Reserva", "Bloque", "Espacio", "Código Espacio",
+        "Solicitante", "Código Solicitante", "Estado", "Fecha Solicitud", "Descripción"};
+    private static final DateTimeFormatter FORMATO_FECHA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
+    private static final DateTimeFormatter FORMATO_FECHA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
+
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioAuditoriaReserva repositorioAuditoria;
+
+    public ExportacionService(clsRepositorioReserva repositorioReserva,
+                              clsRepositorioAuditoriaReserva repositorioAuditoria) {
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioAuditoria = repositorioAuditoria;
+    }
+
     public byte[] generarReportePDF(ReporteEstadisticasDTO estadisticas, 
                                    List<UsoEspacioDTO> usoEspacios, 
                                    List<ReservasMesDTO> reservasPorMes) throws DocumentException {
         ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        escribirReportePDF(baos, estadisticas, usoEspacios, reservasPorMes, false, null, null);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Escribe el reporte PDF directamente en el stream de salida. Las páginas se emiten a medida que
+     * se completan; con incluirDetalle se listan todas las reservas y auditorías del rango (fechas opcionales).
+     */
+    @Transactional(readOnly = true)
+    @Timed("integraupt.servicio")
+    public void escribirReportePDF(OutputStream salida,
+                                   ReporteEstadisticasDTO estadisticas,
+                                   List<UsoEspacioDTO> usoEspacios,
+                                   List<ReservasMesDTO> reservasPorMes,
+                                   boolean incluirDetalle,
+                                   LocalDate desde,
+                                   LocalDate hasta) throws DocumentException {
         Document document = new Document();
-        PdfWriter.getInstance(document, baos);
+        PdfWriter writer = PdfWriter.getInstance(document, salida);
+        // El contenedor de servlets es quien cierra el stream de la respuesta
+        writer.setCloseStream(false);
 
         document.open();
-
-        // Título del reporte
-        Paragraph title = new Paragraph("REPORTE DE ESTADÍSTICAS - INTEGRAUPT", TITLE_FONT);
-        title.setAlignment(Element.ALIGN_CENTER);
-        title.setSpacingAfter(20);
-        document.add(title);
-
-        // Fecha de generación
-        String fechaGeneracion = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
-        Paragraph fecha = new Paragraph("Generado el: " + fechaGeneracion, NORMAL_FONT);
-        fecha.setSpacingAfter(20);
-        document.add(fecha);
-
-        // Estadísticas generales
-        agregarEstadisticasGenerales(document, estadisticas);
-        
-        // Uso de espacios
-        agregarUsoEspacios(document, usoEspacios);
-        
-        // Reservas por mes
-        agregarReservasPorMes(document, reservasPorMes);
-
-        document.close();
-        return baos.toByteArray();
+        try {
+            // Título del reporte
+            Paragraph title = new Paragraph("REPORTE DE ESTADÍSTICAS - INTEGRAUPT", TITLE_FONT);
+            title.setAlignment(Element.ALIGN_CENTER);
+            title.setSpacingAfter(20);
+            document.add(title);
+
+            // Fecha de generación
+            String fechaGeneracion = LocalDateTime.now().format(DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm"));
+            Paragraph fecha = new Paragraph("Generado el: " + fechaGeneracion, NORMAL_FONT);
+            fecha.setSpacingAfter(20);
+            document.add(fecha);
+
+            // Estadísticas generales
+            agregarEstadisticasGenerales(document, estadisticas);
+            
+            // Uso de espacios
+            agregarUsoEspacios(document, usoEspacios);
+            
+            // Reservas por mes
+            agregarReservasPorMes(document, reservasPorMes);
+
+            if (incluirDetalle) {
+                // El detalle usa páginas apaisadas para que entren todas las columnas
+                document.setPageSize(PageSize.A4.rotate());
+                document.newPage();
+                agregarDetalleReservas(document, desde, hasta);
+                document.newPage();
+                agregarDetalleAuditoria(document, desde, hasta);
+            }
+        } finally {
+            document.close();
+        }
     }
 
     public byte[] generarReporteExcel(ReporteEstadisticasDTO estadisticas, 
                                      List<UsoEspacioDTO> usoEspacios, 
                                      List<ReservasMesDTO> reservasPorMes) throws IOException {
-        try (Workbook workbook = new XSSFWorkbook(); ByteArrayOutputStream baos = new ByteArrayOutputStream()) {
-            
+        ByteArrayOutputStream baos = new ByteArrayOutputStream();
+        escribirReporteExcel(baos, estadisticas, usoEspacios, reservasPorMes, false, null, null);
+        return baos.toByteArray();
+    }
+
+    /**
+     * Escribe el reporte Excel directamente en el stream de salida usando una ventana acotada de filas.
+     * Con incluirDetalle se agregan hojas con cada reserva del rango (fechas opcionales), leídas en streaming.
+     */
+    @Transactional(readOnly = true)
+    @Timed("integraupt.servicio")
+    public void escribirReporteExcel(OutputStream salida,
+                                     ReporteEstadisticasDTO estadisticas,
+                                     List<UsoEspacioDTO> usoEspacios,
+                                     List<ReservasMesDTO> reservasPorMes,
+                                     boolean incluirDetalle,
+                                     LocalDate desde,
+                                     LocalDate hasta) throws IOException {
+        SXSSFWorkbook workbook = new SXSSFWorkbook(VENTANA_FILAS_EXCEL);
+        workbook.setCompressTempFiles(true);
+        try {
             // Estilos - Aquí usamos la Font de Apache POI
             CellStyle headerStyle = crearEstiloHeader(workbook);
             CellStyle dataStyle = crearEstiloDatos(workbook);
@@ -90,8 +177,18 @@ public class ExportacionService {
             Sheet sheetReservasMes = workbook.createSheet("Reservas por Mes");
             crearHojaReservasMes(sheetReservasMes, reservasPorMes, headerStyle, dataStyle);
 
-            workbook.write(baos);
-            return baos.toByteArray();
+            // Hojas de detalle: una fila por reserva, partidas al llegar al límite de filas de Excel
+            if (incluirDetalle) {
+                try (Stream<clsDTOReservaDetalle> reservas = repositorioReserva.streamDetalleReservas(desde, hasta)) {
+                    crearHojasDetalle(workbook, reservas.iterator(), headerStyle, dataStyle);
+                }
+            }
+
+            workbook.write(salida);
+            salida.flush();
+        } finally {
+            workbook.close();
+            workbook.dispose();
         }
     }
 
@@ -124,24 +221,13 @@ public class ExportacionService {
             return;
         }
 
-        PdfPTable table = new PdfPTable(4);
-        table.setWidthPercentage(100);
-
-        // Encabezados
-        agregarCeldaHeader(table, "Espacio");
-        agregarCeldaHeader(table, "Tipo");
-        agregarCeldaHeader(table, "Total Reservas");
-        agregarCeldaHeader(table, "Porcentaje Uso");
-
-        // Datos
-        for (UsoEspacioDTO espacio : usoEspacios) {
-            table.addCell(new PdfPCell(new Phrase(espacio.getNombreEspacio(), NORMAL_FONT)));
-            table.addCell(new PdfPCell(new Phrase(espacio.getTipoEspacio(), NORMAL_FONT)));
-            table.addCell(new PdfPCell(new Phrase(espacio.getTotalReservas().toString(), NORMAL_FONT)));
-            table.addCell(new PdfPCell(new Phrase(espacio.getPorcentajeUso() + "%", NORMAL_FONT)));
-        }
-
-        document.add(table);
+        String[] headers = {"Espacio", "Tipo", "Total Reservas", "Porcentaje Uso"};
+        agregarTablaPorBloques(document, headers, null, usoEspacios.iterator(), NORMAL_FONT, espacio -> new String[] {
+            espacio.getNombreEspacio(),
+            espacio.getTipoEspacio(),
+            espacio.getTotalReservas().toString(),
+            espacio.getPorcentajeUso() + "%"
+        });
         document.add(new Paragraph(" "));
     }
 
@@ -173,6 +259,91 @@ public class ExportacionService {
         document.add(table);
     }
 
+    private void agregarDetalleReservas(Document document, LocalDate desde, LocalDate hasta) throws DocumentException {
+        Paragraph subtitle = new Paragraph("DETALLE DE RESERVAS", SUBTITLE_FONT);
+        subtitle.setSpacingAfter(10);
+        document.add(subtitle);
+
+        float[] anchos = {4, 7, 9, 12, 7, 14, 8, 7, 9, 23};
+        try (Stream<clsDTOReservaDetalle> reservas = repositorioReserva.streamDetalleReservas(desde, hasta)) {
+            int total = agregarTablaPorBloques(document, HEADERS_DETALLE, anchos, reservas.iterator(), DETAIL_FONT,
+                reserva -> new String[] {
+                    String.valueOf(reserva.getIdReserva()),
+                    reserva.getFechaReserva() != null ? reserva.getFechaReserva().format(FORMATO_FECHA) : "",
+                    reserva.getBloque(),
+                    reserva.getEspacio(),
+                    reserva.getCodigoEspacio(),
+                    reserva.getSolicitante(),
+                    reserva.getCodigoSolicitante(),
+                    reserva.getEstado(),
+                    reserva.getFechaSolicitud() != null ? reserva.getFechaSolicitud().format(FORMATO_FECHA_HORA) : "",
+                    reserva.getDescripcion()
+                });
+            if (total == 0) {
+                document.add(new Paragraph("No hay reservas en el rango seleccionado.", NORMAL_FONT));
+            }
+        }
+    }
+
+    private void agregarDetalleAuditoria(Document document, LocalDate desde, LocalDate hasta) throws DocumentException {
+        Paragraph subtitle = new Paragraph("AUDITORÍA DE RESERVAS", SUBTITLE_FONT);
+        subtitle.setSpacingAfter(10);
+        document.add(subtitle);
+
+        LocalDateTime inicio = desde != null ? desde.atStartOfDay() : null;
+        LocalDateTime fin = hasta != null ? hasta.plusDays(1).atStartOfDay() : null;
+        try (Stream<clsDTOAuditoriaReserva> auditorias = repositorioAuditoria.streamAuditorias(inicio, fin)) {
+            int total = agregarTablaPorBloques(document, HEADERS_AUDITORIA, null, auditorias.iterator(), DETAIL_FONT,
+                auditoria -> new String[] {
+                    String.valueOf(auditoria.getIdAudit()),
+                    String.valueOf(auditoria.getIdReserva()),
+                    auditoria.getEstadoAnterior(),
+                    auditoria.getEstadoNuevo(),
+                    auditoria.getFechaCambio() != null ? auditoria.getFechaCambio().format(FORMATO_FECHA_HORA) : "",
+                    auditoria.getUsuarioCambio() != null ? auditoria.getUsuarioCambio().toString() : ""
+                });
+            if (total == 0) {
+                document.add(new Paragraph("No hay registros de auditoría en el rango seleccionado.", NORMAL_FONT));
+            }
+        }
+    }
+
+    /**
+     * Agrega una tabla marcada como incompleta y la vuelca al documento cada FILAS_POR_BLOQUE_PDF filas,
+     * de modo que iText escribe las páginas terminadas y libera las filas ya renderizadas.
+     * Retorna la cantidad de filas de datos agregadas.
+     */
+    private <T> int agregarTablaPorBloques(Document document, String[] headers, float[] anchos, Iterator<T> filas,
+                                           com.itextpdf.text.Font font, Function<T, String[]> celdas) throws DocumentException {
+        PdfPTable table = new PdfPTable(headers.length);
+        table.setWidthPercentage(100);
+        if (anchos != null) {
+            table.setWidths(anchos);
+        }
+        table.setHeaderRows(1);
+        table.setComplete(false);
+
+        for (String header : headers) {
+            agregarCeldaHeader(table, header);
+        }
+
+        int total = 0;
+        while (filas.hasNext()) {
+            for (String valor : celdas.apply(filas.next())) {
+                table.addCell(new PdfPCell(new Phrase(valor != null ? valor : "", font)));
+            }
+            if (++total % FILAS_POR_BLOQUE_PDF == 0) {
+                document.add(table);
+            }
+        }
+
+        table.setComplete(true);
+        if (total > 0) {
+            document.add(table);
+        }
+        return total;
+    }
+
     private void agregarFilaTabla(PdfPTable table, String titulo, String valor) {
         table.addCell(new PdfPCell(new Phrase(titulo, NORMAL_FONT)));
         table.addCell(new PdfPCell(new Phrase(valor, NORMAL_FONT)));
@@ -227,6 +398,7 @@ public class ExportacionService {
             {"Variación", estadisticas.getVariacionReservas()}
         };
 
+        AnchoColumnas anchos = new AnchoColumnas(headers);
         int rowNum = 1;
         for (Object[] rowData : data) {
             Row row = sheet.createRow(rowNum++);
@@ -238,13 +410,11 @@ public class ExportacionService {
                     cell.setCellValue(rowData[i].toString());
                 }
                 cell.setCellStyle(dataStyle);
+                anchos.medir(i, rowData[i]);
             }
         }
 
-        // Autoajustar columnas
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        anchos.aplicar(sheet);
     }
 
     private void crearHojaUsoEspacios(Sheet sheet, List<UsoEspacioDTO> usoEspacios, CellStyle headerStyle, CellStyle dataStyle) {
@@ -257,6 +427,7 @@ public class ExportacionService {
             cell.setCellStyle(headerStyle);
         }
 
+        AnchoColumnas anchos = new AnchoColumnas(headers);
         int rowNum = 1;
         for (UsoEspacioDTO espacio : usoEspacios) {
             Row row = sheet.createRow(rowNum++);
@@ -269,11 +440,14 @@ public class ExportacionService {
             for (int i = 0; i < headers.length; i++) {
                 row.getCell(i).setCellStyle(dataStyle);
             }
+            anchos.medir(0, espacio.getNombreEspacio());
+            anchos.medir(1, espacio.getCodigoEspacio());
+            anchos.medir(2, espacio.getTipoEspacio());
+            anchos.medir(3, espacio.getTotalReservas());
+            anchos.medir(4, espacio.getPorcentajeUso());
         }
 
-        for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
-        }
+        anchos.aplicar(sheet);
     }
 
     private void crearHojaReservasMes(Sheet sheet, List<ReservasMesDTO> reservasPorMes, CellStyle headerStyle, CellStyle dataStyle) {
@@ -286,6 +460,7 @@ public class ExportacionService {
             cell.setCellStyle(headerStyle);
         }
 
+        AnchoColumnas anchos = new AnchoColumnas(headers);
         int rowNum = 1;
         for (ReservasMesDTO mes : reservasPorMes) {
             Row row = sheet.createRow(rowNum++);
@@ -296,10 +471,89 @@ public class ExportacionService {
             for (int i = 0; i < headers.length; i++) {
                 row.getCell(i).setCellStyle(dataStyle);
             }
+            anchos.medir(0, mes.getMes());
+            anchos.medir(1, mes.getAnio());
+            anchos.medir(2, mes.getTotalReservas());
         }
 
+        anchos.aplicar(sheet);
+    }
+
+    private void crearHojasDetalle(Workbook workbook, Iterator<clsDTOReservaDetalle> reservas,
+                                   CellStyle headerStyle, CellStyle dataStyle) {
+        int numeroHoja = 1;
+        do {
+            Sheet sheet = workbook.createSheet(numeroHoja == 1 ? "Detalle de Reservas" : "Detalle de Reservas (" + numeroHoja + ")");
+            crearFilaHeaders(sheet, HEADERS_DETALLE, headerStyle);
+            AnchoColumnas anchos = new AnchoColumnas(HEADERS_DETALLE);
+
+            int rowNum = 1;
+            while (rowNum < MAX_FILAS_HOJA && reservas.hasNext()) {
+                clsDTOReservaDetalle reserva = reservas.next();
+                Row row = sheet.createRow(rowNum++);
+                Object[] valores = {
+                    reserva.getIdReserva(),
+                    reserva.getFechaReserva() != null ? reserva.getFechaReserva().format(FORMATO_FECHA) : "",
+                    reserva.getBloque(),
+                    reserva.getEspacio(),
+                    reserva.getCodigoEspacio(),
+                    reserva.getSolicitante(),
+                    reserva.getCodigoSolicitante(),
+                    reserva.getEstado(),
+                    reserva.getFechaSolicitud() != null ? reserva.getFechaSolicitud().format(FORMATO_FECHA_HORA) : "",
+                    reserva.getDescripcion()
+                };
+                for (int i = 0; i < valores.length; i++) {
+                    Cell cell = row.createCell(i);
+                    if (valores[i] instanceof Number) {
+                        cell.setCellValue(((Number) valores[i]).doubleValue());
+                    } else if (valores[i] != null) {
+                        cell.setCellValue(valores[i].toString());
+                    }
+                    cell.setCellStyle(dataStyle);
+                    if (rowNum <= MUESTRA_ANCHO_COLUMNAS) {
+                        anchos.medir(i, valores[i]);
+                    }
+                }
+            }
+
+            anchos.aplicar(sheet);
+            numeroHoja++;
+        } while (reservas.hasNext());
+    }
+
+    private void crearFilaHeaders(Sheet sheet, String[] headers, CellStyle headerStyle) {
+        Row headerRow = sheet.createRow(0);
         for (int i = 0; i < headers.length; i++) {
-            sheet.autoSizeColumn(i);
+            Cell cell = headerRow.createCell(i);
+            cell.setCellValue(headers[i]);
+            cell.setCellStyle(headerStyle);
+        }
+    }
+
+    /**
+     * Ancho de columnas calculado a partir de los encabezados y una muestra de valores.
+     */
+    private static final class AnchoColumnas {
+        private final int[] caracteres;
+
+        AnchoColumnas(String[] headers) {
+            caracteres = new int[headers.length];
+            for (int i = 0; i < headers.length; i++) {
+                caracteres[i] = headers[i].length();
+            }
+        }
+
+        void medir(int columna, Object valor) {
+            if (valor != null) {
+                caracteres[columna] = Math.max(caracteres[columna], valor.toString().length());
+            }
+        }
+
+        void aplicar(Sheet sheet) {
+            for (int i = 0; i < caracteres.length; i++) {
+                sheet.setColumnWidth(i, (Math.min(caracteres[i], ANCHO_MAXIMO_COLUMNA) + 2) * 256);
+            }
         }
     }
 }
\ No newline at end of file
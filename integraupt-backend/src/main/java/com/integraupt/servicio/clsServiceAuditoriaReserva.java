@@ -1,84 +1,103 @@
 package com.integraupt.servicio;
 
 import com.integraupt.dto.clsDTOAuditoriaReserva;
+import com.integraupt.dto.clsDTOPaginaCursor;
 import com.integraupt.entidad.clsEntidadAuditoriaReserva;
-import com.integraupt.entidad.clsEntidadReserva;
-import com.integraupt.entidad.clsEntidadUsuario;
 import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
-import com.integraupt.repositorio.clsRepositorioReserva;
-import com.integraupt.repositorio.clsRepositorioUsuario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.YearMonth;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeSet;
 
 @Service
 public class clsServiceAuditoriaReserva {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServiceAuditoriaReserva.class);
+    // Tope de los listados sin cursor, para que ninguna consulta lea la tabla completa
+    static final int LIMITE_LISTADO = 5000;
+
     @Autowired
     private clsRepositorioAuditoriaReserva clsRepositorioAuditoriaReserva;
-    
+
     @Autowired
-    private clsRepositorioReserva clsRepositorioReserva;
-    
+    private clsServicioEscritorAuditoria escritorAuditoria;
+
     @Autowired
-    private clsRepositorioUsuario clsRepositorioUsuario;
+    private clsServicioParticionesAuditoria servicioParticiones;
 
-    // Registrar un cambio en auditoría
-    public clsEntidadAuditoriaReserva registrarCambioReserva(Integer idReserva, String estadoAnterior, 
-                                                           String estadoNuevo, Integer usuarioCambio) {
-        clsEntidadAuditoriaReserva auditoria = new clsEntidadAuditoriaReserva(
-            idReserva, estadoAnterior, estadoNuevo, usuarioCambio
-        );
-        return clsRepositorioAuditoriaReserva.save(auditoria);
+    @Autowired
+    private clsServicioEstadisticasAuditoria estadisticasAuditoria;
+
+    // Registrar un cambio en auditoría: se inserta en segundo plano después del commit, sin IdAudit inmediato.
+    // La aprobación y el rechazo individuales no lo llaman: el trigger de auditoriareserva ya registra
+    // cada UPDATE de estado. Queda para cambios que no pasen por ese trigger
+    public void registrarCambioReserva(Integer idReserva, String estadoAnterior,
+                                       String estadoNuevo, Integer usuarioCambio) {
+        escritorAuditoria.registrar(idReserva, estadoAnterior, estadoNuevo, usuarioCambio);
     }
 
     // Obtener todos los registros de auditoría
     public List<clsDTOAuditoriaReserva> obtenerTodasAuditorias() {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findAll();
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
+        return buscarCompletas(null, null, null, null, null, null);
+    }
+
+    // Obtener una página de auditorías (más recientes primero) a partir del cursor de la página anterior
+    public clsDTOPaginaCursor<clsDTOAuditoriaReserva> obtenerPaginaAuditorias(Integer idReserva, Integer usuarioCambio,
+                                                                              String estadoAnterior, String estadoNuevo,
+                                                                              LocalDateTime fechaInicio, LocalDateTime fechaFin,
+                                                                              String cursor, Integer tamano) {
+        clsUtilCursor.Posicion posicion = clsUtilCursor.decodificar(cursor);
+        int tamanoPagina = clsUtilCursor.normalizarTamano(tamano);
+
+        // Se pide un elemento extra para saber si existe una página siguiente
+        Pageable limite = PageRequest.of(0, tamanoPagina + 1);
+        List<clsDTOAuditoriaReserva> auditorias;
+        if (posicion == null) {
+            auditorias = clsRepositorioAuditoriaReserva.findAuditoriasCompletas(
+                idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin, limite);
+        } else if (posicion.fecha() != null) {
+            auditorias = clsRepositorioAuditoriaReserva.findAuditoriasCompletasDesde(
+                idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin,
+                posicion.fecha(), posicion.id(), limite);
+        } else {
+            auditorias = clsRepositorioAuditoriaReserva.findAuditoriasCompletasSinFechaDesde(
+                idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin,
+                posicion.id(), limite);
         }
-        
-        return auditoriasDTO;
+
+        String siguienteCursor = null;
+        if (auditorias.size() > tamanoPagina) {
+            auditorias = auditorias.subList(0, tamanoPagina);
+            clsDTOAuditoriaReserva ultima = auditorias.get(tamanoPagina - 1);
+            siguienteCursor = clsUtilCursor.codificar(ultima.getFechaCambio(), ultima.getIdAudit());
+        }
+        return new clsDTOPaginaCursor<>(auditorias, siguienteCursor);
     }
 
     // Obtener auditoría por ID de reserva
     public List<clsDTOAuditoriaReserva> obtenerAuditoriaPorReserva(Integer idReserva) {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findByIdReserva(idReserva);
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
-        }
-        
-        return auditoriasDTO;
+        return buscarCompletas(idReserva, null, null, null, null, null);
     }
 
     // Buscar con filtros
     public List<clsDTOAuditoriaReserva> buscarConFiltros(Integer idReserva, Integer usuarioCambio, 
                                                         String estadoAnterior, String estadoNuevo,
                                                         LocalDateTime fechaInicio, LocalDateTime fechaFin) {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findWithFilters(
-            idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin
-        );
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
-        }
-        
-        return auditoriasDTO;
+        return buscarCompletas(idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin);
     }
 
     // Obtener auditoría por ID
@@ -89,149 +108,91 @@ public class clsServiceAuditoriaReserva {
     // Obtener cambios recientes (últimos 7 días)
     public List<clsDTOAuditoriaReserva> obtenerCambiosRecientes() {
         LocalDateTime fechaInicio = LocalDateTime.now().minusDays(7);
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findRecentChanges(fechaInicio);
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
-        }
-        
-        return auditoriasDTO;
+        return buscarCompletas(null, null, null, null, fechaInicio, null);
     }
 
-    // Obtener estadísticas de auditoría - CORREGIDO
+    // Obtener estadísticas de auditoría desde los totales materializados por día y estado
     public Map<String, Object> obtenerEstadisticas() {
-        Long totalRegistros = clsRepositorioAuditoriaReserva.countTotalRegistros();
-        Long aprobaciones = clsRepositorioAuditoriaReserva.countByEstado("Aprobada");
-        Long cancelaciones = clsRepositorioAuditoriaReserva.countByEstado("Cancelado");
-        Long rechazos = clsRepositorioAuditoriaReserva.countByEstado("Rechazada");
-        Long pendientes = clsRepositorioAuditoriaReserva.countByEstado("Pendiente");
-        
-        // Obtener estadísticas por día (últimos 30 días)
-        LocalDateTime fechaInicio = LocalDateTime.now().minusDays(30);
-        LocalDateTime fechaFin = LocalDateTime.now();
-        List<Object[]> estadisticasPorDia = clsRepositorioAuditoriaReserva.findEstadisticasPorDia(fechaInicio, fechaFin);
-        
-        // Usar Map en lugar de objeto anónimo para evitar el error de referencia
+        LocalDate desde = LocalDate.now().minusDays(30);
+
         Map<String, Object> estadisticas = new HashMap<>();
-        estadisticas.put("total", totalRegistros);
-        estadisticas.put("aprobadas", aprobaciones);
-        estadisticas.put("canceladas", cancelaciones);
-        estadisticas.put("rechazadas", rechazos);
-        estadisticas.put("pendientes", pendientes);
-        estadisticas.put("porDia", estadisticasPorDia);
-        
+        estadisticas.put("total", estadisticasAuditoria.getTotal());
+        estadisticas.put("aprobadas", estadisticasAuditoria.getTotalPorEstado("Aprobada"));
+        estadisticas.put("canceladas", estadisticasAuditoria.getTotalPorEstado("Cancelado"));
+        estadisticas.put("rechazadas", estadisticasAuditoria.getTotalPorEstado("Rechazada"));
+        estadisticas.put("pendientes", estadisticasAuditoria.getTotalPorEstado("Pendiente"));
+        estadisticas.put("porDia", estadisticasAuditoria.getTotalesPorDiaDesde(desde));
+
         return estadisticas;
     }
 
+    // Reconstruir las estadísticas materializadas desde la tabla de auditoría
+    public Map<String, Object> recalcularEstadisticas() {
+        estadisticasAuditoria.recargar();
+        return obtenerEstadisticas();
+    }
+
     // Obtener último cambio de una reserva
     public clsDTOAuditoriaReserva obtenerUltimoCambioReserva(Integer idReserva) {
-        clsEntidadAuditoriaReserva auditoria = clsRepositorioAuditoriaReserva.findUltimoCambioPorReserva(idReserva);
-        if (auditoria != null) {
-            return convertirAUDTO(auditoria);
-        }
-        return null;
+        List<clsDTOAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findAuditoriasCompletas(
+            idReserva, null, null, null, null, null, PageRequest.of(0, 1)
+        );
+        return auditorias.isEmpty() ? null : auditorias.get(0);
     }
 
     // Buscar por texto en estados
     public List<clsDTOAuditoriaReserva> buscarPorTextoEnEstados(String texto) {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findByTextoEnEstados(texto);
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
+        return buscarPorTextoEnEstados(texto, null, null);
+    }
+
+    // Buscar por texto en estados dentro de un rango; con la tabla particionada solo se leen los meses del rango
+    public List<clsDTOAuditoriaReserva> buscarPorTextoEnEstados(String texto, LocalDateTime fechaInicio,
+                                                               LocalDateTime fechaFin) {
+        // Los estados son pocos: se resuelve el texto contra ellos y se consulta por igualdad con índice,
+        // en lugar de aplicar LOWER(...) LIKE '%texto%' a cada fila
+        String buscado = texto != null ? texto.toLowerCase(Locale.ROOT) : "";
+        Set<String> estados = new TreeSet<>();
+        for (String estado : clsRepositorioAuditoriaReserva.findEstadosNuevosDistintos()) {
+            if (estado.toLowerCase(Locale.ROOT).contains(buscado)) {
+                estados.add(estado);
+            }
         }
-        
-        return auditoriasDTO;
+        for (String estado : clsRepositorioAuditoriaReserva.findEstadosAnterioresDistintos()) {
+            if (estado.toLowerCase(Locale.ROOT).contains(buscado)) {
+                estados.add(estado);
+            }
+        }
+        if (estados.isEmpty()) {
+            return new ArrayList<>();
+        }
+        return clsRepositorioAuditoriaReserva.findAuditoriasCompletasPorEstados(estados, fechaInicio, fechaFin);
     }
 
     // Obtener cambios por usuario en rango de fechas
     public List<clsDTOAuditoriaReserva> obtenerCambiosPorUsuario(Integer usuarioCambio, 
                                                                LocalDateTime fechaInicio, 
                                                                LocalDateTime fechaFin) {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findByUsuarioAndFechaRange(
-            usuarioCambio, fechaInicio, fechaFin
-        );
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-            auditoriasDTO.add(dto);
-        }
-        
-        return auditoriasDTO;
+        return buscarCompletas(null, usuarioCambio, null, null, fechaInicio, fechaFin);
     }
 
-    // Convertir entidad a DTO con información adicional
-    private clsDTOAuditoriaReserva convertirAUDTO(clsEntidadAuditoriaReserva auditoria) {
-        clsDTOAuditoriaReserva dto = new clsDTOAuditoriaReserva();
-        dto.setIdAudit(auditoria.getIdAudit());
-        dto.setIdReserva(auditoria.getIdReserva());
-        dto.setEstadoAnterior(auditoria.getEstadoAnterior());
-        dto.setEstadoNuevo(auditoria.getEstadoNuevo());
-        dto.setFechaCambio(auditoria.getFechaCambio());
-        dto.setUsuarioCambio(auditoria.getUsuarioCambio());
-        
-        // Obtener información adicional de la reserva
-        Optional<clsEntidadReserva> reservaOpt = clsRepositorioReserva.findById(auditoria.getIdReserva());
-        if (reservaOpt.isPresent()) {
-            clsEntidadReserva reserva = reservaOpt.get();
-            if (reserva.getEspacio() != null) {
-                dto.setEspacioReserva(reserva.getEspacio().getNombre());
-            }
-            
-            // Obtener información del solicitante
-            if (reserva.getUsuario() != null) {
-                dto.setSolicitanteReserva(reserva.getUsuario().getNombre() + " " + reserva.getUsuario().getApellido());
-            }
-        }
-        
-        // Obtener información del usuario que realizó el cambio
-        Optional<clsEntidadUsuario> usuarioOpt = clsRepositorioUsuario.findById(auditoria.getUsuarioCambio());
-        if (usuarioOpt.isPresent()) {
-            clsEntidadUsuario usuario = usuarioOpt.get();
-            dto.setNombreUsuario(usuario.getNombres() + " " + usuario.getApellidos());
-        } else {
-            dto.setNombreUsuario("Usuario " + auditoria.getUsuarioCambio());
+    // Auditorías con espacio, solicitante y usuario del cambio resueltos en la misma consulta, hasta
+    // LIMITE_LISTADO filas; para recorrer listados completos se usa obtenerPaginaAuditorias
+    private List<clsDTOAuditoriaReserva> buscarCompletas(Integer idReserva, Integer usuarioCambio,
+                                                         String estadoAnterior, String estadoNuevo,
+                                                         LocalDateTime fechaInicio, LocalDateTime fechaFin) {
+        List<clsDTOAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findAuditoriasCompletas(
+            idReserva, usuarioCambio, estadoAnterior, estadoNuevo, fechaInicio, fechaFin,
+            PageRequest.of(0, LIMITE_LISTADO)
+        );
+        if (auditorias.size() == LIMITE_LISTADO) {
+            LOGGER.warn("Listado de auditoría recortado a {} registros; usar la paginación por cursor", LIMITE_LISTADO);
         }
-        
-        return dto;
+        return auditorias;
     }
 
     // Método para obtener todas las auditorías con información completa
     public List<clsDTOAuditoriaReserva> obtenerTodasAuditoriasCompletas() {
-        List<clsDTOAuditoriaReserva> auditoriasDTO = new ArrayList<>();
-        List<clsEntidadAuditoriaReserva> auditorias = clsRepositorioAuditoriaReserva.findAllWithDetails();
-        
-        for (clsEntidadAuditoriaReserva auditoria : auditorias) {
-            clsDTOAuditoriaReserva dto = convertirAUDTOCompleto(auditoria);
-            auditoriasDTO.add(dto);
-        }
-        
-        return auditoriasDTO;
-    }
-
-    // Convertir entidad a DTO con información completa de las relaciones
-    private clsDTOAuditoriaReserva convertirAUDTOCompleto(clsEntidadAuditoriaReserva auditoria) {
-        clsDTOAuditoriaReserva dto = convertirAUDTO(auditoria);
-        
-        // Si ya tenemos las relaciones cargadas, usar esa información
-        if (auditoria.getReserva() != null && auditoria.getReserva().getEspacio() != null) {
-            dto.setEspacioReserva(auditoria.getReserva().getEspacio().getNombre());
-        }
-        
-        if (auditoria.getReserva() != null && auditoria.getReserva().getUsuario() != null) {
-            dto.setSolicitanteReserva(auditoria.getReserva().getUsuario().getNombre() + " " + 
-                                    auditoria.getReserva().getUsuario().getApellido());
-        }
-        
-        if (auditoria.getUsuario() != null) {
-            dto.setNombreUsuario(auditoria.getUsuario().getNombres() + " " + auditoria.getUsuario().getApellidos());
-        }
-        
-        return dto;
+        return buscarCompletas(null, null, null, null, null, null);
     }
 
     // Verificar si existe auditoría para una reserva
@@ -250,6 +211,7 @@ public class clsServiceAuditoriaReserva {
     public boolean eliminarAuditoria(Integer idAudit) {
         if (clsRepositorioAuditoriaReserva.existsById(idAudit)) {
             clsRepositorioAuditoriaReserva.deleteById(idAudit);
+            estadisticasAuditoria.invalidar();
             return true;
         }
         return false;
@@ -277,31 +239,30 @@ public class clsServiceAuditoriaReserva {
 
     // Método para limpiar auditorías antiguas (más de 1 año)
     public int limpiarAuditoriasAntiguas() {
+        // Con la tabla particionada los meses vencidos se archivan a disco antes de eliminarse, y solo con
+        // app.auditoria.particiones.habilitada=true
+        if (servicioParticiones.estaParticionada()) {
+            return (int) servicioParticiones.archivarVencidas();
+        }
         LocalDateTime fechaLimite = LocalDateTime.now().minusYears(1);
         List<clsEntidadAuditoriaReserva> auditoriasAntiguas = clsRepositorioAuditoriaReserva.findByFechaCambioBefore(fechaLimite);
         
         int cantidadEliminada = auditoriasAntiguas.size();
         clsRepositorioAuditoriaReserva.deleteAll(auditoriasAntiguas);
+        estadisticasAuditoria.invalidar();
         
         return cantidadEliminada;
     }
 
-    // Método para obtener resumen de cambios por mes
+    // Método para obtener resumen de cambios por mes (los meses cerrados salen del resumen mensual)
     public Map<String, Long> obtenerResumenMensual(int año) {
-        LocalDateTime inicioAño = LocalDateTime.of(año, 1, 1, 0, 0);
-        LocalDateTime finAño = LocalDateTime.of(año, 12, 31, 23, 59);
-        
-        List<clsEntidadAuditoriaReserva> auditoriasDelAño = clsRepositorioAuditoriaReserva.findByFechaCambioBetween(inicioAño, finAño);
-        
+        Map<YearMonth, Long> totales = servicioParticiones.totalesPorMes(año);
+
         Map<String, Long> resumenMensual = new HashMap<>();
         for (int mes = 1; mes <= 12; mes++) {
-            final int mesActual = mes;
-            long cantidad = auditoriasDelAño.stream()
-                .filter(a -> a.getFechaCambio().getMonthValue() == mesActual)
-                .count();
-            resumenMensual.put(String.valueOf(mes), cantidad);
+            resumenMensual.put(String.valueOf(mes), totales.getOrDefault(YearMonth.of(año, mes), 0L));
         }
-        
+
         return resumenMensual;
     }
-}
\ No newline at end of file
+}
@@ -7,15 +7,16 @@ import com.integraupt.dto.clsDTOLogoutRequest;
 import com.integraupt.dto.clsDTOLogoutResponse;
 import com.integraupt.entidad.clsEntidadUsuario;
 import com.integraupt.repositorio.clsRepositorioAuth;
-import java.nio.charset.StandardCharsets;
-import java.time.Instant;
-import java.util.Base64;
+import io.micrometer.core.annotation.Timed;
+import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
+import org.springframework.web.server.ResponseStatusException;
 import java.util.Locale;
 import java.util.Map;
 /**
@@ -66,10 +67,13 @@ public class clsServicioAuth {
 
     private final clsRepositorioAuth repositorioAuth;
     private final clsServicioPassword servicioPassword;
+    private final clsServicioToken servicioToken;
 
-    public clsServicioAuth(clsRepositorioAuth repositorioAuth, clsServicioPassword servicioPassword) {
+    public clsServicioAuth(clsRepositorioAuth repositorioAuth, clsServicioPassword servicioPassword,
+                           clsServicioToken servicioToken) {
         this.repositorioAuth = repositorioAuth;
         this.servicioPassword = servicioPassword;
+        this.servicioToken = servicioToken;
     }
 
     /**
@@ -78,7 +82,8 @@ public class clsServicioAuth {
      * @param request datos del login
      * @return respuesta con el resultado del proceso de autenticación
      */
-    @Transactional
+    @Transactional(readOnly = true)
+    @Timed("integraupt.servicio")
     public clsDTOLoginResponse autenticarUsuario(clsDTOLoginRequest request) {
         if (request == null) {
             return clsDTOLoginResponse.error("La solicitud es inválida");
@@ -111,7 +116,8 @@ public class clsServicioAuth {
             return clsDTOLoginResponse.error("El usuario se encuentra inactivo");
         }
 
-        if (Boolean.TRUE.equals(usuario.getSesion())) {
+        // La sesión activa se lleva en memoria (clsServicioToken); la columna Sesion ya no se escribe
+        if (servicioToken.tieneSesionActiva(usuario.getId())) {
             LOGGER.warn("Intento de acceso con sesión activa: {}", identificador);
             return clsDTOLoginResponse.error("Ya existe una sesión iniciada con estas credenciales");
         }
@@ -122,18 +128,22 @@ public class clsServicioAuth {
         }
 
         PerfilDTO perfilDTO = construirPerfil(usuario, tipoLogin);
-        String token = generarTokenBasico(usuario);
-
-        usuario.setSesion(Boolean.TRUE);
-        repositorioAuth.save(usuario);
+        Optional<String> token = servicioToken.emitir(usuario.getId(), usuario.getRolId());
+        if (token.isEmpty()) {
+            LOGGER.warn("Inicio de sesión simultáneo rechazado: {}", identificador);
+            return clsDTOLoginResponse.error("Ya existe una sesión iniciada con estas credenciales");
+        }
 
-        return clsDTOLoginResponse.success("Inicio de sesión exitoso", perfilDTO, token);
+        return clsDTOLoginResponse.success("Inicio de sesión exitoso", perfilDTO, token.get());
     }
 
+    // Una sola consulta; si el identificador es el código de uno y el correo de otro, gana el código
     private Optional<clsEntidadUsuario> buscarUsuarioPorIdentificador(String identificador) {
-        Optional<clsEntidadUsuario> usuario = repositorioAuth.findFirstByCodigoIgnoreCase(identificador)
-                .or(() -> repositorioAuth.findFirstByEmailIgnoreCase(identificador));
-        return usuario;
+        List<clsEntidadUsuario> candidatos = repositorioAuth.findPorCodigoOEmail(identificador);
+        return candidatos.stream()
+                .filter(usuario -> identificador.equalsIgnoreCase(usuario.getCodigo()))
+                .findFirst()
+                .or(() -> candidatos.stream().findFirst());
     }
 
     private String normalizar(String valor) {
@@ -152,21 +162,19 @@ public class clsServicioAuth {
         return servicioPassword.matches(passwordIngresada, passwordAlmacenada);
     }
 
-    @Transactional
-    public clsDTOLogoutResponse cerrarSesion(clsDTOLogoutRequest request) {
-        if (request == null || request.getUsuarioId() == null) {
-            return clsDTOLogoutResponse.error("La solicitud es inválida");
-        }
-
-        Optional<clsEntidadUsuario> usuarioOpt = repositorioAuth.findById(request.getUsuarioId());
-        if (usuarioOpt.isEmpty()) {
-            return clsDTOLogoutResponse.error("Usuario no encontrado");
+    /**
+     * Cierra la sesión del token recibido y solo esa. El usuarioId del cuerpo es opcional; si viene,
+     * debe coincidir con el del token.
+     */
+    public clsDTOLogoutResponse cerrarSesion(clsDTOLogoutRequest request, String token) {
+        clsServicioToken.Sesion sesion = servicioToken.validar(token)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.UNAUTHORIZED,
+                        "El token de sesión falta, no es válido o ya fue cerrado"));
+        if (request != null && request.getUsuarioId() != null && !request.getUsuarioId().equals(sesion.usuarioId())) {
+            return clsDTOLogoutResponse.error("El token no corresponde al usuario indicado");
         }
 
-        clsEntidadUsuario usuario = usuarioOpt.get();
-        usuario.setSesion(Boolean.FALSE);
-        repositorioAuth.save(usuario);
-
+        servicioToken.cerrar(sesion);
         return clsDTOLogoutResponse.success("Sesión cerrada correctamente");
     }
 
@@ -189,11 +197,6 @@ public class clsServicioAuth {
         );
     }
 
-    private String generarTokenBasico(clsEntidadUsuario usuario) {
-        String payload = String.valueOf(usuario.getId()) + ":" + Instant.now();
-        return Base64.getEncoder().encodeToString(payload.getBytes(StandardCharsets.UTF_8));
-    }
-
     private boolean coincideConTipoLogin(clsEntidadUsuario usuario, String tipoLogin) {
         String normalizado = tipoLogin.toLowerCase(Locale.ROOT);
         Integer rolId = usuario.getRolId();
@@ -0,0 +1,326 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOEspacioResponse;
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import io.micrometer.core.annotation.Timed;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Búsqueda de espacios libres por fecha, bloques, tipo, capacidad y equipamiento.
+ *
+ * Los espacios activos se guardan en una instantánea inmutable ordenada por capacidad (una
+ * por tipo), de modo que el filtro de capacidad es una búsqueda binaria; la ocupación de
+ * cada candidato se consulta al motor de disponibilidad. Si el motor aún no está cargado,
+ * la ocupación de los candidatos se resuelve con tres consultas a la base de datos.
+ */
+@Service
+public class clsServicioBusquedaEspacios {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioBusquedaEspacios.class);
+    static final int DIAS_MAXIMOS_RANGO = 31;
+    static final int LIMITE_MAXIMO = 200;
+    private static final int LIMITE_POR_DEFECTO = 50;
+    private static final Integer ESTADO_ACTIVO = 1;
+
+    private final clsRepositorioEspacio repositorioEspacio;
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioHorario repositorioHorario;
+    private final clsRepositorioHorarioCurso repositorioHorarioCurso;
+    private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final long ttlNanos;
+    private final AtomicLong version = new AtomicLong();
+    private volatile Indice indice;
+    private final ReentrantLock bloqueoCarga = new ReentrantLock();
+
+    public clsServicioBusquedaEspacios(clsRepositorioEspacio repositorioEspacio,
+                                       clsRepositorioReserva repositorioReserva,
+                                       clsRepositorioHorario repositorioHorario,
+                                       clsRepositorioHorarioCurso repositorioHorarioCurso,
+                                       clsServicioCatalogos servicioCatalogos,
+                                       clsServicioDisponibilidad servicioDisponibilidad,
+                                       @Value("${app.espacios.busqueda.ttl:PT10M}") Duration ttl) {
+        this.repositorioEspacio = repositorioEspacio;
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioHorario = repositorioHorario;
+        this.repositorioHorarioCurso = repositorioHorarioCurso;
+        this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Criterios de búsqueda; los opcionales en null no filtran.
+     */
+    public record Criterios(LocalDate fecha, LocalDate fechaFin, List<Integer> bloques,
+                            clsEntidadEspacio.TipoEspacio tipo, Integer capacidadMinima,
+                            List<String> equipamiento, Integer escuelaId, Integer limite) {
+    }
+
+    // Espacio activo con su DTO ya armado y el equipamiento plegado entre espacios (" proyector pizarra ")
+    private record Ficha(int id, int capacidad, Integer escuelaId, String equipamiento,
+                         clsDTOEspacioResponse.EspacioDTO dto) {
+    }
+
+    private record Indice(long version, long cargadoEn, Ficha[] todos,
+                          Map<clsEntidadEspacio.TipoEspacio, Ficha[]> porTipo) {
+    }
+
+    /**
+     * Descarta la instantánea; la siguiente búsqueda vuelve a leer los espacios.
+     */
+    public void invalidar() {
+        version.incrementAndGet();
+        indice = null;
+    }
+
+    @Timed("integraupt.servicio")
+    public List<clsDTOEspacioResponse.EspacioDTO> buscar(Criterios criterios) {
+        List<LocalDate> fechas = validarFechas(criterios.fecha(), criterios.fechaFin());
+        int[] bloques = validarBloques(criterios.bloques());
+        int limite = criterios.limite() != null ? Math.min(Math.max(criterios.limite(), 1), LIMITE_MAXIMO)
+                : LIMITE_POR_DEFECTO;
+        List<String> equipos = new ArrayList<>();
+        if (criterios.equipamiento() != null) {
+            for (String equipo : criterios.equipamiento()) {
+                String plegado = clsUtilTexto.plegar(equipo);
+                if (!plegado.isEmpty()) {
+                    equipos.add(" " + plegado + " ");
+                }
+            }
+        }
+
+        Indice actual = obtenerIndice();
+        Ficha[] fichas = criterios.tipo() != null
+                ? actual.porTipo().getOrDefault(criterios.tipo(), new Ficha[0])
+                : actual.todos();
+        int desde = criterios.capacidadMinima() != null ? primeraConCapacidad(fichas, criterios.capacidadMinima()) : 0;
+
+        if (servicioDisponibilidad.estaCargado()) {
+            List<clsDTOEspacioResponse.EspacioDTO> libres = new ArrayList<>();
+            for (int i = desde; i < fichas.length && libres.size() < limite; i++) {
+                Ficha ficha = fichas[i];
+                if (cumpleFiltros(ficha, criterios.escuelaId(), equipos)
+                        && servicioDisponibilidad.estanLibres(ficha.id(), bloques, fechas)) {
+                    libres.add(ficha.dto());
+                }
+            }
+            return libres;
+        }
+
+        List<Ficha> candidatos = new ArrayList<>();
+        for (int i = desde; i < fichas.length; i++) {
+            if (cumpleFiltros(fichas[i], criterios.escuelaId(), equipos)) {
+                candidatos.add(fichas[i]);
+            }
+        }
+        return filtrarConBaseDeDatos(candidatos, bloques, fechas, limite);
+    }
+
+    private static boolean cumpleFiltros(Ficha ficha, Integer escuelaId, List<String> equipos) {
+        if (escuelaId != null && !escuelaId.equals(ficha.escuelaId())) {
+            return false;
+        }
+        for (String equipo : equipos) {
+            if (!ficha.equipamiento().contains(equipo)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // Primer índice con capacidad >= minima; las fichas están ordenadas por capacidad ascendente
+    private static int primeraConCapacidad(Ficha[] fichas, int minima) {
+        int bajo = 0;
+        int alto = fichas.length;
+        while (bajo < alto) {
+            int medio = (bajo + alto) >>> 1;
+            if (fichas[medio].capacidad() < minima) {
+                bajo = medio + 1;
+            } else {
+                alto = medio;
+            }
+        }
+        return bajo;
+    }
+
+    /**
+     * Ocupación de los candidatos con una consulta por fuente (reserva, horarios, horario_curso).
+     */
+    private List<clsDTOEspacioResponse.EspacioDTO> filtrarConBaseDeDatos(List<Ficha> candidatos, int[] bloques,
+                                                                         List<LocalDate> fechas, int limite) {
+        if (candidatos.isEmpty()) {
+            return List.of();
+        }
+        Set<Integer> espacios = new HashSet<>();
+        for (Ficha ficha : candidatos) {
+            espacios.add(ficha.id());
+        }
+        Set<Integer> bloquesBuscados = new HashSet<>();
+        for (int bloque : bloques) {
+            bloquesBuscados.add(bloque);
+        }
+        Set<clsEntidadHorario.DiaSemana> dias = new HashSet<>();
+        for (LocalDate fecha : fechas) {
+            clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(fecha);
+            if (dia != null) {
+                dias.add(dia);
+            }
+        }
+
+        Set<Integer> ocupados = new HashSet<>();
+        for (Object[] fila : repositorioReserva.findSlotsOcupadosEn(
+                clsServicioDisponibilidad.ESTADOS_BLOQUEANTES, espacios, fechas)) {
+            if (bloquesBuscados.contains((Integer) fila[1])) {
+                ocupados.add((Integer) fila[0]);
+            }
+        }
+        for (clsEntidadHorario horario : repositorioHorario.findByEspacioIdInAndOcupadoTrue(espacios)) {
+            if (bloquesBuscados.contains(horario.getBloqueId()) && dias.contains(horario.getDiaSemana())) {
+                ocupados.add(horario.getEspacioId());
+            }
+        }
+        LocalDate inicio = fechas.get(0);
+        LocalDate fin = fechas.get(fechas.size() - 1);
+        for (clsEntidadHorarioCurso curso : repositorioHorarioCurso.findActivosPorEspacios(
+                espacios, inicio, fin)) {
+            if (bloquesBuscados.contains(curso.getBloqueId()) && dictaEnFechas(curso, fechas)) {
+                ocupados.add(curso.getEspacioId());
+            }
+        }
+
+        List<clsDTOEspacioResponse.EspacioDTO> libres = new ArrayList<>();
+        for (Ficha ficha : candidatos) {
+            if (libres.size() >= limite) {
+                break;
+            }
+            if (!ocupados.contains(ficha.id())) {
+                libres.add(ficha.dto());
+            }
+        }
+        return libres;
+    }
+
+    private static boolean dictaEnFechas(clsEntidadHorarioCurso curso, List<LocalDate> fechas) {
+        for (LocalDate fecha : fechas) {
+            clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(fecha);
+            if (dia != null && curso.getDiaSemana() != null && dia.name().equals(curso.getDiaSemana().name())
+                    && !fecha.isBefore(curso.getFechaInicio()) && !fecha.isAfter(curso.getFechaFin())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static List<LocalDate> validarFechas(LocalDate fecha, LocalDate fechaFin) {
+        if (fecha == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha es obligatoria");
+        }
+        if (fecha.isBefore(LocalDate.now())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha no puede ser anterior a hoy");
+        }
+        LocalDate fin = fechaFin != null ? fechaFin : fecha;
+        if (fin.isBefore(fecha)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La fecha final debe ser igual o posterior a la fecha inicial");
+        }
+        if (ChronoUnit.DAYS.between(fecha, fin) >= DIAS_MAXIMOS_RANGO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "El rango de búsqueda no debe superar los " + DIAS_MAXIMOS_RANGO + " días");
+        }
+        List<LocalDate> fechas = new ArrayList<>();
+        for (LocalDate dia = fecha; !dia.isAfter(fin); dia = dia.plusDays(1)) {
+            fechas.add(dia);
+        }
+        return fechas;
+    }
+
+    private int[] validarBloques(List<Integer> bloques) {
+        if (bloques == null || bloques.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar al menos un bloque horario");
+        }
+        Set<Integer> unicos = new LinkedHashSet<>(bloques);
+        unicos.remove(null);
+        Set<Integer> existentes = servicioCatalogos.obtenerBloquesHorario(unicos).keySet();
+        for (Integer bloque : unicos) {
+            if (!existentes.contains(bloque)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El bloque horario " + bloque + " no existe");
+            }
+        }
+        return unicos.stream().mapToInt(Integer::intValue).toArray();
+    }
+
+    private Indice obtenerIndice() {
+        Indice actual = indice;
+        if (actual != null && actual.version() == version.get() && System.nanoTime() - actual.cargadoEn() < ttlNanos) {
+            return actual;
+        }
+        bloqueoCarga.lock();
+        try {
+            actual = indice;
+            long versionActual = version.get();
+            if (actual == null || actual.version() != versionActual
+                    || System.nanoTime() - actual.cargadoEn() >= ttlNanos) {
+                actual = cargarIndice(versionActual);
+                indice = actual;
+            }
+            return actual;
+        } finally {
+            bloqueoCarga.unlock();
+        }
+    }
+
+    private Indice cargarIndice(long versionIndice) {
+        List<Ficha> fichas = new ArrayList<>();
+        Map<clsEntidadEspacio.TipoEspacio, List<Ficha>> porTipo = new EnumMap<>(clsEntidadEspacio.TipoEspacio.class);
+        for (clsEntidadEspacio espacio : repositorioEspacio.findByEstado(ESTADO_ACTIVO)) {
+            Ficha ficha = new Ficha(espacio.getId(),
+                    espacio.getCapacidad() != null ? espacio.getCapacidad() : 0,
+                    espacio.getEscuelaId(),
+                    " " + clsUtilTexto.plegar(espacio.getEquipamiento()) + " ",
+                    clsServicioEspacio.convertirEntidadADTO(espacio, servicioCatalogos));
+            fichas.add(ficha);
+            if (espacio.getTipo() != null) {
+                porTipo.computeIfAbsent(espacio.getTipo(), tipo -> new ArrayList<>()).add(ficha);
+            }
+        }
+        // El espacio más pequeño que cumple va primero; a igual capacidad, por nombre
+        Comparator<Ficha> orden = Comparator.comparingInt(Ficha::capacidad)
+                .thenComparing(ficha -> ficha.dto().getNombre(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER));
+        Map<clsEntidadEspacio.TipoEspacio, Ficha[]> ordenadasPorTipo = new EnumMap<>(clsEntidadEspacio.TipoEspacio.class);
+        porTipo.forEach((tipo, lista) -> {
+            Ficha[] arreglo = lista.toArray(new Ficha[0]);
+            Arrays.sort(arreglo, orden);
+            ordenadasPorTipo.put(tipo, arreglo);
+        });
+        Ficha[] todos = fichas.toArray(new Ficha[0]);
+        Arrays.sort(todos, orden);
+        LOGGER.info("Índice de búsqueda de espacios cargado: {} espacios activos", todos.length);
+        return new Indice(versionIndice, System.nanoTime(), todos, ordenadasPorTipo);
+    }
+}
@@ -3,26 +3,50 @@ package com.integraupt.servicio;
 import com.integraupt.dto.clsDTOBloqueHorario;
 import com.integraupt.entidad.clsEntidadBloqueHorario;
 import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
+import java.time.Duration;
 import java.time.LocalTime;
 import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
+/**
+ * Catálogos de referencia (bloques horarios, facultades y escuelas).
+ *
+ * Los bloques se leen de la base de datos a una instantánea inmutable que se comparte entre
+ * todas las lecturas; se recarga al invalidarla o al vencer su tiempo de vida.
+ */
 @Service
 public class clsServicioCatalogos {
 
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioCatalogos.class);
     private static final DateTimeFormatter HORA_FORMATTER = DateTimeFormatter.ofPattern("HH:mm");
 
     private final clsRepositorioBloqueHorario repositorioBloqueHorario;
+    private final long ttlNanos;
+    private final AtomicLong version = new AtomicLong();
+    private volatile CatalogoBloques catalogoBloques;
+    // Serializa la carga desde la base de datos sin fijar hilos virtuales
+    private final ReentrantLock bloqueoCarga = new ReentrantLock();
 
-    public clsServicioCatalogos(clsRepositorioBloqueHorario repositorioBloqueHorario) {
+    public clsServicioCatalogos(clsRepositorioBloqueHorario repositorioBloqueHorario,
+                                @Value("${app.catalogos.ttl:PT10M}") Duration ttl) {
         this.repositorioBloqueHorario = repositorioBloqueHorario;
+        this.ttlNanos = ttl.toNanos();
     }
 
 
@@ -59,6 +83,104 @@ public class clsServicioCatalogos {
         Map.entry(19, "Arquitectura")
     );
 
+    // Relación escuela -> facultad (ajustar según las relaciones reales en la BD)
+    private static final Map<Integer, Integer> FACULTAD_POR_ESCUELA = crearFacultadPorEscuela();
+
+    // Escuelas agrupadas por facultad, precalculadas a partir de FACULTAD_POR_ESCUELA
+    private static final Map<Integer, Map<Integer, String>> ESCUELAS_POR_FACULTAD = agruparEscuelasPorFacultad();
+
+    private static Map<Integer, Integer> crearFacultadPorEscuela() {
+        Map<Integer, Integer> relacion = new HashMap<>();
+        for (int escuela = 1; escuela <= 6; escuela++) relacion.put(escuela, 1); // FAING
+        relacion.put(7, 2); // FADE
+        for (int escuela = 8; escuela <= 12; escuela++) relacion.put(escuela, 3); // FACEM
+        for (int escuela = 13; escuela <= 15; escuela++) relacion.put(escuela, 4); // FAEDCOH
+        for (int escuela = 16; escuela <= 18; escuela++) relacion.put(escuela, 5); // FACSA
+        relacion.put(19, 6); // FAU
+        return Collections.unmodifiableMap(relacion);
+    }
+
+    private static Map<Integer, Map<Integer, String>> agruparEscuelasPorFacultad() {
+        Map<Integer, Map<Integer, String>> agrupadas = new HashMap<>();
+        for (Map.Entry<Integer, String> escuela : new TreeMap<>(ESCUELAS).entrySet()) {
+            Integer facultadId = FACULTAD_POR_ESCUELA.get(escuela.getKey());
+            if (facultadId != null) {
+                agrupadas.computeIfAbsent(facultadId, id -> new LinkedHashMap<>())
+                        .put(escuela.getKey(), escuela.getValue());
+            }
+        }
+        agrupadas.replaceAll((id, escuelas) -> Collections.unmodifiableMap(escuelas));
+        return Collections.unmodifiableMap(agrupadas);
+    }
+
+    /**
+     * Instantánea inmutable de los bloques horarios con la versión del catálogo que la generó.
+     */
+    private static final class CatalogoBloques {
+        private final long version;
+        private final long cargadoEn;
+        private final Map<Integer, BloqueHorarioInfo> porId;
+        private final List<clsDTOBloqueHorario> ordenados;
+
+        CatalogoBloques(long version, long cargadoEn, Map<Integer, BloqueHorarioInfo> porId,
+                        List<clsDTOBloqueHorario> ordenados) {
+            this.version = version;
+            this.cargadoEn = cargadoEn;
+            this.porId = porId;
+            this.ordenados = ordenados;
+        }
+    }
+
+    /**
+     * Descarta la instantánea actual; la siguiente lectura recarga los bloques desde la base de datos.
+     */
+    public void invalidar() {
+        long nuevaVersion = version.incrementAndGet();
+        catalogoBloques = null;
+        LOGGER.info("Catálogo de bloques horarios invalidado (versión {})", nuevaVersion);
+    }
+
+    /**
+     * Versión actual del catálogo; cambia con cada invalidación.
+     */
+    public long obtenerVersion() {
+        return version.get();
+    }
+
+    private CatalogoBloques obtenerCatalogoBloques() {
+        CatalogoBloques actual = catalogoBloques;
+        if (actual != null && actual.version == version.get()
+                && System.nanoTime() - actual.cargadoEn < ttlNanos) {
+            return actual;
+        }
+        bloqueoCarga.lock();
+        try {
+            actual = catalogoBloques;
+            long versionActual = version.get();
+            if (actual == null || actual.version != versionActual
+                    || System.nanoTime() - actual.cargadoEn >= ttlNanos) {
+                actual = cargarCatalogoBloques(versionActual);
+                catalogoBloques = actual;
+            }
+            return actual;
+        } finally {
+            bloqueoCarga.unlock();
+        }
+    }
+
+    private CatalogoBloques cargarCatalogoBloques(long versionCatalogo) {
+        Map<Integer, BloqueHorarioInfo> porId = new LinkedHashMap<>();
+        List<clsDTOBloqueHorario> ordenados = new ArrayList<>();
+        for (clsEntidadBloqueHorario bloque : repositorioBloqueHorario.findAll(Sort.by(Sort.Direction.ASC, "orden"))) {
+            BloqueHorarioInfo info = mapearABloqueInfo(bloque);
+            porId.putIfAbsent(bloque.getId(), info);
+            ordenados.add(new clsDTOBloqueHorario(
+                    info.getId(), info.getOrden(), info.getNombre(), info.getHoraInicio(), info.getHoraFinal()));
+        }
+        return new CatalogoBloques(versionCatalogo, System.nanoTime(),
+                Collections.unmodifiableMap(porId), Collections.unmodifiableList(ordenados));
+    }
+
 
 
     /**
@@ -94,9 +216,26 @@ public class clsServicioCatalogos {
         if (bloqueId == null) {
             return new BloqueHorarioInfo(null, null, "Bloque no especificado", "N/A", "N/A");
         }
-        return repositorioBloqueHorario.findById(bloqueId)
-                .map(this::mapearABloqueInfo)
-                .orElseGet(() -> new BloqueHorarioInfo(bloqueId, null, "Bloque " + bloqueId, "N/A", "N/A"));
+        BloqueHorarioInfo bloque = obtenerCatalogoBloques().porId.get(bloqueId);
+        return bloque != null ? bloque : new BloqueHorarioInfo(bloqueId, null, "Bloque " + bloqueId, "N/A", "N/A");
+    }
+
+    /**
+     * Obtener información de varios bloques horarios desde el catálogo en memoria
+     */
+    public Map<Integer, BloqueHorarioInfo> obtenerBloquesHorario(Collection<Integer> bloqueIds) {
+        Map<Integer, BloqueHorarioInfo> bloques = new HashMap<>();
+        if (bloqueIds.isEmpty()) {
+            return bloques;
+        }
+        Map<Integer, BloqueHorarioInfo> catalogo = obtenerCatalogoBloques().porId;
+        for (Integer bloqueId : bloqueIds) {
+            BloqueHorarioInfo bloque = catalogo.get(bloqueId);
+            if (bloque != null) {
+                bloques.put(bloqueId, bloque);
+            }
+        }
+        return bloques;
     }
 
     /**
@@ -112,28 +251,14 @@ public class clsServicioCatalogos {
      * Obtener todos los bloques horarios disponibles
      */
     public Map<Integer, BloqueHorarioInfo> obtenerTodosLosBloques() {
-        return repositorioBloqueHorario.findAll(Sort.by(Sort.Direction.ASC, "orden")).stream()
-                .collect(Collectors.toMap(
-                        clsEntidadBloqueHorario::getId,
-                        this::mapearABloqueInfo,
-                        (existing, replacement) -> existing,
-                        LinkedHashMap::new
-                ));
+        return obtenerCatalogoBloques().porId;
     }
 
     /**
      * Obtener bloques horarios en orden como lista DTO
      */
     public List<clsDTOBloqueHorario> obtenerBloquesHorariosOrdenados() {
-        return repositorioBloqueHorario.findAll(Sort.by(Sort.Direction.ASC, "orden")).stream()
-                .map(bloque -> new clsDTOBloqueHorario(
-                        bloque.getId(),
-                        bloque.getOrden(),
-                        bloque.getNombre(),
-                        formatearHora(bloque.getHoraInicio()),
-                        formatearHora(bloque.getHoraFin())
-                ))
-                .collect(Collectors.toList());
+        return obtenerCatalogoBloques().ordenados;
     }
 
     /**
@@ -174,25 +299,21 @@ public class clsServicioCatalogos {
      * Obtener escuelas por facultad
      */
     public Map<Integer, String> obtenerEscuelasPorFacultad(Integer facultadId) {
+        return ESCUELAS_POR_FACULTAD.getOrDefault(facultadId, Map.of());
+    }
 
-        return ESCUELAS.entrySet().stream()
-                .filter(entry -> escuelaPerteneceAFacultad(entry.getKey(), facultadId))
-                .collect(java.util.stream.Collectors.toMap(Map.Entry::getKey, Map.Entry::getValue));
+    /**
+     * Obtener la facultad a la que pertenece una escuela (null si no se conoce)
+     */
+    public Integer obtenerFacultadDeEscuela(Integer escuelaId) {
+        return escuelaId != null ? FACULTAD_POR_ESCUELA.get(escuelaId) : null;
     }
 
     /**
      * Determinar si una escuela pertenece a una facultad
-     * (Ajustar esta lógica según las relaciones reales en tu BD)
-     */
-    private boolean escuelaPerteneceAFacultad(Integer escuelaId, Integer facultadId) {
-        // Mapeo simplificado - ajustar según tu estructura real
-        if (facultadId == 1) return escuelaId >= 1 && escuelaId <= 6; // FAING
-        if (facultadId == 2) return escuelaId == 7; // FADE
-        if (facultadId == 3) return escuelaId >= 8 && escuelaId <= 12; // FACEM
-        if (facultadId == 4) return escuelaId >= 13 && escuelaId <= 15; // FAEDCOH
-        if (facultadId == 5) return escuelaId >= 16 && escuelaId <= 18; // FACSA
-        if (facultadId == 6) return escuelaId == 19; // FAU
-        return false;
+     */
+    public boolean escuelaPerteneceAFacultad(Integer escuelaId, Integer facultadId) {
+        return facultadId != null && facultadId.equals(obtenerFacultadDeEscuela(escuelaId));
     }
     private BloqueHorarioInfo mapearABloqueInfo(clsEntidadBloqueHorario bloque) {
         return new BloqueHorarioInfo(
@@ -0,0 +1,527 @@
+package com.integraupt.servicio;
+
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import com.integraupt.repositorio.clsRepositorioEspacioReserva;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * Motor de disponibilidad en memoria para validar conflictos de reservas.
+ *
+ * Mantiene, por espacio, un mapa de bits de bloques ocupados para cada fecha
+ * (reservas pendientes o aprobadas), para cada día de la semana (tabla horarios)
+ * y los horarios de curso activos. Mientras el motor no esté cargado, los
+ * servicios deben usar las validaciones contra la base de datos.
+ *
+ * El estado vive en la memoria de cada instancia y solo refleja los cambios hechos a través de
+ * ella. Los cambios hechos por otra instancia o directamente en la base (horarios, horarios de curso,
+ * reservas) se recogen en la recarga completa que se repite cada
+ * {@code app.disponibilidad.recarga.intervalo}, o al invocar POST /api/reservas/disponibilidad/recargar.
+ * Hasta entonces la garantía contra dobles reservas la da el índice único uk_reserva_slot_activo,
+ * que solo cubre reservas contra reservas: un horario o curso nuevo de otro origen no se respeta
+ * hasta la siguiente recarga.
+ */
+@Service
+public class clsServicioDisponibilidad {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioDisponibilidad.class);
+    static final List<String> ESTADOS_BLOQUEANTES = List.of("Pendiente", "Aprobada");
+    private static final int DIAS = clsUtilDiaSemana.DIAS_HABILES;
+
+    /**
+     * Resultado de la verificación de un bloque.
+     */
+    public enum Conflicto {
+        NINGUNO, RESERVA, HORARIO, CURSO
+    }
+
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioHorario repositorioHorario;
+    private final clsRepositorioHorarioCurso repositorioHorarioCurso;
+    private final clsRepositorioEspacioReserva repositorioEspacioReserva;
+    private final clsRepositorioBloqueHorario repositorioBloqueHorario;
+    private final Duration intervaloRecarga;
+    private volatile Thread hilo;
+
+    private volatile Map<Integer, OcupacionEspacio> ocupaciones = new ConcurrentHashMap<>();
+    private volatile Map<Integer, clsEntidadEspacio_Reserva> espacios = Map.of();
+    private volatile Map<Integer, clsEntidadBloqueHorario> bloques = Map.of();
+    private volatile boolean cargado;
+    // ReentrantLock en lugar de synchronized: la recarga hace JDBC y no debe fijar hilos virtuales
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    // Los cambios toman la lectura; la recarga toma la escritura solo para publicar el estado nuevo
+    private final ReentrantReadWriteLock publicacion = new ReentrantReadWriteLock();
+    // Cambios aplicados mientras una recarga lee la base; se repiten sobre el estado nuevo antes de publicarlo
+    private List<Function<Map<Integer, OcupacionEspacio>, ?>> cambiosEnRecarga;
+
+    public clsServicioDisponibilidad(clsRepositorioReserva repositorioReserva,
+                                     clsRepositorioHorario repositorioHorario,
+                                     clsRepositorioHorarioCurso repositorioHorarioCurso,
+                                     clsRepositorioEspacioReserva repositorioEspacioReserva,
+                                     clsRepositorioBloqueHorario repositorioBloqueHorario,
+                                     @Value("${app.disponibilidad.recarga.intervalo:PT5M}") Duration intervaloRecarga) {
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioHorario = repositorioHorario;
+        this.repositorioHorarioCurso = repositorioHorarioCurso;
+        this.repositorioEspacioReserva = repositorioEspacioReserva;
+        this.repositorioBloqueHorario = repositorioBloqueHorario;
+        this.intervaloRecarga = intervaloRecarga;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException ex) {
+            LOGGER.error("No se pudo cargar el motor de disponibilidad, se usarán consultas a la base de datos", ex);
+        }
+        // Con intervalo 0 no hay recarga periódica (solo al iniciar y por el endpoint de administración)
+        if (!intervaloRecarga.isZero() && !intervaloRecarga.isNegative()) {
+            hilo = Thread.ofVirtual().name("recarga-disponibilidad").start(this::ejecutar);
+        }
+    }
+
+    @PreDestroy
+    void detener() {
+        Thread actual = hilo;
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                Thread.sleep(intervaloRecarga.toMillis());
+                try {
+                    recargar();
+                } catch (RuntimeException ex) {
+                    LOGGER.error("Falló la recarga periódica del motor de disponibilidad; se reintentará en la siguiente pasada", ex);
+                }
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Reconstruye todo el estado en memoria a partir de la base de datos. El estado anterior sigue
+     * atendiendo verificaciones y reclamos hasta que el nuevo se publica.
+     */
+    public void recargar() {
+        bloqueo.lock();
+        try {
+            recargarBloqueado();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void recargarBloqueado() {
+        escribir(() -> cambiosEnRecarga = new ArrayList<>());
+        try {
+            Map<Integer, clsEntidadEspacio_Reserva> nuevosEspacios = new HashMap<>();
+            for (clsEntidadEspacio_Reserva espacio : repositorioEspacioReserva.findAll()) {
+                nuevosEspacios.put(espacio.getId(), espacio);
+            }
+            Map<Integer, clsEntidadBloqueHorario> nuevosBloques = new HashMap<>();
+            for (clsEntidadBloqueHorario bloque : repositorioBloqueHorario.findAll()) {
+                nuevosBloques.put(bloque.getId(), bloque);
+            }
+
+            Map<Integer, OcupacionEspacio> nuevas = new ConcurrentHashMap<>();
+            for (clsEntidadHorario horario : repositorioHorario.findByOcupado(true)) {
+                ocupacion(nuevas, horario.getEspacioId()).marcarSemanal(horario.getBloqueId(), horario.getDiaSemana(), true);
+            }
+            for (clsEntidadHorarioCurso curso : repositorioHorarioCurso.findByEstadoTrue()) {
+                ocupacion(nuevas, curso.getEspacioId()).registrarCurso(curso);
+            }
+            List<Object[]> reservas = repositorioReserva.findSlotsOcupadosDesde(ESTADOS_BLOQUEANTES, LocalDate.now());
+            for (Object[] fila : reservas) {
+                ocupacion(nuevas, (Integer) fila[0]).marcarFecha((Integer) fila[1], (LocalDate) fila[2], true);
+            }
+
+            escribir(() -> {
+                // Los cambios repetidos son idempotentes: si la consulta ya los vio, no alteran el resultado
+                cambiosEnRecarga.forEach(cambio -> cambio.apply(nuevas));
+                ocupaciones = nuevas;
+                espacios = Map.copyOf(nuevosEspacios);
+                bloques = Map.copyOf(nuevosBloques);
+                cargado = true;
+            });
+            LOGGER.info("Motor de disponibilidad cargado: {} espacios, {} bloques, {} reservas vigentes",
+                    nuevosEspacios.size(), nuevosBloques.size(), reservas.size());
+        } finally {
+            escribir(() -> cambiosEnRecarga = null);
+        }
+    }
+
+    /**
+     * Vuelve a leer los bloques horarios, por ejemplo tras modificarlos directamente en la base.
+     */
+    public void recargarBloques() {
+        bloqueo.lock();
+        try {
+            Map<Integer, clsEntidadBloqueHorario> nuevosBloques = new HashMap<>();
+            for (clsEntidadBloqueHorario bloque : repositorioBloqueHorario.findAll()) {
+                nuevosBloques.put(bloque.getId(), bloque);
+            }
+            bloques = Map.copyOf(nuevosBloques);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void escribir(Runnable accion) {
+        publicacion.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            publicacion.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Aplica un cambio al estado publicado. Durante una recarga el cambio también se anota, en el
+     * mismo orden en que se aplicó, para repetirlo sobre el estado nuevo.
+     */
+    private <T> T cambiar(Function<Map<Integer, OcupacionEspacio>, T> cambio) {
+        publicacion.readLock().lock();
+        try {
+            List<Function<Map<Integer, OcupacionEspacio>, ?>> pendientes = cambiosEnRecarga;
+            if (pendientes == null) {
+                return cambio.apply(ocupaciones);
+            }
+            synchronized (pendientes) {
+                pendientes.add(cambio);
+                return cambio.apply(ocupaciones);
+            }
+        } finally {
+            publicacion.readLock().unlock();
+        }
+    }
+
+    public boolean estaCargado() {
+        return cargado;
+    }
+
+    public Optional<clsEntidadEspacio_Reserva> obtenerEspacio(Integer espacioId) {
+        return espacioId != null ? Optional.ofNullable(espacios.get(espacioId)) : Optional.empty();
+    }
+
+    public Optional<clsEntidadBloqueHorario> obtenerBloque(Integer bloqueId) {
+        return bloqueId != null ? Optional.ofNullable(bloques.get(bloqueId)) : Optional.empty();
+    }
+
+    public Collection<clsEntidadEspacio_Reserva> obtenerEspacios() {
+        return espacios.values();
+    }
+
+    /**
+     * Cantidad de filas de horarios marcadas como ocupadas.
+     */
+    public long contarHorariosOcupados() {
+        long total = 0;
+        for (OcupacionEspacio ocupacion : ocupaciones.values()) {
+            total += ocupacion.contarSemanal();
+        }
+        return total;
+    }
+
+    /**
+     * Actualiza la copia en memoria de un espacio tras crearlo o modificarlo.
+     */
+    public void actualizarEspacio(clsEntidadEspacio espacio) {
+        if (espacio == null || espacio.getId() == null) {
+            return;
+        }
+        clsEntidadEspacio_Reserva copia = new clsEntidadEspacio_Reserva();
+        copia.setId(espacio.getId());
+        copia.setCodigo(espacio.getCodigo());
+        copia.setNombre(espacio.getNombre());
+        copia.setTipo(espacio.getTipo() != null ? espacio.getTipo().name() : null);
+        clsUtilTransaccion.alConfirmar(() -> modificarEspacios(mapa -> mapa.put(copia.getId(), copia)));
+    }
+
+    public void eliminarEspacio(Integer espacioId) {
+        if (espacioId == null) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> {
+            modificarEspacios(mapa -> mapa.remove(espacioId));
+            cambiar(mapa -> mapa.remove(espacioId));
+        });
+    }
+
+    private void modificarEspacios(Consumer<Map<Integer, clsEntidadEspacio_Reserva>> cambio) {
+        bloqueo.lock();
+        try {
+            Map<Integer, clsEntidadEspacio_Reserva> copia = new HashMap<>(espacios);
+            cambio.accept(copia);
+            espacios = Map.copyOf(copia);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Indica si el bloque está libre para la fecha sin modificar el estado.
+     */
+    public Conflicto verificar(Integer espacioId, Integer bloqueId, LocalDate fecha) {
+        OcupacionEspacio ocupacion = ocupaciones.get(espacioId);
+        return ocupacion != null ? ocupacion.verificar(bloqueId, fecha) : Conflicto.NINGUNO;
+    }
+
+    /**
+     * Indica si todos los bloques están libres en todas las fechas, consultando el espacio una sola vez.
+     */
+    public boolean estanLibres(Integer espacioId, int[] bloqueIds, List<LocalDate> fechas) {
+        OcupacionEspacio ocupacion = ocupaciones.get(espacioId);
+        return ocupacion == null || ocupacion.libres(bloqueIds, fechas);
+    }
+
+    /**
+     * Verifica y reclama el bloque de forma atómica. Si hay una transacción activa
+     * y termina sin confirmarse, el bloque se libera automáticamente.
+     */
+    public Conflicto reservar(Integer espacioId, Integer bloqueId, LocalDate fecha) {
+        Conflicto conflicto = cambiar(mapa -> ocupacion(mapa, espacioId).reclamar(bloqueId, fecha));
+        if (conflicto == Conflicto.NINGUNO) {
+            clsUtilTransaccion.alRevertir(() -> liberar(espacioId, bloqueId, fecha));
+        }
+        return conflicto;
+    }
+
+    public void liberar(Integer espacioId, Integer bloqueId, LocalDate fecha) {
+        cambiar(mapa -> {
+            OcupacionEspacio ocupacion = mapa.get(espacioId);
+            if (ocupacion != null) {
+                ocupacion.marcarFecha(bloqueId, fecha, false);
+            }
+            return null;
+        });
+    }
+
+    /**
+     * Refleja el cambio de estado de una reserva existente una vez confirmado.
+     */
+    public void actualizarReserva(Integer espacioId, Integer bloqueId, LocalDate fecha, boolean ocupada) {
+        if (espacioId == null || bloqueId == null || fecha == null) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> cambiar(mapa -> {
+            ocupacion(mapa, espacioId).marcarFecha(bloqueId, fecha, ocupada);
+            return null;
+        }));
+    }
+
+    /**
+     * Refleja el cambio de ocupación semanal de la tabla horarios una vez confirmado.
+     */
+    public void actualizarHorario(Integer espacioId, Integer bloqueId, clsEntidadHorario.DiaSemana dia, boolean ocupado) {
+        if (espacioId == null || bloqueId == null || dia == null) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> cambiar(mapa -> {
+            ocupacion(mapa, espacioId).marcarSemanal(bloqueId, dia, ocupado);
+            return null;
+        }));
+    }
+
+    /**
+     * Registra o reemplaza un horario de curso una vez confirmado.
+     */
+    public void actualizarCurso(clsEntidadHorarioCurso curso) {
+        if (curso == null || curso.getId() == null) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> cambiar(mapa -> {
+            mapa.values().forEach(ocupacion -> ocupacion.eliminarCurso(curso.getId()));
+            if (Boolean.TRUE.equals(curso.getEstado()) && curso.getEspacioId() != null) {
+                ocupacion(mapa, curso.getEspacioId()).registrarCurso(curso);
+            }
+            return null;
+        }));
+    }
+
+    /**
+     * Registra cursos recién insertados (importación masiva) con un solo cambio al confirmar la
+     * transacción; al ser ids nuevos no hay registros previos que quitar.
+     */
+    public void registrarCursosNuevos(Collection<clsEntidadHorarioCurso> cursos) {
+        List<clsEntidadHorarioCurso> activos = new ArrayList<>();
+        for (clsEntidadHorarioCurso curso : cursos) {
+            if (curso.getId() != null && Boolean.TRUE.equals(curso.getEstado()) && curso.getEspacioId() != null) {
+                activos.add(curso);
+            }
+        }
+        if (activos.isEmpty()) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> cambiar(mapa -> {
+            activos.forEach(curso -> ocupacion(mapa, curso.getEspacioId()).registrarCurso(curso));
+            return null;
+        }));
+    }
+
+    public void eliminarCurso(Integer cursoId) {
+        if (cursoId == null) {
+            return;
+        }
+        clsUtilTransaccion.alConfirmar(() -> cambiar(mapa -> {
+            mapa.values().forEach(ocupacion -> ocupacion.eliminarCurso(cursoId));
+            return null;
+        }));
+    }
+
+    private static OcupacionEspacio ocupacion(Map<Integer, OcupacionEspacio> mapa, Integer espacioId) {
+        return mapa.computeIfAbsent(espacioId, id -> new OcupacionEspacio());
+    }
+
+    /**
+     * Estado de ocupación de un espacio. Los bits se indexan por id de bloque.
+     */
+    private static final class OcupacionEspacio {
+        private final BitSet[] semanal = new BitSet[DIAS];
+        // Ordenado por día para descartar de una vez las fechas que ya pasaron
+        private final NavigableMap<Long, BitSet> porFecha = new TreeMap<>();
+        private final List<CursoSlot> cursos = new ArrayList<>();
+        private long depuradoHasta;
+
+        synchronized Conflicto verificar(int bloqueId, LocalDate fecha) {
+            BitSet reservados = porFecha.get(fecha.toEpochDay());
+            if (reservados != null && reservados.get(bloqueId)) {
+                return Conflicto.RESERVA;
+            }
+            int dia = clsUtilDiaSemana.indice(fecha);
+            if (dia >= 0) {
+                if (semanal[dia] != null && semanal[dia].get(bloqueId)) {
+                    return Conflicto.HORARIO;
+                }
+                for (CursoSlot curso : cursos) {
+                    if (curso.ocupa(bloqueId, dia, fecha)) {
+                        return Conflicto.CURSO;
+                    }
+                }
+            }
+            return Conflicto.NINGUNO;
+        }
+
+        synchronized boolean libres(int[] bloqueIds, List<LocalDate> fechas) {
+            for (LocalDate fecha : fechas) {
+                for (int bloqueId : bloqueIds) {
+                    if (verificar(bloqueId, fecha) != Conflicto.NINGUNO) {
+                        return false;
+                    }
+                }
+            }
+            return true;
+        }
+
+        synchronized Conflicto reclamar(int bloqueId, LocalDate fecha) {
+            Conflicto conflicto = verificar(bloqueId, fecha);
+            if (conflicto == Conflicto.NINGUNO) {
+                marcarFecha(bloqueId, fecha, true);
+            }
+            return conflicto;
+        }
+
+        synchronized void marcarFecha(int bloqueId, LocalDate fecha, boolean ocupado) {
+            long clave = fecha.toEpochDay();
+            if (ocupado) {
+                depurarFechasPasadas();
+                porFecha.computeIfAbsent(clave, k -> new BitSet()).set(bloqueId);
+            } else {
+                BitSet reservados = porFecha.get(clave);
+                if (reservados != null) {
+                    reservados.clear(bloqueId);
+                    if (reservados.isEmpty()) {
+                        porFecha.remove(clave);
+                    }
+                }
+            }
+        }
+
+        // Una vez por día y espacio: las reservas de fechas pasadas ya no pueden entrar en conflicto
+        private void depurarFechasPasadas() {
+            long hoy = LocalDate.now().toEpochDay();
+            if (hoy > depuradoHasta) {
+                porFecha.headMap(hoy, false).clear();
+                depuradoHasta = hoy;
+            }
+        }
+
+        synchronized int contarSemanal() {
+            int total = 0;
+            for (BitSet dia : semanal) {
+                if (dia != null) {
+                    total += dia.cardinality();
+                }
+            }
+            return total;
+        }
+
+        synchronized void marcarSemanal(int bloqueId, clsEntidadHorario.DiaSemana dia, boolean ocupado) {
+            int indice = dia.ordinal();
+            if (semanal[indice] == null) {
+                semanal[indice] = new BitSet();
+            }
+            semanal[indice].set(bloqueId, ocupado);
+        }
+
+        synchronized void registrarCurso(clsEntidadHorarioCurso curso) {
+            if (curso.getId() == null || curso.getBloqueId() == null || curso.getDiaSemana() == null) {
+                return;
+            }
+            // Un alta repetida durante la recarga no debe duplicar el curso
+            for (CursoSlot existente : cursos) {
+                if (existente.id == curso.getId()) {
+                    return;
+                }
+            }
+            cursos.add(new CursoSlot(curso.getId(), curso.getBloqueId(), curso.getDiaSemana().ordinal(),
+                    curso.getFechaInicio(), curso.getFechaFin()));
+        }
+
+        synchronized void eliminarCurso(int cursoId) {
+            cursos.removeIf(curso -> curso.id == cursoId);
+        }
+    }
+
+    private record CursoSlot(int id, int bloqueId, int dia, LocalDate inicio, LocalDate fin) {
+        boolean ocupa(int bloque, int diaFecha, LocalDate fecha) {
+            return bloqueId == bloque && dia == diaFecha
+                    && (inicio == null || !fecha.isBefore(inicio))
+                    && (fin == null || !fecha.isAfter(fin));
+        }
+    }
+}
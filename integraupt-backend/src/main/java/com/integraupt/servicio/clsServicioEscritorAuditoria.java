@@ -0,0 +1,244 @@
+package com.integraupt.servicio;
+
+import com.integraupt.repositorio.clsRepositorioReservaLote;
+import com.integraupt.repositorio.clsRepositorioReservaLote.RegistroAuditoria;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+/**
+ * Escribe la auditoría de reservas fuera de la transacción que la origina.
+ *
+ * Los registros se encolan después del commit en una cola acotada y un hilo propio los inserta
+ * por lotes JDBC, cada intento en su propia transacción para que un lote fallido no quede a medias
+ * antes del reintento. Encolar nunca bloquea a quien registra: con la cola llena los registros que
+ * no caben se descartan y se cuentan en {@code integraupt.auditoria.descartadas}. Al apagar la
+ * aplicación se vacía la cola antes de cerrar el pool de conexiones.
+ */
+@Service
+public class clsServicioEscritorAuditoria {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioEscritorAuditoria.class);
+    private static final String METRICA_DESCARTADAS = "integraupt.auditoria.descartadas";
+    private static final int REINTENTOS = 3;
+    // Con la cola saturada se descarta en ráfaga; basta un WARN cada tantos descartes
+    private static final int AVISO_CADA = 1000;
+
+    private record Pendiente(RegistroAuditoria registro, long encoladoNanos) {
+    }
+
+    private final clsRepositorioReservaLote repositorioLote;
+    private final TransactionTemplate transaccion;
+    private final BlockingQueue<Pendiente> cola;
+    private final int tamanoLote;
+    private final Duration intervalo;
+    private final Duration demoraMaxima;
+    private final Duration esperaApagado;
+
+    private final Counter escritas;
+    private final Counter descartadasColaLlena;
+    private final Counter descartadasError;
+    private final Counter demoradas;
+    private final Timer demora;
+
+    private volatile boolean activo;
+    private volatile Thread hilo;
+
+    public clsServicioEscritorAuditoria(clsRepositorioReservaLote repositorioLote,
+                                        PlatformTransactionManager gestorTransacciones,
+                                        MeterRegistry registroMetricas,
+                                        @Value("${app.auditoria.cola.capacidad:10000}") int capacidad,
+                                        @Value("${app.auditoria.lote:200}") int tamanoLote,
+                                        @Value("${app.auditoria.intervalo:PT0.5S}") Duration intervalo,
+                                        @Value("${app.auditoria.demora-maxima:PT5S}") Duration demoraMaxima,
+                                        @Value("${app.auditoria.espera-apagado:PT10S}") Duration esperaApagado) {
+        this.repositorioLote = repositorioLote;
+        // REQUIRES_NEW: la escritura directa ocurre en el afterCommit de la transacción de origen
+        this.transaccion = new TransactionTemplate(gestorTransacciones);
+        this.transaccion.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.cola = new ArrayBlockingQueue<>(Math.max(capacidad, 1));
+        this.tamanoLote = Math.max(tamanoLote, 1);
+        this.intervalo = intervalo;
+        this.demoraMaxima = demoraMaxima;
+        this.esperaApagado = esperaApagado;
+
+        this.escritas = Counter.builder("integraupt.auditoria.escritas")
+                .description("Registros de auditoría insertados por el escritor asíncrono")
+                .register(registroMetricas);
+        this.descartadasColaLlena = contadorDescartadas(registroMetricas, "cola_llena");
+        this.descartadasError = contadorDescartadas(registroMetricas, "error");
+        this.demoradas = Counter.builder("integraupt.auditoria.demoradas")
+                .description("Registros escritos después de la demora máxima configurada")
+                .register(registroMetricas);
+        this.demora = Timer.builder("integraupt.auditoria.demora")
+                .description("Tiempo entre el encolado y la inserción de cada registro")
+                .register(registroMetricas);
+        Gauge.builder("integraupt.auditoria.cola", cola, BlockingQueue::size)
+                .description("Registros de auditoría pendientes de escribir")
+                .register(registroMetricas);
+    }
+
+    private static Counter contadorDescartadas(MeterRegistry registro, String motivo) {
+        return Counter.builder(METRICA_DESCARTADAS)
+                .description("Registros de auditoría que no llegaron a la base")
+                .tag("motivo", motivo)
+                .register(registro);
+    }
+
+    // Hilo de plataforma: vive todo el ciclo de la aplicación y pasa la mayor parte bloqueado en JDBC
+    @PostConstruct
+    void iniciar() {
+        activo = true;
+        hilo = Thread.ofPlatform().daemon().name("auditoria-escritor").start(this::ejecutar);
+    }
+
+    @PreDestroy
+    void detener() {
+        activo = false;
+        Thread actual = hilo;
+        if (actual == null) {
+            return;
+        }
+        try {
+            actual.join(esperaApagado.toMillis());
+            if (actual.isAlive()) {
+                actual.interrupt();
+                actual.join(esperaApagado.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+        int pendientes = cola.size();
+        if (pendientes > 0) {
+            descartadasError.increment(pendientes);
+            LOGGER.error("Se apagó la aplicación con {} registros de auditoría sin escribir", pendientes);
+        }
+    }
+
+    /**
+     * Registra un cambio de estado. Dentro de una transacción se encola recién al confirmarse,
+     * de modo que un cambio revertido no deja auditoría.
+     */
+    public void registrar(Integer idReserva, String estadoAnterior, String estadoNuevo, Integer usuarioCambio) {
+        RegistroAuditoria registro = new RegistroAuditoria(idReserva, estadoAnterior, estadoNuevo,
+                usuarioCambio, LocalDateTime.now());
+        clsUtilTransaccion.alConfirmar(() -> encolar(List.of(registro)));
+    }
+
+    /**
+     * Registra varios cambios ya armados; se encolan juntos al confirmarse la transacción.
+     */
+    public void registrar(List<RegistroAuditoria> registros) {
+        if (registros.isEmpty()) {
+            return;
+        }
+        List<RegistroAuditoria> copia = List.copyOf(registros);
+        clsUtilTransaccion.alConfirmar(() -> encolar(copia));
+    }
+
+    private void encolar(List<RegistroAuditoria> registros) {
+        long ahora = System.nanoTime();
+        List<Pendiente> pendientes = new ArrayList<>(registros.size());
+        for (RegistroAuditoria registro : registros) {
+            pendientes.add(new Pendiente(registro, ahora));
+        }
+        if (!activo) {
+            // Sin hilo que vacíe la cola (antes de iniciar o después de detener) se escribe en el momento
+            escribir(pendientes);
+            return;
+        }
+        int descartados = 0;
+        for (Pendiente pendiente : pendientes) {
+            if (!cola.offer(pendiente)) {
+                descartados++;
+            }
+        }
+        if (descartados > 0) {
+            long antes = (long) descartadasColaLlena.count();
+            descartadasColaLlena.increment(descartados);
+            if (antes / AVISO_CADA != (antes + descartados) / AVISO_CADA || antes == 0) {
+                LOGGER.warn("Cola de auditoría llena ({} pendientes); descartados {} registros desde el arranque",
+                        cola.size(), antes + descartados);
+            }
+        }
+    }
+
+    private void ejecutar() {
+        List<Pendiente> lote = new ArrayList<>(tamanoLote);
+        while (activo || !cola.isEmpty()) {
+            try {
+                Pendiente primero = cola.poll(intervalo.toMillis(), TimeUnit.MILLISECONDS);
+                if (primero == null) {
+                    continue;
+                }
+                lote.add(primero);
+                cola.drainTo(lote, tamanoLote - 1);
+                escribir(lote);
+            } catch (InterruptedException ex) {
+                // Solo se interrumpe si el apagado excedió su espera; lo que quede se cuenta en detener()
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException ex) {
+                LOGGER.error("Error inesperado en el escritor de auditoría", ex);
+            } finally {
+                lote.clear();
+            }
+        }
+    }
+
+    private void escribir(List<Pendiente> lote) {
+        List<RegistroAuditoria> registros = new ArrayList<>(lote.size());
+        for (Pendiente pendiente : lote) {
+            registros.add(pendiente.registro());
+        }
+        for (int intento = 1; ; intento++) {
+            try {
+                transaccion.executeWithoutResult(estado -> repositorioLote.insertarAuditorias(registros));
+                break;
+            } catch (DataAccessException ex) {
+                if (intento >= REINTENTOS || Thread.currentThread().isInterrupted()) {
+                    descartadasError.increment(lote.size());
+                    LOGGER.error("No se pudieron escribir {} registros de auditoría tras {} intentos",
+                            lote.size(), intento, ex);
+                    return;
+                }
+                LOGGER.warn("Falló la escritura de {} registros de auditoría (intento {}); se reintenta",
+                        lote.size(), intento);
+                try {
+                    Thread.sleep(200L * intento);
+                } catch (InterruptedException interrumpido) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        }
+
+        long ahora = System.nanoTime();
+        long maximo = demoraMaxima.toNanos();
+        for (Pendiente pendiente : lote) {
+            long transcurrido = ahora - pendiente.encoladoNanos();
+            demora.record(transcurrido, TimeUnit.NANOSECONDS);
+            if (transcurrido > maximo) {
+                demoradas.increment();
+            }
+        }
+        escritas.increment(lote.size());
+    }
+}
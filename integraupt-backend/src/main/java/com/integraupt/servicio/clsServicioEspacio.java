@@ -18,11 +18,20 @@ public class clsServicioEspacio {
 
     private final clsRepositorioEspacio repositorioEspacio;
     private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final clsServicioBusquedaEspacios servicioBusqueda;
+    private final clsServicioIndiceEspacios indiceEspacios;
 
     public clsServicioEspacio(clsRepositorioEspacio repositorioEspacio, 
-                             clsServicioCatalogos servicioCatalogos) {
+                             clsServicioCatalogos servicioCatalogos,
+                             clsServicioDisponibilidad servicioDisponibilidad,
+                             clsServicioBusquedaEspacios servicioBusqueda,
+                             clsServicioIndiceEspacios indiceEspacios) {
         this.repositorioEspacio = repositorioEspacio;
         this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.servicioBusqueda = servicioBusqueda;
+        this.indiceEspacios = indiceEspacios;
     }
 
     /**
@@ -81,6 +90,11 @@ public class clsServicioEspacio {
 
         // Guardar en BD
         clsEntidadEspacio espacioGuardado = repositorioEspacio.save(nuevoEspacio);
+        servicioDisponibilidad.actualizarEspacio(espacioGuardado);
+        clsUtilTransaccion.alConfirmar(() -> {
+            servicioBusqueda.invalidar();
+            indiceEspacios.indexar(espacioGuardado);
+        });
         
         // Convertir a DTO de respuesta
         clsDTOEspacioResponse.EspacioDTO espacioDTO = convertirEntidadADTO(espacioGuardado);
@@ -119,6 +133,11 @@ public class clsServicioEspacio {
 
         // Guardar cambios
         clsEntidadEspacio espacioActualizado = repositorioEspacio.save(espacio);
+        servicioDisponibilidad.actualizarEspacio(espacioActualizado);
+        clsUtilTransaccion.alConfirmar(() -> {
+            servicioBusqueda.invalidar();
+            indiceEspacios.indexar(espacioActualizado);
+        });
         
         // Convertir a DTO de respuesta
         clsDTOEspacioResponse.EspacioDTO espacioDTO = convertirEntidadADTO(espacioActualizado);
@@ -137,6 +156,11 @@ public class clsServicioEspacio {
 
         // Eliminar de BD
         repositorioEspacio.deleteById(id);
+        servicioDisponibilidad.eliminarEspacio(id);
+        clsUtilTransaccion.alConfirmar(() -> {
+            servicioBusqueda.invalidar();
+            indiceEspacios.eliminar(id);
+        });
         return clsDTOEspacioResponse.success("Espacio eliminado exitosamente", null);
     }
 
@@ -144,6 +168,14 @@ public class clsServicioEspacio {
      * Convertir entidad a DTO para respuesta
      */
     private clsDTOEspacioResponse.EspacioDTO convertirEntidadADTO(clsEntidadEspacio entidad) {
+        return convertirEntidadADTO(entidad, servicioCatalogos);
+    }
+
+    /**
+     * Conversión compartida con los índices de búsqueda de espacios
+     */
+    static clsDTOEspacioResponse.EspacioDTO convertirEntidadADTO(clsEntidadEspacio entidad,
+                                                                 clsServicioCatalogos servicioCatalogos) {
         // Obtener nombres de facultad y escuela
         String nombreFacultad = servicioCatalogos.obtenerNombreFacultad(entidad.getFacultadId());
         String nombreEscuela = servicioCatalogos.obtenerNombreEscuela(entidad.getEscuelaId());
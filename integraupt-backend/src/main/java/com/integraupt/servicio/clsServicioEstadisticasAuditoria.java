@@ -0,0 +1,193 @@
+package com.integraupt.servicio;
+
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Totales de auditoría por día y estado nuevo, materializados en memoria.
+ *
+ * Se cargan con consultas agrupadas por rango de IdAudit, así que incluyen las filas de cualquier
+ * origen, el trigger incluido. Los totales se dividen en una parte firme, hasta {@code ventana} ids
+ * por debajo del mayor IdAudit, que solo se acumula, y una cola con los ids más recientes, que se
+ * vuelve a contar entera en cada puesta al día (como mucho una vez por {@code intervalo}). Así una
+ * fila cuyo IdAudit se asignó antes que otro pero se confirmó después se cuenta igual, siempre que
+ * se confirme antes de quedar en la parte firme. Para los casos que escapen a la ventana, la carga
+ * completa se repite cada {@code recarga}. Carga y puesta al día comparten el lock: ninguna fila se
+ * cuenta dos veces. Las eliminaciones y el archivo de particiones invalidan los totales, que se
+ * reconstruyen en la siguiente lectura; {@link #recargar()} fuerza la reconstrucción.
+ *
+ * Los estados se comparan sin distinguir mayúsculas ni tildes, como la collation de EstadoNuevo.
+ */
+@Service
+public class clsServicioEstadisticasAuditoria {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioEstadisticasAuditoria.class);
+
+    private final clsRepositorioAuditoriaReserva repositorioAuditoria;
+    private final long intervaloNanos;
+    private final long recargaNanos;
+    private final int ventana;
+
+    /**
+     * Totales publicados; se reemplazan enteros en cada carga o puesta al día.
+     */
+    private record Totales(long total, Map<String, Long> porEstado, NavigableMap<LocalDate, Long> porDia) {
+    }
+
+    private volatile Totales totales = new Totales(0, Map.of(), new TreeMap<>());
+    private volatile boolean cargado;
+    private volatile long puestaAlDiaNanos;
+    private volatile long cargadoEn;
+
+    // Parte firme (IdAudit <= firme): solo se modifica con el lock tomado
+    private final Map<String, Long> firmePorEstado = new HashMap<>();
+    private final NavigableMap<LocalDate, Long> firmePorDia = new TreeMap<>();
+    private long firmeTotal;
+    private int firme;
+
+    // Igual que en las estadísticas de reservas: lock explícito para no fijar hilos virtuales durante la consulta
+    private final ReentrantLock bloqueo = new ReentrantLock();
+
+    public clsServicioEstadisticasAuditoria(clsRepositorioAuditoriaReserva repositorioAuditoria,
+                                            @Value("${app.auditoria.estadisticas.intervalo:PT5S}") Duration intervalo,
+                                            @Value("${app.auditoria.estadisticas.recarga:PT1H}") Duration recarga,
+                                            @Value("${app.auditoria.estadisticas.ventana:1000}") int ventana) {
+        this.repositorioAuditoria = repositorioAuditoria;
+        this.intervaloNanos = intervalo.toNanos();
+        this.recargaNanos = recarga.toNanos();
+        this.ventana = Math.max(ventana, 0);
+    }
+
+    /**
+     * Reconstruye los totales a partir de auditoriareserva.
+     */
+    public void recargar() {
+        bloqueo.lock();
+        try {
+            recargarBloqueado();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void recargarBloqueado() {
+        cargado = false;
+        firmePorEstado.clear();
+        firmePorDia.clear();
+        firmeTotal = 0;
+        firme = 0;
+        ponerAlDiaBloqueado();
+        cargadoEn = puestaAlDiaNanos;
+        cargado = true;
+        LOGGER.info("Estadísticas de auditoría cargadas: {} registros en {} días",
+                totales.total(), totales.porDia().size());
+    }
+
+    // Pasa a la parte firme lo que quedó fuera de la ventana y vuelve a contar la cola
+    private void ponerAlDiaBloqueado() {
+        Integer maximo = repositorioAuditoria.findMaxIdAudit();
+        int hasta = maximo != null ? maximo : 0;
+        int nuevoFirme = Math.max(firme, hasta - ventana);
+        if (nuevoFirme > firme) {
+            firmeTotal += sumar(repositorioAuditoria.countPorDiaYEstadoNuevoEntre(firme, nuevoFirme),
+                    firmePorEstado, firmePorDia);
+            firme = nuevoFirme;
+        }
+        Map<String, Long> porEstado = new HashMap<>(firmePorEstado);
+        NavigableMap<LocalDate, Long> porDia = new TreeMap<>(firmePorDia);
+        long total = firmeTotal;
+        if (hasta > firme) {
+            total += sumar(repositorioAuditoria.countPorDiaYEstadoNuevoEntre(firme, hasta), porEstado, porDia);
+        }
+        totales = new Totales(total, porEstado, porDia);
+        puestaAlDiaNanos = System.nanoTime();
+    }
+
+    private static long sumar(List<Object[]> filas, Map<String, Long> porEstado, Map<LocalDate, Long> porDia) {
+        long suma = 0;
+        for (Object[] fila : filas) {
+            LocalDate dia = aFecha(fila[0]);
+            long cantidad = ((Number) fila[2]).longValue();
+            if (dia != null) {
+                porDia.merge(dia, cantidad, Long::sum);
+            }
+            porEstado.merge(clave((String) fila[1]), cantidad, Long::sum);
+            suma += cantidad;
+        }
+        return suma;
+    }
+
+    private void asegurarCargado() {
+        if (cargado && System.nanoTime() - puestaAlDiaNanos < intervaloNanos) {
+            return;
+        }
+        bloqueo.lock();
+        try {
+            long ahora = System.nanoTime();
+            if (!cargado || ahora - cargadoEn >= recargaNanos) {
+                recargarBloqueado();
+            } else if (ahora - puestaAlDiaNanos >= intervaloNanos) {
+                ponerAlDiaBloqueado();
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Descarta los totales; se reconstruyen en la siguiente consulta.
+     */
+    public void invalidar() {
+        cargado = false;
+    }
+
+    public long getTotal() {
+        asegurarCargado();
+        return totales.total();
+    }
+
+    public long getTotalPorEstado(String estadoNuevo) {
+        asegurarCargado();
+        return totales.porEstado().getOrDefault(clave(estadoNuevo), 0L);
+    }
+
+    /**
+     * Registros por día desde la fecha indicada, del más reciente al más antiguo, como pares [fecha, total].
+     */
+    public List<Object[]> getTotalesPorDiaDesde(LocalDate desde) {
+        asegurarCargado();
+        List<Object[]> dias = new ArrayList<>();
+        for (Map.Entry<LocalDate, Long> entrada : totales.porDia().tailMap(desde, true).descendingMap().entrySet()) {
+            dias.add(new Object[] {entrada.getKey(), entrada.getValue()});
+        }
+        return dias;
+    }
+
+    // Los registros sin estado nuevo quedan con la clave ""
+    private static String clave(String estado) {
+        return clsUtilTexto.plegar(estado);
+    }
+
+    // DATE() llega como java.sql.Date o LocalDate según el dialecto
+    private static LocalDate aFecha(Object valor) {
+        if (valor instanceof LocalDate fecha) {
+            return fecha;
+        }
+        if (valor instanceof java.sql.Date fecha) {
+            return fecha.toLocalDate();
+        }
+        return null;
+    }
+}
@@ -0,0 +1,254 @@
+package com.integraupt.servicio;
+
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioUsuario;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.locks.ReentrantLock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Almacén de contadores agregados de reservas y usuarios para los reportes.
+ *
+ * Se carga con consultas agrupadas y luego se mantiene con cada transición de estado de reserva o
+ * cambio de rol de usuario confirmado en esta instancia. Para recoger los cambios de otras instancias
+ * o hechos directamente en la base, se reconstruye completo en la primera lectura después de
+ * {@code app.estadisticas.reservas.ttl}; mientras tanto los reportes siguen usando los contadores anteriores.
+ *
+ * Una transición registrada antes de una reconstrucción y confirmada después se descarta: si se confirmó
+ * antes de las consultas ya está contada. Si se confirmó mientras corrían, puede faltar hasta la
+ * reconstrucción siguiente; ese es el único desfase, nunca se cuenta dos veces.
+ */
+@Service
+public class clsServicioEstadisticasReserva {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioEstadisticasReserva.class);
+    static final String ESTADO_APROBADA = "Aprobada";
+
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioUsuario repositorioUsuario;
+    private final long ttlNanos;
+
+    // Se reemplazan enteros al reconstruir, para que las lecturas no vean contadores a medio cargar
+    private volatile Map<String, Long> reservasPorEstado = new ConcurrentHashMap<>();
+    private volatile Map<Integer, Long> aprobadasPorEspacio = new ConcurrentHashMap<>();
+    private volatile Map<YearMonth, Long> solicitudesPorMes = new ConcurrentHashMap<>();
+    private volatile Map<YearMonth, Long> aprobadasPorMes = new ConcurrentHashMap<>();
+    private volatile ConcurrentSkipListMap<LocalDate, Long> aprobadasPorFecha = new ConcurrentSkipListMap<>();
+    private volatile Map<Integer, Long> usuariosPorRol = new ConcurrentHashMap<>();
+    private volatile boolean cargado;
+    private volatile long cargadoEn;
+    // Aumenta al empezar cada reconstrucción; las transiciones de una generación anterior no se aplican
+    private volatile long generacion;
+    // Protege contadores y recarga; no usa synchronized para no fijar hilos virtuales durante la consulta
+    private final ReentrantLock bloqueo = new ReentrantLock();
+
+    public clsServicioEstadisticasReserva(clsRepositorioReserva repositorioReserva,
+                                          clsRepositorioUsuario repositorioUsuario,
+                                          @Value("${app.estadisticas.reservas.ttl:PT5M}") Duration ttl) {
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioUsuario = repositorioUsuario;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    /**
+     * Reconstruye todos los contadores a partir de la base de datos.
+     */
+    public void recargar() {
+        bloqueo.lock();
+        try {
+            recargarBloqueado();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void recargarBloqueado() {
+        generacion++;
+        Map<String, Long> reservasPorEstado = new ConcurrentHashMap<>();
+        Map<Integer, Long> aprobadasPorEspacio = new ConcurrentHashMap<>();
+        Map<YearMonth, Long> solicitudesPorMes = new ConcurrentHashMap<>();
+        Map<YearMonth, Long> aprobadasPorMes = new ConcurrentHashMap<>();
+        ConcurrentSkipListMap<LocalDate, Long> aprobadasPorFecha = new ConcurrentSkipListMap<>();
+        Map<Integer, Long> usuariosPorRol = new ConcurrentHashMap<>();
+
+        for (Object[] fila : repositorioReserva.countAgrupadoPorEstado()) {
+            if (fila[0] != null) {
+                reservasPorEstado.put((String) fila[0], ((Number) fila[1]).longValue());
+            }
+        }
+        for (Object[] fila : repositorioReserva.countPorEspacioConEstado(ESTADO_APROBADA)) {
+            aprobadasPorEspacio.put((Integer) fila[0], ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : repositorioReserva.countPorMesSolicitudYEstado()) {
+            YearMonth mes = YearMonth.of(((Number) fila[0]).intValue(), ((Number) fila[1]).intValue());
+            long total = ((Number) fila[3]).longValue();
+            solicitudesPorMes.merge(mes, total, Long::sum);
+            if (ESTADO_APROBADA.equals(fila[2])) {
+                aprobadasPorMes.merge(mes, total, Long::sum);
+            }
+        }
+        for (Object[] fila : repositorioReserva.countPorFechaReservaConEstadoDesde(ESTADO_APROBADA, LocalDate.now())) {
+            aprobadasPorFecha.put((LocalDate) fila[0], ((Number) fila[1]).longValue());
+        }
+        for (Object[] fila : repositorioUsuario.countAgrupadoPorRol()) {
+            if (fila[0] != null) {
+                usuariosPorRol.put((Integer) fila[0], ((Number) fila[1]).longValue());
+            }
+        }
+
+        this.reservasPorEstado = reservasPorEstado;
+        this.aprobadasPorEspacio = aprobadasPorEspacio;
+        this.solicitudesPorMes = solicitudesPorMes;
+        this.aprobadasPorMes = aprobadasPorMes;
+        this.aprobadasPorFecha = aprobadasPorFecha;
+        this.usuariosPorRol = usuariosPorRol;
+        cargadoEn = System.nanoTime();
+        cargado = true;
+        LOGGER.info("Estadísticas de reservas cargadas: {} estados, {} espacios con reservas aprobadas",
+                reservasPorEstado.size(), aprobadasPorEspacio.size());
+    }
+
+    // La primera lectura espera la carga; con los contadores vencidos reconstruye un solo hilo y el resto lee los actuales
+    private void asegurarCargado() {
+        if (cargado && System.nanoTime() - cargadoEn < ttlNanos) {
+            return;
+        }
+        if (cargado) {
+            if (!bloqueo.tryLock()) {
+                return;
+            }
+        } else {
+            bloqueo.lock();
+        }
+        try {
+            if (!cargado || System.nanoTime() - cargadoEn >= ttlNanos) {
+                recargarBloqueado();
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    /**
+     * Registra el cambio de estado de una reserva. Para una reserva nueva el estado anterior es null.
+     */
+    public void registrarTransicion(Integer espacioId, LocalDate fechaReserva, LocalDateTime fechaSolicitud,
+                                    String estadoAnterior, String estadoNuevo) {
+        if (Objects.equals(estadoAnterior, estadoNuevo)) {
+            return;
+        }
+        long vista = generacion;
+        clsUtilTransaccion.alConfirmar(() -> conBloqueo(vista, () -> aplicarTransicion(
+                espacioId, fechaReserva, fechaSolicitud, estadoAnterior, estadoNuevo)));
+    }
+
+    private void aplicarTransicion(Integer espacioId, LocalDate fechaReserva, LocalDateTime fechaSolicitud,
+                                                String estadoAnterior, String estadoNuevo) {
+        YearMonth mes = fechaSolicitud != null ? YearMonth.from(fechaSolicitud) : null;
+        if (estadoAnterior == null && mes != null) {
+            incrementar(solicitudesPorMes, mes, 1);
+        }
+        if (estadoAnterior != null) {
+            incrementar(reservasPorEstado, estadoAnterior, -1);
+        }
+        if (estadoNuevo != null) {
+            incrementar(reservasPorEstado, estadoNuevo, 1);
+        }
+
+        long deltaAprobada = (ESTADO_APROBADA.equals(estadoNuevo) ? 1 : 0) - (ESTADO_APROBADA.equals(estadoAnterior) ? 1 : 0);
+        if (deltaAprobada != 0) {
+            if (espacioId != null) {
+                incrementar(aprobadasPorEspacio, espacioId, deltaAprobada);
+            }
+            if (mes != null) {
+                incrementar(aprobadasPorMes, mes, deltaAprobada);
+            }
+            if (fechaReserva != null && !fechaReserva.isBefore(LocalDate.now())) {
+                incrementar(aprobadasPorFecha, fechaReserva, deltaAprobada);
+            }
+        }
+    }
+
+    /**
+     * Registra el alta (rolAnterior null), baja (rolNuevo null) o cambio de rol de un usuario.
+     */
+    public void registrarCambioRol(Integer rolAnterior, Integer rolNuevo) {
+        if (Objects.equals(rolAnterior, rolNuevo)) {
+            return;
+        }
+        long vista = generacion;
+        clsUtilTransaccion.alConfirmar(() -> conBloqueo(vista, () -> aplicarCambioRol(rolAnterior, rolNuevo)));
+    }
+
+    private void aplicarCambioRol(Integer rolAnterior, Integer rolNuevo) {
+        if (rolAnterior != null) {
+            incrementar(usuariosPorRol, rolAnterior, -1);
+        }
+        if (rolNuevo != null) {
+            incrementar(usuariosPorRol, rolNuevo, 1);
+        }
+    }
+
+    public long contarUsuariosPorRol(Integer rolId) {
+        asegurarCargado();
+        return usuariosPorRol.getOrDefault(rolId, 0L);
+    }
+
+    public long contarReservasPorEstado(String estado) {
+        asegurarCargado();
+        return reservasPorEstado.getOrDefault(estado, 0L);
+    }
+
+    public long contarAprobadasPorEspacio(Integer espacioId) {
+        asegurarCargado();
+        return aprobadasPorEspacio.getOrDefault(espacioId, 0L);
+    }
+
+    public long contarSolicitudesDelMes(YearMonth mes) {
+        asegurarCargado();
+        return solicitudesPorMes.getOrDefault(mes, 0L);
+    }
+
+    public long contarAprobadasDelMes(YearMonth mes) {
+        asegurarCargado();
+        return aprobadasPorMes.getOrDefault(mes, 0L);
+    }
+
+    /**
+     * Reservas aprobadas con fecha de reserva igual o posterior a la indicada.
+     */
+    public long contarAprobadasDesde(LocalDate fecha) {
+        asegurarCargado();
+        long total = 0;
+        for (Long cantidad : aprobadasPorFecha.tailMap(fecha, true).values()) {
+            total += cantidad;
+        }
+        return total;
+    }
+
+    // Sin contadores cargados no hay nada que mantener; la próxima carga incluirá el cambio
+    private void conBloqueo(long vista, Runnable accion) {
+        bloqueo.lock();
+        try {
+            if (cargado && generacion == vista) {
+                accion.run();
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private static <K> void incrementar(Map<K, Long> contadores, K clave, long delta) {
+        contadores.merge(clave, delta, Long::sum);
+    }
+}
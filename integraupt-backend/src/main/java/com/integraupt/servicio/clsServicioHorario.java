@@ -3,27 +3,35 @@ package com.integraupt.servicio;
 import com.integraupt.dto.clsDTOHorarioRequest;
 import com.integraupt.dto.clsDTOHorarioResponse;
 import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.repositorio.clsRepositorioEspacio;
 import com.integraupt.repositorio.clsRepositorioHorario;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
-import java.util.stream.Collectors;
+import java.util.Set;
 
 @Service
 public class clsServicioHorario {
 
     private final clsRepositorioHorario repositorioHorario;
-    private final clsServicioEspacio servicioEspacio;
+    private final clsRepositorioEspacio repositorioEspacio;
     private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
 
     public clsServicioHorario(clsRepositorioHorario repositorioHorario,
-                             clsServicioEspacio servicioEspacio,
-                             clsServicioCatalogos servicioCatalogos) {
+                             clsRepositorioEspacio repositorioEspacio,
+                             clsServicioCatalogos servicioCatalogos,
+                             clsServicioDisponibilidad servicioDisponibilidad) {
         this.repositorioHorario = repositorioHorario;
-        this.servicioEspacio = servicioEspacio;
+        this.repositorioEspacio = repositorioEspacio;
         this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
     }
 
     /**
@@ -32,9 +40,7 @@ public class clsServicioHorario {
     @Transactional(readOnly = true)
     public List<clsDTOHorarioResponse.HorarioDTO> obtenerTodosLosHorarios() {
         List<clsEntidadHorario> horarios = repositorioHorario.findAll();
-        return horarios.stream()
-                .map(this::convertirEntidadADTO)
-                .collect(Collectors.toList());
+        return convertirEntidadesADTO(horarios);
     }
 
     /**
@@ -72,6 +78,7 @@ public class clsServicioHorario {
 
         // Guardar en BD
         clsEntidadHorario horarioGuardado = repositorioHorario.save(nuevoHorario);
+        sincronizarDisponibilidad(horarioGuardado, Boolean.TRUE.equals(horarioGuardado.getOcupado()));
         
         // Convertir a DTO de respuesta
         clsDTOHorarioResponse.HorarioDTO horarioDTO = convertirEntidadADTO(horarioGuardado);
@@ -100,6 +107,8 @@ public class clsServicioHorario {
             return clsDTOHorarioResponse.error("Ya existe otro horario para este espacio, bloque y día");
         }
 
+        sincronizarDisponibilidad(horario, false);
+
         // Actualizar campos
         horario.setEspacioId(request.getEspacioId());
         horario.setBloqueId(request.getBloqueId());
@@ -108,6 +117,7 @@ public class clsServicioHorario {
 
         // Guardar cambios
         clsEntidadHorario horarioActualizado = repositorioHorario.save(horario);
+        sincronizarDisponibilidad(horarioActualizado, Boolean.TRUE.equals(horarioActualizado.getOcupado()));
         
         // Convertir a DTO de respuesta
         clsDTOHorarioResponse.HorarioDTO horarioDTO = convertirEntidadADTO(horarioActualizado);
@@ -120,59 +130,93 @@ public class clsServicioHorario {
     @Transactional
     public clsDTOHorarioResponse eliminarHorario(Integer id) {
         // Verificar que el horario existe
-        if (!repositorioHorario.existsById(id)) {
+        Optional<clsEntidadHorario> horarioOpt = repositorioHorario.findById(id);
+        if (horarioOpt.isEmpty()) {
             return clsDTOHorarioResponse.error("Horario no encontrado");
         }
 
         // Eliminar de BD
         repositorioHorario.deleteById(id);
+        sincronizarDisponibilidad(horarioOpt.get(), false);
         return clsDTOHorarioResponse.success("Horario eliminado exitosamente", null);
     }
 
+    /**
+     * Reflejar la ocupación del horario en el motor de disponibilidad
+     */
+    private void sincronizarDisponibilidad(clsEntidadHorario horario, boolean ocupado) {
+        servicioDisponibilidad.actualizarHorario(
+                horario.getEspacioId(), horario.getBloqueId(), horario.getDiaSemana(), ocupado);
+    }
+
     /**
      * Convertir entidad a DTO para respuesta
      */
     private clsDTOHorarioResponse.HorarioDTO convertirEntidadADTO(clsEntidadHorario entidad) {
-        // Obtener información del espacio
-        String espacioNombre = "Espacio no encontrado";
-        String espacioCodigo = "N/A";
-        try {
-            var espacioResponse = servicioEspacio.obtenerEspacioPorId(entidad.getEspacioId());
-            if (espacioResponse.isSuccess() && espacioResponse.getEspacio() != null) {
-                espacioNombre = espacioResponse.getEspacio().getNombre();
-                espacioCodigo = espacioResponse.getEspacio().getCodigo();
+        return convertirEntidadesADTO(List.of(entidad)).get(0);
+    }
+
+    /**
+     * Convertir un lote de entidades a DTO resolviendo espacios y bloques con una consulta IN cada uno
+     */
+    private List<clsDTOHorarioResponse.HorarioDTO> convertirEntidadesADTO(List<clsEntidadHorario> entidades) {
+        Set<Integer> espacioIds = new HashSet<>();
+        Set<Integer> bloqueIds = new HashSet<>();
+        for (clsEntidadHorario entidad : entidades) {
+            if (entidad.getEspacioId() != null) {
+                espacioIds.add(entidad.getEspacioId());
+            }
+            if (entidad.getBloqueId() != null) {
+                bloqueIds.add(entidad.getBloqueId());
             }
-        } catch (Exception e) {
-            System.err.println("Error al obtener información del espacio: " + e.getMessage());
         }
 
-        // Obtener información del bloque horario
-        String bloqueNombre = "Bloque no encontrado";
-        String horaInicio = "N/A";
-        String horaFinal = "N/A";
-        try {
-            var bloqueInfo = servicioCatalogos.obtenerBloqueHorario(entidad.getBloqueId());
+        Map<Integer, Object[]> espacios = new HashMap<>();
+        if (!espacioIds.isEmpty()) {
+            for (Object[] fila : repositorioEspacio.findNombreYCodigoByIdIn(espacioIds)) {
+                espacios.put((Integer) fila[0], fila);
+            }
+        }
+        Map<Integer, clsServicioCatalogos.BloqueHorarioInfo> bloques = servicioCatalogos.obtenerBloquesHorario(bloqueIds);
+
+        List<clsDTOHorarioResponse.HorarioDTO> resultado = new ArrayList<>(entidades.size());
+        for (clsEntidadHorario entidad : entidades) {
+            // Información del espacio
+            String espacioNombre = "Espacio no encontrado";
+            String espacioCodigo = "N/A";
+            Object[] espacio = espacios.get(entidad.getEspacioId());
+            if (espacio != null) {
+                espacioNombre = (String) espacio[1];
+                espacioCodigo = (String) espacio[2];
+            }
+
+            // Información del bloque horario (mismos textos por defecto que el catálogo)
+            String bloqueNombre = entidad.getBloqueId() == null
+                    ? "Bloque no especificado"
+                    : "Bloque " + entidad.getBloqueId();
+            String horaInicio = "N/A";
+            String horaFinal = "N/A";
+            clsServicioCatalogos.BloqueHorarioInfo bloqueInfo = bloques.get(entidad.getBloqueId());
             if (bloqueInfo != null) {
                 bloqueNombre = bloqueInfo.getNombre();
                 horaInicio = bloqueInfo.getHoraInicio();
                 horaFinal = bloqueInfo.getHoraFinal();
             }
-        } catch (Exception e) {
-            System.err.println("Error al obtener información del bloque: " + e.getMessage());
-        }
 
-        return new clsDTOHorarioResponse.HorarioDTO(
-            entidad.getId(),
-            entidad.getEspacioId(),
-            espacioNombre,
-            espacioCodigo,
-            entidad.getBloqueId(),
-            bloqueNombre,
-            horaInicio,
-            horaFinal,
-            entidad.getDiaSemana().toString(),
-            entidad.getOcupado()
-        );
+            resultado.add(new clsDTOHorarioResponse.HorarioDTO(
+                entidad.getId(),
+                entidad.getEspacioId(),
+                espacioNombre,
+                espacioCodigo,
+                entidad.getBloqueId(),
+                bloqueNombre,
+                horaInicio,
+                horaFinal,
+                entidad.getDiaSemana().toString(),
+                entidad.getOcupado()
+            ));
+        }
+        return resultado;
     }
 
     /**
@@ -181,9 +225,7 @@ public class clsServicioHorario {
     @Transactional(readOnly = true)
     public List<clsDTOHorarioResponse.HorarioDTO> obtenerHorariosPorEspacio(Integer espacioId) {
         List<clsEntidadHorario> horarios = repositorioHorario.findByEspacioId(espacioId);
-        return horarios.stream()
-                .map(this::convertirEntidadADTO)
-                .collect(Collectors.toList());
+        return convertirEntidadesADTO(horarios);
     }
 
     /**
@@ -192,9 +234,7 @@ public class clsServicioHorario {
     @Transactional(readOnly = true)
     public List<clsDTOHorarioResponse.HorarioDTO> obtenerHorariosPorBloque(Integer bloqueId) {
         List<clsEntidadHorario> horarios = repositorioHorario.findByBloqueId(bloqueId);
-        return horarios.stream()
-                .map(this::convertirEntidadADTO)
-                .collect(Collectors.toList());
+        return convertirEntidadesADTO(horarios);
     }
 
     /**
@@ -205,9 +245,7 @@ public class clsServicioHorario {
         try {
             clsEntidadHorario.DiaSemana dia = clsEntidadHorario.DiaSemana.valueOf(diaSemana);
             List<clsEntidadHorario> horarios = repositorioHorario.findByDiaSemana(dia);
-            return horarios.stream()
-                    .map(this::convertirEntidadADTO)
-                    .collect(Collectors.toList());
+            return convertirEntidadesADTO(horarios);
         } catch (IllegalArgumentException e) {
             throw new IllegalArgumentException("Día de la semana no válido: " + diaSemana);
         }
@@ -219,9 +257,7 @@ public class clsServicioHorario {
     @Transactional(readOnly = true)
     public List<clsDTOHorarioResponse.HorarioDTO> obtenerHorariosDisponibles() {
         List<clsEntidadHorario> horarios = repositorioHorario.findByOcupado(false);
-        return horarios.stream()
-                .map(this::convertirEntidadADTO)
-                .collect(Collectors.toList());
+        return convertirEntidadesADTO(horarios);
     }
 
     /**
@@ -230,9 +266,7 @@ public class clsServicioHorario {
     @Transactional(readOnly = true)
     public List<clsDTOHorarioResponse.HorarioDTO> obtenerHorariosOcupados() {
         List<clsEntidadHorario> horarios = repositorioHorario.findByOcupado(true);
-        return horarios.stream()
-                .map(this::convertirEntidadADTO)
-                .collect(Collectors.toList());
+        return convertirEntidadesADTO(horarios);
     }
 
     /**
@@ -249,6 +283,7 @@ public class clsServicioHorario {
         horario.setOcupado(ocupado);
         
         clsEntidadHorario horarioActualizado = repositorioHorario.save(horario);
+        sincronizarDisponibilidad(horarioActualizado, Boolean.TRUE.equals(ocupado));
         clsDTOHorarioResponse.HorarioDTO horarioDTO = convertirEntidadADTO(horarioActualizado);
         
         String mensaje = ocupado ? "Horario marcado como ocupado" : "Horario marcado como disponible";
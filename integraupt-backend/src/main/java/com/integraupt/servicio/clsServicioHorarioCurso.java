@@ -18,15 +18,18 @@ public class clsServicioHorarioCurso {
     private final clsRepositorioUsuario repositorioUsuario;
     private final clsServicioEspacio servicioEspacio;
     private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
 
     public clsServicioHorarioCurso(clsRepositorioHorarioCurso repositorioHorarioCurso,
                                   clsRepositorioUsuario repositorioUsuario,
                                   clsServicioEspacio servicioEspacio,
-                                  clsServicioCatalogos servicioCatalogos) {
+                                  clsServicioCatalogos servicioCatalogos,
+                                  clsServicioDisponibilidad servicioDisponibilidad) {
         this.repositorioHorarioCurso = repositorioHorarioCurso;
         this.repositorioUsuario = repositorioUsuario;
         this.servicioEspacio = servicioEspacio;
         this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
     }
 
     @Transactional(readOnly = true)
@@ -72,7 +75,7 @@ public class clsServicioHorarioCurso {
             System.err.println("Error al obtener información del bloque: " + e.getMessage());
         }
 
-        String diasFormateados = formatearDias(entidad.getDiaSemana().toString());
+        String diasFormateados = formatearDias(entidad.getDiaSemana());
         Integer numeroEstudiantes = 30;
 
         return new clsDTOCursoHorarioResponse.CursoHorarioDTO(
@@ -92,16 +95,8 @@ public class clsServicioHorarioCurso {
         return hora.length() > 5 ? hora.substring(0, 5) : hora;
     }
 
-    private String formatearDias(String diaSemana) {
-        switch (diaSemana) {
-            case "Lunes": return "Lun";
-            case "Martes": return "Mar";
-            case "Miercoles": return "Mié";
-            case "Jueves": return "Jue";
-            case "Viernes": return "Vie";
-            case "Sabado": return "Sáb";
-            default: return diaSemana;
-        }
+    private String formatearDias(clsEntidadHorarioCurso.DiaSemana diaSemana) {
+        return diaSemana != null ? clsUtilDiaSemana.abreviatura(diaSemana) : "N/A";
     }
 
     @Transactional(readOnly = true)
@@ -126,6 +121,7 @@ public class clsServicioHorarioCurso {
             nuevoHorarioCurso.setEstado(request.getEstado());
 
             clsEntidadHorarioCurso horarioGuardado = repositorioHorarioCurso.save(nuevoHorarioCurso);
+            servicioDisponibilidad.actualizarCurso(horarioGuardado);
             
             clsDTOCursoHorarioResponse.CursoHorarioDTO cursoHorarioDTO = convertirEntidadADTO(horarioGuardado);
             return clsDTOCursoHorarioResponse.success("Horario de curso creado exitosamente", cursoHorarioDTO);
@@ -153,6 +149,7 @@ public class clsServicioHorarioCurso {
             horarioCurso.setEstado(request.getEstado());
 
             clsEntidadHorarioCurso horarioActualizado = repositorioHorarioCurso.save(horarioCurso);
+            servicioDisponibilidad.actualizarCurso(horarioActualizado);
             
             clsDTOCursoHorarioResponse.CursoHorarioDTO cursoHorarioDTO = convertirEntidadADTO(horarioActualizado);
             return clsDTOCursoHorarioResponse.success("Horario de curso actualizado exitosamente", cursoHorarioDTO);
@@ -169,6 +166,7 @@ public class clsServicioHorarioCurso {
             }
 
             repositorioHorarioCurso.deleteById(id);
+            servicioDisponibilidad.eliminarCurso(id);
             return clsDTOCursoHorarioResponse.success("Horario de curso eliminado exitosamente", null);
         } catch (Exception e) {
             return clsDTOCursoHorarioResponse.error("Error al eliminar el horario de curso: " + e.getMessage());
@@ -0,0 +1,471 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOImportacionHorarioCursoResponse;
+import com.integraupt.dto.clsDTOImportacionHorarioCursoResponse.ErrorFilaDTO;
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioHorarioCursoLote;
+import com.integraupt.repositorio.clsRepositorioUsuario;
+import io.micrometer.core.annotation.Timed;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Importación masiva de horarios de curso desde CSV o XLSX.
+ *
+ * El archivo se lee fila a fila; docentes y espacios se validan con una consulta cada uno,
+ * los choques (entre filas del archivo, con cursos existentes y con la grilla de horarios)
+ * se detectan en memoria y las filas aceptadas se insertan con lotes JDBC.
+ */
+@Service
+public class clsServicioImportacionHorarioCurso {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioImportacionHorarioCurso.class);
+    private static final int LARGO_MAXIMO_CURSO = 100;
+    private static final DateTimeFormatter FECHA_LOCAL = DateTimeFormatter.ofPattern("d/M/yyyy");
+
+    // Encabezados aceptados (normalizados) y la columna que representan
+    private static final Map<String, String> COLUMNAS = Map.ofEntries(
+            Map.entry("curso", "curso"), Map.entry("nombrecurso", "curso"),
+            Map.entry("docente", "docente"), Map.entry("iddocente", "docente"), Map.entry("docenteid", "docente"),
+            Map.entry("codigodocente", "codigodocente"),
+            Map.entry("espacio", "espacio"), Map.entry("idespacio", "espacio"), Map.entry("espacioid", "espacio"),
+            Map.entry("codigoespacio", "codigoespacio"),
+            Map.entry("bloque", "bloque"), Map.entry("idbloque", "bloque"), Map.entry("bloqueid", "bloque"),
+            Map.entry("dia", "dia"), Map.entry("diasemana", "dia"),
+            Map.entry("fechainicio", "fechainicio"), Map.entry("inicio", "fechainicio"),
+            Map.entry("fechafin", "fechafin"), Map.entry("fin", "fechafin"),
+            Map.entry("estado", "estado"), Map.entry("activo", "estado"));
+
+    private static final Map<String, clsEntidadHorarioCurso.DiaSemana> DIAS = new HashMap<>();
+
+    static {
+        for (clsEntidadHorarioCurso.DiaSemana dia : clsEntidadHorarioCurso.DiaSemana.values()) {
+            String nombre = normalizar(dia.name());
+            DIAS.put(nombre, dia);
+            DIAS.put(nombre.substring(0, 3), dia);
+        }
+    }
+
+    private final clsRepositorioHorarioCurso repositorioHorarioCurso;
+    private final clsRepositorioHorarioCursoLote repositorioLote;
+    private final clsRepositorioHorario repositorioHorario;
+    private final clsRepositorioUsuario repositorioUsuario;
+    private final clsRepositorioEspacio repositorioEspacio;
+    private final clsServicioCatalogos servicioCatalogos;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final int maximoFilas;
+
+    public clsServicioImportacionHorarioCurso(clsRepositorioHorarioCurso repositorioHorarioCurso,
+                                              clsRepositorioHorarioCursoLote repositorioLote,
+                                              clsRepositorioHorario repositorioHorario,
+                                              clsRepositorioUsuario repositorioUsuario,
+                                              clsRepositorioEspacio repositorioEspacio,
+                                              clsServicioCatalogos servicioCatalogos,
+                                              clsServicioDisponibilidad servicioDisponibilidad,
+                                              @Value("${app.horarios-cursos.importacion.max-filas:20000}") int maximoFilas) {
+        this.repositorioHorarioCurso = repositorioHorarioCurso;
+        this.repositorioLote = repositorioLote;
+        this.repositorioHorario = repositorioHorario;
+        this.repositorioUsuario = repositorioUsuario;
+        this.repositorioEspacio = repositorioEspacio;
+        this.servicioCatalogos = servicioCatalogos;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.maximoFilas = maximoFilas;
+    }
+
+    // Fila leída del archivo; docente y espacio pueden venir por id o por código
+    private static final class Fila {
+        int numero;
+        String curso;
+        Integer docenteId;
+        String docenteCodigo;
+        Integer espacioId;
+        String espacioCodigo;
+        Integer bloqueId;
+        clsEntidadHorarioCurso.DiaSemana dia;
+        LocalDate inicio;
+        LocalDate fin;
+        boolean estado = true;
+    }
+
+    private record Vigencia(LocalDate inicio, LocalDate fin, String origen) {
+        boolean seCruzaCon(LocalDate otroInicio, LocalDate otroFin) {
+            return !inicio.isAfter(otroFin) && !fin.isBefore(otroInicio);
+        }
+    }
+
+    /**
+     * Importa el archivo. Con parcial=false cualquier error deja la importación sin efecto;
+     * con parcial=true se insertan las filas válidas y se informan las demás.
+     */
+    @Transactional
+    @Timed("integraupt.servicio")
+    public clsDTOImportacionHorarioCursoResponse importar(String nombreArchivo, InputStream contenido, boolean parcial)
+            throws IOException {
+        Lectura lectura = new Lectura();
+        try {
+            clsUtilLectorTabla.leer(nombreArchivo, contenido, lectura::aceptar);
+        } catch (IllegalArgumentException ex) {
+            return clsDTOImportacionHorarioCursoResponse.error(ex.getMessage());
+        }
+        if (lectura.columnas == null) {
+            return clsDTOImportacionHorarioCursoResponse.error("El archivo está vacío");
+        }
+        if (lectura.filas.isEmpty() && lectura.errores.isEmpty()) {
+            return clsDTOImportacionHorarioCursoResponse.error("El archivo no contiene filas de datos");
+        }
+
+        List<ErrorFilaDTO> errores = lectura.errores;
+        List<Fila> resueltas = resolverReferencias(lectura.filas, errores);
+        List<clsEntidadHorarioCurso> aceptadas = detectarChoques(resueltas, errores);
+        int leidas = lectura.filas.size() + lectura.erroresDeLectura;
+
+        if (!errores.isEmpty() && !parcial) {
+            errores.sort((a, b) -> Integer.compare(a.getFila(), b.getFila()));
+            return new clsDTOImportacionHorarioCursoResponse(false,
+                    "Se encontraron " + errores.size() + " filas con errores; no se importó ninguna fila",
+                    leidas, 0, errores);
+        }
+
+        if (!aceptadas.isEmpty()) {
+            repositorioLote.insertar(aceptadas);
+            servicioDisponibilidad.registrarCursosNuevos(aceptadas);
+        }
+        errores.sort((a, b) -> Integer.compare(a.getFila(), b.getFila()));
+        LOGGER.info("Importación de horarios de curso '{}': {} filas importadas de {}, {} con errores",
+                nombreArchivo, aceptadas.size(), leidas, errores.size());
+        return new clsDTOImportacionHorarioCursoResponse(true,
+                "Se importaron " + aceptadas.size() + " de " + leidas + " filas", leidas, aceptadas.size(), errores);
+    }
+
+    /**
+     * Acumula las filas del archivo; la primera fila no vacía es el encabezado.
+     */
+    private final class Lectura {
+        Map<String, Integer> columnas;
+        final List<Fila> filas = new ArrayList<>();
+        final List<ErrorFilaDTO> errores = new ArrayList<>();
+        int erroresDeLectura;
+
+        void aceptar(int numero, List<String> celdas) {
+            if (columnas == null) {
+                columnas = leerEncabezado(celdas);
+                return;
+            }
+            if (filas.size() + erroresDeLectura >= maximoFilas) {
+                throw new IllegalArgumentException("El archivo supera el máximo de " + maximoFilas + " filas");
+            }
+            try {
+                filas.add(convertir(numero, celdas));
+            } catch (IllegalArgumentException ex) {
+                erroresDeLectura++;
+                errores.add(new ErrorFilaDTO(numero, ex.getMessage()));
+            }
+        }
+
+        private Fila convertir(int numero, List<String> celdas) {
+            Fila fila = new Fila();
+            fila.numero = numero;
+            fila.curso = obligatorio(celdas, "curso");
+            if (fila.curso.length() > LARGO_MAXIMO_CURSO) {
+                throw new IllegalArgumentException("El curso no debe exceder los " + LARGO_MAXIMO_CURSO + " caracteres");
+            }
+            String docente = celda(celdas, "docente");
+            if (!docente.isEmpty()) {
+                fila.docenteId = entero(docente, "docente");
+            } else {
+                fila.docenteCodigo = obligatorio(celdas, "codigodocente");
+            }
+            String espacio = celda(celdas, "espacio");
+            if (!espacio.isEmpty()) {
+                fila.espacioId = entero(espacio, "espacio");
+            } else {
+                fila.espacioCodigo = obligatorio(celdas, "codigoespacio");
+            }
+            fila.bloqueId = entero(obligatorio(celdas, "bloque"), "bloque");
+            String dia = obligatorio(celdas, "dia");
+            fila.dia = DIAS.get(normalizar(dia));
+            if (fila.dia == null) {
+                throw new IllegalArgumentException("Día de la semana no válido: " + dia);
+            }
+            fila.inicio = fecha(obligatorio(celdas, "fechainicio"));
+            fila.fin = fecha(obligatorio(celdas, "fechafin"));
+            if (fila.fin.isBefore(fila.inicio)) {
+                throw new IllegalArgumentException("La fecha de fin es anterior a la fecha de inicio");
+            }
+            fila.estado = estado(celda(celdas, "estado"));
+            return fila;
+        }
+
+        private String celda(List<String> celdas, String columna) {
+            Integer indice = columnas.get(columna);
+            if (indice == null || indice >= celdas.size() || celdas.get(indice) == null) {
+                return "";
+            }
+            return celdas.get(indice).trim();
+        }
+
+        private String obligatorio(List<String> celdas, String columna) {
+            String valor = celda(celdas, columna);
+            if (valor.isEmpty()) {
+                throw new IllegalArgumentException("Falta el valor de la columna " + columna);
+            }
+            return valor;
+        }
+    }
+
+    private static Map<String, Integer> leerEncabezado(List<String> celdas) {
+        Map<String, Integer> columnas = new HashMap<>();
+        for (int i = 0; i < celdas.size(); i++) {
+            String columna = COLUMNAS.get(normalizar(celdas.get(i)));
+            if (columna != null) {
+                columnas.putIfAbsent(columna, i);
+            }
+        }
+        List<String> faltantes = new ArrayList<>();
+        for (String requerida : List.of("curso", "bloque", "dia", "fechainicio", "fechafin")) {
+            if (!columnas.containsKey(requerida)) {
+                faltantes.add(requerida);
+            }
+        }
+        if (!columnas.containsKey("docente") && !columnas.containsKey("codigodocente")) {
+            faltantes.add("docente o codigoDocente");
+        }
+        if (!columnas.containsKey("espacio") && !columnas.containsKey("codigoespacio")) {
+            faltantes.add("espacio o codigoEspacio");
+        }
+        if (!faltantes.isEmpty()) {
+            throw new IllegalArgumentException("Faltan columnas en el encabezado: " + String.join(", ", faltantes));
+        }
+        return columnas;
+    }
+
+    /**
+     * Reemplaza códigos por ids y descarta las filas cuyo docente, espacio o bloque no existe.
+     */
+    private List<Fila> resolverReferencias(List<Fila> filas, List<ErrorFilaDTO> errores) {
+        Set<Integer> docenteIds = new HashSet<>();
+        Set<String> docenteCodigos = new HashSet<>();
+        Set<Integer> espacioIds = new HashSet<>();
+        Set<String> espacioCodigos = new HashSet<>();
+        Set<Integer> bloqueIds = new HashSet<>();
+        for (Fila fila : filas) {
+            agregar(fila.docenteId, fila.docenteCodigo, docenteIds, docenteCodigos);
+            agregar(fila.espacioId, fila.espacioCodigo, espacioIds, espacioCodigos);
+            bloqueIds.add(fila.bloqueId);
+        }
+
+        List<Object[]> usuarios = docenteIds.isEmpty() && docenteCodigos.isEmpty() ? List.of()
+                : repositorioUsuario.findIdCodigoYRolPorIdOCodigo(noVacio(docenteIds, -1), noVacio(docenteCodigos, ""));
+        Map<String, Integer> docentes = indexar(usuarios);
+        Set<Integer> profesores = new HashSet<>();
+        for (Object[] usuario : usuarios) {
+            if (Integer.valueOf(clsDTOPrincipal.ROL_PROFESOR).equals(usuario[2])) {
+                profesores.add((Integer) usuario[0]);
+            }
+        }
+        Map<String, Integer> espacios = indexar(espacioIds.isEmpty() && espacioCodigos.isEmpty() ? List.of()
+                : repositorioEspacio.findIdYCodigoPorIdOCodigo(noVacio(espacioIds, -1), noVacio(espacioCodigos, "")));
+        Set<Integer> bloques = servicioCatalogos.obtenerBloquesHorario(bloqueIds).keySet();
+
+        List<Fila> resueltas = new ArrayList<>(filas.size());
+        for (Fila fila : filas) {
+            Integer docenteId = docentes.get(clave(fila.docenteId, fila.docenteCodigo));
+            Integer espacioId = espacios.get(clave(fila.espacioId, fila.espacioCodigo));
+            if (docenteId == null) {
+                errores.add(new ErrorFilaDTO(fila.numero, "El docente "
+                        + (fila.docenteId != null ? fila.docenteId : fila.docenteCodigo) + " no existe"));
+            } else if (!profesores.contains(docenteId)) {
+                errores.add(new ErrorFilaDTO(fila.numero, "El usuario "
+                        + (fila.docenteId != null ? fila.docenteId : fila.docenteCodigo) + " no es docente"));
+            } else if (espacioId == null) {
+                errores.add(new ErrorFilaDTO(fila.numero, "El espacio "
+                        + (fila.espacioId != null ? fila.espacioId : fila.espacioCodigo) + " no existe"));
+            } else if (!bloques.contains(fila.bloqueId)) {
+                errores.add(new ErrorFilaDTO(fila.numero, "El bloque horario " + fila.bloqueId + " no existe"));
+            } else {
+                fila.docenteId = docenteId;
+                fila.espacioId = espacioId;
+                resueltas.add(fila);
+            }
+        }
+        return resueltas;
+    }
+
+    /**
+     * Verifica cada fila activa contra la grilla de horarios, los cursos vigentes y las filas
+     * ya aceptadas del propio archivo; devuelve las entidades listas para insertar.
+     */
+    private List<clsEntidadHorarioCurso> detectarChoques(List<Fila> filas, List<ErrorFilaDTO> errores) {
+        List<clsEntidadHorarioCurso> aceptadas = new ArrayList<>(filas.size());
+        if (filas.isEmpty()) {
+            return aceptadas;
+        }
+        Set<Integer> espacios = new HashSet<>();
+        Set<Integer> docentes = new HashSet<>();
+        LocalDate desde = filas.get(0).inicio;
+        LocalDate hasta = filas.get(0).fin;
+        for (Fila fila : filas) {
+            espacios.add(fila.espacioId);
+            docentes.add(fila.docenteId);
+            desde = fila.inicio.isBefore(desde) ? fila.inicio : desde;
+            hasta = fila.fin.isAfter(hasta) ? fila.fin : hasta;
+        }
+
+        Set<String> grillaOcupada = new HashSet<>();
+        for (clsEntidadHorario horario : repositorioHorario.findByEspacioIdInAndOcupadoTrue(espacios)) {
+            grillaOcupada.add(horario.getEspacioId() + "|" + horario.getBloqueId() + "|" + horario.getDiaSemana().name());
+        }
+        Map<String, List<Vigencia>> porEspacio = new HashMap<>();
+        Map<String, List<Vigencia>> porDocente = new HashMap<>();
+        for (clsEntidadHorarioCurso curso : repositorioHorarioCurso.findActivosPorEspaciosODocentes(
+                espacios, docentes, desde, hasta)) {
+            Vigencia vigencia = new Vigencia(curso.getFechaInicio(), curso.getFechaFin(),
+                    "el curso " + curso.getCurso() + " (id " + curso.getId() + ")");
+            porEspacio.computeIfAbsent(clave(curso.getEspacioId(), curso.getBloqueId(), curso.getDiaSemana()),
+                    k -> new ArrayList<>()).add(vigencia);
+            porDocente.computeIfAbsent(clave(curso.getDocenteId(), curso.getBloqueId(), curso.getDiaSemana()),
+                    k -> new ArrayList<>()).add(vigencia);
+        }
+
+        for (Fila fila : filas) {
+            if (fila.estado) {
+                String claveEspacio = clave(fila.espacioId, fila.bloqueId, fila.dia);
+                String claveDocente = clave(fila.docenteId, fila.bloqueId, fila.dia);
+                Vigencia choqueEspacio = buscarCruce(porEspacio.get(claveEspacio), fila);
+                Vigencia choqueDocente = buscarCruce(porDocente.get(claveDocente), fila);
+                if (grillaOcupada.contains(claveEspacio)) {
+                    errores.add(new ErrorFilaDTO(fila.numero,
+                            "El espacio está ocupado en la grilla de horarios para ese bloque y día"));
+                    continue;
+                }
+                if (choqueEspacio != null) {
+                    errores.add(new ErrorFilaDTO(fila.numero,
+                            "Choca con " + choqueEspacio.origen() + " en el mismo espacio, bloque y día"));
+                    continue;
+                }
+                if (choqueDocente != null) {
+                    errores.add(new ErrorFilaDTO(fila.numero,
+                            "El docente ya tiene " + choqueDocente.origen() + " en el mismo bloque y día"));
+                    continue;
+                }
+                Vigencia propia = new Vigencia(fila.inicio, fila.fin, "la fila " + fila.numero + " del archivo");
+                porEspacio.computeIfAbsent(claveEspacio, k -> new ArrayList<>()).add(propia);
+                porDocente.computeIfAbsent(claveDocente, k -> new ArrayList<>()).add(propia);
+            }
+            aceptadas.add(crearEntidad(fila));
+        }
+        return aceptadas;
+    }
+
+    private static Vigencia buscarCruce(List<Vigencia> vigencias, Fila fila) {
+        if (vigencias != null) {
+            for (Vigencia vigencia : vigencias) {
+                if (vigencia.seCruzaCon(fila.inicio, fila.fin)) {
+                    return vigencia;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static clsEntidadHorarioCurso crearEntidad(Fila fila) {
+        clsEntidadHorarioCurso horario = new clsEntidadHorarioCurso();
+        horario.setCurso(fila.curso);
+        horario.setDocenteId(fila.docenteId);
+        horario.setEspacioId(fila.espacioId);
+        horario.setBloqueId(fila.bloqueId);
+        horario.setDiaSemana(fila.dia);
+        horario.setFechaInicio(fila.inicio);
+        horario.setFechaFin(fila.fin);
+        horario.setEstado(fila.estado);
+        return horario;
+    }
+
+    private static String clave(Integer id, Integer bloqueId, clsEntidadHorarioCurso.DiaSemana dia) {
+        return id + "|" + bloqueId + "|" + dia.name();
+    }
+
+    // Clave común para buscar por id ("#12") o por código en mayúsculas
+    private static String clave(Integer id, String codigo) {
+        return id != null ? "#" + id : codigo.toUpperCase(Locale.ROOT);
+    }
+
+    private static void agregar(Integer id, String codigo, Set<Integer> ids, Set<String> codigos) {
+        if (id != null) {
+            ids.add(id);
+        } else {
+            codigos.add(codigo);
+        }
+    }
+
+    private static Map<String, Integer> indexar(List<Object[]> filas) {
+        Map<String, Integer> indice = new HashMap<>();
+        for (Object[] fila : filas) {
+            Integer id = (Integer) fila[0];
+            indice.put("#" + id, id);
+            if (fila[1] != null) {
+                indice.put(((String) fila[1]).toUpperCase(Locale.ROOT), id);
+            }
+        }
+        return indice;
+    }
+
+    // IN () vacío no es SQL válido; un valor imposible mantiene la consulta única
+    private static <T> Collection<T> noVacio(Collection<T> valores, T relleno) {
+        return valores.isEmpty() ? List.of(relleno) : valores;
+    }
+
+    private static Integer entero(String valor, String columna) {
+        try {
+            return Integer.valueOf(valor);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("La columna " + columna + " debe ser un número: " + valor);
+        }
+    }
+
+    private static LocalDate fecha(String valor) {
+        try {
+            return valor.indexOf('/') >= 0 ? LocalDate.parse(valor, FECHA_LOCAL) : LocalDate.parse(valor);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Fecha no válida (use yyyy-MM-dd o dd/MM/yyyy): " + valor);
+        }
+    }
+
+    private static boolean estado(String valor) {
+        switch (normalizar(valor)) {
+            case "", "1", "true", "si", "activo":
+                return true;
+            case "0", "false", "no", "inactivo":
+                return false;
+            default:
+                throw new IllegalArgumentException("Estado no válido: " + valor);
+        }
+    }
+
+    // Mismo plegado que la búsqueda de espacios, sin separadores: "Fecha Inicio" y "fecha_inicio" coinciden
+    private static String normalizar(String texto) {
+        return clsUtilTexto.plegar(texto).replace(" ", "");
+    }
+}
@@ -0,0 +1,338 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOEspacioResponse;
+import com.integraupt.dto.clsDTOResultadoBusquedaEspacio;
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import io.micrometer.core.annotation.Timed;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Índice invertido de texto sobre nombre, código, ubicación y equipamiento de los espacios.
+ *
+ * Los términos se pliegan (sin tildes ni mayúsculas) y se reducen al singular simple, de modo
+ * que "Proyectores" y "proyector" coinciden. Cada término de la consulta debe aparecer en el
+ * espacio, completo o como prefijo; el puntaje pondera el campo donde aparece y la rareza del
+ * término entre todos los espacios. El índice se actualiza por espacio al crear, editar o eliminar
+ * y se reconstruye completo al vencer {@code app.espacios.indice.ttl}, para recoger cambios hechos
+ * directamente en la base. Los cambios que llegan durante una reconstrucción se aplican también
+ * sobre el índice nuevo, de modo que la lectura de la base no los pisa.
+ */
+@Service
+public class clsServicioIndiceEspacios {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioIndiceEspacios.class);
+    static final int LIMITE_MAXIMO = 100;
+    private static final int LIMITE_POR_DEFECTO = 20;
+    private static final int PESO_NOMBRE = 3;
+    private static final int PESO_CODIGO = 3;
+    private static final int PESO_EQUIPAMIENTO = 2;
+    private static final int PESO_UBICACION = 1;
+    // Una coincidencia por prefijo ("proy" en "proyector") vale menos que la palabra completa
+    private static final double FACTOR_PREFIJO = 0.6;
+    private static final Integer ESTADO_ACTIVO = 1;
+
+    private final clsRepositorioEspacio repositorioEspacio;
+    private final clsServicioCatalogos servicioCatalogos;
+    private final long ttlNanos;
+
+    private Indice indice = new Indice();
+    private final ReentrantReadWriteLock bloqueo = new ReentrantReadWriteLock();
+    // Serializa las reconstrucciones sin fijar hilos virtuales
+    private final ReentrantLock bloqueoCarga = new ReentrantLock();
+    // Cambios recibidos mientras se reconstruye; null fuera de una reconstrucción (protegido por bloqueo)
+    private List<Consumer<Indice>> cambiosEnRecarga;
+    private volatile boolean cargado;
+    private volatile long cargadoEn;
+
+    public clsServicioIndiceEspacios(clsRepositorioEspacio repositorioEspacio,
+                                     clsServicioCatalogos servicioCatalogos,
+                                     @Value("${app.espacios.indice.ttl:PT10M}") Duration ttl) {
+        this.repositorioEspacio = repositorioEspacio;
+        this.servicioCatalogos = servicioCatalogos;
+        this.ttlNanos = ttl.toNanos();
+    }
+
+    private record Documento(clsDTOEspacioResponse.EspacioDTO dto, boolean activo, Set<String> terminos) {
+    }
+
+    /**
+     * Términos y documentos del índice; se reemplaza entero al reconstruir.
+     */
+    private static final class Indice {
+        // término -> (id de espacio -> peso acumulado de los campos donde aparece)
+        final TreeMap<String, Map<Integer, Integer>> terminos = new TreeMap<>();
+        final Map<Integer, Documento> documentos = new HashMap<>();
+
+        void agregar(Integer espacioId, Map<String, Integer> pesos, Documento documento) {
+            quitar(espacioId);
+            for (Map.Entry<String, Integer> peso : pesos.entrySet()) {
+                terminos.computeIfAbsent(peso.getKey(), k -> new HashMap<>()).put(espacioId, peso.getValue());
+            }
+            documentos.put(espacioId, documento);
+        }
+
+        void quitar(Integer espacioId) {
+            Documento anterior = documentos.remove(espacioId);
+            if (anterior == null) {
+                return;
+            }
+            for (String termino : anterior.terminos()) {
+                Map<Integer, Integer> postings = terminos.get(termino);
+                if (postings != null) {
+                    postings.remove(espacioId);
+                    if (postings.isEmpty()) {
+                        terminos.remove(termino);
+                    }
+                }
+            }
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        try {
+            recargar();
+        } catch (RuntimeException ex) {
+            LOGGER.error("No se pudo cargar el índice de texto de espacios; se cargará en la primera búsqueda", ex);
+        }
+    }
+
+    /**
+     * Reconstruye el índice completo a partir de la base de datos.
+     */
+    public void recargar() {
+        bloqueoCarga.lock();
+        try {
+            escribir(() -> cambiosEnRecarga = new ArrayList<>());
+            List<clsEntidadEspacio> espacios = repositorioEspacio.findAll();
+            Indice nuevo = new Indice();
+            for (clsEntidadEspacio espacio : espacios) {
+                agregar(nuevo, espacio);
+            }
+            escribir(() -> {
+                // Lo que se indexó mientras se leía la base es más reciente que la lectura
+                cambiosEnRecarga.forEach(cambio -> cambio.accept(nuevo));
+                indice = nuevo;
+                cargado = true;
+                cargadoEn = System.nanoTime();
+            });
+            LOGGER.info("Índice de texto de espacios cargado: {} espacios, {} términos",
+                    espacios.size(), nuevo.terminos.size());
+        } finally {
+            escribir(() -> cambiosEnRecarga = null);
+            bloqueoCarga.unlock();
+        }
+    }
+
+    /**
+     * Agrega o reemplaza un espacio en el índice.
+     */
+    public void indexar(clsEntidadEspacio espacio) {
+        if (espacio == null || espacio.getId() == null) {
+            return;
+        }
+        Map<String, Integer> pesos = pesos(espacio);
+        Documento documento = documento(espacio, pesos);
+        cambiar(destino -> destino.agregar(espacio.getId(), pesos, documento));
+    }
+
+    public void eliminar(Integer espacioId) {
+        if (espacioId == null) {
+            return;
+        }
+        cambiar(destino -> destino.quitar(espacioId));
+    }
+
+    // Antes de la primera carga solo importa registrar el cambio si hay una reconstrucción en curso
+    private void cambiar(Consumer<Indice> cambio) {
+        escribir(() -> {
+            if (cambiosEnRecarga != null) {
+                cambiosEnRecarga.add(cambio);
+            }
+            if (cargado) {
+                cambio.accept(indice);
+            }
+        });
+    }
+
+    private void escribir(Runnable accion) {
+        bloqueo.writeLock().lock();
+        try {
+            accion.run();
+        } finally {
+            bloqueo.writeLock().unlock();
+        }
+    }
+
+    // La primera búsqueda espera la carga; con el índice vencido la reconstruye solo un hilo y el resto usa el actual
+    private void asegurarVigente() {
+        if (cargado && System.nanoTime() - cargadoEn <= ttlNanos) {
+            return;
+        }
+        if (cargado) {
+            if (!bloqueoCarga.tryLock()) {
+                return;
+            }
+        } else {
+            bloqueoCarga.lock();
+        }
+        try {
+            if (!cargado || System.nanoTime() - cargadoEn > ttlNanos) {
+                recargar();
+            }
+        } finally {
+            bloqueoCarga.unlock();
+        }
+    }
+
+    /**
+     * Espacios que contienen todos los términos de la consulta, de mayor a menor puntaje.
+     */
+    @Timed("integraupt.servicio")
+    public List<clsDTOResultadoBusquedaEspacio> buscar(String consulta, boolean soloActivos, Integer limite) {
+        Set<String> buscados = new LinkedHashSet<>(tokenizar(consulta));
+        if (buscados.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar al menos un término de búsqueda");
+        }
+        int maximo = limite != null ? Math.min(Math.max(limite, 1), LIMITE_MAXIMO) : LIMITE_POR_DEFECTO;
+        asegurarVigente();
+
+        List<clsDTOResultadoBusquedaEspacio> resultados = new ArrayList<>();
+        bloqueo.readLock().lock();
+        try {
+            Indice actual = indice;
+            Map<Integer, Double> puntajes = null;
+            for (String termino : buscados) {
+                Map<Integer, Double> coincidencias = coincidencias(actual, termino);
+                if (coincidencias.isEmpty()) {
+                    return resultados;
+                }
+                double rareza = Math.log(1.0 + (double) actual.documentos.size() / coincidencias.size());
+                if (puntajes == null) {
+                    puntajes = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entrada : coincidencias.entrySet()) {
+                        puntajes.put(entrada.getKey(), entrada.getValue() * rareza);
+                    }
+                } else {
+                    // Intersección: solo siguen los espacios que también contienen este término
+                    Map<Integer, Double> siguientes = new HashMap<>();
+                    for (Map.Entry<Integer, Double> entrada : puntajes.entrySet()) {
+                        Double peso = coincidencias.get(entrada.getKey());
+                        if (peso != null) {
+                            siguientes.put(entrada.getKey(), entrada.getValue() + peso * rareza);
+                        }
+                    }
+                    puntajes = siguientes;
+                }
+            }
+            for (Map.Entry<Integer, Double> entrada : puntajes.entrySet()) {
+                Documento documento = actual.documentos.get(entrada.getKey());
+                if (documento != null && (!soloActivos || documento.activo())) {
+                    double redondeado = Math.round(entrada.getValue() * 1000.0) / 1000.0;
+                    resultados.add(new clsDTOResultadoBusquedaEspacio(documento.dto(), redondeado));
+                }
+            }
+        } finally {
+            bloqueo.readLock().unlock();
+        }
+
+        resultados.sort(Comparator.comparingDouble(clsDTOResultadoBusquedaEspacio::getPuntaje).reversed()
+                .thenComparing(resultado -> resultado.getEspacio().getNombre(),
+                        Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER)));
+        return resultados.size() > maximo ? new ArrayList<>(resultados.subList(0, maximo)) : resultados;
+    }
+
+    // Mejor peso por espacio para el término, sea como palabra completa o como prefijo de otra
+    private static Map<Integer, Double> coincidencias(Indice actual, String termino) {
+        Map<Integer, Double> mejores = new HashMap<>();
+        for (Map.Entry<String, Map<Integer, Integer>> entrada
+                : actual.terminos.subMap(termino, true, termino + Character.MAX_VALUE, true).entrySet()) {
+            double factor = entrada.getKey().equals(termino) ? 1.0 : FACTOR_PREFIJO;
+            for (Map.Entry<Integer, Integer> posting : entrada.getValue().entrySet()) {
+                mejores.merge(posting.getKey(), posting.getValue() * factor, Math::max);
+            }
+        }
+        return mejores;
+    }
+
+    private void agregar(Indice destino, clsEntidadEspacio espacio) {
+        Map<String, Integer> pesos = pesos(espacio);
+        destino.agregar(espacio.getId(), pesos, documento(espacio, pesos));
+    }
+
+    private static Map<String, Integer> pesos(clsEntidadEspacio espacio) {
+        Map<String, Integer> pesos = new HashMap<>();
+        acumular(pesos, espacio.getNombre(), PESO_NOMBRE);
+        acumular(pesos, espacio.getCodigo(), PESO_CODIGO);
+        acumular(pesos, espacio.getEquipamiento(), PESO_EQUIPAMIENTO);
+        acumular(pesos, espacio.getUbicacion(), PESO_UBICACION);
+        return pesos;
+    }
+
+    private Documento documento(clsEntidadEspacio espacio, Map<String, Integer> pesos) {
+        return new Documento(clsServicioEspacio.convertirEntidadADTO(espacio, servicioCatalogos),
+                ESTADO_ACTIVO.equals(espacio.getEstado()), Set.copyOf(pesos.keySet()));
+    }
+
+    // Un término presente en varios campos suma el peso de cada campo una sola vez
+    private static void acumular(Map<String, Integer> pesos, String texto, int peso) {
+        for (String termino : new LinkedHashSet<>(tokenizar(texto))) {
+            pesos.merge(termino, peso, Integer::sum);
+        }
+    }
+
+    static List<String> tokenizar(String texto) {
+        List<String> tokens = new ArrayList<>();
+        String plegado = clsUtilTexto.plegar(texto);
+        if (plegado.isEmpty()) {
+            return tokens;
+        }
+        for (String palabra : plegado.split(" ")) {
+            String raiz = singular(palabra);
+            if (raiz.length() > 1 || Character.isDigit(raiz.charAt(0))) {
+                tokens.add(raiz);
+            }
+        }
+        return tokens;
+    }
+
+    // Plural simple: "pcs" -> "pc", "computadoras" -> "computadora", "proyectores" -> "proyector".
+    // Se conservan las palabras cortas terminadas en vocal + s ("gas", "mes") y las terminadas en
+    // -is/-us ("tesis", "bus"), que ya están en singular.
+    static String singular(String palabra) {
+        int largo = palabra.length();
+        if (largo < 3 || !palabra.endsWith("s") || palabra.endsWith("ss")
+                || palabra.endsWith("is") || palabra.endsWith("us")
+                || Character.isDigit(palabra.charAt(largo - 2))) {
+            return palabra;
+        }
+        char previa = palabra.charAt(largo - 2);
+        if (largo == 3 && "aeo".indexOf(previa) >= 0) {
+            return palabra;
+        }
+        if (largo > 4 && previa == 'e' && "rlndj".indexOf(palabra.charAt(largo - 3)) >= 0) {
+            return palabra.substring(0, largo - 2);
+        }
+        return palabra.substring(0, largo - 1);
+    }
+}
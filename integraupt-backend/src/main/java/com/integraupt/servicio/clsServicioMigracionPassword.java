@@ -0,0 +1,127 @@
+package com.integraupt.servicio;
+
+import com.integraupt.repositorio.clsRepositorioAuth;
+import jakarta.annotation.PreDestroy;
+import java.time.Duration;
+import java.util.List;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+
+/**
+ * Migra en segundo plano las contraseñas AES heredadas a BCrypt.
+ *
+ * Como el AES es reversible no hace falta esperar a que el usuario inicie sesión: se descifra y se
+ * hashea por lotes, con una pausa entre lotes para no competir con los logins por CPU. La pasada
+ * se repite cada {@code intervalo} para alcanzar a las contraseñas que se sigan guardando en AES.
+ * Una vez migrada, la contraseña ya no se puede mostrar en claro en la gestión de usuarios.
+ */
+@Service
+public class clsServicioMigracionPassword {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioMigracionPassword.class);
+
+    private final clsRepositorioAuth repositorioAuth;
+    private final clsServicioPassword servicioPassword;
+    private final boolean habilitada;
+    private final int tamanoLote;
+    private final Duration pausa;
+    private final Duration intervalo;
+    private volatile Thread hilo;
+
+    public clsServicioMigracionPassword(clsRepositorioAuth repositorioAuth,
+                                        clsServicioPassword servicioPassword,
+                                        @Value("${app.security.password-migracion.habilitada:false}") boolean habilitada,
+                                        @Value("${app.security.password-migracion.lote:100}") int tamanoLote,
+                                        @Value("${app.security.password-migracion.pausa:PT1S}") Duration pausa,
+                                        @Value("${app.security.password-migracion.intervalo:PT1H}") Duration intervalo) {
+        this.repositorioAuth = repositorioAuth;
+        this.servicioPassword = servicioPassword;
+        this.habilitada = habilitada;
+        this.tamanoLote = Math.max(tamanoLote, 1);
+        this.pausa = pausa;
+        this.intervalo = intervalo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitada) {
+            return;
+        }
+        hilo = Thread.ofVirtual().name("migracion-password").start(this::ejecutar);
+    }
+
+    @PreDestroy
+    void detener() {
+        Thread actual = hilo;
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    migrarPendientes();
+                } catch (RuntimeException ex) {
+                    LOGGER.error("Falló la migración de contraseñas a BCrypt; se reintentará en la siguiente pasada", ex);
+                }
+                Thread.sleep(intervalo.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Recorre todos los usuarios con contraseña no BCrypt y devuelve cuántas se migraron.
+     */
+    public int migrarPendientes() throws InterruptedException {
+        int migradas = 0;
+        int omitidas = 0;
+        Integer desde = 0;
+        List<Object[]> lote;
+        do {
+            lote = repositorioAuth.findPasswordsSinBCrypt(desde, PageRequest.of(0, tamanoLote));
+            for (Object[] fila : lote) {
+                Integer id = (Integer) fila[0];
+                String almacenada = (String) fila[1];
+                desde = id;
+                if (migrar(id, almacenada)) {
+                    migradas++;
+                } else {
+                    omitidas++;
+                }
+            }
+            if (lote.size() == tamanoLote) {
+                Thread.sleep(pausa.toMillis());
+            }
+        } while (lote.size() == tamanoLote && !Thread.currentThread().isInterrupted());
+
+        if (migradas > 0 || omitidas > 0) {
+            LOGGER.info("Contraseñas migradas a BCrypt (costo {}): {}; omitidas: {}",
+                    servicioPassword.getCostoBCrypt(), migradas, omitidas);
+        }
+        return migradas;
+    }
+
+    private boolean migrar(Integer id, String almacenada) {
+        if (almacenada == null || almacenada.isBlank() || servicioPassword.esHashBCrypt(almacenada)) {
+            return false;
+        }
+        String plano;
+        try {
+            plano = servicioPassword.desencriptar(almacenada);
+        } catch (IllegalStateException ex) {
+            LOGGER.warn("No se pudo descifrar la contraseña del usuario {}; se deja sin migrar", id);
+            return false;
+        }
+        // Si el usuario cambió su contraseña mientras tanto, la actualización no afecta filas
+        return repositorioAuth.actualizarPasswordSiCoincide(id, almacenada, servicioPassword.hashear(plano)) == 1;
+    }
+}
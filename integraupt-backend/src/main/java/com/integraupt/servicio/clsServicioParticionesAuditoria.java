@@ -0,0 +1,323 @@
+package com.integraupt.servicio;
+
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import com.integraupt.repositorio.clsRepositorioParticionesAuditoria;
+import com.integraupt.repositorio.clsRepositorioParticionesAuditoria.FilaAuditoria;
+import com.integraupt.repositorio.clsRepositorioParticionesAuditoria.TotalResumen;
+import jakarta.annotation.PreDestroy;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.time.YearMonth;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.zip.GZIPOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+/**
+ * Mantiene las particiones mensuales de auditoriareserva.
+ *
+ * En cada pasada crea las particiones de los próximos meses, resume los meses cerrados en
+ * auditoriareserva_resumen_mes y, para los meses fuera de la retención, exporta las filas a
+ * {@code auditoriareserva-AAAA-MM.csv.gz} y elimina la partición. Las filas de pantiguo, anteriores
+ * al primer mes particionado, se archivan en {@code auditoriareserva-antiguo-<fecha>.csv.gz} y la
+ * partición se vacía cuando todas quedan fuera de la retención. Nada se archiva ni elimina sin
+ * app.auditoria.particiones.habilitada=true, tampoco al invocarlo directamente. Solo actúa si la tabla
+ * ya fue particionada con db/auditoriareserva_particiones.sql; si no, las consultas siguen leyendo la
+ * tabla completa y los totales mensuales se calculan en vivo.
+ */
+@Service
+public class clsServicioParticionesAuditoria {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioParticionesAuditoria.class);
+    private static final String CABECERA_ARCHIVO = "IdAudit,IdReserva,EstadoAnterior,EstadoNuevo,FechaCambio,UsuarioCambio";
+
+    private final clsRepositorioParticionesAuditoria repositorioParticiones;
+    private final clsRepositorioAuditoriaReserva repositorioAuditoria;
+    private final clsServicioEstadisticasAuditoria estadisticasAuditoria;
+    private final boolean habilitada;
+    private final int mesesAdelante;
+    private final int retencionMeses;
+    private final Path directorioArchivo;
+    private final Duration intervalo;
+    private volatile Boolean particionada;
+    private volatile Thread hilo;
+    // Serializa las pasadas; ReentrantLock en lugar de synchronized porque hacen DDL, JDBC y gzip en un hilo virtual
+    private final ReentrantLock bloqueo = new ReentrantLock();
+
+    public clsServicioParticionesAuditoria(clsRepositorioParticionesAuditoria repositorioParticiones,
+                                           clsRepositorioAuditoriaReserva repositorioAuditoria,
+                                           clsServicioEstadisticasAuditoria estadisticasAuditoria,
+                                           @Value("${app.auditoria.particiones.habilitada:false}") boolean habilitada,
+                                           @Value("${app.auditoria.particiones.meses-adelante:3}") int mesesAdelante,
+                                           @Value("${app.auditoria.particiones.retencion-meses:12}") int retencionMeses,
+                                           @Value("${app.auditoria.particiones.directorio-archivo:archivo/auditoria}") String directorioArchivo,
+                                           @Value("${app.auditoria.particiones.intervalo:PT6H}") Duration intervalo) {
+        this.repositorioParticiones = repositorioParticiones;
+        this.repositorioAuditoria = repositorioAuditoria;
+        this.estadisticasAuditoria = estadisticasAuditoria;
+        this.habilitada = habilitada;
+        this.mesesAdelante = Math.max(mesesAdelante, 1);
+        this.retencionMeses = Math.max(retencionMeses, 1);
+        this.directorioArchivo = Path.of(directorioArchivo);
+        this.intervalo = intervalo;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void alIniciar() {
+        if (!habilitada) {
+            return;
+        }
+        hilo = Thread.ofVirtual().name("particiones-auditoria").start(this::ejecutar);
+    }
+
+    @PreDestroy
+    void detener() {
+        Thread actual = hilo;
+        if (actual != null) {
+            actual.interrupt();
+        }
+    }
+
+    private void ejecutar() {
+        try {
+            while (!Thread.currentThread().isInterrupted()) {
+                try {
+                    mantener();
+                } catch (RuntimeException ex) {
+                    LOGGER.error("Falló el mantenimiento de particiones de auditoría; se reintentará en la siguiente pasada", ex);
+                }
+                Thread.sleep(intervalo.toMillis());
+            }
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    public boolean estaHabilitada() {
+        return habilitada;
+    }
+
+    /**
+     * Indica si auditoriareserva está particionada por mes. Se consulta una vez y se refresca en cada pasada.
+     */
+    public boolean estaParticionada() {
+        Boolean actual = particionada;
+        if (actual == null) {
+            try {
+                actual = !repositorioParticiones.mesesParticionados().isEmpty();
+            } catch (DataAccessException ex) {
+                LOGGER.warn("No se pudo consultar el particionado de auditoriareserva: {}", ex.getMessage());
+                return false;
+            }
+            particionada = actual;
+        }
+        return actual;
+    }
+
+    /**
+     * Una pasada completa: particiones futuras, resumen de meses cerrados y archivo de los vencidos.
+     */
+    public void mantener() {
+        bloqueo.lock();
+        try {
+            particionada = null;
+            if (!estaParticionada()) {
+                LOGGER.warn("auditoriareserva no está particionada; aplicar db/auditoriareserva_particiones.sql");
+                return;
+            }
+            crearParticionesFuturas();
+            resumirMesesCerrados();
+            archivarVencidas();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private void crearParticionesFuturas() {
+        List<YearMonth> existentes = repositorioParticiones.mesesParticionados();
+        YearMonth ultimo = existentes.get(existentes.size() - 1);
+        YearMonth objetivo = YearMonth.now().plusMonths(mesesAdelante);
+        for (YearMonth mes = ultimo.plusMonths(1); !mes.isAfter(objetivo); mes = mes.plusMonths(1)) {
+            repositorioParticiones.crearParticion(mes);
+            LOGGER.info("Partición {} de auditoriareserva creada", clsRepositorioParticionesAuditoria.nombreParticion(mes));
+        }
+    }
+
+    private void resumirMesesCerrados() {
+        List<YearMonth> meses = repositorioParticiones.mesesParticionados();
+        YearMonth actual = YearMonth.now();
+        Set<YearMonth> resumidos = new HashSet<>(repositorioParticiones.mesesResumidos(meses.get(0), actual));
+        for (YearMonth mes : meses) {
+            if (mes.isBefore(actual) && !resumidos.contains(mes)) {
+                repositorioParticiones.resumirMes(mes);
+            }
+        }
+    }
+
+    /**
+     * Archiva y elimina las particiones de meses anteriores a la retención; devuelve las filas archivadas.
+     */
+    public long archivarVencidas() {
+        bloqueo.lock();
+        try {
+            return archivarVencidasBloqueado();
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private long archivarVencidasBloqueado() {
+        if (!habilitada) {
+            LOGGER.warn("Archivo de auditoría omitido: app.auditoria.particiones.habilitada=false");
+            return 0;
+        }
+        if (!estaParticionada()) {
+            return 0;
+        }
+        YearMonth limite = YearMonth.now().minusMonths(retencionMeses);
+        List<YearMonth> meses = repositorioParticiones.mesesParticionados();
+        long archivadas = 0;
+        // pantiguo termina donde empezaba el primer mes particionado, que nunca es posterior al primero actual
+        if (!meses.get(0).isAfter(limite)
+                && repositorioParticiones.listarParticiones().contains(clsRepositorioParticionesAuditoria.PARTICION_ANTIGUO)) {
+            archivadas += archivarAntiguo(meses.get(0));
+        }
+        for (YearMonth mes : meses) {
+            if (!mes.isBefore(limite)) {
+                break;
+            }
+            archivadas += archivar(mes);
+        }
+        if (archivadas > 0) {
+            // Las filas archivadas ya no están en la tabla; los totales diarios se recalculan sin ellas
+            estadisticasAuditoria.invalidar();
+        }
+        return archivadas;
+    }
+
+    private long archivar(YearMonth mes) {
+        // El resumen se recalcula justo antes para que incluya cualquier fila tardía del mes
+        repositorioParticiones.resumirMes(mes);
+        long esperadas = repositorioParticiones.contarMes(mes);
+        Path destino = directorioArchivo.resolve("auditoriareserva-" + mes + ".csv.gz");
+        if (esperadas > 0) {
+            long escritas = exportar(destino, consumidor -> repositorioParticiones.recorrerMes(mes, consumidor));
+            if (escritas != esperadas) {
+                // Filas insertadas durante la exportación: se deja la partición para la siguiente pasada
+                LOGGER.warn("El archivo de {} tiene {} filas y la partición {}; no se elimina", mes, escritas, esperadas);
+                return 0;
+            }
+        }
+        repositorioParticiones.eliminarParticion(mes);
+        LOGGER.info("Auditoría de {} archivada en {} ({} filas) y partición eliminada",
+                mes, esperadas > 0 ? destino : "-", esperadas);
+        return esperadas;
+    }
+
+    private long archivarAntiguo(YearMonth primerMes) {
+        long esperadas = repositorioParticiones.contarAntiguo();
+        if (esperadas == 0) {
+            return 0;
+        }
+        Path destino = directorioArchivo.resolve("auditoriareserva-antiguo-" + primerMes + ".csv.gz");
+        long escritas = exportar(destino, repositorioParticiones::recorrerAntiguo);
+        if (escritas != esperadas) {
+            LOGGER.warn("El archivo de pantiguo tiene {} filas y la partición {}; no se vacía", escritas, esperadas);
+            return 0;
+        }
+        // El resumen suma sobre lo ya archivado, así que se hace una sola vez y justo antes de vaciar
+        repositorioParticiones.resumirAntiguo();
+        repositorioParticiones.vaciarAntiguo();
+        LOGGER.info("Auditoría anterior a {} archivada en {} ({} filas) y pantiguo vaciada", primerMes, destino, esperadas);
+        return esperadas;
+    }
+
+    // Se escribe en un temporal y se renombra al final: un archivo con el nombre definitivo siempre está completo
+    private long exportar(Path destino, Consumer<Consumer<FilaAuditoria>> recorrido) {
+        Path temporal = destino.resolveSibling(destino.getFileName() + ".tmp");
+        long[] filas = {0};
+        try {
+            Files.createDirectories(directorioArchivo);
+            try (Writer escritor = new BufferedWriter(new OutputStreamWriter(
+                    new GZIPOutputStream(Files.newOutputStream(temporal)), StandardCharsets.UTF_8))) {
+                escritor.write(CABECERA_ARCHIVO);
+                escritor.write('\n');
+                recorrido.accept(fila -> {
+                    escribirFila(escritor, fila);
+                    filas[0]++;
+                });
+            }
+            Files.move(temporal, destino, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException ex) {
+            throw new UncheckedIOException("No se pudo escribir el archivo de auditoría " + destino, ex);
+        }
+        return filas[0];
+    }
+
+    private static void escribirFila(Writer escritor, FilaAuditoria fila) {
+        try {
+            escritor.write(fila.idAudit() + "," + fila.idReserva() + "," + csv(fila.estadoAnterior()) + ","
+                    + csv(fila.estadoNuevo()) + "," + fila.fechaCambio() + ","
+                    + (fila.usuarioCambio() != null ? fila.usuarioCambio() : "") + "\n");
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+    }
+
+    private static String csv(String valor) {
+        if (valor == null) {
+            return "";
+        }
+        if (valor.indexOf(',') < 0 && valor.indexOf('"') < 0 && valor.indexOf('\n') < 0) {
+            return valor;
+        }
+        return "\"" + valor.replace("\"", "\"\"") + "\"";
+    }
+
+    /**
+     * Totales de auditoría por mes del año. Los meses cerrados salen del resumen (incluidos los ya
+     * archivados); el resto se cuenta sobre la tabla, limitado al rango de esos meses.
+     */
+    public Map<YearMonth, Long> totalesPorMes(int anio) {
+        YearMonth desde = YearMonth.of(anio, 1);
+        YearMonth hasta = desde.plusYears(1);
+        Map<YearMonth, Long> totales = new TreeMap<>();
+        if (estaParticionada()) {
+            for (TotalResumen total : repositorioParticiones.totalesResumidos(desde, hasta)) {
+                totales.merge(total.mes(), total.total(), Long::sum);
+            }
+        }
+        // Primer mes sin resumen: desde ahí hay que contar en vivo
+        YearMonth inicioEnVivo = desde;
+        while (inicioEnVivo.isBefore(hasta) && totales.containsKey(inicioEnVivo)) {
+            inicioEnVivo = inicioEnVivo.plusMonths(1);
+        }
+        if (inicioEnVivo.isBefore(hasta)) {
+            for (Object[] fila : repositorioAuditoria.findTotalPorMes(inicioEnVivo.atDay(1).atStartOfDay(),
+                    hasta.atDay(1).atStartOfDay())) {
+                YearMonth mes = YearMonth.of(anio, ((Number) fila[0]).intValue());
+                totales.putIfAbsent(mes, ((Number) fila[1]).longValue());
+            }
+        }
+        return totales;
+    }
+}
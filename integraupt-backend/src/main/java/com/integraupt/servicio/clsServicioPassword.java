@@ -3,7 +3,10 @@ package com.integraupt.servicio;
 import jakarta.annotation.PostConstruct;
 import java.nio.charset.StandardCharsets;
 import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
 import java.util.Base64;
+import java.util.concurrent.BlockingDeque;
+import java.util.concurrent.LinkedBlockingDeque;
 import javax.crypto.Cipher;
 import javax.crypto.spec.IvParameterSpec;
 import javax.crypto.spec.SecretKeySpec;
@@ -16,24 +19,36 @@ import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
 
 /**
  * Servicio encargado de encriptar y desencriptar contraseñas de usuarios.
+ *
+ * Conviven dos formatos: AES reversible (heredado) y hash BCrypt. Los {@link Cipher} ya
+ * inicializados se reutilizan desde un pool; crear e inicializar uno por login era la mayor parte
+ * del costo de verificar una contraseña AES.
  */
 @Service
 public class clsServicioPassword {
 
     private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioPassword.class);
     private static final String TRANSFORMATION = "AES/CBC/PKCS5Padding";
+    // Con hilos virtuales un ThreadLocal crearía un Cipher por petición; el pool se comparte entre hilos
+    private static final int MAX_CIFRADORES = 32;
 
     private final String secretKeyConfig;
     private final String ivConfig;
+    private final int costoBCrypt;
     private SecretKeySpec secretKeySpec;
     private IvParameterSpec ivParameterSpec;
-    private final BCryptPasswordEncoder bcryptEncoder = new BCryptPasswordEncoder();
+    private final BCryptPasswordEncoder bcryptEncoder;
+    private final BlockingDeque<Cipher> cifradores = new LinkedBlockingDeque<>(MAX_CIFRADORES);
+    private final BlockingDeque<Cipher> descifradores = new LinkedBlockingDeque<>(MAX_CIFRADORES);
 
     public clsServicioPassword(
             @Value("${app.security.password-secret:IntegraUPTSecretKey!}") String secretKeyConfig,
-            @Value("${app.security.password-iv:IntegraUPTInitVect}") String ivConfig) {
+            @Value("${app.security.password-iv:IntegraUPTInitVect}") String ivConfig,
+            @Value("${app.security.bcrypt.costo:10}") int costoBCrypt) {
         this.secretKeyConfig = secretKeyConfig;
         this.ivConfig = ivConfig;
+        this.costoBCrypt = costoBCrypt;
+        this.bcryptEncoder = new BCryptPasswordEncoder(costoBCrypt);
     }
 
     @PostConstruct
@@ -42,20 +57,32 @@ public class clsServicioPassword {
         this.ivParameterSpec = new IvParameterSpec(normalizarClave(ivConfig));
     }
 
+    public int getCostoBCrypt() {
+        return costoBCrypt;
+    }
+
     public String encriptar(String valorPlano) {
         if (!StringUtils.hasText(valorPlano)) {
             return valorPlano;
         }
         try {
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.ENCRYPT_MODE, secretKeySpec, ivParameterSpec);
-            byte[] encrypted = cipher.doFinal(valorPlano.getBytes(StandardCharsets.UTF_8));
+            byte[] encrypted = aplicar(cifradores, Cipher.ENCRYPT_MODE, valorPlano.getBytes(StandardCharsets.UTF_8));
             return Base64.getEncoder().encodeToString(encrypted);
         } catch (GeneralSecurityException e) {
             throw new IllegalStateException("No se pudo encriptar la contraseña", e);
         }
     }
 
+    /**
+     * Hash BCrypt con el costo configurado, para contraseñas nuevas o migradas.
+     */
+    public String hashear(String valorPlano) {
+        if (!StringUtils.hasText(valorPlano)) {
+            return valorPlano;
+        }
+        return bcryptEncoder.encode(valorPlano);
+    }
+
     public String desencriptar(String valorEncriptado) {
         if (!StringUtils.hasText(valorEncriptado)) {
             return valorEncriptado;
@@ -65,9 +92,7 @@ public class clsServicioPassword {
         }
         try {
             byte[] decoded = Base64.getDecoder().decode(valorEncriptado);
-            Cipher cipher = Cipher.getInstance(TRANSFORMATION);
-            cipher.init(Cipher.DECRYPT_MODE, secretKeySpec, ivParameterSpec);
-            byte[] decrypted = cipher.doFinal(decoded);
+            byte[] decrypted = aplicar(descifradores, Cipher.DECRYPT_MODE, decoded);
             return new String(decrypted, StandardCharsets.UTF_8);
         } catch (IllegalArgumentException ex) {
             LOGGER.debug("El valor proporcionado no está en Base64, se devolverá sin cambios");
@@ -86,10 +111,24 @@ public class clsServicioPassword {
             return bcryptEncoder.matches(passwordPlano, valorAlmacenado);
         }
         String desencriptada = desencriptar(valorAlmacenado);
-        return passwordPlano.equals(desencriptada);
+        return desencriptada != null && MessageDigest.isEqual(
+                passwordPlano.getBytes(StandardCharsets.UTF_8), desencriptada.getBytes(StandardCharsets.UTF_8));
+    }
+
+    // doFinal deja el Cipher como recién inicializado (misma clave e IV), así que se puede devolver al pool
+    private byte[] aplicar(BlockingDeque<Cipher> pool, int modo, byte[] entrada) throws GeneralSecurityException {
+        Cipher cipher = pool.pollFirst();
+        if (cipher == null) {
+            cipher = Cipher.getInstance(TRANSFORMATION);
+            cipher.init(modo, secretKeySpec, ivParameterSpec);
+        }
+        byte[] salida = cipher.doFinal(entrada);
+        // Si doFinal falló (padding inválido) el Cipher no vuelve al pool
+        pool.offerFirst(cipher);
+        return salida;
     }
 
-    private boolean esHashBCrypt(String valor) {
+    public boolean esHashBCrypt(String valor) {
         return valor != null && (valor.startsWith("$2a$") || valor.startsWith("$2b$") || valor.startsWith("$2y$"));
     }
 
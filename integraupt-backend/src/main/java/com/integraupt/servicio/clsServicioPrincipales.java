@@ -0,0 +1,93 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.entidad.clsEntidadUsuario;
+import com.integraupt.repositorio.clsRepositorioAuth;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+/**
+ * Caché acotada (LRU) y con expiración de los principales autenticados.
+ *
+ * El filtro de tokens la consulta en cada petición: solo un fallo de caché llega a la tabla usuario.
+ * También se recuerdan los usuarios inexistentes o inactivos, para que un token de un usuario dado
+ * de baja no consulte la base en cada intento. Los cambios de usuario la invalidan al confirmar.
+ */
+@Service
+public class clsServicioPrincipales {
+
+    private static final Integer ESTADO_INACTIVO = 0;
+
+    // principal == null: el usuario no existe o está inactivo
+    private record Entrada(clsDTOPrincipal principal, long cargadoNanos) {
+    }
+
+    private final clsRepositorioAuth repositorioAuth;
+    private final long ttlNanos;
+    private final ReentrantLock bloqueo = new ReentrantLock();
+    private final LinkedHashMap<Integer, Entrada> entradas;
+
+    public clsServicioPrincipales(clsRepositorioAuth repositorioAuth,
+                                  @Value("${app.security.principales.maximo:10000}") int maximo,
+                                  @Value("${app.security.principales.ttl:PT5M}") Duration ttl) {
+        this.repositorioAuth = repositorioAuth;
+        this.ttlNanos = ttl.toNanos();
+        this.entradas = new LinkedHashMap<>(256, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, Entrada> mayor) {
+                return size() > maximo;
+            }
+        };
+    }
+
+    /**
+     * Principal del usuario del token; vacío si el usuario no existe o está inactivo.
+     */
+    public Optional<clsDTOPrincipal> resolver(Integer usuarioId) {
+        if (usuarioId == null) {
+            return Optional.empty();
+        }
+        long ahora = System.nanoTime();
+        bloqueo.lock();
+        try {
+            Entrada entrada = entradas.get(usuarioId);
+            if (entrada != null && ahora - entrada.cargadoNanos() < ttlNanos) {
+                return Optional.ofNullable(entrada.principal());
+            }
+        } finally {
+            bloqueo.unlock();
+        }
+
+        // La consulta va fuera del candado; dos fallos simultáneos del mismo usuario solo repiten la lectura
+        clsDTOPrincipal principal = repositorioAuth.findById(usuarioId)
+                .filter(usuario -> !ESTADO_INACTIVO.equals(usuario.getEstado()))
+                .map(clsServicioPrincipales::convertir)
+                .orElse(null);
+        bloqueo.lock();
+        try {
+            entradas.put(usuarioId, new Entrada(principal, ahora));
+        } finally {
+            bloqueo.unlock();
+        }
+        return Optional.ofNullable(principal);
+    }
+
+    public void invalidar(Integer usuarioId) {
+        bloqueo.lock();
+        try {
+            entradas.remove(usuarioId);
+        } finally {
+            bloqueo.unlock();
+        }
+    }
+
+    private static clsDTOPrincipal convertir(clsEntidadUsuario usuario) {
+        return new clsDTOPrincipal(usuario.getId(), usuario.getCodigo(), usuario.getRolId(),
+                usuario.getFacultadId(), usuario.getEscuelaId());
+    }
+}
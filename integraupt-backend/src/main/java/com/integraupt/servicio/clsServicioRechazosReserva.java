@@ -0,0 +1,58 @@
+package com.integraupt.servicio;
+
+import com.integraupt.servicio.clsServicioDisponibilidad.Conflicto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import org.springframework.stereotype.Service;
+
+/**
+ * Contador integraupt.reservas.rechazadas, compartido por la reserva individual, las series y los lotes.
+ *
+ * Tags: motivo (conflicto, horario_ocupado, curso, fecha_pasada) y origen (individual, serie, lote).
+ * En series y lotes se cuenta cada fecha o reserva rechazada, no la solicitud completa.
+ */
+@Service
+public class clsServicioRechazosReserva {
+
+    static final String METRICA_RECHAZOS = "integraupt.reservas.rechazadas";
+
+    public enum Origen {
+        INDIVIDUAL, SERIE, LOTE
+    }
+
+    private final Map<Origen, Map<Conflicto, Counter>> porConflicto = new EnumMap<>(Origen.class);
+    private final Map<Origen, Counter> fechaPasada = new EnumMap<>(Origen.class);
+
+    public clsServicioRechazosReserva(MeterRegistry registro) {
+        for (Origen origen : Origen.values()) {
+            Map<Conflicto, Counter> contadores = new EnumMap<>(Conflicto.class);
+            contadores.put(Conflicto.RESERVA, contador(registro, "conflicto", origen));
+            contadores.put(Conflicto.HORARIO, contador(registro, "horario_ocupado", origen));
+            contadores.put(Conflicto.CURSO, contador(registro, "curso", origen));
+            porConflicto.put(origen, contadores);
+            fechaPasada.put(origen, contador(registro, "fecha_pasada", origen));
+        }
+    }
+
+    private static Counter contador(MeterRegistry registro, String motivo, Origen origen) {
+        return Counter.builder(METRICA_RECHAZOS)
+                .description("Solicitudes de reserva rechazadas, por motivo")
+                .tag("motivo", motivo)
+                .tag("origen", origen.name().toLowerCase(Locale.ROOT))
+                .register(registro);
+    }
+
+    public void registrar(Origen origen, Conflicto conflicto) {
+        Counter contador = porConflicto.get(origen).get(conflicto);
+        if (contador != null) {
+            contador.increment();
+        }
+    }
+
+    public void registrarFechaPasada(Origen origen) {
+        fechaPasada.get(origen).increment();
+    }
+}
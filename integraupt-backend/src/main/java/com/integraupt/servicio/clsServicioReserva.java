@@ -1,28 +1,31 @@
 package com.integraupt.servicio;
 
+import com.integraupt.dto.clsDTOPaginaCursor;
 import com.integraupt.dto.clsDTOReserva;
 import com.integraupt.dto.clsDTOReservaUsuarioRequest;
 import com.integraupt.entidad.clsEntidadBloqueHorario;
 import com.integraupt.entidad.clsEntidadEspacio_Reserva;
 import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
 import com.integraupt.entidad.clsEntidadReserva;
 import com.integraupt.entidad.clsEntidadUsuario_Reserva;
 import com.integraupt.repositorio.clsRepositorioBloqueHorario;
 import com.integraupt.repositorio.clsRepositorioEspacioReserva;
 import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
 import com.integraupt.repositorio.clsRepositorioReserva;
 import com.integraupt.repositorio.clsRepositorioUsuarioReserva;
-import java.text.Normalizer;
+import io.micrometer.core.annotation.Timed;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
 import java.time.format.DateTimeParseException;
-import java.time.format.TextStyle;
 import java.util.List;
 import java.util.Locale;
 import java.util.Optional;
-import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -37,56 +40,91 @@ public class clsServicioReserva {
     private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
     private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
     private static final DateTimeFormatter TIME_FORMAT = DateTimeFormatter.ofPattern("HH:mm", Locale.getDefault());
-    private static final Locale LOCALE_ES = new Locale("es", "ES");
-    private static final Pattern DIACRITICS = Pattern.compile("\\p{InCombiningDiacriticalMarks}+");
+    // Índice único sobre la columna generada reserva.slotActivo (db/reserva_slot_activo.sql)
+    static final String INDICE_SLOT_ACTIVO = "uk_reserva_slot_activo";
 
     private final clsRepositorioReserva repositorioReserva;
     private final clsRepositorioHorario repositorioHorario;
+    private final clsRepositorioHorarioCurso repositorioHorarioCurso;
     private final clsRepositorioUsuarioReserva repositorioUsuarioReserva;
     private final clsRepositorioEspacioReserva repositorioEspacioReserva;
     private final clsRepositorioBloqueHorario repositorioBloqueHorario;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final clsServicioEstadisticasReserva estadisticasReserva;
+    private final clsServicioRechazosReserva rechazos;
 
     public clsServicioReserva(clsRepositorioReserva repositorioReserva,
                               clsRepositorioHorario repositorioHorario,
+                              clsRepositorioHorarioCurso repositorioHorarioCurso,
                               clsRepositorioUsuarioReserva repositorioUsuarioReserva,
                               clsRepositorioEspacioReserva repositorioEspacioReserva,
-                              clsRepositorioBloqueHorario repositorioBloqueHorario) {
+                              clsRepositorioBloqueHorario repositorioBloqueHorario,
+                              clsServicioDisponibilidad servicioDisponibilidad,
+                              clsServicioEstadisticasReserva estadisticasReserva,
+                              clsServicioRechazosReserva rechazos) {
         this.repositorioReserva = repositorioReserva;
         this.repositorioHorario = repositorioHorario;
+        this.repositorioHorarioCurso = repositorioHorarioCurso;
         this.repositorioUsuarioReserva = repositorioUsuarioReserva;
         this.repositorioEspacioReserva = repositorioEspacioReserva;
         this.repositorioBloqueHorario = repositorioBloqueHorario;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.estadisticasReserva = estadisticasReserva;
+        this.rechazos = rechazos;
     }
 
+    /**
+     * Lista reservas por páginas ordenadas por (fechaSolicitud, idReserva), continuando desde el cursor recibido.
+     */
     @Transactional(readOnly = true)
-    public List<clsDTOReserva> obtenerReservasPorEstado(String estadoSolicitado) {
-        String estadoNormalizado = normalizarEstado(estadoSolicitado);
+    @Timed("integraupt.servicio")
+    public clsDTOPaginaCursor<clsDTOReserva> obtenerPaginaReservas(String estadoSolicitado, Integer espacioId,
+                                                                   Integer bloqueId, Integer usuarioId,
+                                                                   LocalDate desde, LocalDate hasta,
+                                                                   String cursor, Integer tamano) {
+        if (desde != null && hasta != null && hasta.isBefore(desde)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La fecha final debe ser igual o posterior a la fecha inicial");
+        }
+        clsUtilCursor.Posicion posicion;
+        try {
+            posicion = clsUtilCursor.decodificar(cursor);
+        } catch (IllegalArgumentException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ex.getMessage());
+        }
+        int tamanoPagina = clsUtilCursor.normalizarTamano(tamano);
+
+        // Un elemento extra indica si existe una página siguiente
+        String estado = normalizarEstado(estadoSolicitado);
+        PageRequest limite = PageRequest.of(0, tamanoPagina + 1);
         List<clsEntidadReserva> reservas;
-        
-        if (estadoNormalizado == null || estadoNormalizado.isEmpty()) {
-            reservas = repositorioReserva.findAll();
+        if (posicion == null) {
+            reservas = repositorioReserva.findPagina(estado, espacioId, bloqueId, usuarioId, desde, hasta, limite);
+        } else if (posicion.fecha() != null) {
+            reservas = repositorioReserva.findPaginaDesde(estado, espacioId, bloqueId, usuarioId, desde, hasta,
+                    posicion.fecha(), posicion.id(), limite);
         } else {
-            reservas = repositorioReserva.findAllByEstadoIgnoreCaseOrderByFechaSolicitudAsc(estadoNormalizado);
+            reservas = repositorioReserva.findPaginaSinFechaDesde(estado, espacioId, bloqueId, usuarioId, desde, hasta,
+                    posicion.id(), limite);
         }
-        
-        return reservas.stream().map(this::mapearReserva).collect(Collectors.toList());
+
+        String siguienteCursor = null;
+        if (reservas.size() > tamanoPagina) {
+            reservas = reservas.subList(0, tamanoPagina);
+            clsEntidadReserva ultima = reservas.get(tamanoPagina - 1);
+            siguienteCursor = clsUtilCursor.codificar(ultima.getFechaSolicitud(), ultima.getIdReserva());
+        }
+        return new clsDTOPaginaCursor<>(
+                reservas.stream().map(this::mapearReserva).collect(Collectors.toList()), siguienteCursor);
     }
 
     @Transactional
+    @Timed("integraupt.servicio")
     public clsDTOReserva crearReservaUsuario(clsDTOReservaUsuarioRequest request) {
         if (request == null) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La solicitud de reserva es obligatoria");
         }
 
-        clsEntidadUsuario_Reserva usuario = repositorioUsuarioReserva.findById(request.getUsuario())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El usuario indicado no existe"));
-
-        clsEntidadEspacio_Reserva espacio = repositorioEspacioReserva.findById(request.getEspacio())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El espacio indicado no existe"));
-
-        clsEntidadBloqueHorario bloque = repositorioBloqueHorario.findById(request.getBloque())
-                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El bloque horario indicado no existe"));
-
         LocalDate fechaReserva = validarFechaReserva(request.getFechaReserva());
 
         String descripcion = request.getDescripcion() != null ? request.getDescripcion().trim() : null;
@@ -94,27 +132,23 @@ public class clsServicioReserva {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La descripción de la reserva es obligatoria");
         }
 
-        List<String> estadosBloqueados = List.of("Pendiente", "Aprobada");
-        boolean existeReserva = repositorioReserva.existsByEspacioAndFechaReservaAndBloqueAndEstadoIn(
-                espacio, fechaReserva, bloque, estadosBloqueados);
-        if (existeReserva) {
-            throw new ResponseStatusException(HttpStatus.CONFLICT,
-                    "Ya existe una reserva pendiente o aprobada para el espacio, bloque y fecha seleccionados");
-        }
+        clsEntidadEspacio_Reserva espacio = servicioDisponibilidad.obtenerEspacio(request.getEspacio())
+                .or(() -> repositorioEspacioReserva.findById(request.getEspacio()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El espacio indicado no existe"));
 
-        clsEntidadHorario.DiaSemana diaSemanaEnum = obtenerDiaSemanaEnum(fechaReserva);
-        if (diaSemanaEnum != null) {
-            Optional<clsEntidadHorario> horario = repositorioHorario.findByEspacioIdAndBloqueIdAndDiaSemana(
-                    espacio.getId(),
-                    bloque.getId(),
-                    diaSemanaEnum
-            );
-            if (horario.isPresent() && Boolean.TRUE.equals(horario.get().getOcupado())) {
-                throw new ResponseStatusException(HttpStatus.CONFLICT,
-                        "El horario seleccionado ya se encuentra ocupado");
-            }
+        clsEntidadBloqueHorario bloque = servicioDisponibilidad.obtenerBloque(request.getBloque())
+                .or(() -> repositorioBloqueHorario.findById(request.getBloque()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El bloque horario indicado no existe"));
+
+        if (servicioDisponibilidad.estaCargado()) {
+            validarConflicto(servicioDisponibilidad.reservar(espacio.getId(), bloque.getId(), fechaReserva));
+        } else {
+            validarConflictoEnBaseDeDatos(espacio, bloque, fechaReserva);
         }
 
+        clsEntidadUsuario_Reserva usuario = repositorioUsuarioReserva.findById(request.getUsuario())
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El usuario indicado no existe"));
+
         clsEntidadReserva reserva = new clsEntidadReserva();
         reserva.setUsuario(usuario);
         reserva.setEspacio(espacio);
@@ -131,31 +165,125 @@ public class clsServicioReserva {
             reserva.setMotivo(null);
         }
 
-        clsEntidadReserva guardada = repositorioReserva.save(reserva);
+        clsEntidadReserva guardada = guardarReclamandoSlot(reserva);
+        registrarTransicion(guardada, null);
         return mapearReserva(guardada);
     }
 
     @Transactional
+    @Timed("integraupt.servicio")
     public clsDTOReserva aprobarReserva(Integer id) {
         clsEntidadReserva reserva = obtenerReserva(id);
-        reserva.setEstado("Aprobada");
-        reserva.setMotivo(null);
-        clsEntidadReserva actualizada = repositorioReserva.save(reserva);
-        actualizarOcupacionHorario(actualizada, true);
-        return mapearReserva(actualizada);
+        cambiarEstado(reserva, "Aprobada", null);
+        actualizarOcupacionHorario(reserva, true);
+        sincronizarSlot(reserva, true);
+        return mapearReserva(reserva);
     }
 
     @Transactional
+    @Timed("integraupt.servicio")
     public clsDTOReserva rechazarReserva(Integer id, String motivo) {
         if (motivo == null || motivo.trim().isEmpty()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El motivo es obligatorio");
         }
         clsEntidadReserva reserva = obtenerReserva(id);
-        reserva.setEstado("Rechazada");
-        reserva.setMotivo(motivo.trim());
-        clsEntidadReserva actualizada = repositorioReserva.save(reserva);
-        actualizarOcupacionHorario(actualizada, false);
-        return mapearReserva(actualizada);
+        cambiarEstado(reserva, "Rechazada", motivo.trim());
+        actualizarOcupacionHorario(reserva, false);
+        sincronizarSlot(reserva, false);
+        return mapearReserva(reserva);
+    }
+
+    /**
+     * Aplica la transición con un UPDATE condicionado al estado leído. Si dos solicitudes cambian la
+     * misma reserva a la vez, solo una actualiza la fila y solo esa se cuenta en las estadísticas.
+     */
+    private void cambiarEstado(clsEntidadReserva reserva, String estadoNuevo, String motivo) {
+        String estadoAnterior = reserva.getEstado();
+        int filas;
+        try {
+            // Una reserva rechazada que se aprueba vuelve a ocupar el slot y puede chocar con otra
+            filas = repositorioReserva.actualizarEstadoSiCoincide(reserva.getIdReserva(), estadoAnterior,
+                    estadoNuevo, motivo);
+        } catch (DataIntegrityViolationException ex) {
+            validarSlotActivo(ex);
+            throw ex;
+        }
+        if (filas == 0) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "La reserva cambió de estado mientras se procesaba la solicitud; vuelva a consultarla");
+        }
+        reserva.setEstado(estadoNuevo);
+        reserva.setMotivo(motivo);
+        registrarTransicion(reserva, estadoAnterior);
+    }
+
+    private void validarConflicto(clsServicioDisponibilidad.Conflicto conflicto) {
+        rechazos.registrar(clsServicioRechazosReserva.Origen.INDIVIDUAL, conflicto);
+        switch (conflicto) {
+            case RESERVA:
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "Ya existe una reserva pendiente o aprobada para el espacio, bloque y fecha seleccionados");
+            case HORARIO:
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "El horario seleccionado ya se encuentra ocupado");
+            case CURSO:
+                throw new ResponseStatusException(HttpStatus.CONFLICT,
+                        "El horario seleccionado está asignado a un curso");
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Inserta o actualiza la reserva forzando el flush, de modo que el índice único de slot activo
+     * resuelva en la base de datos la carrera entre dos solicitudes simultáneas por el mismo bloque.
+     */
+    private clsEntidadReserva guardarReclamandoSlot(clsEntidadReserva reserva) {
+        try {
+            return repositorioReserva.saveAndFlush(reserva);
+        } catch (DataIntegrityViolationException ex) {
+            validarSlotActivo(ex);
+            throw ex;
+        }
+    }
+
+    private void validarSlotActivo(DataIntegrityViolationException ex) {
+        String detalle = ex.getMostSpecificCause().getMessage();
+        if (detalle != null && detalle.contains(INDICE_SLOT_ACTIVO)) {
+            validarConflicto(clsServicioDisponibilidad.Conflicto.RESERVA);
+        }
+    }
+
+    /**
+     * Mismas reglas y mismo orden que {@link clsServicioDisponibilidad#verificar}, consultando la base.
+     */
+    private void validarConflictoEnBaseDeDatos(clsEntidadEspacio_Reserva espacio, clsEntidadBloqueHorario bloque,
+                                               LocalDate fechaReserva) {
+        boolean existeReserva = repositorioReserva.existsByEspacioAndFechaReservaAndBloqueAndEstadoIn(
+                espacio, fechaReserva, bloque, clsServicioDisponibilidad.ESTADOS_BLOQUEANTES);
+        if (existeReserva) {
+            validarConflicto(clsServicioDisponibilidad.Conflicto.RESERVA);
+        }
+
+        clsEntidadHorario.DiaSemana diaSemanaEnum = clsUtilDiaSemana.deFecha(fechaReserva);
+        if (diaSemanaEnum != null) {
+            Optional<clsEntidadHorario> horario = repositorioHorario.findByEspacioIdAndBloqueIdAndDiaSemana(
+                    espacio.getId(),
+                    bloque.getId(),
+                    diaSemanaEnum
+            );
+            if (horario.isPresent() && Boolean.TRUE.equals(horario.get().getOcupado())) {
+                validarConflicto(clsServicioDisponibilidad.Conflicto.HORARIO);
+            }
+
+            // Los dos enums de día comparten el orden de lunes a sábado
+            for (clsEntidadHorarioCurso curso : repositorioHorarioCurso.findActivosEnRango(
+                    espacio.getId(), bloque.getId(), fechaReserva, fechaReserva)) {
+                if (curso.getDiaSemana() != null && curso.getDiaSemana().ordinal() == diaSemanaEnum.ordinal()) {
+                    validarConflicto(clsServicioDisponibilidad.Conflicto.CURSO);
+                }
+            }
+        }
     }
 
     private clsEntidadReserva obtenerReserva(Integer id) {
@@ -198,6 +326,7 @@ public class clsServicioReserva {
         try {
             LocalDate fecha = LocalDate.parse(fechaReserva, DATE_FORMAT);
             if (fecha.isBefore(LocalDate.now())) {
+                rechazos.registrarFechaPasada(clsServicioRechazosReserva.Origen.INDIVIDUAL);
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
                         "La fecha de reserva debe ser igual o posterior a la fecha actual");
             }
@@ -234,6 +363,23 @@ public class clsServicioReserva {
         }
     }
 
+    private void registrarTransicion(clsEntidadReserva reserva, String estadoAnterior) {
+        estadisticasReserva.registrarTransicion(
+                reserva.getEspacio() != null ? reserva.getEspacio().getId() : null,
+                reserva.getFechaReserva(),
+                reserva.getFechaSolicitud(),
+                estadoAnterior,
+                reserva.getEstado());
+    }
+
+    private void sincronizarSlot(clsEntidadReserva reserva, boolean ocupado) {
+        if (reserva.getEspacio() == null || reserva.getBloque() == null || reserva.getFechaReserva() == null) {
+            return;
+        }
+        servicioDisponibilidad.actualizarReserva(reserva.getEspacio().getId(), reserva.getBloque().getId(),
+                reserva.getFechaReserva(), ocupado);
+    }
+
     private void actualizarOcupacionHorario(clsEntidadReserva reserva, boolean ocupado) {
         if (reserva == null) {
             return;
@@ -247,7 +393,7 @@ public class clsServicioReserva {
         }
 
         // Convertir a clsEntidadHorario.DiaSemana
-        clsEntidadHorario.DiaSemana diaSemanaEnum = obtenerDiaSemanaEnum(reserva.getFechaReserva());
+        clsEntidadHorario.DiaSemana diaSemanaEnum = clsUtilDiaSemana.deFecha(reserva.getFechaReserva());
         if (diaSemanaEnum == null) {
             return;
         }
@@ -262,40 +408,7 @@ public class clsServicioReserva {
         horario.ifPresent(h -> {
             h.setOcupado(ocupado);
             repositorioHorario.save(h);
+            servicioDisponibilidad.actualizarHorario(h.getEspacioId(), h.getBloqueId(), h.getDiaSemana(), ocupado);
         });
     }
-
-    private clsEntidadHorario.DiaSemana obtenerDiaSemanaEnum(LocalDate fecha) {
-        if (fecha == null) {
-            return null;
-        }
-
-        String nombreDia = fecha.getDayOfWeek().getDisplayName(TextStyle.FULL, LOCALE_ES);
-        if (nombreDia == null || nombreDia.isBlank()) {
-            return null;
-        }
-
-        String capitalizado = nombreDia.substring(0, 1).toUpperCase(LOCALE_ES)
-                + nombreDia.substring(1).toLowerCase(LOCALE_ES);
-        String sinTildes = Normalizer.normalize(capitalizado, Normalizer.Form.NFD);
-        sinTildes = DIACRITICS.matcher(sinTildes).replaceAll("");
-
-        // Mapear a clsEntidadHorario.DiaSemana
-        switch (sinTildes) {
-            case "Lunes":
-                return clsEntidadHorario.DiaSemana.Lunes;
-            case "Martes":
-                return clsEntidadHorario.DiaSemana.Martes;
-            case "Miercoles":
-                return clsEntidadHorario.DiaSemana.Miercoles;
-            case "Jueves":
-                return clsEntidadHorario.DiaSemana.Jueves;
-            case "Viernes":
-                return clsEntidadHorario.DiaSemana.Viernes;
-            case "Sabado":
-                return clsEntidadHorario.DiaSemana.Sabado;
-            default:
-                return null;
-        }
-    }
-}
\ No newline at end of file
+}
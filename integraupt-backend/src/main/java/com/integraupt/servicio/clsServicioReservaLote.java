@@ -0,0 +1,239 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOReservaLoteResponse;
+import com.integraupt.dto.clsDTOReservaLoteResponse.ResultadoDTO;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioReservaLote;
+import com.integraupt.repositorio.clsRepositorioReservaLote.CambioEstado;
+import com.integraupt.repositorio.clsRepositorioReservaLote.RegistroAuditoria;
+import com.integraupt.repositorio.clsRepositorioReservaLote.OcupacionHorario;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Aprobación y rechazo de varias reservas en una sola transacción.
+ *
+ * Lee el estado de todas las reservas con una consulta y escribe reservas, horarios y
+ * auditoría con lotes JDBC. Cada UPDATE exige que la reserva siga en el estado leído; las
+ * reservas inexistentes, en conflicto o cambiadas entretanto se informan en el resultado sin
+ * impedir que se procesen las demás. La auditoría propia está desactivada por defecto porque
+ * el trigger de auditoriareserva ya registra cada UPDATE de estado.
+ */
+@Service
+public class clsServicioReservaLote {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioReservaLote.class);
+    private static final String ESTADO_APROBADA = clsServicioEstadisticasReserva.ESTADO_APROBADA;
+    private static final String ESTADO_RECHAZADA = "Rechazada";
+
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioReservaLote repositorioLote;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final clsServicioEstadisticasReserva estadisticasReserva;
+    private final clsServicioEscritorAuditoria escritorAuditoria;
+    private final clsServicioRechazosReserva rechazos;
+    private final boolean auditar;
+
+    public clsServicioReservaLote(clsRepositorioReserva repositorioReserva,
+                                  clsRepositorioReservaLote repositorioLote,
+                                  clsServicioDisponibilidad servicioDisponibilidad,
+                                  clsServicioEstadisticasReserva estadisticasReserva,
+                                  clsServicioEscritorAuditoria escritorAuditoria,
+                                  clsServicioRechazosReserva rechazos,
+                                  @Value("${app.reservas.lote.auditar:false}") boolean auditar) {
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioLote = repositorioLote;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.estadisticasReserva = estadisticasReserva;
+        this.escritorAuditoria = escritorAuditoria;
+        this.rechazos = rechazos;
+        this.auditar = auditar;
+    }
+
+    // Fila de findEstadoYSlotByIdIn
+    private record Actual(Integer id, String estado, Integer espacioId, Integer bloqueId,
+                          LocalDate fechaReserva, LocalDateTime fechaSolicitud) {
+        static Actual de(Object[] fila) {
+            return new Actual((Integer) fila[0], (String) fila[1], (Integer) fila[2], (Integer) fila[3],
+                    (LocalDate) fila[4], (LocalDateTime) fila[5]);
+        }
+
+        String clave() {
+            return espacioId + "|" + bloqueId + "|" + fechaReserva;
+        }
+    }
+
+    @Transactional
+    @Timed("integraupt.servicio")
+    public clsDTOReservaLoteResponse aprobar(List<Integer> ids, Integer usuarioCambio) {
+        return procesar(ids, ESTADO_APROBADA, null, usuarioCambio);
+    }
+
+    @Transactional
+    @Timed("integraupt.servicio")
+    public clsDTOReservaLoteResponse rechazar(List<Integer> ids, String motivo, Integer usuarioCambio) {
+        if (motivo == null || motivo.trim().isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El motivo es obligatorio");
+        }
+        return procesar(ids, ESTADO_RECHAZADA, motivo.trim(), usuarioCambio);
+    }
+
+    private clsDTOReservaLoteResponse procesar(List<Integer> ids, String estadoNuevo, String motivo,
+                                               Integer usuarioCambio) {
+        if (ids == null || ids.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar al menos una reserva");
+        }
+        Set<Integer> unicos = new LinkedHashSet<>(ids);
+        unicos.remove(null);
+
+        Map<Integer, Actual> actuales = new HashMap<>();
+        for (Object[] fila : repositorioReserva.findEstadoYSlotByIdIn(unicos)) {
+            Actual actual = Actual.de(fila);
+            actuales.put(actual.id(), actual);
+        }
+        Set<String> ocupados = ESTADO_APROBADA.equals(estadoNuevo) ? slotsOcupadosPorOtras(actuales.values()) : Set.of();
+
+        List<ResultadoDTO> resultados = new ArrayList<>(unicos.size());
+        List<CambioEstado> cambios = new ArrayList<>();
+        List<Actual> aplicadas = new ArrayList<>();
+        for (Integer id : unicos) {
+            Actual actual = actuales.get(id);
+            if (actual == null) {
+                resultados.add(ResultadoDTO.error(id, null, "La reserva no existe"));
+                continue;
+            }
+            if (estadoNuevo.equals(actual.estado())) {
+                resultados.add(ResultadoDTO.exito(id, actual.estado(), "La reserva ya estaba " + estadoNuevo.toLowerCase()));
+                continue;
+            }
+            // Aprobar una reserva que no ocupaba su slot lo vuelve a reclamar, también frente al resto del lote
+            boolean reclamaSlot = ESTADO_APROBADA.equals(estadoNuevo)
+                    && !clsServicioDisponibilidad.ESTADOS_BLOQUEANTES.contains(actual.estado());
+            if (reclamaSlot && !ocupados.add(actual.clave())) {
+                rechazos.registrar(clsServicioRechazosReserva.Origen.LOTE, clsServicioDisponibilidad.Conflicto.RESERVA);
+                resultados.add(ResultadoDTO.error(id, actual.estado(),
+                        "Ya existe una reserva pendiente o aprobada para el espacio, bloque y fecha seleccionados"));
+                continue;
+            }
+            cambios.add(new CambioEstado(id, actual.estado(), estadoNuevo, motivo));
+            aplicadas.add(actual);
+            resultados.add(ResultadoDTO.exito(id, estadoNuevo, "Reserva " + estadoNuevo.toLowerCase()));
+        }
+
+        int escritos = 0;
+        if (!cambios.isEmpty()) {
+            Set<Integer> sinCambio = escribir(cambios, aplicadas, estadoNuevo, usuarioCambio);
+            if (!sinCambio.isEmpty()) {
+                for (int i = 0; i < resultados.size(); i++) {
+                    ResultadoDTO resultado = resultados.get(i);
+                    if (sinCambio.contains(resultado.getId())) {
+                        resultados.set(i, ResultadoDTO.error(resultado.getId(), actuales.get(resultado.getId()).estado(),
+                                "La reserva cambió de estado mientras se procesaba el lote; vuelva a consultarla"));
+                    }
+                }
+            }
+            escritos = cambios.size() - sinCambio.size();
+        }
+        LOGGER.info("Lote de reservas {}: {} cambios de {} solicitadas", estadoNuevo, escritos, unicos.size());
+        return new clsDTOReservaLoteResponse(resultados);
+    }
+
+    /**
+     * Claves de slot ya ocupadas por reservas activas (del lote o no) en los espacios y fechas de las
+     * reservas que se reactivarían al aprobarse.
+     */
+    private Set<String> slotsOcupadosPorOtras(Iterable<Actual> actuales) {
+        Set<Integer> espacios = new HashSet<>();
+        Set<LocalDate> fechas = new HashSet<>();
+        for (Actual actual : actuales) {
+            if (!clsServicioDisponibilidad.ESTADOS_BLOQUEANTES.contains(actual.estado())) {
+                espacios.add(actual.espacioId());
+                fechas.add(actual.fechaReserva());
+            }
+        }
+        Set<String> ocupados = new HashSet<>();
+        if (espacios.isEmpty()) {
+            return ocupados;
+        }
+        for (Object[] fila : repositorioReserva.findSlotsOcupadosEn(
+                clsServicioDisponibilidad.ESTADOS_BLOQUEANTES, espacios, fechas)) {
+            ocupados.add(fila[0] + "|" + fila[1] + "|" + fila[2]);
+        }
+        return ocupados;
+    }
+
+    /**
+     * Escribe el lote y devuelve los ids que otra solicitud cambió después de leerlos; esos no
+     * se auditan, no se cuentan en las estadísticas ni se reflejan en el motor.
+     */
+    private Set<Integer> escribir(List<CambioEstado> cambios, List<Actual> aplicadas, String estadoNuevo,
+                                  Integer usuarioCambio) {
+        boolean ocupado = ESTADO_APROBADA.equals(estadoNuevo);
+        Set<Integer> sinCambio;
+        try {
+            sinCambio = repositorioLote.actualizarEstados(cambios);
+        } catch (DataIntegrityViolationException ex) {
+            // Otra transacción tomó uno de los slots después de la verificación; se revierte todo el lote
+            rechazos.registrar(clsServicioRechazosReserva.Origen.LOTE, clsServicioDisponibilidad.Conflicto.RESERVA);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Otra solicitud ocupó uno de los bloques durante la aprobación; vuelva a intentarlo", ex);
+        }
+        List<CambioEstado> escritos = new ArrayList<>(cambios.size());
+        List<Actual> escritas = new ArrayList<>(aplicadas.size());
+        for (int i = 0; i < cambios.size(); i++) {
+            if (!sinCambio.contains(cambios.get(i).idReserva())) {
+                escritos.add(cambios.get(i));
+                escritas.add(aplicadas.get(i));
+            }
+        }
+
+        // Un mismo horario semanal puede repetirse en el lote; basta con actualizarlo una vez
+        Map<String, OcupacionHorario> horarios = new LinkedHashMap<>();
+        for (Actual actual : escritas) {
+            clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(actual.fechaReserva());
+            if (dia != null) {
+                horarios.putIfAbsent(actual.espacioId() + "|" + actual.bloqueId() + "|" + dia,
+                        new OcupacionHorario(actual.espacioId(), actual.bloqueId(), dia, ocupado));
+            }
+        }
+        repositorioLote.actualizarHorarios(horarios.values());
+        if (auditar) {
+            LocalDateTime fechaCambio = LocalDateTime.now();
+            List<RegistroAuditoria> registros = new ArrayList<>(escritos.size());
+            for (CambioEstado cambio : escritos) {
+                registros.add(new RegistroAuditoria(cambio.idReserva(), cambio.estadoAnterior(),
+                        cambio.estadoNuevo(), usuarioCambio, fechaCambio));
+            }
+            escritorAuditoria.registrar(registros);
+        }
+
+        for (int i = 0; i < escritas.size(); i++) {
+            Actual actual = escritas.get(i);
+            estadisticasReserva.registrarTransicion(actual.espacioId(), actual.fechaReserva(),
+                    actual.fechaSolicitud(), escritos.get(i).estadoAnterior(), estadoNuevo);
+            servicioDisponibilidad.actualizarReserva(actual.espacioId(), actual.bloqueId(), actual.fechaReserva(), ocupado);
+        }
+        for (OcupacionHorario horario : horarios.values()) {
+            servicioDisponibilidad.actualizarHorario(horario.espacioId(), horario.bloqueId(), horario.dia(), ocupado);
+        }
+        return sinCambio;
+    }
+}
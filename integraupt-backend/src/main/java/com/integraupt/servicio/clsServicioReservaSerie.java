@@ -0,0 +1,291 @@
+package com.integraupt.servicio;
+
+import com.integraupt.dto.clsDTOReservaSerieRequest;
+import com.integraupt.dto.clsDTOReservaSerieResponse;
+import com.integraupt.dto.clsDTOReservaSerieResponse.OcurrenciaDTO;
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import com.integraupt.repositorio.clsRepositorioEspacioReserva;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioReservaLote;
+import com.integraupt.repositorio.clsRepositorioReservaLote.NuevaReserva;
+import com.integraupt.repositorio.clsRepositorioUsuarioReserva;
+import com.integraupt.servicio.clsServicioDisponibilidad.Conflicto;
+import io.micrometer.core.annotation.Timed;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * Creación de series de reservas recurrentes.
+ *
+ * Las fechas de la serie se verifican con una sola consulta por tabla (reserva, horarios y
+ * horario_curso) en lugar de una por fecha, y las aceptadas se insertan en un lote JDBC.
+ */
+@Service
+public class clsServicioReservaSerie {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioReservaSerie.class);
+    private static final DateTimeFormatter DATE_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE;
+    private static final String ESTADO_PENDIENTE = "Pendiente";
+    // Un ciclo académico completo con margen; más allá conviene registrar un curso
+    static final long MAXIMO_DIAS_RANGO = 366;
+
+    private final clsRepositorioReserva repositorioReserva;
+    private final clsRepositorioReservaLote repositorioLote;
+    private final clsRepositorioHorario repositorioHorario;
+    private final clsRepositorioHorarioCurso repositorioHorarioCurso;
+    private final clsRepositorioUsuarioReserva repositorioUsuarioReserva;
+    private final clsRepositorioEspacioReserva repositorioEspacioReserva;
+    private final clsRepositorioBloqueHorario repositorioBloqueHorario;
+    private final clsServicioDisponibilidad servicioDisponibilidad;
+    private final clsServicioEstadisticasReserva estadisticasReserva;
+    private final clsServicioRechazosReserva rechazos;
+
+    public clsServicioReservaSerie(clsRepositorioReserva repositorioReserva,
+                                   clsRepositorioReservaLote repositorioLote,
+                                   clsRepositorioHorario repositorioHorario,
+                                   clsRepositorioHorarioCurso repositorioHorarioCurso,
+                                   clsRepositorioUsuarioReserva repositorioUsuarioReserva,
+                                   clsRepositorioEspacioReserva repositorioEspacioReserva,
+                                   clsRepositorioBloqueHorario repositorioBloqueHorario,
+                                   clsServicioDisponibilidad servicioDisponibilidad,
+                                   clsServicioEstadisticasReserva estadisticasReserva,
+                                   clsServicioRechazosReserva rechazos) {
+        this.repositorioReserva = repositorioReserva;
+        this.repositorioLote = repositorioLote;
+        this.repositorioHorario = repositorioHorario;
+        this.repositorioHorarioCurso = repositorioHorarioCurso;
+        this.repositorioUsuarioReserva = repositorioUsuarioReserva;
+        this.repositorioEspacioReserva = repositorioEspacioReserva;
+        this.repositorioBloqueHorario = repositorioBloqueHorario;
+        this.servicioDisponibilidad = servicioDisponibilidad;
+        this.estadisticasReserva = estadisticasReserva;
+        this.rechazos = rechazos;
+    }
+
+    @Transactional
+    @Timed("integraupt.servicio")
+    public clsDTOReservaSerieResponse crearSerie(clsDTOReservaSerieRequest request) {
+        if (request == null) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La solicitud de reserva es obligatoria");
+        }
+        LocalDate inicio = parsearFecha(request.getFechaInicio(), "inicio");
+        LocalDate fin = parsearFecha(request.getFechaFin(), "fin");
+        if (inicio.isBefore(LocalDate.now())) {
+            rechazos.registrarFechaPasada(clsServicioRechazosReserva.Origen.SERIE);
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha de inicio no puede ser anterior a hoy");
+        }
+        if (fin.isBefore(inicio)) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La fecha de fin debe ser igual o posterior a la fecha de inicio");
+        }
+        if (ChronoUnit.DAYS.between(inicio, fin) > MAXIMO_DIAS_RANGO) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La serie no debe abarcar más de " + MAXIMO_DIAS_RANGO + " días");
+        }
+        String descripcion = request.getDescripcion() != null ? request.getDescripcion().trim() : null;
+        if (descripcion == null || descripcion.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La descripción de la reserva es obligatoria");
+        }
+        String motivo = request.getMotivo() != null && !request.getMotivo().isBlank() ? request.getMotivo().trim() : null;
+
+        List<LocalDate> fechas = expandir(inicio, fin, request.getDias(), request.getIntervaloSemanas());
+        if (fechas.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "Ningún día de la serie cae dentro del rango de fechas indicado");
+        }
+
+        clsEntidadEspacio_Reserva espacio = servicioDisponibilidad.obtenerEspacio(request.getEspacio())
+                .or(() -> repositorioEspacioReserva.findById(request.getEspacio()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El espacio indicado no existe"));
+        clsEntidadBloqueHorario bloque = servicioDisponibilidad.obtenerBloque(request.getBloque())
+                .or(() -> repositorioBloqueHorario.findById(request.getBloque()))
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, "El bloque horario indicado no existe"));
+        if (!repositorioUsuarioReserva.existsById(request.getUsuario())) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "El usuario indicado no existe");
+        }
+
+        List<Conflicto> conflictos = verificar(espacio.getId(), bloque.getId(), fechas);
+        if (!request.isOmitirConflictos()) {
+            rechazarSiHayConflictos(fechas, conflictos);
+        }
+
+        LocalDateTime fechaSolicitud = LocalDateTime.now();
+        List<NuevaReserva> nuevas = new ArrayList<>();
+        for (int i = 0; i < fechas.size(); i++) {
+            if (conflictos.get(i) != Conflicto.NINGUNO) {
+                continue;
+            }
+            // Reclamar en el índice en memoria cubre solicitudes concurrentes ya confirmadas en él
+            if (servicioDisponibilidad.estaCargado()) {
+                Conflicto enMemoria = servicioDisponibilidad.reservar(espacio.getId(), bloque.getId(), fechas.get(i));
+                if (enMemoria != Conflicto.NINGUNO) {
+                    conflictos.set(i, enMemoria);
+                    continue;
+                }
+            }
+            nuevas.add(new NuevaReserva(request.getUsuario(), espacio.getId(), bloque.getId(), fechas.get(i),
+                    ESTADO_PENDIENTE, fechaSolicitud, descripcion, motivo));
+        }
+        if (request.isOmitirConflictos()) {
+            contarRechazos(conflictos);
+        } else {
+            rechazarSiHayConflictos(fechas, conflictos);
+        }
+
+        List<Integer> ids = insertar(nuevas);
+        for (NuevaReserva nueva : nuevas) {
+            estadisticasReserva.registrarTransicion(nueva.espacioId(), nueva.fechaReserva(), fechaSolicitud,
+                    null, ESTADO_PENDIENTE);
+        }
+
+        List<OcurrenciaDTO> ocurrencias = new ArrayList<>(fechas.size());
+        int creada = 0;
+        for (int i = 0; i < fechas.size(); i++) {
+            Conflicto conflicto = conflictos.get(i);
+            String fecha = fechas.get(i).format(DATE_FORMAT);
+            if (conflicto == Conflicto.NINGUNO) {
+                ocurrencias.add(new OcurrenciaDTO(fecha, ids.get(creada++), null));
+            } else {
+                ocurrencias.add(new OcurrenciaDTO(fecha, null, conflicto.name()));
+            }
+        }
+        LOGGER.info("Serie de reservas para espacio {} bloque {}: {} creadas de {} fechas",
+                espacio.getId(), bloque.getId(), nuevas.size(), fechas.size());
+        return new clsDTOReservaSerieResponse(ocurrencias);
+    }
+
+    /**
+     * Fechas de la serie en orden: los días indicados de cada semana, saltando según el intervalo.
+     */
+    static List<LocalDate> expandir(LocalDate inicio, LocalDate fin, List<clsEntidadHorario.DiaSemana> dias,
+                                    Integer intervaloSemanas) {
+        if (dias == null || dias.isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Debe indicar al menos un día de la semana");
+        }
+        int intervalo = intervaloSemanas != null ? intervaloSemanas : 1;
+        if (intervalo < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "El intervalo debe ser de al menos una semana");
+        }
+        Set<clsEntidadHorario.DiaSemana> seleccion = EnumSet.noneOf(clsEntidadHorario.DiaSemana.class);
+        for (clsEntidadHorario.DiaSemana dia : dias) {
+            if (dia != null) {
+                seleccion.add(dia);
+            }
+        }
+        List<LocalDate> fechas = new ArrayList<>();
+        for (LocalDate fecha = inicio; !fecha.isAfter(fin); fecha = fecha.plusDays(1)) {
+            long semana = ChronoUnit.DAYS.between(inicio, fecha) / 7;
+            clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(fecha);
+            if (dia != null && semana % intervalo == 0 && seleccion.contains(dia)) {
+                fechas.add(fecha);
+            }
+        }
+        return fechas;
+    }
+
+    /**
+     * Conflicto de cada fecha a partir de tres consultas sobre todo el rango de la serie.
+     */
+    private List<Conflicto> verificar(Integer espacioId, Integer bloqueId, List<LocalDate> fechas) {
+        LocalDate desde = fechas.get(0);
+        LocalDate hasta = fechas.get(fechas.size() - 1);
+        Set<LocalDate> reservadas = new HashSet<>(repositorioReserva.findFechasOcupadas(
+                espacioId, bloqueId, clsServicioDisponibilidad.ESTADOS_BLOQUEANTES, desde, hasta));
+        Set<clsEntidadHorario.DiaSemana> diasOcupados = EnumSet.noneOf(clsEntidadHorario.DiaSemana.class);
+        diasOcupados.addAll(repositorioHorario.findDiasOcupados(espacioId, bloqueId));
+        List<clsEntidadHorarioCurso> cursos = repositorioHorarioCurso.findActivosEnRango(espacioId, bloqueId, desde, hasta);
+
+        List<Conflicto> conflictos = new ArrayList<>(fechas.size());
+        for (LocalDate fecha : fechas) {
+            clsEntidadHorario.DiaSemana dia = clsUtilDiaSemana.deFecha(fecha);
+            if (reservadas.contains(fecha)) {
+                conflictos.add(Conflicto.RESERVA);
+            } else if (diasOcupados.contains(dia)) {
+                conflictos.add(Conflicto.HORARIO);
+            } else if (tieneCurso(cursos, dia, fecha)) {
+                conflictos.add(Conflicto.CURSO);
+            } else {
+                conflictos.add(Conflicto.NINGUNO);
+            }
+        }
+        return conflictos;
+    }
+
+    private boolean tieneCurso(List<clsEntidadHorarioCurso> cursos, clsEntidadHorario.DiaSemana dia, LocalDate fecha) {
+        for (clsEntidadHorarioCurso curso : cursos) {
+            if (curso.getDiaSemana() != null && curso.getDiaSemana().name().equals(dia.name())
+                    && !fecha.isBefore(curso.getFechaInicio()) && !fecha.isAfter(curso.getFechaFin())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void rechazarSiHayConflictos(List<LocalDate> fechas, List<Conflicto> conflictos) {
+        List<String> ocupadas = new ArrayList<>();
+        for (int i = 0; i < fechas.size(); i++) {
+            if (conflictos.get(i) != Conflicto.NINGUNO) {
+                ocupadas.add(fechas.get(i).format(DATE_FORMAT));
+            }
+        }
+        if (!ocupadas.isEmpty()) {
+            contarRechazos(conflictos);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "El bloque no está disponible en las fechas: " + String.join(", ", ocupadas));
+        }
+    }
+
+    // Una por fecha no reservada, se omita o haga fallar la serie
+    private void contarRechazos(List<Conflicto> conflictos) {
+        for (Conflicto conflicto : conflictos) {
+            rechazos.registrar(clsServicioRechazosReserva.Origen.SERIE, conflicto);
+        }
+    }
+
+    private List<Integer> insertar(List<NuevaReserva> nuevas) {
+        if (nuevas.isEmpty()) {
+            return List.of();
+        }
+        try {
+            return repositorioLote.insertarReservas(nuevas);
+        } catch (DataIntegrityViolationException ex) {
+            // El índice de slot activo detectó una reserva simultánea; se revierte la serie completa
+            rechazos.registrar(clsServicioRechazosReserva.Origen.SERIE, Conflicto.RESERVA);
+            throw new ResponseStatusException(HttpStatus.CONFLICT,
+                    "Otra solicitud ocupó una de las fechas de la serie; vuelva a intentarlo", ex);
+        }
+    }
+
+    private LocalDate parsearFecha(String valor, String campo) {
+        if (valor == null || valor.isBlank()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "La fecha de " + campo + " es obligatoria");
+        }
+        try {
+            return LocalDate.parse(valor.trim(), DATE_FORMAT);
+        } catch (DateTimeParseException ex) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "La fecha de " + campo + " debe tener el formato yyyy-MM-dd");
+        }
+    }
+}
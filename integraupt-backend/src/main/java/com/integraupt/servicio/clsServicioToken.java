@@ -0,0 +1,191 @@
+package com.integraupt.servicio;
+
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
+
+/**
+ * Emite y valida tokens de sesión firmados con HMAC-SHA256.
+ *
+ * Formato: {@code base64url(usuarioId:rolId:emitido:expira:jti).base64url(firma)}. La validación
+ * solo recalcula la firma y revisa la expiración y el conjunto de revocados en memoria; no consulta
+ * la tabla usuario. La sesión activa de cada usuario también vive en memoria y reemplaza a la
+ * columna Sesion. Las revocaciones no sobreviven a un reinicio; la duración del token acota ese riesgo.
+ * Sin secreto configurado la aplicación no arranca, salvo que se permita expresamente una clave
+ * aleatoria para una única instancia de desarrollo.
+ */
+@Service
+public class clsServicioToken {
+
+    private static final Logger LOGGER = LoggerFactory.getLogger(clsServicioToken.class);
+    private static final String ALGORITMO = "HmacSHA256";
+    // Cada cuántas revocaciones se purgan las entradas ya expiradas
+    private static final int PURGA_CADA = 256;
+    private static final int LARGO_MINIMO_CLAVE = 32;
+
+    /**
+     * Datos de un token con firma válida, vigente y no revocado.
+     */
+    public record Sesion(Integer usuarioId, Integer rolId, long emitido, long expira, String jti) {
+    }
+
+    private final Mac prototipo;
+    private final Duration duracion;
+    // jti revocado -> segundo epoch en que expira (después de eso ya no hace falta recordarlo)
+    private final Map<String, Long> revocados = new ConcurrentHashMap<>();
+    private final Map<Integer, Sesion> activas = new ConcurrentHashMap<>();
+    private final AtomicInteger revocacionesDesdePurga = new AtomicInteger();
+
+    public clsServicioToken(@Value("${app.security.token-secret:}") String secreto,
+                            @Value("${app.security.token.duracion:PT8H}") Duration duracion,
+                            @Value("${app.security.token.permitir-clave-aleatoria:false}") boolean permitirClaveAleatoria) {
+        this.duracion = duracion;
+        byte[] clave;
+        if (StringUtils.hasText(secreto)) {
+            clave = secreto.getBytes(StandardCharsets.UTF_8);
+            if (clave.length < LARGO_MINIMO_CLAVE) {
+                LOGGER.warn("app.security.token-secret tiene {} bytes; se recomiendan al menos {}",
+                        clave.length, LARGO_MINIMO_CLAVE);
+            }
+        } else if (permitirClaveAleatoria) {
+            // Solo para una instancia de desarrollo: otra instancia no aceptaría estos tokens
+            LOGGER.warn("app.security.token-secret no está configurado; se usará una clave aleatoria. "
+                    + "Los tokens no sobrevivirán a un reinicio ni serán válidos en otra instancia");
+            clave = new byte[LARGO_MINIMO_CLAVE];
+            new SecureRandom().nextBytes(clave);
+        } else {
+            throw new IllegalStateException("Falta app.security.token-secret (APP_SECURITY_TOKEN_SECRET). "
+                    + "Todas las instancias deben compartir el mismo secreto; para una sola instancia de "
+                    + "desarrollo puede usarse app.security.token.permitir-clave-aleatoria=true");
+        }
+        try {
+            prototipo = Mac.getInstance(ALGORITMO);
+            prototipo.init(new SecretKeySpec(clave, ALGORITMO));
+        } catch (GeneralSecurityException ex) {
+            throw new IllegalStateException("No se pudo inicializar la firma de tokens", ex);
+        }
+    }
+
+    /**
+     * Emite un token nuevo y lo registra como la sesión activa del usuario. Vacío si otro login
+     * del mismo usuario ya tiene una sesión vigente (dos logins simultáneos no obtienen ambos token).
+     */
+    public Optional<String> emitir(Integer usuarioId, Integer rolId) {
+        long ahora = Instant.now().getEpochSecond();
+        Sesion nueva = new Sesion(usuarioId, rolId, ahora, ahora + duracion.toSeconds(),
+                nuevoJti());
+        Sesion registrada = activas.compute(usuarioId,
+                (id, actual) -> actual != null && actual.expira() > ahora ? actual : nueva);
+        if (registrada != nueva) {
+            return Optional.empty();
+        }
+        String payload = usuarioId + ":" + (rolId != null ? rolId : "") + ":" + nueva.emitido() + ":"
+                + nueva.expira() + ":" + nueva.jti();
+        Base64.Encoder codificador = Base64.getUrlEncoder().withoutPadding();
+        byte[] bytesPayload = payload.getBytes(StandardCharsets.UTF_8);
+        return Optional.of(codificador.encodeToString(bytesPayload) + "." + codificador.encodeToString(firmar(bytesPayload)));
+    }
+
+    /**
+     * Verifica firma, expiración y revocación; vacío si el token no es aceptable.
+     */
+    public Optional<Sesion> validar(String token) {
+        if (!StringUtils.hasText(token)) {
+            return Optional.empty();
+        }
+        int punto = token.indexOf('.');
+        if (punto <= 0 || punto != token.lastIndexOf('.')) {
+            return Optional.empty();
+        }
+        byte[] payload;
+        byte[] firma;
+        try {
+            Base64.Decoder decodificador = Base64.getUrlDecoder();
+            payload = decodificador.decode(token.substring(0, punto));
+            firma = decodificador.decode(token.substring(punto + 1));
+        } catch (IllegalArgumentException ex) {
+            return Optional.empty();
+        }
+        if (!MessageDigest.isEqual(firmar(payload), firma)) {
+            return Optional.empty();
+        }
+
+        String[] partes = new String(payload, StandardCharsets.UTF_8).split(":", -1);
+        if (partes.length != 5) {
+            return Optional.empty();
+        }
+        Sesion sesion;
+        try {
+            sesion = new Sesion(Integer.valueOf(partes[0]),
+                    partes[1].isEmpty() ? null : Integer.valueOf(partes[1]),
+                    Long.parseLong(partes[2]), Long.parseLong(partes[3]), partes[4]);
+        } catch (NumberFormatException ex) {
+            return Optional.empty();
+        }
+        if (sesion.expira() <= Instant.now().getEpochSecond() || revocados.containsKey(sesion.jti())) {
+            return Optional.empty();
+        }
+        return Optional.of(sesion);
+    }
+
+    /**
+     * Indica si el usuario tiene una sesión emitida, vigente y no cerrada.
+     */
+    public boolean tieneSesionActiva(Integer usuarioId) {
+        Sesion sesion = usuarioId != null ? activas.get(usuarioId) : null;
+        return sesion != null && sesion.expira() > Instant.now().getEpochSecond();
+    }
+
+    /**
+     * Cierra una sesión ya validada: revoca su token y, si es la sesión activa del usuario, la libera.
+     */
+    public void cerrar(Sesion sesion) {
+        activas.computeIfPresent(sesion.usuarioId(),
+                (id, activa) -> activa.jti().equals(sesion.jti()) ? null : activa);
+        revocar(sesion);
+    }
+
+    private void revocar(Sesion sesion) {
+        long ahora = Instant.now().getEpochSecond();
+        if (sesion.expira() > ahora) {
+            revocados.put(sesion.jti(), sesion.expira());
+        }
+        if (revocacionesDesdePurga.incrementAndGet() >= PURGA_CADA) {
+            revocacionesDesdePurga.set(0);
+            revocados.values().removeIf(expira -> expira <= ahora);
+            activas.values().removeIf(activa -> activa.expira() <= ahora);
+        }
+    }
+
+    // Solo debe ser único: la firma ya impide falsificarlo, y UUID.randomUUID serializa los logins en SecureRandom
+    private static String nuevoJti() {
+        ThreadLocalRandom aleatorio = ThreadLocalRandom.current();
+        return Long.toHexString(aleatorio.nextLong()) + Long.toHexString(aleatorio.nextLong());
+    }
+
+    // Mac no es thread-safe; clonar el prototipo ya inicializado evita repetir getInstance/init
+    private byte[] firmar(byte[] datos) {
+        try {
+            Mac mac = (Mac) prototipo.clone();
+            return mac.doFinal(datos);
+        } catch (CloneNotSupportedException ex) {
+            throw new IllegalStateException("El proveedor de " + ALGORITMO + " no permite clonar", ex);
+        }
+    }
+}
@@ -43,13 +43,19 @@ public class clsServicioUsuario {
     private final clsRepositorioUsuario repositorioUsuario;
     private final clsServicioCatalogos servicioCatalogos;
     private final clsServicioPassword servicioPassword;
+    private final clsServicioEstadisticasReserva estadisticasReserva;
+    private final clsServicioPrincipales servicioPrincipales;
 
     public clsServicioUsuario(clsRepositorioUsuario repositorioUsuario,
                               clsServicioCatalogos servicioCatalogos,
-                              clsServicioPassword servicioPassword) {
+                              clsServicioPassword servicioPassword,
+                              clsServicioEstadisticasReserva estadisticasReserva,
+                              clsServicioPrincipales servicioPrincipales) {
         this.repositorioUsuario = repositorioUsuario;
         this.servicioCatalogos = servicioCatalogos;
         this.servicioPassword = servicioPassword;
+        this.estadisticasReserva = estadisticasReserva;
+        this.servicioPrincipales = servicioPrincipales;
     }
 
     /**
@@ -120,6 +126,7 @@ public class clsServicioUsuario {
         entidad.setSesion(Boolean.FALSE);
 
         clsEntidadUsuario guardado = repositorioUsuario.save(entidad);
+        estadisticasReserva.registrarCambioRol(null, guardado.getRolId());
         UsuarioDTO dto = convertirEntidadADTO(guardado);
         return clsDTOUsuarioResponse.success("Usuario creado correctamente", dto);
     }
@@ -161,6 +168,7 @@ public class clsServicioUsuario {
         }
         Boolean genero = mapearGenero(request.getGenero());
 
+        Integer rolAnterior = entidad.getRolId();
         asignarDatosBasicos(entidad, request, rolId, genero);
 
         String password = normalizar(request.getPassword());
@@ -172,6 +180,9 @@ public class clsServicioUsuario {
         }
 
         clsEntidadUsuario actualizado = repositorioUsuario.save(entidad);
+        estadisticasReserva.registrarCambioRol(rolAnterior, actualizado.getRolId());
+        // Rol, facultad, escuela o estado pueden haber cambiado
+        clsUtilTransaccion.alConfirmar(() -> servicioPrincipales.invalidar(id));
         UsuarioDTO dto = convertirEntidadADTO(actualizado);
         return clsDTOUsuarioResponse.success("Usuario actualizado correctamente", dto);
     }
@@ -186,6 +197,8 @@ public class clsServicioUsuario {
             return clsDTOUsuarioResponse.error("Usuario no encontrado");
         }
         repositorioUsuario.deleteById(id);
+        estadisticasReserva.registrarCambioRol(usuarioOpt.get().getRolId(), null);
+        clsUtilTransaccion.alConfirmar(() -> servicioPrincipales.invalidar(id));
         return clsDTOUsuarioResponse.success("Usuario eliminado correctamente", null);
     }
 
@@ -0,0 +1,54 @@
+package com.integraupt.servicio;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Codifica y decodifica cursores de paginación keyset sobre el par (fecha, id).
+ *
+ * La fecha puede ser null (filas sin fecha registrada); el cursor la deja vacía y cada listado
+ * decide dónde ubica esas filas en su orden.
+ */
+final class clsUtilCursor {
+
+    static final int TAMANO_PAGINA_DEFECTO = 100;
+    static final int TAMANO_PAGINA_MAXIMO = 500;
+
+    record Posicion(LocalDateTime fecha, Integer id) {
+    }
+
+    private clsUtilCursor() {
+    }
+
+    static String codificar(LocalDateTime fecha, Integer id) {
+        String valor = (fecha != null ? fecha.toString() : "") + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Retorna la posición del cursor o null si no se envió; lanza IllegalArgumentException si es inválido.
+     */
+    static Posicion decodificar(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return null;
+        }
+        try {
+            String valor = new String(Base64.getUrlDecoder().decode(cursor.trim()), StandardCharsets.UTF_8);
+            int separador = valor.indexOf('|');
+            String fecha = valor.substring(0, separador);
+            return new Posicion(fecha.isEmpty() ? null : LocalDateTime.parse(fecha),
+                    Integer.valueOf(valor.substring(separador + 1)));
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Cursor de paginación no válido", e);
+        }
+    }
+
+    static int normalizarTamano(Integer tamano) {
+        if (tamano == null || tamano <= 0) {
+            return TAMANO_PAGINA_DEFECTO;
+        }
+        return Math.min(tamano, TAMANO_PAGINA_MAXIMO);
+    }
+}
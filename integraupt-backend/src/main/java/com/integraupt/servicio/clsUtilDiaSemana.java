@@ -0,0 +1,55 @@
+package com.integraupt.servicio;
+
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+
+/**
+ * Resolución de días de la semana con tablas precalculadas por ordinal.
+ *
+ * Ninguna operación crea objetos: se usa en la creación y aprobación de reservas
+ * y al armar las respuestas de horarios. El domingo no tiene día hábil asociado.
+ */
+public final class clsUtilDiaSemana {
+
+    /** Cantidad de días hábiles (lunes a sábado). */
+    public static final int DIAS_HABILES = clsEntidadHorario.DiaSemana.values().length;
+
+    // Indexadas por DayOfWeek.ordinal(): lunes = 0 ... domingo = 6
+    private static final clsEntidadHorario.DiaSemana[] HORARIO_POR_DIA = new clsEntidadHorario.DiaSemana[7];
+
+    // Indexada por el ordinal de DiaSemana, común a ambos enums
+    private static final String[] ABREVIATURAS = {"Lun", "Mar", "Mié", "Jue", "Vie", "Sáb"};
+
+    static {
+        HORARIO_POR_DIA[DayOfWeek.MONDAY.ordinal()] = clsEntidadHorario.DiaSemana.Lunes;
+        HORARIO_POR_DIA[DayOfWeek.TUESDAY.ordinal()] = clsEntidadHorario.DiaSemana.Martes;
+        HORARIO_POR_DIA[DayOfWeek.WEDNESDAY.ordinal()] = clsEntidadHorario.DiaSemana.Miercoles;
+        HORARIO_POR_DIA[DayOfWeek.THURSDAY.ordinal()] = clsEntidadHorario.DiaSemana.Jueves;
+        HORARIO_POR_DIA[DayOfWeek.FRIDAY.ordinal()] = clsEntidadHorario.DiaSemana.Viernes;
+        HORARIO_POR_DIA[DayOfWeek.SATURDAY.ordinal()] = clsEntidadHorario.DiaSemana.Sabado;
+    }
+
+    private clsUtilDiaSemana() {
+    }
+
+    /**
+     * Día de horario para la fecha, o null si la fecha es null o cae domingo.
+     */
+    public static clsEntidadHorario.DiaSemana deFecha(LocalDate fecha) {
+        return fecha != null ? HORARIO_POR_DIA[fecha.getDayOfWeek().ordinal()] : null;
+    }
+
+    /**
+     * Posición del día hábil (0 = lunes) o -1 para domingo.
+     */
+    public static int indice(LocalDate fecha) {
+        clsEntidadHorario.DiaSemana dia = HORARIO_POR_DIA[fecha.getDayOfWeek().ordinal()];
+        return dia != null ? dia.ordinal() : -1;
+    }
+
+    public static String abreviatura(clsEntidadHorarioCurso.DiaSemana dia) {
+        return dia != null ? ABREVIATURAS[dia.ordinal()] : null;
+    }
+}
@@ -0,0 +1,206 @@
+package com.integraupt.servicio;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import javax.xml.parsers.ParserConfigurationException;
+import org.apache.poi.UnsupportedFileFormatException;
+import org.apache.poi.ooxml.POIXMLException;
+import org.apache.poi.openxml4j.exceptions.InvalidFormatException;
+import org.apache.poi.openxml4j.exceptions.OpenXML4JException;
+import org.apache.poi.openxml4j.opc.OPCPackage;
+import org.apache.poi.ss.usermodel.DataFormatter;
+import org.apache.poi.ss.usermodel.DateUtil;
+import org.apache.poi.ss.util.CellReference;
+import org.apache.poi.util.XMLHelper;
+import org.apache.poi.xssf.eventusermodel.ReadOnlySharedStringsTable;
+import org.apache.poi.xssf.eventusermodel.XSSFReader;
+import org.apache.poi.xssf.eventusermodel.XSSFSheetXMLHandler;
+import org.apache.poi.xssf.model.StylesTable;
+import org.apache.poi.xssf.usermodel.XSSFComment;
+import org.xml.sax.InputSource;
+import org.xml.sax.SAXException;
+import org.xml.sax.XMLReader;
+
+/**
+ * Lectura fila a fila de archivos CSV y XLSX para las importaciones.
+ *
+ * El XLSX se recorre con la API de eventos de POI (SAX), sin construir el libro en memoria;
+ * solo se procesa la primera hoja. Las fechas de Excel se entregan como yyyy-MM-dd.
+ */
+public final class clsUtilLectorTabla {
+
+    /**
+     * Recibe cada fila no vacía con su número (1 = primera fila del archivo) y el texto de sus celdas.
+     */
+    @FunctionalInterface
+    public interface ConsumidorFila {
+        void aceptar(int numeroFila, List<String> celdas);
+    }
+
+    private clsUtilLectorTabla() {
+    }
+
+    public static boolean esFormatoSoportado(String nombreArchivo) {
+        String nombre = nombreArchivo != null ? nombreArchivo.toLowerCase(Locale.ROOT) : "";
+        return nombre.endsWith(".csv") || nombre.endsWith(".xlsx");
+    }
+
+    public static void leer(String nombreArchivo, InputStream contenido, ConsumidorFila consumidor) throws IOException {
+        String nombre = nombreArchivo != null ? nombreArchivo.toLowerCase(Locale.ROOT) : "";
+        if (nombre.endsWith(".xlsx")) {
+            leerXlsx(contenido, consumidor);
+        } else if (nombre.endsWith(".csv")) {
+            leerCsv(contenido, consumidor);
+        } else {
+            throw new IllegalArgumentException("Formato no soportado; use un archivo .csv o .xlsx");
+        }
+    }
+
+    private static void leerCsv(InputStream contenido, ConsumidorFila consumidor) throws IOException {
+        BufferedReader lector = new BufferedReader(new InputStreamReader(contenido, StandardCharsets.UTF_8));
+        char separador = 0;
+        String linea;
+        int numero = 0;
+        while ((linea = lector.readLine()) != null) {
+            numero++;
+            if (numero == 1 && !linea.isEmpty() && linea.charAt(0) == '\uFEFF') {
+                linea = linea.substring(1);
+            }
+            if (linea.isBlank()) {
+                continue;
+            }
+            // Excel en configuración regional española exporta con punto y coma
+            if (separador == 0) {
+                separador = contar(linea, ';') > contar(linea, ',') ? ';' : ',';
+            }
+            consumidor.aceptar(numero, dividirCsv(linea, separador));
+        }
+    }
+
+    private static int contar(String texto, char caracter) {
+        int total = 0;
+        for (int i = 0; i < texto.length(); i++) {
+            if (texto.charAt(i) == caracter) {
+                total++;
+            }
+        }
+        return total;
+    }
+
+    // Campos entre comillas con "" como escape; no admite saltos de línea dentro de un campo
+    static List<String> dividirCsv(String linea, char separador) {
+        List<String> campos = new ArrayList<>();
+        StringBuilder actual = new StringBuilder();
+        boolean entreComillas = false;
+        for (int i = 0; i < linea.length(); i++) {
+            char c = linea.charAt(i);
+            if (entreComillas) {
+                if (c == '"' && i + 1 < linea.length() && linea.charAt(i + 1) == '"') {
+                    actual.append('"');
+                    i++;
+                } else if (c == '"') {
+                    entreComillas = false;
+                } else {
+                    actual.append(c);
+                }
+            } else if (c == '"') {
+                entreComillas = true;
+            } else if (c == separador) {
+                campos.add(actual.toString().trim());
+                actual.setLength(0);
+            } else {
+                actual.append(c);
+            }
+        }
+        campos.add(actual.toString().trim());
+        return campos;
+    }
+
+    /**
+     * Un archivo que no es un XLSX válido (ZIP dañado, XML mal formado) es un error del archivo y se
+     * informa con IllegalArgumentException, igual que en el CSV; IOException queda para fallos de lectura.
+     */
+    private static void leerXlsx(InputStream contenido, ConsumidorFila consumidor) throws IOException {
+        try (OPCPackage paquete = abrirXlsx(contenido)) {
+            XSSFReader lector = new XSSFReader(paquete);
+            ReadOnlySharedStringsTable textos = new ReadOnlySharedStringsTable(paquete);
+            StylesTable estilos = lector.getStylesTable();
+            XSSFReader.SheetIterator hojas = (XSSFReader.SheetIterator) lector.getSheetsData();
+            if (!hojas.hasNext()) {
+                return;
+            }
+            try (InputStream hoja = hojas.next()) {
+                XMLReader parser = XMLHelper.newXMLReader();
+                parser.setContentHandler(new XSSFSheetXMLHandler(
+                        estilos, null, textos, new ManejadorFilas(consumidor), new FormateadorFechaIso(), false));
+                parser.parse(new InputSource(hoja));
+            }
+        } catch (OpenXML4JException | SAXException | POIXMLException ex) {
+            throw new IllegalArgumentException("El archivo XLSX no es válido: " + ex.getMessage(), ex);
+        } catch (ParserConfigurationException ex) {
+            throw new IOException("No se pudo crear el lector XML", ex);
+        }
+    }
+
+    private static OPCPackage abrirXlsx(InputStream contenido) {
+        try {
+            return OPCPackage.open(contenido);
+        } catch (InvalidFormatException | IOException | UnsupportedFileFormatException ex) {
+            // Incluye ZIP truncado o dañado y archivos que superan los límites de descompresión de POI
+            throw new IllegalArgumentException("El archivo XLSX no es válido o está dañado", ex);
+        }
+    }
+
+    private static final class ManejadorFilas implements XSSFSheetXMLHandler.SheetContentsHandler {
+
+        private final ConsumidorFila consumidor;
+        private final List<String> celdas = new ArrayList<>();
+
+        private ManejadorFilas(ConsumidorFila consumidor) {
+            this.consumidor = consumidor;
+        }
+
+        @Override
+        public void startRow(int rowNum) {
+            celdas.clear();
+        }
+
+        @Override
+        public void endRow(int rowNum) {
+            for (String celda : celdas) {
+                if (celda != null && !celda.isBlank()) {
+                    consumidor.aceptar(rowNum + 1, new ArrayList<>(celdas));
+                    return;
+                }
+            }
+        }
+
+        @Override
+        public void cell(String referencia, String valor, XSSFComment comentario) {
+            // Las celdas vacías no generan eventos; la referencia indica la columna real
+            int columna = referencia != null ? new CellReference(referencia).getCol() : celdas.size();
+            while (celdas.size() < columna) {
+                celdas.add("");
+            }
+            celdas.add(valor != null ? valor.trim() : "");
+        }
+    }
+
+    // Ignora el formato de fecha de la celda (d/m/yy, m/d/yy...) y la escribe siempre en ISO
+    private static final class FormateadorFechaIso extends DataFormatter {
+
+        @Override
+        public String formatRawCellContents(double valor, int indiceFormato, String formato) {
+            if (DateUtil.isADateFormat(indiceFormato, formato) && DateUtil.isValidExcelDate(valor)) {
+                return DateUtil.getLocalDateTime(valor).toLocalDate().toString();
+            }
+            return super.formatRawCellContents(valor, indiceFormato, formato);
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.integraupt.servicio;
+
+import java.text.Normalizer;
+import java.util.Locale;
+
+/**
+ * Normalización de texto para comparaciones y búsquedas insensibles a tildes y mayúsculas.
+ */
+final class clsUtilTexto {
+
+    private clsUtilTexto() {
+    }
+
+    /**
+     * Quita tildes, pasa a minúsculas y reduce todo lo que no sea letra o dígito a un espacio simple.
+     * "Aire  acondicionado, PROYECTOR" queda "aire acondicionado proyector".
+     */
+    static String plegar(String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String sinTildes = Normalizer.normalize(texto, Normalizer.Form.NFD);
+        StringBuilder plegado = new StringBuilder(sinTildes.length());
+        boolean separador = false;
+        for (int i = 0; i < sinTildes.length(); i++) {
+            char c = sinTildes.charAt(i);
+            if (Character.getType(c) == Character.NON_SPACING_MARK) {
+                continue;
+            }
+            if (Character.isLetterOrDigit(c)) {
+                if (separador && plegado.length() > 0) {
+                    plegado.append(' ');
+                }
+                plegado.append(Character.toLowerCase(c));
+                separador = false;
+            } else {
+                separador = true;
+            }
+        }
+        return plegado.toString().toLowerCase(Locale.ROOT);
+    }
+}
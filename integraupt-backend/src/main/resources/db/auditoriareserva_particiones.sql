@@ -0,0 +1,81 @@
+-- =====================================================
+-- AUDITORIARESERVA: PARTICIONES MENSUALES, RESUMEN Y ARCHIVO
+-- =====================================================
+-- Particiona auditoriareserva por mes de FechaCambio para que las consultas con rango
+-- de fechas lean solo las particiones necesarias (verificar con EXPLAIN, columna partitions).
+--
+-- clsServicioParticionesAuditoria (app.auditoria.particiones.habilitada=true):
+--   * crea por adelantado las particiones pAAAAMM de los próximos meses, partiendo pfuturo;
+--   * resume cada mes cerrado en auditoriareserva_resumen_mes;
+--   * archiva en archivos .csv.gz los meses que superan la retención y elimina su partición;
+--   * cuando el primer mes particionado queda fuera de la retención, archiva las filas de pantiguo,
+--     las suma al resumen de sus meses y la vacía (TRUNCATE PARTITION), sin eliminarla.
+-- Con app.auditoria.particiones.habilitada=false no se archiva ni elimina nada.
+--
+-- Requisitos de MySQL para particionar:
+--   * la columna de partición debe formar parte de toda clave única, por eso la clave
+--     primaria pasa a ser (IdAudit, FechaCambio);
+--   * una tabla particionada no admite claves foráneas. Antes de aplicar, eliminar las que
+--     existan sobre auditoriareserva:
+--
+--       SELECT CONSTRAINT_NAME
+--         FROM information_schema.REFERENTIAL_CONSTRAINTS
+--        WHERE CONSTRAINT_SCHEMA = DATABASE() AND TABLE_NAME = 'auditoriareserva';
+--
+--       ALTER TABLE auditoriareserva DROP FOREIGN KEY <nombre>;
+--
+-- Ajustar el límite de pantiguo al mes más antiguo que se quiera particionar:
+--
+--   SELECT MIN(FechaCambio) FROM auditoriareserva;
+
+UPDATE auditoriareserva SET FechaCambio = NOW() WHERE FechaCambio IS NULL;
+
+ALTER TABLE auditoriareserva
+    MODIFY FechaCambio DATETIME NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    DROP PRIMARY KEY,
+    ADD PRIMARY KEY (IdAudit, FechaCambio);
+
+ALTER TABLE auditoriareserva
+    PARTITION BY RANGE (TO_DAYS(FechaCambio)) (
+        PARTITION pantiguo VALUES LESS THAN (TO_DAYS('2025-01-01')),
+        PARTITION p202501 VALUES LESS THAN (TO_DAYS('2025-02-01')),
+        PARTITION p202502 VALUES LESS THAN (TO_DAYS('2025-03-01')),
+        PARTITION p202503 VALUES LESS THAN (TO_DAYS('2025-04-01')),
+        PARTITION p202504 VALUES LESS THAN (TO_DAYS('2025-05-01')),
+        PARTITION p202505 VALUES LESS THAN (TO_DAYS('2025-06-01')),
+        PARTITION p202506 VALUES LESS THAN (TO_DAYS('2025-07-01')),
+        PARTITION p202507 VALUES LESS THAN (TO_DAYS('2025-08-01')),
+        PARTITION p202508 VALUES LESS THAN (TO_DAYS('2025-09-01')),
+        PARTITION p202509 VALUES LESS THAN (TO_DAYS('2025-10-01')),
+        PARTITION p202510 VALUES LESS THAN (TO_DAYS('2025-11-01')),
+        PARTITION p202511 VALUES LESS THAN (TO_DAYS('2025-12-01')),
+        PARTITION p202512 VALUES LESS THAN (TO_DAYS('2026-01-01')),
+        PARTITION p202601 VALUES LESS THAN (TO_DAYS('2026-02-01')),
+        PARTITION p202602 VALUES LESS THAN (TO_DAYS('2026-03-01')),
+        PARTITION p202603 VALUES LESS THAN (TO_DAYS('2026-04-01')),
+        PARTITION p202604 VALUES LESS THAN (TO_DAYS('2026-05-01')),
+        PARTITION p202605 VALUES LESS THAN (TO_DAYS('2026-06-01')),
+        PARTITION p202606 VALUES LESS THAN (TO_DAYS('2026-07-01')),
+        PARTITION p202607 VALUES LESS THAN (TO_DAYS('2026-08-01')),
+        PARTITION p202608 VALUES LESS THAN (TO_DAYS('2026-09-01')),
+        PARTITION p202609 VALUES LESS THAN (TO_DAYS('2026-10-01')),
+        PARTITION p202610 VALUES LESS THAN (TO_DAYS('2026-11-01')),
+        PARTITION p202611 VALUES LESS THAN (TO_DAYS('2026-12-01')),
+        PARTITION p202612 VALUES LESS THAN (TO_DAYS('2027-01-01')),
+        PARTITION pfuturo VALUES LESS THAN MAXVALUE
+    );
+
+-- Búsqueda por estado acotada por fecha, y rangos de fecha sin estado
+CREATE INDEX ix_auditoria_estado_nuevo ON auditoriareserva (EstadoNuevo, FechaCambio);
+CREATE INDEX ix_auditoria_estado_anterior ON auditoriareserva (EstadoAnterior, FechaCambio);
+CREATE INDEX ix_auditoria_fecha ON auditoriareserva (FechaCambio);
+CREATE INDEX ix_auditoria_reserva ON auditoriareserva (IdReserva, FechaCambio);
+
+-- Totales por mes cerrado y estado nuevo; sobreviven al archivo de la partición.
+-- Mes es el primer día del mes; EstadoNuevo vacío agrupa los registros sin estado.
+CREATE TABLE auditoriareserva_resumen_mes (
+    Mes         DATE        NOT NULL,
+    EstadoNuevo VARCHAR(50) NOT NULL DEFAULT '',
+    Total       BIGINT      NOT NULL,
+    PRIMARY KEY (Mes, EstadoNuevo)
+);
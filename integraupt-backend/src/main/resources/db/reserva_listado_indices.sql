@@ -0,0 +1,16 @@
+-- =====================================================
+-- RESERVA: ÍNDICES DEL LISTADO PAGINADO POR CURSOR
+-- =====================================================
+-- GET /api/reservas recorre las reservas en orden (fechaSolicitud, IdReserva) y continúa
+-- desde el cursor con "fechaSolicitud > ? OR (fechaSolicitud = ? AND IdReserva > ?)".
+-- Con estos índices cada página lee solo sus filas en lugar de ordenar la tabla completa
+-- (verificar con EXPLAIN que no aparezca "Using filesort").
+--
+-- Las reservas sin fechaSolicitud quedan al inicio del orden (MySQL ordena los NULL primero
+-- en orden ascendente) y se paginan solo por IdReserva.
+
+-- Listado sin filtro de estado
+CREATE INDEX ix_reserva_solicitud ON reserva (fechaSolicitud, IdReserva);
+
+-- Listado por estado, que es como lo consulta el panel de gestión de reservas
+CREATE INDEX ix_reserva_estado_solicitud ON reserva (estado, fechaSolicitud, IdReserva);
@@ -0,0 +1,26 @@
+-- =====================================================
+-- RESERVA: UN SOLO SLOT ACTIVO POR (ESPACIO, BLOQUE, FECHA)
+-- =====================================================
+-- Solo las reservas Pendiente o Aprobada ocupan el slot. Para las demás la columna
+-- generada queda en NULL y el índice único no las considera, así que una reserva
+-- rechazada no impide volver a reservar el mismo bloque.
+--
+-- clsServicioReserva reconoce la violación del índice por su nombre
+-- (uk_reserva_slot_activo) y responde 409 Conflict.
+--
+-- Antes de aplicar, verificar que no existan slots duplicados:
+--
+--   SELECT espacio, bloque, fechaReserva, COUNT(*) AS total
+--     FROM reserva
+--    WHERE estado IN ('Pendiente', 'Aprobada')
+--    GROUP BY espacio, bloque, fechaReserva
+--   HAVING COUNT(*) > 1;
+
+ALTER TABLE reserva
+    ADD COLUMN slotActivo VARCHAR(40)
+        GENERATED ALWAYS AS (
+            CASE WHEN estado IN ('Pendiente', 'Aprobada')
+                 THEN CONCAT(espacio, '|', bloque, '|', fechaReserva)
+            END
+        ) STORED,
+    ADD UNIQUE KEY uk_reserva_slot_activo (slotActivo);
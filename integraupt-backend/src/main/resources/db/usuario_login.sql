@@ -0,0 +1,16 @@
+-- =====================================================
+-- USUARIO: BÚSQUEDA DE LOGIN POR CÓDIGO O CORREO
+-- =====================================================
+-- clsRepositorioAuth.findPorCodigoOEmail resuelve el login con
+--   WHERE CodigoU = ? OR CorreoU = ?
+-- MySQL combina ambos índices (index_merge union) en lugar de recorrer la tabla.
+-- La comparación ignora mayúsculas por la collation _ci de las columnas (la de
+-- utf8mb4 por defecto); si la tabla usa una collation _bin, convertirla antes.
+--
+-- Verificar con:
+--
+--   EXPLAIN SELECT * FROM usuario WHERE CodigoU = '2020067145' OR CorreoU = '2020067145';
+
+ALTER TABLE usuario
+    ADD INDEX idx_usuario_codigo (CodigoU),
+    ADD INDEX idx_usuario_correo (CorreoU);
@@ -0,0 +1,29 @@
+package com.integraupt.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+class clsConfigDiagnosticoSqlTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withUserConfiguration(clsConfigDiagnosticoSql.class);
+
+    @Test
+    void desactivadoPorDefecto() {
+        contexto.run(ctx -> assertThat(ctx).doesNotHaveBean(HibernatePropertiesCustomizer.class)
+                .doesNotHaveBean("filtroPresupuestoSql"));
+    }
+
+    @Test
+    void seActivaConLaPropiedad() {
+        contexto.withPropertyValues("app.diagnostico.sql.habilitado=true")
+                .run(ctx -> assertThat(ctx).hasSingleBean(HibernatePropertiesCustomizer.class)
+                        .hasBean("filtroPresupuestoSql"));
+    }
+}
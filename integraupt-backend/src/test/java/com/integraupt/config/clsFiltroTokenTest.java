@@ -0,0 +1,102 @@
+package com.integraupt.config;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioPrincipales;
+import com.integraupt.servicio.clsServicioToken;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+class clsFiltroTokenTest {
+
+    private final clsServicioToken servicioToken =
+            new clsServicioToken("secreto-de-pruebas-de-32-bytes-o-mas", Duration.ofHours(1), false);
+    private final clsServicioPrincipales principales = mock(clsServicioPrincipales.class);
+
+    @Test
+    void sinTokenYNoObligatorioSigueComoAnonimo() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro(false).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(request.getAttribute(clsFiltroToken.ATRIBUTO_PRINCIPAL)).isNull();
+    }
+
+    @Test
+    void sinTokenYObligatorioResponde401() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro(true).doFilter(new MockHttpServletRequest("GET", "/api/reservas"), response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void tokenInvalidoResponde401AunqueNoSeaObligatorio() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader("Authorization", "Bearer no-es-un-token");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro(false).doFilter(request, response, chain);
+
+        assertThat(response.getStatus()).isEqualTo(401);
+        assertThat(response.getHeader("WWW-Authenticate")).isEqualTo("Bearer");
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void tokenDeUsuarioInexistenteResponde401() throws Exception {
+        String token = servicioToken.emitir(7, clsDTOPrincipal.ROL_ESTUDIANTE).orElseThrow();
+        when(principales.resolver(7)).thenReturn(Optional.empty());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro(false).doFilter(request, response, new MockFilterChain());
+
+        assertThat(response.getStatus()).isEqualTo(401);
+    }
+
+    @Test
+    void tokenValidoDejaElPrincipal() throws Exception {
+        clsDTOPrincipal principal = new clsDTOPrincipal(7, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE, null, null);
+        String token = servicioToken.emitir(7, clsDTOPrincipal.ROL_ESTUDIANTE).orElseThrow();
+        when(principales.resolver(7)).thenReturn(Optional.of(principal));
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reservas");
+        request.addHeader("Authorization", "Bearer " + token);
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro(false).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(request.getAttribute(clsFiltroToken.ATRIBUTO_PRINCIPAL)).isSameAs(principal);
+    }
+
+    @Test
+    void rutasPublicasNoValidanElToken() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/auth/login");
+        request.addHeader("Authorization", "Bearer no-es-un-token");
+        MockFilterChain chain = new MockFilterChain();
+
+        filtro(true).doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+    }
+
+    private clsFiltroToken filtro(boolean obligatorio) {
+        return new clsFiltroToken(servicioToken, principales, obligatorio, List.of("/api/auth/"));
+    }
+}
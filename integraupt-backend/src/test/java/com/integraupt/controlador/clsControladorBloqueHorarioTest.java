@@ -0,0 +1,35 @@
+package com.integraupt.controlador;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioCatalogos;
+import com.integraupt.servicio.clsServicioDisponibilidad;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsControladorBloqueHorarioTest {
+
+    private final clsServicioCatalogos catalogos = mock(clsServicioCatalogos.class);
+    private final clsServicioDisponibilidad disponibilidad = mock(clsServicioDisponibilidad.class);
+    private final clsControladorBloqueHorario controlador = new clsControladorBloqueHorario(catalogos, disponibilidad);
+
+    @Test
+    void invalidarRefrescaCatalogoYMotor() {
+        controlador.invalidarCache(new clsDTOPrincipal(1, "admin", clsDTOPrincipal.ROL_ADMINISTRADOR, null, null));
+
+        verify(catalogos).invalidar();
+        verify(disponibilidad).recargarBloques();
+    }
+
+    @Test
+    void invalidarExigeAdministrador() {
+        clsDTOPrincipal estudiante = new clsDTOPrincipal(2, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE, null, null);
+
+        assertThatThrownBy(() -> controlador.invalidarCache(estudiante)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(catalogos, disponibilidad);
+    }
+}
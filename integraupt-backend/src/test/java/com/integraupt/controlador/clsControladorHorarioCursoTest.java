@@ -0,0 +1,56 @@
+package com.integraupt.controlador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOCursoHorarioRequest;
+import com.integraupt.dto.clsDTOCursoHorarioResponse;
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioHorarioCurso;
+import com.integraupt.servicio.clsServicioImportacionHorarioCurso;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsControladorHorarioCursoTest {
+
+    private final clsDTOPrincipal admin = new clsDTOPrincipal(1, "admin", clsDTOPrincipal.ROL_ADMINISTRADOR, null, null);
+    private final clsDTOPrincipal profesor = new clsDTOPrincipal(3, "DOC10", clsDTOPrincipal.ROL_PROFESOR, null, null);
+    private final clsServicioHorarioCurso servicio = mock(clsServicioHorarioCurso.class);
+    private final clsControladorHorarioCurso controlador =
+            new clsControladorHorarioCurso(servicio, mock(clsServicioImportacionHorarioCurso.class));
+    private final clsDTOCursoHorarioRequest request = new clsDTOCursoHorarioRequest();
+
+    @Test
+    void cambiosExigenAdministrador() {
+        List<Consumer<clsDTOPrincipal>> cambios = List.of(
+                principal -> controlador.crearHorarioCurso(request, principal),
+                principal -> controlador.actualizarHorarioCurso(7, request, principal),
+                principal -> controlador.eliminarHorarioCurso(7, principal));
+        for (Consumer<clsDTOPrincipal> cambio : cambios) {
+            assertThat(estado(() -> cambio.accept(null))).isEqualTo(HttpStatus.UNAUTHORIZED);
+            assertThat(estado(() -> cambio.accept(profesor))).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+        verifyNoInteractions(servicio);
+    }
+
+    @Test
+    void administradorPuedeEliminar() {
+        when(servicio.eliminarHorarioCurso(7)).thenReturn(clsDTOCursoHorarioResponse.success("OK", null));
+
+        assertThat(controlador.eliminarHorarioCurso(7, admin).getStatusCode()).isEqualTo(HttpStatus.OK);
+        verify(servicio).eliminarHorarioCurso(7);
+    }
+
+    private static HttpStatus estado(Runnable accion) {
+        Throwable error = catchThrowable(accion::run);
+        assertThat(error).isInstanceOf(ResponseStatusException.class);
+        return HttpStatus.valueOf(((ResponseStatusException) error).getStatusCode().value());
+    }
+}
@@ -0,0 +1,60 @@
+package com.integraupt.controlador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOHorarioRequest;
+import com.integraupt.dto.clsDTOHorarioResponse;
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioHorario;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsControladorHorarioTest {
+
+    private final clsDTOPrincipal admin = new clsDTOPrincipal(1, "admin", clsDTOPrincipal.ROL_ADMINISTRADOR, null, null);
+    private final clsDTOPrincipal estudiante = new clsDTOPrincipal(2, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE, null, null);
+    private final clsServicioHorario servicio = mock(clsServicioHorario.class);
+    private final clsControladorHorario controlador = new clsControladorHorario(servicio);
+    private final clsDTOHorarioRequest request = new clsDTOHorarioRequest();
+
+    @Test
+    void cambiosExigenAdministrador() {
+        for (Consumer<clsDTOPrincipal> cambio : cambios()) {
+            assertThat(estado(() -> cambio.accept(null))).isEqualTo(HttpStatus.UNAUTHORIZED);
+            assertThat(estado(() -> cambio.accept(estudiante))).isEqualTo(HttpStatus.FORBIDDEN);
+        }
+        verifyNoInteractions(servicio);
+    }
+
+    @Test
+    void administradorPuedeCambiarOcupacion() {
+        when(servicio.actualizarOcupacion(5, true)).thenReturn(clsDTOHorarioResponse.success("OK", null));
+
+        assertThat(controlador.actualizarOcupacion(5, Map.of("ocupado", true), admin).getStatusCode())
+                .isEqualTo(HttpStatus.OK);
+        verify(servicio).actualizarOcupacion(5, true);
+    }
+
+    private List<Consumer<clsDTOPrincipal>> cambios() {
+        return List.of(
+                principal -> controlador.crearHorario(request, principal),
+                principal -> controlador.actualizarHorario(5, request, principal),
+                principal -> controlador.eliminarHorario(5, principal),
+                principal -> controlador.actualizarOcupacion(5, Map.of("ocupado", true), principal));
+    }
+
+    private static HttpStatus estado(Runnable accion) {
+        Throwable error = catchThrowable(accion::run);
+        assertThat(error).isInstanceOf(ResponseStatusException.class);
+        return HttpStatus.valueOf(((ResponseStatusException) error).getStatusCode().value());
+    }
+}
@@ -0,0 +1,43 @@
+package com.integraupt.controlador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.servicio.clsServicioDisponibilidad;
+import com.integraupt.servicio.clsServicioReserva;
+import com.integraupt.servicio.clsServicioReservaLote;
+import com.integraupt.servicio.clsServicioReservaSerie;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsControladorReservaTest {
+
+    private final clsServicioDisponibilidad disponibilidad = mock(clsServicioDisponibilidad.class);
+    private final clsControladorReserva controlador = new clsControladorReserva(mock(clsServicioReserva.class),
+            mock(clsServicioReservaLote.class), mock(clsServicioReservaSerie.class), disponibilidad);
+
+    @Test
+    void recargarDisponibilidadRecargaElMotor() {
+        when(disponibilidad.estaCargado()).thenReturn(true);
+
+        var respuesta = controlador.recargarDisponibilidad(
+                new clsDTOPrincipal(1, "admin", clsDTOPrincipal.ROL_ADMINISTRADOR, null, null));
+
+        verify(disponibilidad).recargar();
+        assertThat(respuesta.getBody()).containsEntry("cargado", true);
+    }
+
+    @Test
+    void recargarDisponibilidadExigeAdministrador() {
+        clsDTOPrincipal estudiante = new clsDTOPrincipal(2, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE, null, null);
+
+        assertThatThrownBy(() -> controlador.recargarDisponibilidad(estudiante)).isInstanceOf(ResponseStatusException.class);
+        assertThatThrownBy(() -> controlador.recargarDisponibilidad(null)).isInstanceOf(ResponseStatusException.class);
+        verifyNoInteractions(disponibilidad);
+    }
+}
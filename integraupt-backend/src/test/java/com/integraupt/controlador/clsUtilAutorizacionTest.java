@@ -0,0 +1,43 @@
+package com.integraupt.controlador;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+import com.integraupt.dto.clsDTOPrincipal;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsUtilAutorizacionTest {
+
+    private final clsDTOPrincipal admin = new clsDTOPrincipal(1, "admin", clsDTOPrincipal.ROL_ADMINISTRADOR, null, null);
+    private final clsDTOPrincipal estudiante = new clsDTOPrincipal(2, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE, null, null);
+
+    @Test
+    void sinPrincipalResponde401() {
+        assertThat(estado(() -> clsUtilAutorizacion.exigirAdministrador(null))).isEqualTo(HttpStatus.UNAUTHORIZED);
+        assertThat(estado(() -> clsUtilAutorizacion.exigirPropioOAdministrador(null, 2)))
+                .isEqualTo(HttpStatus.UNAUTHORIZED);
+    }
+
+    @Test
+    void noAdministradorResponde403() {
+        assertThat(estado(() -> clsUtilAutorizacion.exigirAdministrador(estudiante))).isEqualTo(HttpStatus.FORBIDDEN);
+        assertThat(estado(() -> clsUtilAutorizacion.exigirPropioOAdministrador(estudiante, 3)))
+                .isEqualTo(HttpStatus.FORBIDDEN);
+    }
+
+    @Test
+    void propioUsuarioOAdministradorPasan() {
+        assertThatCode(() -> clsUtilAutorizacion.exigirPropioOAdministrador(estudiante, 2)).doesNotThrowAnyException();
+        assertThatCode(() -> clsUtilAutorizacion.exigirPropioOAdministrador(admin, 2)).doesNotThrowAnyException();
+        assertThatCode(() -> clsUtilAutorizacion.exigirAdministrador(admin)).doesNotThrowAnyException();
+    }
+
+    private static HttpStatus estado(Runnable regla) {
+        Throwable error = catchThrowable(regla::run);
+        assertThat(error).isInstanceOf(ResponseStatusException.class);
+        return HttpStatus.valueOf(((ResponseStatusException) error).getStatusCode().value());
+    }
+}
@@ -0,0 +1,244 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOReservaUsuarioRequest;
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadHorarioCurso;
+import com.integraupt.entidad.clsEntidadReserva;
+import com.integraupt.entidad.clsEntidadUsuario_Reserva;
+import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import com.integraupt.repositorio.clsRepositorioEspacioReserva;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioUsuarioReserva;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+/**
+ * El motor en memoria y la validación contra la base deben rechazar exactamente los mismos casos.
+ */
+class clsServicioDisponibilidadTest {
+
+    private static final int ESPACIO = 1;
+    private static final int BLOQUE = 3;
+    private static final LocalDate LUNES = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    private final List<Object[]> slotsReservados = new ArrayList<>();
+    private final List<clsEntidadHorario> horariosOcupados = new ArrayList<>();
+    private final List<clsEntidadHorarioCurso> cursos = new ArrayList<>();
+
+    private clsRepositorioReserva repositorioReserva;
+    private clsRepositorioHorario repositorioHorario;
+    private clsRepositorioHorarioCurso repositorioHorarioCurso;
+    private clsRepositorioEspacioReserva repositorioEspacio;
+    private clsRepositorioBloqueHorario repositorioBloque;
+    private clsRepositorioUsuarioReserva repositorioUsuario;
+    private clsEntidadEspacio_Reserva espacio;
+    private clsEntidadBloqueHorario bloque;
+
+    @BeforeEach
+    void preparar() {
+        espacio = new clsEntidadEspacio_Reserva();
+        espacio.setId(ESPACIO);
+        bloque = new clsEntidadBloqueHorario();
+        bloque.setId(BLOQUE);
+        clsEntidadUsuario_Reserva usuario = new clsEntidadUsuario_Reserva();
+        usuario.setId(7);
+
+        repositorioReserva = mock(clsRepositorioReserva.class);
+        repositorioHorario = mock(clsRepositorioHorario.class);
+        repositorioHorarioCurso = mock(clsRepositorioHorarioCurso.class);
+        repositorioEspacio = mock(clsRepositorioEspacioReserva.class);
+        repositorioBloque = mock(clsRepositorioBloqueHorario.class);
+        repositorioUsuario = mock(clsRepositorioUsuarioReserva.class);
+
+        when(repositorioEspacio.findAll()).thenReturn(List.of(espacio));
+        when(repositorioEspacio.findById(ESPACIO)).thenReturn(Optional.of(espacio));
+        when(repositorioBloque.findAll()).thenReturn(List.of(bloque));
+        when(repositorioBloque.findById(BLOQUE)).thenReturn(Optional.of(bloque));
+        when(repositorioUsuario.findById(7)).thenReturn(Optional.of(usuario));
+        when(repositorioReserva.saveAndFlush(any(clsEntidadReserva.class))).thenAnswer(inv -> inv.getArgument(0));
+
+        // Cada repositorio responde sobre los mismos datos que usa la carga del motor
+        when(repositorioReserva.findSlotsOcupadosDesde(anyList(), any(LocalDate.class))).thenAnswer(inv -> slotsReservados);
+        when(repositorioReserva.existsByEspacioAndFechaReservaAndBloqueAndEstadoIn(any(), any(), any(), anyList()))
+                .thenAnswer(inv -> slotsReservados.stream().anyMatch(fila ->
+                        fila[0].equals(ESPACIO) && fila[1].equals(BLOQUE) && fila[2].equals(inv.getArgument(1))));
+        when(repositorioHorario.findByOcupado(true)).thenAnswer(inv -> horariosOcupados);
+        when(repositorioHorario.findByEspacioIdAndBloqueIdAndDiaSemana(
+                anyInt(), anyInt(), any(clsEntidadHorario.DiaSemana.class)))
+                .thenAnswer(inv -> horariosOcupados.stream()
+                        .filter(h -> h.getEspacioId().equals(inv.getArgument(0))
+                                && h.getBloqueId().equals(inv.getArgument(1))
+                                && h.getDiaSemana() == inv.getArgument(2))
+                        .findFirst());
+        when(repositorioHorarioCurso.findByEstadoTrue()).thenAnswer(inv -> cursos);
+        when(repositorioHorarioCurso.findActivosEnRango(anyInt(), anyInt(), any(), any()))
+                .thenAnswer(inv -> cursos.stream()
+                        .filter(c -> c.getEspacioId().equals(inv.getArgument(0))
+                                && c.getBloqueId().equals(inv.getArgument(1))
+                                && !c.getFechaInicio().isAfter(inv.getArgument(3))
+                                && !c.getFechaFin().isBefore(inv.getArgument(2)))
+                        .toList());
+    }
+
+    @Test
+    void slotLibreSeAceptaEnAmbosCaminos() {
+        assertThat(resultadoConMotor(LUNES)).isEqualTo("OK");
+        assertThat(resultadoEnBaseDeDatos(LUNES)).isEqualTo("OK");
+    }
+
+    @Test
+    void reservaVigenteSeRechazaIgualEnAmbosCaminos() {
+        slotsReservados.add(new Object[] {ESPACIO, BLOQUE, LUNES});
+
+        assertThat(resultadoConMotor(LUNES)).startsWith("409").contains("reserva pendiente o aprobada");
+        assertThat(resultadoEnBaseDeDatos(LUNES)).isEqualTo(resultadoConMotor(LUNES));
+    }
+
+    @Test
+    void recargaRecogeHorariosCreadosFueraDelMotor() {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        disponibilidad.recargar();
+        // Otra instancia o un cambio directo en la base ocupa el bloque semanal
+        horariosOcupados.add(new clsEntidadHorario(1, ESPACIO, BLOQUE, clsEntidadHorario.DiaSemana.Lunes, true));
+        assertThat(disponibilidad.verificar(ESPACIO, BLOQUE, LUNES)).isEqualTo(clsServicioDisponibilidad.Conflicto.NINGUNO);
+
+        disponibilidad.recargar();
+
+        assertThat(disponibilidad.verificar(ESPACIO, BLOQUE, LUNES)).isEqualTo(clsServicioDisponibilidad.Conflicto.HORARIO);
+    }
+
+    @Test
+    void horarioOcupadoSeRechazaIgualEnAmbosCaminos() {
+        horariosOcupados.add(new clsEntidadHorario(1, ESPACIO, BLOQUE, clsEntidadHorario.DiaSemana.Lunes, true));
+
+        assertThat(resultadoConMotor(LUNES)).startsWith("409").contains("ya se encuentra ocupado");
+        assertThat(resultadoEnBaseDeDatos(LUNES)).isEqualTo(resultadoConMotor(LUNES));
+    }
+
+    @Test
+    void cursoVigenteSeRechazaIgualEnAmbosCaminos() {
+        cursos.add(curso(clsEntidadHorarioCurso.DiaSemana.Lunes, LUNES.minusWeeks(2), LUNES.plusWeeks(2)));
+
+        assertThat(resultadoConMotor(LUNES)).startsWith("409").contains("asignado a un curso");
+        assertThat(resultadoEnBaseDeDatos(LUNES)).isEqualTo(resultadoConMotor(LUNES));
+    }
+
+    @Test
+    void cursoDeOtroDiaOFueraDeVigenciaNoBloquea() {
+        cursos.add(curso(clsEntidadHorarioCurso.DiaSemana.Martes, LUNES.minusWeeks(2), LUNES.plusWeeks(2)));
+        cursos.add(curso(clsEntidadHorarioCurso.DiaSemana.Lunes, LUNES.plusDays(1), LUNES.plusWeeks(2)));
+
+        assertThat(resultadoConMotor(LUNES)).isEqualTo("OK");
+        assertThat(resultadoEnBaseDeDatos(LUNES)).isEqualTo("OK");
+    }
+
+    @Test
+    void reclamoDuranteLaRecargaSeConservaEnElEstadoNuevo() {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        disponibilidad.recargar();
+        LocalDate martes = LUNES.plusDays(1);
+
+        // La reserva se reclama mientras la recarga ya leyó las reservas vigentes de la base
+        when(repositorioReserva.findSlotsOcupadosDesde(anyList(), any(LocalDate.class))).thenAnswer(inv -> {
+            assertThat(disponibilidad.reservar(ESPACIO, BLOQUE, martes))
+                    .isEqualTo(clsServicioDisponibilidad.Conflicto.NINGUNO);
+            return List.of();
+        });
+        disponibilidad.recargar();
+
+        assertThat(disponibilidad.verificar(ESPACIO, BLOQUE, martes))
+                .isEqualTo(clsServicioDisponibilidad.Conflicto.RESERVA);
+    }
+
+    @Test
+    void recargarBloquesRefrescaLaCopiaDelMotor() {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        disponibilidad.recargar();
+        clsEntidadBloqueHorario nuevo = new clsEntidadBloqueHorario();
+        nuevo.setId(9);
+        when(repositorioBloque.findAll()).thenReturn(List.of(bloque, nuevo));
+
+        assertThat(disponibilidad.obtenerBloque(9)).isEmpty();
+        disponibilidad.recargarBloques();
+        assertThat(disponibilidad.obtenerBloque(9)).containsSame(nuevo);
+    }
+
+    @Test
+    void cursosImportadosSeRegistranSinDuplicarse() {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        disponibilidad.recargar();
+        clsEntidadHorarioCurso curso = curso(clsEntidadHorarioCurso.DiaSemana.Lunes, LUNES.minusWeeks(1), LUNES.plusWeeks(1));
+        clsEntidadHorarioCurso inactivo = curso(clsEntidadHorarioCurso.DiaSemana.Martes, LUNES, LUNES.plusWeeks(1));
+        inactivo.setEstado(false);
+
+        disponibilidad.registrarCursosNuevos(List.of(curso, inactivo));
+        disponibilidad.registrarCursosNuevos(List.of(curso));
+        disponibilidad.eliminarCurso(curso.getId());
+
+        // Si el segundo registro lo hubiera duplicado, una sola baja no liberaría el slot
+        assertThat(disponibilidad.verificar(ESPACIO, BLOQUE, LUNES)).isEqualTo(clsServicioDisponibilidad.Conflicto.NINGUNO);
+        assertThat(disponibilidad.verificar(ESPACIO, BLOQUE, LUNES.plusDays(1)))
+                .isEqualTo(clsServicioDisponibilidad.Conflicto.NINGUNO);
+    }
+
+    private String resultadoConMotor(LocalDate fecha) {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        disponibilidad.recargar();
+        return intentarReserva(disponibilidad, fecha);
+    }
+
+    private String resultadoEnBaseDeDatos(LocalDate fecha) {
+        clsServicioDisponibilidad disponibilidad = crearDisponibilidad();
+        assertThat(disponibilidad.estaCargado()).isFalse();
+        return intentarReserva(disponibilidad, fecha);
+    }
+
+    private String intentarReserva(clsServicioDisponibilidad disponibilidad, LocalDate fecha) {
+        clsServicioReserva servicio = new clsServicioReserva(repositorioReserva, repositorioHorario,
+                repositorioHorarioCurso, repositorioUsuario, repositorioEspacio, repositorioBloque, disponibilidad,
+                mock(clsServicioEstadisticasReserva.class), new clsServicioRechazosReserva(new SimpleMeterRegistry()));
+        clsDTOReservaUsuarioRequest request = new clsDTOReservaUsuarioRequest();
+        request.setUsuario(7);
+        request.setEspacio(ESPACIO);
+        request.setBloque(BLOQUE);
+        request.setFechaReserva(fecha.toString());
+        request.setDescripcion("Práctica de laboratorio");
+        try {
+            servicio.crearReservaUsuario(request);
+            return "OK";
+        } catch (ResponseStatusException ex) {
+            assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT);
+            return ex.getStatusCode().value() + " " + ex.getReason();
+        }
+    }
+
+    private clsServicioDisponibilidad crearDisponibilidad() {
+        return new clsServicioDisponibilidad(repositorioReserva, repositorioHorario, repositorioHorarioCurso,
+                repositorioEspacio, repositorioBloque, Duration.ZERO);
+    }
+
+    private clsEntidadHorarioCurso curso(clsEntidadHorarioCurso.DiaSemana dia, LocalDate inicio, LocalDate fin) {
+        return new clsEntidadHorarioCurso(cursos.size() + 1, "Redes", 20, ESPACIO, BLOQUE, dia, inicio, fin, true);
+    }
+}
@@ -0,0 +1,97 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+import com.integraupt.repositorio.clsRepositorioReservaLote;
+import com.integraupt.repositorio.clsRepositorioReservaLote.RegistroAuditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.transaction.PlatformTransactionManager;
+
+class clsServicioEscritorAuditoriaTest {
+
+    private final clsRepositorioReservaLote repositorioLote = mock(clsRepositorioReservaLote.class);
+    private final PlatformTransactionManager gestor = mock(PlatformTransactionManager.class);
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+
+    @Test
+    void cadaReintentoUsaSuPropiaTransaccion() {
+        doThrow(new QueryTimeoutException("timeout"))
+                .doThrow(new QueryTimeoutException("timeout"))
+                .doNothing()
+                .when(repositorioLote).insertarAuditorias(anyList());
+
+        // Sin iniciar() no hay hilo escritor: el registro se escribe en el momento
+        escritor(10).registrar(1, "Pendiente", "Aprobada", 5);
+
+        verify(repositorioLote, times(3)).insertarAuditorias(anyList());
+        verify(gestor, times(3)).getTransaction(any());
+        verify(gestor, times(2)).rollback(any());
+        verify(gestor, times(1)).commit(any());
+        assertThat(metricas.get("integraupt.auditoria.escritas").counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    void loteQueFallaEnTodosLosIntentosSeCuentaComoDescartado() {
+        doThrow(new QueryTimeoutException("timeout")).when(repositorioLote).insertarAuditorias(anyList());
+
+        escritor(10).registrar(List.of(registro(1), registro(2)));
+
+        verify(repositorioLote, times(3)).insertarAuditorias(anyList());
+        assertThat(descartadas("error")).isEqualTo(2.0);
+        assertThat(metricas.get("integraupt.auditoria.escritas").counter().count()).isZero();
+    }
+
+    @Test
+    void conLaColaLlenaSeDescartaSinBloquear() throws Exception {
+        CountDownLatch escribiendo = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(invocacion -> {
+            escribiendo.countDown();
+            liberar.await(5, TimeUnit.SECONDS);
+            return null;
+        }).doNothing().when(repositorioLote).insertarAuditorias(anyList());
+        clsServicioEscritorAuditoria escritor = escritor(1);
+        escritor.iniciar();
+        try {
+            escritor.registrar(List.of(registro(1)));
+            assertThat(escribiendo.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // El hilo está ocupado con el primer lote: cabe un registro y los otros dos se descartan
+            long inicio = System.nanoTime();
+            escritor.registrar(List.of(registro(2), registro(3), registro(4)));
+            assertThat(Duration.ofNanos(System.nanoTime() - inicio)).isLessThan(Duration.ofMillis(100));
+            assertThat(descartadas("cola_llena")).isEqualTo(2.0);
+        } finally {
+            liberar.countDown();
+            escritor.detener();
+        }
+        assertThat(metricas.get("integraupt.auditoria.escritas").counter().count()).isEqualTo(2.0);
+    }
+
+    private clsServicioEscritorAuditoria escritor(int capacidad) {
+        return new clsServicioEscritorAuditoria(repositorioLote, gestor, metricas, capacidad, 200,
+                Duration.ofMillis(50), Duration.ofSeconds(5), Duration.ofSeconds(5));
+    }
+
+    private double descartadas(String motivo) {
+        return metricas.get("integraupt.auditoria.descartadas").tag("motivo", motivo).counter().count();
+    }
+
+    private static RegistroAuditoria registro(int idReserva) {
+        return new RegistroAuditoria(idReserva, "Pendiente", "Aprobada", 5, LocalDateTime.now());
+    }
+}
@@ -0,0 +1,128 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import java.sql.Date;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+
+class clsServicioEstadisticasAuditoriaTest {
+
+    private static final LocalDate DIA = LocalDate.of(2025, 3, 10);
+    private static final int VENTANA = 5;
+
+    private final clsRepositorioAuditoriaReserva repositorio = mock(clsRepositorioAuditoriaReserva.class);
+
+    @Test
+    void cargaInicialSeparaLaParteFirmeDeLaCola() {
+        when(repositorio.findMaxIdAudit()).thenReturn(10);
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 5)).thenReturn(List.<Object[]>of(
+                fila(DIA, "Aprobada", 4), fila(DIA, null, 1)));
+        when(repositorio.countPorDiaYEstadoNuevoEntre(5, 10)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 5)));
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ofHours(1), Duration.ofHours(1));
+
+        assertThat(estadisticas.getTotal()).isEqualTo(10);
+        assertThat(estadisticas.getTotalPorEstado("Aprobada")).isEqualTo(9);
+        assertThat(estadisticas.getTotalesPorDiaDesde(DIA)).singleElement()
+                .satisfies(dia -> assertThat(dia).containsExactly(DIA, 10L));
+    }
+
+    @Test
+    void sinFilasNoHayConsultaDeConteo() {
+        when(repositorio.findMaxIdAudit()).thenReturn(null);
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ZERO, Duration.ofHours(1));
+
+        assertThat(estadisticas.getTotal()).isZero();
+        assertThat(estadisticas.getTotal()).isZero();
+        verify(repositorio, never()).countPorDiaYEstadoNuevoEntre(anyInt(), anyInt());
+    }
+
+    @Test
+    void filaConfirmadaFueraDeOrdenDentroDeLaVentanaSeCuenta() {
+        when(repositorio.findMaxIdAudit()).thenReturn(10, 12);
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 5)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 5)));
+        // IdAudit 9 todavía no estaba confirmado en la carga
+        when(repositorio.countPorDiaYEstadoNuevoEntre(5, 10)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 4)));
+        // En la puesta al día ya lo está: la cola (7, 12] se cuenta entera y el tramo (5, 7] pasa a la parte firme
+        when(repositorio.countPorDiaYEstadoNuevoEntre(5, 7)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 2)));
+        when(repositorio.countPorDiaYEstadoNuevoEntre(7, 12)).thenReturn(List.<Object[]>of(
+                fila(DIA, "Aprobada", 3), fila(DIA.plusDays(1), "Rechazada", 2)));
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ZERO, Duration.ofHours(1));
+
+        assertThat(estadisticas.getTotal()).isEqualTo(9);
+        assertThat(estadisticas.getTotal()).isEqualTo(12);
+        assertThat(estadisticas.getTotalPorEstado("Aprobada")).isEqualTo(10);
+        assertThat(estadisticas.getTotalPorEstado("Rechazada")).isEqualTo(2);
+    }
+
+    @Test
+    void estadosSeComparanSinMayusculasNiTildes() {
+        when(repositorio.findMaxIdAudit()).thenReturn(3);
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 3)).thenReturn(List.<Object[]>of(
+                fila(DIA, "Aprobada", 1), fila(DIA, "APROBADA", 1), fila(DIA, "aprobáda", 1)));
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ofHours(1), Duration.ofHours(1));
+
+        assertThat(estadisticas.getTotalPorEstado("Aprobada")).isEqualTo(3);
+    }
+
+    @Test
+    void dentroDelIntervaloNoSeConsultaLaBase() {
+        when(repositorio.findMaxIdAudit()).thenReturn(10);
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ofHours(1), Duration.ofHours(1));
+
+        estadisticas.getTotal();
+        estadisticas.getTotal();
+        verify(repositorio, times(1)).findMaxIdAudit();
+    }
+
+    @Test
+    void alVencerLaRecargaSeReconstruyeDesdeCero() {
+        when(repositorio.findMaxIdAudit()).thenReturn(10);
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 5)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 5)),
+                List.<Object[]>of(fila(DIA, "Aprobada", 4)));
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ZERO, Duration.ZERO);
+
+        assertThat(estadisticas.getTotal()).isEqualTo(5);
+        // Una fila de la parte firme, confirmada tarde o eliminada, solo se corrige con la recarga completa
+        assertThat(estadisticas.getTotal()).isEqualTo(4);
+    }
+
+    @Test
+    void invalidarReconstruyeDesdeCero() {
+        when(repositorio.findMaxIdAudit()).thenReturn(10, 12);
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 5)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 10)));
+        // Tras eliminar filas la reconstrucción no suma sobre los totales anteriores
+        when(repositorio.countPorDiaYEstadoNuevoEntre(0, 7)).thenReturn(List.<Object[]>of(fila(DIA, "Aprobada", 4)));
+
+        clsServicioEstadisticasAuditoria estadisticas = estadisticas(Duration.ofHours(1), Duration.ofHours(1));
+        assertThat(estadisticas.getTotal()).isEqualTo(10);
+
+        estadisticas.invalidar();
+
+        assertThat(estadisticas.getTotal()).isEqualTo(4);
+        assertThat(estadisticas.getTotalPorEstado("Aprobada")).isEqualTo(4);
+    }
+
+    private clsServicioEstadisticasAuditoria estadisticas(Duration intervalo, Duration recarga) {
+        return new clsServicioEstadisticasAuditoria(repositorio, intervalo, recarga, VENTANA);
+    }
+
+    private static Object[] fila(LocalDate dia, String estado, long cantidad) {
+        return new Object[] {Date.valueOf(dia), estado, cantidad};
+    }
+}
@@ -0,0 +1,98 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioUsuario;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+class clsServicioEstadisticasReservaTest {
+
+    private static final LocalDate MANANA = LocalDate.now().plusDays(1);
+
+    private final clsRepositorioReserva repositorioReserva = mock(clsRepositorioReserva.class);
+    private final clsRepositorioUsuario repositorioUsuario = mock(clsRepositorioUsuario.class);
+
+    @AfterEach
+    void limpiar() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void transicionConfirmadaSeAplicaSobreLosContadores() {
+        base(3, 1);
+        clsServicioEstadisticasReserva estadisticas = estadisticas(Duration.ofHours(1));
+        assertThat(estadisticas.contarReservasPorEstado("Pendiente")).isEqualTo(3);
+
+        estadisticas.registrarTransicion(1, MANANA, LocalDateTime.now(), "Pendiente", "Aprobada");
+
+        assertThat(estadisticas.contarReservasPorEstado("Pendiente")).isEqualTo(2);
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(2);
+    }
+
+    @Test
+    void transicionQueLaRecargaYaContoNoSeCuentaDosVeces() {
+        base(3, 1);
+        clsServicioEstadisticasReserva estadisticas = estadisticas(Duration.ofHours(1));
+        estadisticas.contarReservasPorEstado("Pendiente");
+
+        TransactionSynchronizationManager.initSynchronization();
+        estadisticas.registrarTransicion(1, MANANA, LocalDateTime.now(), "Pendiente", "Aprobada");
+        // La transacción se confirma y una recarga la lee antes de que llegue su afterCommit
+        base(2, 2);
+        estadisticas.recargar();
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(estadisticas.contarReservasPorEstado("Pendiente")).isEqualTo(2);
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(2);
+    }
+
+    @Test
+    void alVencerElTtlSeReconstruyeDesdeLaBase() {
+        base(3, 1);
+        clsServicioEstadisticasReserva estadisticas = estadisticas(Duration.ZERO);
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(1);
+
+        // Otra instancia aprobó una reserva
+        base(2, 2);
+
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(2);
+    }
+
+    @Test
+    void dentroDelTtlSeUsanLosContadoresCargados() {
+        base(3, 1);
+        clsServicioEstadisticasReserva estadisticas = estadisticas(Duration.ofHours(1));
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(1);
+
+        base(2, 2);
+
+        assertThat(estadisticas.contarReservasPorEstado("Aprobada")).isEqualTo(1);
+    }
+
+    private void base(long pendientes, long aprobadas) {
+        when(repositorioReserva.countAgrupadoPorEstado()).thenReturn(List.<Object[]>of(
+                new Object[] {"Pendiente", pendientes}, new Object[] {"Aprobada", aprobadas}));
+        when(repositorioReserva.countPorEspacioConEstado(anyString())).thenReturn(List.of());
+        when(repositorioReserva.countPorMesSolicitudYEstado()).thenReturn(List.of());
+        when(repositorioReserva.countPorFechaReservaConEstadoDesde(anyString(), any())).thenReturn(List.of());
+        when(repositorioUsuario.countAgrupadoPorRol()).thenReturn(List.of());
+    }
+
+    private clsServicioEstadisticasReserva estadisticas(Duration ttl) {
+        return new clsServicioEstadisticasReserva(repositorioReserva, repositorioUsuario, ttl);
+    }
+}
@@ -0,0 +1,102 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOImportacionHorarioCursoResponse;
+import com.integraupt.dto.clsDTOPrincipal;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioHorarioCursoLote;
+import com.integraupt.repositorio.clsRepositorioUsuario;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class clsServicioImportacionHorarioCursoTest {
+
+    private static final String ENCABEZADO = "curso,docente,espacio,bloque,dia,fechaInicio,fechaFin\n";
+
+    private clsRepositorioHorarioCursoLote repositorioLote;
+    private clsServicioDisponibilidad disponibilidad;
+    private clsServicioImportacionHorarioCurso servicio;
+
+    @BeforeEach
+    void preparar() {
+        clsRepositorioUsuario repositorioUsuario = mock(clsRepositorioUsuario.class);
+        clsRepositorioEspacio repositorioEspacio = mock(clsRepositorioEspacio.class);
+        clsServicioCatalogos catalogos = mock(clsServicioCatalogos.class);
+        repositorioLote = mock(clsRepositorioHorarioCursoLote.class);
+        disponibilidad = mock(clsServicioDisponibilidad.class);
+
+        when(repositorioUsuario.findIdCodigoYRolPorIdOCodigo(anyCollection(), anyCollection())).thenReturn(List.of(
+                new Object[] {10, "DOC10", clsDTOPrincipal.ROL_PROFESOR},
+                new Object[] {20, "2020001", clsDTOPrincipal.ROL_ESTUDIANTE}));
+        when(repositorioEspacio.findIdYCodigoPorIdOCodigo(anyCollection(), anyCollection()))
+                .thenReturn(List.<Object[]>of(new Object[] {1, "LAB1"}));
+        when(catalogos.obtenerBloquesHorario(anyCollection())).thenReturn(Map.of(
+                1, new clsServicioCatalogos.BloqueHorarioInfo(1, 1, "B1", "08:00", "08:50"),
+                2, new clsServicioCatalogos.BloqueHorarioInfo(2, 2, "B2", "08:50", "09:40")));
+
+        servicio = new clsServicioImportacionHorarioCurso(mock(clsRepositorioHorarioCurso.class), repositorioLote,
+                mock(clsRepositorioHorario.class), repositorioUsuario, repositorioEspacio, catalogos, disponibilidad,
+                100);
+    }
+
+    @Test
+    void docenteSinRolDeProfesorSeRechaza() throws IOException {
+        clsDTOImportacionHorarioCursoResponse respuesta = importar(ENCABEZADO
+                + "Redes,10,1,1,Lunes,2025-03-03,2025-07-04\n"
+                + "Redes,20,1,2,Lunes,2025-03-03,2025-07-04\n", true);
+
+        assertThat(respuesta.getImportadas()).isEqualTo(1);
+        assertThat(respuesta.getErrores()).singleElement()
+                .satisfies(error -> assertThat(error.getMensaje()).isEqualTo("El usuario 20 no es docente"));
+    }
+
+    @Test
+    void lasFilasAceptadasSeRegistranEnElMotorDeUnaVez() throws IOException {
+        importar(ENCABEZADO
+                + "Redes,10,1,1,Lunes,2025-03-03,2025-07-04\n"
+                + "Redes,10,1,2,Lunes,2025-03-03,2025-07-04\n", false);
+
+        verify(repositorioLote).insertar(argThat(cursos -> cursos.size() == 2));
+        verify(disponibilidad).registrarCursosNuevos(argThat(cursos -> cursos.size() == 2));
+        verify(disponibilidad, never()).actualizarCurso(any());
+    }
+
+    @Test
+    void encabezadosYDiasConTildesOMayusculasSeReconocen() throws IOException {
+        clsDTOImportacionHorarioCursoResponse respuesta = importar(
+                "Curso,Docente,Espacio,Bloque,Día Semana,Fecha Inicio,FECHA_FIN\n"
+                + "Redes,10,1,1,MIÉRCOLES,2025-03-05,2025-07-02\n"
+                + "Redes,10,1,2,sáb,2025-03-08,2025-07-05\n", false);
+
+        assertThat(respuesta.getErrores()).isEmpty();
+        assertThat(respuesta.getImportadas()).isEqualTo(2);
+    }
+
+    @Test
+    void xlsxDanadoSeInformaComoErrorDelArchivo() throws IOException {
+        clsDTOImportacionHorarioCursoResponse respuesta = servicio.importar("horarios.xlsx",
+                new ByteArrayInputStream(new byte[] {'P', 'K', 3, 4, 0}), false);
+
+        assertThat(respuesta.isSuccess()).isFalse();
+        assertThat(respuesta.getMessage()).contains("XLSX no es válido");
+    }
+
+    private clsDTOImportacionHorarioCursoResponse importar(String csv, boolean parcial) throws IOException {
+        return servicio.importar("horarios.csv", new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)), parcial);
+    }
+}
@@ -0,0 +1,90 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.entidad.clsEntidadEspacio;
+import com.integraupt.repositorio.clsRepositorioEspacio;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+class clsServicioIndiceEspaciosTest {
+
+    private final List<clsEntidadEspacio> enBase = new ArrayList<>();
+    private clsRepositorioEspacio repositorio;
+
+    @BeforeEach
+    void preparar() {
+        repositorio = mock(clsRepositorioEspacio.class);
+        when(repositorio.findAll()).thenAnswer(inv -> List.copyOf(enBase));
+        enBase.add(espacio(1, "Laboratorio de Redes", "Proyectores, 30 PCs"));
+    }
+
+    @Test
+    void singularSoloQuitaPluralesReales() {
+        assertThat(clsServicioIndiceEspacios.singular("proyectores")).isEqualTo("proyector");
+        assertThat(clsServicioIndiceEspacios.singular("computadoras")).isEqualTo("computadora");
+        assertThat(clsServicioIndiceEspacios.singular("pcs")).isEqualTo("pc");
+        assertThat(clsServicioIndiceEspacios.singular("redes")).isEqualTo("red");
+        assertThat(clsServicioIndiceEspacios.singular("gas")).isEqualTo("gas");
+        assertThat(clsServicioIndiceEspacios.singular("mes")).isEqualTo("mes");
+        assertThat(clsServicioIndiceEspacios.singular("tesis")).isEqualTo("tesis");
+        assertThat(clsServicioIndiceEspacios.singular("bus")).isEqualTo("bus");
+    }
+
+    @Test
+    void busquedaPorPluralYSingular() {
+        clsServicioIndiceEspacios indice = crear(Duration.ofMinutes(10));
+
+        assertThat(indice.buscar("proyector pc", true, null)).hasSize(1);
+        assertThat(indice.buscar("redes", true, null)).hasSize(1);
+    }
+
+    @Test
+    void cambioDuranteLaReconstruccionNoSePierde() {
+        clsServicioIndiceEspacios indice = crear(Duration.ofMinutes(10));
+        indice.recargar();
+        clsEntidadEspacio editado = espacio(1, "Sala de Química", "Campana extractora");
+
+        // La edición se confirma mientras la reconstrucción ya leyó la versión anterior de la base
+        when(repositorio.findAll()).thenAnswer(inv -> {
+            List<clsEntidadEspacio> leidos = List.copyOf(enBase);
+            indice.indexar(editado);
+            return leidos;
+        });
+        indice.recargar();
+
+        assertThat(indice.buscar("quimica", true, null)).hasSize(1);
+        assertThat(indice.buscar("redes", true, null)).isEmpty();
+    }
+
+    @Test
+    void indiceVencidoSeReconstruyeConLosCambiosDeLaBase() throws InterruptedException {
+        clsServicioIndiceEspacios indice = crear(Duration.ofMillis(1));
+        assertThat(indice.buscar("auditorio", true, null)).isEmpty();
+
+        enBase.add(espacio(2, "Auditorio central", "Sonido"));
+        Thread.sleep(5);
+
+        assertThat(indice.buscar("auditorio", true, null)).hasSize(1);
+    }
+
+    private clsServicioIndiceEspacios crear(Duration ttl) {
+        return new clsServicioIndiceEspacios(repositorio, mock(clsServicioCatalogos.class), ttl);
+    }
+
+    private static clsEntidadEspacio espacio(int id, String nombre, String equipamiento) {
+        clsEntidadEspacio espacio = new clsEntidadEspacio();
+        espacio.setId(id);
+        espacio.setCodigo("E" + id);
+        espacio.setNombre(nombre);
+        espacio.setEquipamiento(equipamiento);
+        espacio.setUbicacion("Pabellón A");
+        espacio.setEstado(1);
+        return espacio;
+    }
+}
@@ -0,0 +1,119 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.repositorio.clsRepositorioAuditoriaReserva;
+import com.integraupt.repositorio.clsRepositorioParticionesAuditoria;
+import com.integraupt.repositorio.clsRepositorioParticionesAuditoria.FilaAuditoria;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InOrder;
+
+class clsServicioParticionesAuditoriaTest {
+
+    private static final int RETENCION = 12;
+    private static final YearMonth LIMITE = YearMonth.now().minusMonths(RETENCION);
+
+    private final clsRepositorioParticionesAuditoria repositorio = mock(clsRepositorioParticionesAuditoria.class);
+    private final clsServicioEstadisticasAuditoria estadisticas = mock(clsServicioEstadisticasAuditoria.class);
+
+    @TempDir
+    Path directorio;
+
+    @Test
+    void deshabilitadoNoArchivaNiElimina() {
+        long archivadas = servicio(false).archivarVencidas();
+
+        assertThat(archivadas).isZero();
+        verifyNoInteractions(repositorio);
+    }
+
+    @Test
+    void archivaPantiguoYLosMesesVencidos() {
+        YearMonth vencido = LIMITE.minusMonths(1);
+        particiones(vencido, LIMITE);
+        when(repositorio.contarAntiguo()).thenReturn(2L);
+        doAnswer(invocacion -> {
+            Consumer<FilaAuditoria> consumidor = invocacion.getArgument(0);
+            consumidor.accept(fila(1));
+            consumidor.accept(fila(2));
+            return null;
+        }).when(repositorio).recorrerAntiguo(any());
+        when(repositorio.contarMes(vencido)).thenReturn(0L);
+
+        long archivadas = servicio(true).archivarVencidas();
+
+        assertThat(archivadas).isEqualTo(2);
+        // El resumen de pantiguo suma sobre lo archivado: solo tras exportar y justo antes de vaciar
+        InOrder orden = inOrder(repositorio);
+        orden.verify(repositorio).recorrerAntiguo(any());
+        orden.verify(repositorio).resumirAntiguo();
+        orden.verify(repositorio).vaciarAntiguo();
+        verify(repositorio).eliminarParticion(vencido);
+        verify(repositorio, never()).eliminarParticion(LIMITE);
+        assertThat(Files.exists(directorio.resolve("auditoriareserva-antiguo-" + vencido + ".csv.gz"))).isTrue();
+        verify(estadisticas).invalidar();
+    }
+
+    @Test
+    void pantiguoNoSeVaciaSiElArchivoNoCuadra() {
+        particiones(LIMITE.minusMonths(1));
+        when(repositorio.contarAntiguo()).thenReturn(3L);
+        doAnswer(invocacion -> {
+            Consumer<FilaAuditoria> consumidor = invocacion.getArgument(0);
+            consumidor.accept(fila(1));
+            return null;
+        }).when(repositorio).recorrerAntiguo(any());
+
+        servicio(true).archivarVencidas();
+
+        verify(repositorio, never()).resumirAntiguo();
+        verify(repositorio, never()).vaciarAntiguo();
+    }
+
+    @Test
+    void pantiguoSeConservaMientrasElPrimerMesEsteDentroDeLaRetencion() {
+        particiones(LIMITE.plusMonths(1));
+
+        servicio(true).archivarVencidas();
+
+        verify(repositorio, never()).contarAntiguo();
+        verify(repositorio, never()).vaciarAntiguo();
+    }
+
+    private void particiones(YearMonth... meses) {
+        List<String> nombres = new ArrayList<>();
+        nombres.add(clsRepositorioParticionesAuditoria.PARTICION_ANTIGUO);
+        for (YearMonth mes : meses) {
+            nombres.add(clsRepositorioParticionesAuditoria.nombreParticion(mes));
+        }
+        nombres.add(clsRepositorioParticionesAuditoria.PARTICION_FUTURO);
+        when(repositorio.listarParticiones()).thenReturn(nombres);
+        when(repositorio.mesesParticionados()).thenReturn(List.of(meses));
+    }
+
+    private clsServicioParticionesAuditoria servicio(boolean habilitada) {
+        return new clsServicioParticionesAuditoria(repositorio, mock(clsRepositorioAuditoriaReserva.class), estadisticas,
+                habilitada, 3, RETENCION, directorio.toString(), Duration.ofHours(6));
+    }
+
+    private static FilaAuditoria fila(int idAudit) {
+        return new FilaAuditoria(idAudit, 10, "Pendiente", "Aprobada", LocalDateTime.of(2024, 6, 1, 8, 0), 5);
+    }
+}
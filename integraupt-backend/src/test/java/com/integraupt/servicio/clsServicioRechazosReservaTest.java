@@ -0,0 +1,40 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import com.integraupt.servicio.clsServicioDisponibilidad.Conflicto;
+import com.integraupt.servicio.clsServicioRechazosReserva.Origen;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+class clsServicioRechazosReservaTest {
+
+    private final SimpleMeterRegistry metricas = new SimpleMeterRegistry();
+    private final clsServicioRechazosReserva rechazos = new clsServicioRechazosReserva(metricas);
+
+    @Test
+    void cuentaPorMotivoYOrigen() {
+        rechazos.registrar(Origen.SERIE, Conflicto.CURSO);
+        rechazos.registrar(Origen.SERIE, Conflicto.CURSO);
+        rechazos.registrar(Origen.INDIVIDUAL, Conflicto.HORARIO);
+        rechazos.registrarFechaPasada(Origen.LOTE);
+
+        assertThat(contador("curso", "serie")).isEqualTo(2.0);
+        assertThat(contador("curso", "individual")).isZero();
+        assertThat(contador("horario_ocupado", "individual")).isEqualTo(1.0);
+        assertThat(contador("fecha_pasada", "lote")).isEqualTo(1.0);
+    }
+
+    @Test
+    void sinConflictoNoCuenta() {
+        rechazos.registrar(Origen.SERIE, Conflicto.NINGUNO);
+
+        assertThat(metricas.get(clsServicioRechazosReserva.METRICA_RECHAZOS).counters())
+                .allSatisfy(contador -> assertThat(contador.count()).isZero());
+    }
+
+    private double contador(String motivo, String origen) {
+        return metricas.get(clsServicioRechazosReserva.METRICA_RECHAZOS)
+                .tags("motivo", motivo, "origen", origen).counter().count();
+    }
+}
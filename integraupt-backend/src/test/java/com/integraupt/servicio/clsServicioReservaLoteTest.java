@@ -0,0 +1,105 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOReservaLoteResponse;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioReservaLote;
+import com.integraupt.repositorio.clsRepositorioReservaLote.RegistroAuditoria;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentMatchers;
+
+class clsServicioReservaLoteTest {
+
+    private static final LocalDate FECHA = LocalDate.now().plusDays(5);
+
+    private clsRepositorioReserva repositorioReserva;
+    private clsRepositorioReservaLote repositorioLote;
+    private clsServicioDisponibilidad disponibilidad;
+    private clsServicioEstadisticasReserva estadisticas;
+    private clsServicioEscritorAuditoria escritor;
+    private SimpleMeterRegistry metricas;
+
+    @BeforeEach
+    void preparar() {
+        repositorioReserva = mock(clsRepositorioReserva.class);
+        repositorioLote = mock(clsRepositorioReservaLote.class);
+        disponibilidad = mock(clsServicioDisponibilidad.class);
+        estadisticas = mock(clsServicioEstadisticasReserva.class);
+        escritor = mock(clsServicioEscritorAuditoria.class);
+        metricas = new SimpleMeterRegistry();
+        when(repositorioReserva.findEstadoYSlotByIdIn(anyCollection())).thenReturn(List.of(
+                fila(1, 1), fila(2, 2)));
+    }
+
+    @Test
+    void reservaCambiadaEntreLecturaYUpdateSeInformaYNoSeCuenta() {
+        when(repositorioLote.actualizarEstados(any())).thenReturn(Set.of(2));
+
+        clsDTOReservaLoteResponse respuesta = servicio(false).rechazar(List.of(1, 2), "Mantenimiento", 5);
+
+        assertThat(respuesta.getProcesadas()).isEqualTo(1);
+        assertThat(respuesta.getResultados().get(1).isExito()).isFalse();
+        assertThat(respuesta.getResultados().get(1).getMensaje()).contains("cambió de estado");
+        verify(estadisticas, times(1)).registrarTransicion(any(), any(), any(), eq("Pendiente"), eq("Rechazada"));
+        verify(estadisticas, never()).registrarTransicion(eq(2), any(), any(), any(), any());
+        verify(disponibilidad, times(1)).actualizarReserva(eq(1), eq(1), eq(FECHA), eq(false));
+    }
+
+    @Test
+    void sinAuditoriaPropiaNoSeDuplicaLaDelTrigger() {
+        when(repositorioLote.actualizarEstados(any())).thenReturn(Set.of());
+
+        servicio(false).rechazar(List.of(1, 2), "Mantenimiento", 5);
+
+        verify(escritor, never()).registrar(any(List.class));
+    }
+
+    @Test
+    void conAuditoriaPropiaSoloSeAuditanLasFilasEscritas() {
+        when(repositorioLote.actualizarEstados(any())).thenReturn(Set.of(1));
+
+        servicio(true).rechazar(List.of(1, 2), "Mantenimiento", 5);
+
+        verify(escritor).registrar(ArgumentMatchers.<List<RegistroAuditoria>>argThat(
+                registros -> registros.size() == 1 && registros.get(0).idReserva() == 2
+                        && registros.get(0).usuarioCambio() == 5));
+    }
+
+    @Test
+    void slotDisputadoDentroDelLoteSeCuentaComoRechazo() {
+        when(repositorioReserva.findEstadoYSlotByIdIn(anyCollection())).thenReturn(List.of(
+                new Object[] {1, "Rechazada", 1, 1, FECHA, LocalDateTime.now()},
+                new Object[] {2, "Rechazada", 1, 1, FECHA, LocalDateTime.now()}));
+        when(repositorioLote.actualizarEstados(any())).thenReturn(Set.of());
+
+        clsDTOReservaLoteResponse respuesta = servicio(false).aprobar(List.of(1, 2), 5);
+
+        assertThat(respuesta.getProcesadas()).isEqualTo(1);
+        assertThat(metricas.get(clsServicioRechazosReserva.METRICA_RECHAZOS)
+                .tags("motivo", "conflicto", "origen", "lote").counter().count()).isEqualTo(1.0);
+    }
+
+    private clsServicioReservaLote servicio(boolean auditar) {
+        return new clsServicioReservaLote(repositorioReserva, repositorioLote, disponibilidad, estadisticas, escritor,
+                new clsServicioRechazosReserva(metricas), auditar);
+    }
+
+    private static Object[] fila(int id, int espacio) {
+        return new Object[] {id, "Pendiente", espacio, 1, FECHA, LocalDateTime.now()};
+    }
+}
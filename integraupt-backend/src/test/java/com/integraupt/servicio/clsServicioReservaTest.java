@@ -0,0 +1,140 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import com.integraupt.dto.clsDTOPaginaCursor;
+import com.integraupt.dto.clsDTOReserva;
+import com.integraupt.entidad.clsEntidadBloqueHorario;
+import com.integraupt.entidad.clsEntidadEspacio_Reserva;
+import com.integraupt.entidad.clsEntidadHorario;
+import com.integraupt.entidad.clsEntidadReserva;
+import com.integraupt.repositorio.clsRepositorioBloqueHorario;
+import com.integraupt.repositorio.clsRepositorioEspacioReserva;
+import com.integraupt.repositorio.clsRepositorioHorario;
+import com.integraupt.repositorio.clsRepositorioHorarioCurso;
+import com.integraupt.repositorio.clsRepositorioReserva;
+import com.integraupt.repositorio.clsRepositorioUsuarioReserva;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsServicioReservaTest {
+
+    private clsRepositorioReserva repositorioReserva;
+    private clsServicioEstadisticasReserva estadisticas;
+    private clsServicioReserva servicio;
+    private clsEntidadReserva reserva;
+
+    @BeforeEach
+    void preparar() {
+        repositorioReserva = mock(clsRepositorioReserva.class);
+        clsRepositorioHorario repositorioHorario = mock(clsRepositorioHorario.class);
+        when(repositorioHorario.findByEspacioIdAndBloqueIdAndDiaSemana(anyInt(), anyInt(),
+                any(clsEntidadHorario.DiaSemana.class))).thenReturn(Optional.empty());
+        estadisticas = mock(clsServicioEstadisticasReserva.class);
+        clsServicioDisponibilidad disponibilidad = mock(clsServicioDisponibilidad.class);
+        servicio = new clsServicioReserva(repositorioReserva, repositorioHorario,
+                mock(clsRepositorioHorarioCurso.class), mock(clsRepositorioUsuarioReserva.class),
+                mock(clsRepositorioEspacioReserva.class), mock(clsRepositorioBloqueHorario.class), disponibilidad,
+                estadisticas, new clsServicioRechazosReserva(new SimpleMeterRegistry()));
+
+        clsEntidadEspacio_Reserva espacio = new clsEntidadEspacio_Reserva();
+        espacio.setId(1);
+        clsEntidadBloqueHorario bloque = new clsEntidadBloqueHorario();
+        bloque.setId(2);
+        reserva = new clsEntidadReserva();
+        reserva.setIdReserva(10);
+        reserva.setEspacio(espacio);
+        reserva.setBloque(bloque);
+        reserva.setFechaReserva(LocalDate.now().plusDays(3));
+        reserva.setFechaSolicitud(LocalDateTime.now());
+        reserva.setEstado("Pendiente");
+        when(repositorioReserva.findById(10)).thenReturn(Optional.of(reserva));
+    }
+
+    @Test
+    void aprobacionQueActualizaLaFilaSeCuentaUnaVez() {
+        when(repositorioReserva.actualizarEstadoSiCoincide(10, "Pendiente", "Aprobada", null)).thenReturn(1);
+
+        clsDTOReserva resultado = servicio.aprobarReserva(10);
+
+        assertThat(resultado.getEstado()).isEqualTo("Aprobada");
+        verify(estadisticas, times(1)).registrarTransicion(eq(1), any(), any(), eq("Pendiente"), eq("Aprobada"));
+    }
+
+    @Test
+    void aprobacionConcurrentePerdidaNoSeCuenta() {
+        // Otra solicitud cambió el estado entre la lectura y el UPDATE condicionado
+        when(repositorioReserva.actualizarEstadoSiCoincide(10, "Pendiente", "Aprobada", null)).thenReturn(0);
+
+        assertThatThrownBy(() -> servicio.aprobarReserva(10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        verify(estadisticas, never()).registrarTransicion(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void rechazoConcurrentePerdidoNoSeCuenta() {
+        when(repositorioReserva.actualizarEstadoSiCoincide(10, "Pendiente", "Rechazada", "Sin aforo")).thenReturn(0);
+
+        assertThatThrownBy(() -> servicio.rechazarReserva(10, " Sin aforo "))
+                .isInstanceOf(ResponseStatusException.class);
+        verify(estadisticas, never()).registrarTransicion(any(), any(), any(), any(), any());
+    }
+
+    @Test
+    void paginaSiguienteAReservaSinFechaDeSolicitudContinuaPorId() {
+        reserva.setFechaSolicitud(null);
+        when(repositorioReserva.findPagina(null, null, null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(reserva, otraReserva(11, null)));
+        when(repositorioReserva.findPaginaSinFechaDesde(null, null, null, null, null, null, 10, PageRequest.of(0, 2)))
+                .thenReturn(List.of(otraReserva(11, null)));
+
+        clsDTOPaginaCursor<clsDTOReserva> primera = servicio.obtenerPaginaReservas(null, null, null, null, null, null,
+                null, 1);
+        clsDTOPaginaCursor<clsDTOReserva> segunda = servicio.obtenerPaginaReservas(null, null, null, null, null, null,
+                primera.getSiguienteCursor(), 1);
+
+        assertThat(primera.getSiguienteCursor()).isNotNull();
+        assertThat(segunda.getElementos()).hasSize(1);
+        assertThat(segunda.isTieneMas()).isFalse();
+    }
+
+    @Test
+    void paginaSiguienteAReservaConFechaUsaElParFechaId() {
+        LocalDateTime fecha = reserva.getFechaSolicitud();
+        when(repositorioReserva.findPagina(null, null, null, null, null, null, PageRequest.of(0, 2)))
+                .thenReturn(List.of(reserva, otraReserva(11, fecha)));
+        when(repositorioReserva.findPaginaDesde(null, null, null, null, null, null, fecha, 10, PageRequest.of(0, 2)))
+                .thenReturn(List.of(otraReserva(11, fecha)));
+
+        String cursor = servicio.obtenerPaginaReservas(null, null, null, null, null, null, null, 1).getSiguienteCursor();
+
+        assertThat(servicio.obtenerPaginaReservas(null, null, null, null, null, null, cursor, 1).getElementos())
+                .hasSize(1);
+    }
+
+    private clsEntidadReserva otraReserva(int id, LocalDateTime fechaSolicitud) {
+        clsEntidadReserva otra = new clsEntidadReserva();
+        otra.setIdReserva(id);
+        otra.setEstado("Pendiente");
+        otra.setFechaSolicitud(fechaSolicitud);
+        return otra;
+    }
+}
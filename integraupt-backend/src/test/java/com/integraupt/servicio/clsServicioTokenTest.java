@@ -0,0 +1,112 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import com.integraupt.dto.clsDTOLogoutRequest;
+import com.integraupt.repositorio.clsRepositorioAuth;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+class clsServicioTokenTest {
+
+    private static final String SECRETO = "secreto-de-pruebas-con-32-bytes!";
+
+    private final clsServicioToken servicio = new clsServicioToken(SECRETO, Duration.ofHours(8), false);
+
+    @Test
+    void tokenEmitidoSeValida() {
+        String token = servicio.emitir(7, 3).orElseThrow();
+
+        clsServicioToken.Sesion sesion = servicio.validar(token).orElseThrow();
+
+        assertThat(sesion.usuarioId()).isEqualTo(7);
+        assertThat(sesion.rolId()).isEqualTo(3);
+        assertThat(servicio.tieneSesionActiva(7)).isTrue();
+    }
+
+    @Test
+    void firmaAlteradaOMalFormadaSeRechaza() {
+        String token = servicio.emitir(7, 2).orElseThrow();
+        String payload = token.substring(0, token.indexOf('.'));
+        String firma = token.substring(token.indexOf('.') + 1);
+        // Mismo formato pero con rol de administrador: la firma ya no corresponde
+        String[] partes = new String(Base64.getUrlDecoder().decode(payload), StandardCharsets.UTF_8).split(":");
+        String escalado = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                (partes[0] + ":3:" + partes[2] + ":" + partes[3] + ":" + partes[4]).getBytes(StandardCharsets.UTF_8));
+
+        assertThat(servicio.validar(escalado + "." + firma)).isEmpty();
+        assertThat(servicio.validar(payload)).isEmpty();
+        assertThat(servicio.validar(token + ".x")).isEmpty();
+        assertThat(servicio.validar("***.***")).isEmpty();
+        assertThat(servicio.validar(null)).isEmpty();
+    }
+
+    @Test
+    void tokenDeOtroSecretoSeRechaza() {
+        clsServicioToken otro = new clsServicioToken("otro-secreto-de-pruebas-32-bytes", Duration.ofHours(8), false);
+
+        assertThat(servicio.validar(otro.emitir(7, 3).orElseThrow())).isEmpty();
+    }
+
+    @Test
+    void tokenVencidoSeRechaza() {
+        clsServicioToken sinVigencia = new clsServicioToken(SECRETO, Duration.ZERO, false);
+
+        assertThat(sinVigencia.validar(sinVigencia.emitir(7, 3).orElseThrow())).isEmpty();
+    }
+
+    @Test
+    void segundoLoginConSesionVigenteNoObtieneToken() {
+        assertThat(servicio.emitir(7, 3)).isPresent();
+        assertThat(servicio.emitir(7, 3)).isEmpty();
+    }
+
+    @Test
+    void cerrarRevocaEseTokenYLiberaLaSesion() {
+        String token = servicio.emitir(7, 3).orElseThrow();
+
+        servicio.cerrar(servicio.validar(token).orElseThrow());
+
+        assertThat(servicio.validar(token)).isEmpty();
+        assertThat(servicio.tieneSesionActiva(7)).isFalse();
+        assertThat(servicio.emitir(7, 3)).isPresent();
+    }
+
+    @Test
+    void sinSecretoNoArrancaSalvoQueSePermitaLaClaveAleatoria() {
+        assertThatThrownBy(() -> new clsServicioToken("", Duration.ofHours(8), false))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("APP_SECURITY_TOKEN_SECRET");
+
+        clsServicioToken desarrollo = new clsServicioToken(" ", Duration.ofHours(8), true);
+        assertThat(desarrollo.validar(desarrollo.emitir(1, 3).orElseThrow())).isPresent();
+    }
+
+    @Test
+    void logoutExigeUnTokenValidoYCierraSoloEsaSesion() {
+        clsServicioAuth auth = new clsServicioAuth(mock(clsRepositorioAuth.class), mock(clsServicioPassword.class),
+                servicio);
+        String propio = servicio.emitir(7, 3).orElseThrow();
+        String ajeno = servicio.emitir(8, 2).orElseThrow();
+        clsDTOLogoutRequest request = new clsDTOLogoutRequest();
+        request.setUsuarioId(8);
+
+        assertThatThrownBy(() -> auth.cerrarSesion(request, null))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        ex -> assertThat(ex.getStatusCode()).isEqualTo(HttpStatus.UNAUTHORIZED));
+        // El cuerpo no puede cerrar la sesión de otro usuario con un token propio
+        assertThat(auth.cerrarSesion(request, propio).isSuccess()).isFalse();
+        assertThat(servicio.validar(ajeno)).isPresent();
+
+        assertThat(auth.cerrarSesion(null, propio).isSuccess()).isTrue();
+        assertThat(servicio.validar(propio)).isEmpty();
+        assertThat(servicio.validar(ajeno)).isPresent();
+        assertThatThrownBy(() -> auth.cerrarSesion(null, propio)).isInstanceOf(ResponseStatusException.class);
+    }
+}
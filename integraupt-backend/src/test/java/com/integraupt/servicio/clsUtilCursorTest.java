@@ -0,0 +1,65 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+class clsUtilCursorTest {
+
+    @Test
+    void codificaYDecodificaFechaEId() {
+        LocalDateTime fecha = LocalDateTime.of(2025, 3, 14, 9, 26, 53, 589_000_000);
+
+        clsUtilCursor.Posicion posicion = clsUtilCursor.decodificar(clsUtilCursor.codificar(fecha, 42));
+
+        assertThat(posicion).isEqualTo(new clsUtilCursor.Posicion(fecha, 42));
+    }
+
+    @Test
+    void codificaFilasSinFecha() {
+        String cursor = clsUtilCursor.codificar(null, 7);
+
+        assertThat(clsUtilCursor.decodificar(cursor)).isEqualTo(new clsUtilCursor.Posicion(null, 7));
+    }
+
+    @Test
+    void elCursorEsSeguroEnUrl() {
+        String cursor = clsUtilCursor.codificar(LocalDateTime.of(2025, 12, 31, 23, 59), Integer.MAX_VALUE);
+
+        assertThat(cursor).matches("[A-Za-z0-9_-]+");
+    }
+
+    @Test
+    void sinCursorNoHayPosicion() {
+        assertThat(clsUtilCursor.decodificar(null)).isNull();
+        assertThat(clsUtilCursor.decodificar("  ")).isNull();
+    }
+
+    @Test
+    void cursorInvalidoSeRechaza() {
+        assertThatThrownBy(() -> clsUtilCursor.decodificar("***"))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clsUtilCursor.decodificar(base64("sin-separador")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clsUtilCursor.decodificar(base64("null|5")))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> clsUtilCursor.decodificar(base64("2025-01-01T00:00|x")))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void normalizaElTamanoDePagina() {
+        assertThat(clsUtilCursor.normalizarTamano(null)).isEqualTo(clsUtilCursor.TAMANO_PAGINA_DEFECTO);
+        assertThat(clsUtilCursor.normalizarTamano(0)).isEqualTo(clsUtilCursor.TAMANO_PAGINA_DEFECTO);
+        assertThat(clsUtilCursor.normalizarTamano(25)).isEqualTo(25);
+        assertThat(clsUtilCursor.normalizarTamano(10_000)).isEqualTo(clsUtilCursor.TAMANO_PAGINA_MAXIMO);
+    }
+
+    private static String base64(String valor) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(valor.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,81 @@
+package com.integraupt.servicio;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import org.apache.poi.ss.usermodel.CellStyle;
+import org.apache.poi.ss.usermodel.Row;
+import org.apache.poi.ss.usermodel.Sheet;
+import org.apache.poi.xssf.usermodel.XSSFWorkbook;
+import org.junit.jupiter.api.Test;
+
+class clsUtilLectorTablaTest {
+
+    @Test
+    void csvConComasYComillas() throws IOException {
+        List<String> filas = leer("horarios.csv", "curso,docente\n\"Redes, II\",\"Juan \"\"JP\"\" Pérez\"\n");
+
+        assertThat(filas).containsExactly("1:[curso, docente]", "2:[Redes, II, Juan \"JP\" Pérez]");
+    }
+
+    @Test
+    void csvDeExcelEnEspanolUsaPuntoYComaYQuitaElBom() throws IOException {
+        List<String> filas = leer("HORARIOS.CSV", "﻿curso;dia\n\nRedes;Lunes\n");
+
+        // La línea vacía se salta pero conserva la numeración del archivo
+        assertThat(filas).containsExactly("1:[curso, dia]", "3:[Redes, Lunes]");
+    }
+
+    @Test
+    void xlsxCompletaCeldasVaciasYEscribeFechasEnIso() throws IOException {
+        byte[] libro;
+        try (XSSFWorkbook xlsx = new XSSFWorkbook(); ByteArrayOutputStream salida = new ByteArrayOutputStream()) {
+            Sheet hoja = xlsx.createSheet();
+            CellStyle fecha = xlsx.createCellStyle();
+            fecha.setDataFormat(xlsx.createDataFormat().getFormat("d/m/yy"));
+            Row encabezado = hoja.createRow(0);
+            encabezado.createCell(0).setCellValue("curso");
+            encabezado.createCell(2).setCellValue("inicio");
+            Row datos = hoja.createRow(2);
+            datos.createCell(0).setCellValue("Redes");
+            datos.createCell(2).setCellValue(LocalDate.of(2025, 3, 10));
+            datos.getCell(2).setCellStyle(fecha);
+            xlsx.write(salida);
+            libro = salida.toByteArray();
+        }
+
+        List<String> filas = new ArrayList<>();
+        clsUtilLectorTabla.leer("horarios.xlsx", new ByteArrayInputStream(libro),
+                (numero, celdas) -> filas.add(numero + ":" + celdas));
+
+        assertThat(filas).containsExactly("1:[curso, , inicio]", "3:[Redes, , 2025-03-10]");
+    }
+
+    @Test
+    void xlsxDanadoEsErrorDelArchivo() {
+        assertThatThrownBy(() -> leer("horarios.xlsx", "esto no es un zip"))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("XLSX no es válido");
+    }
+
+    @Test
+    void formatoNoSoportado() {
+        assertThat(clsUtilLectorTabla.esFormatoSoportado("horarios.xls")).isFalse();
+        assertThatThrownBy(() -> leer("horarios.xls", "curso"))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static List<String> leer(String nombre, String contenido) throws IOException {
+        List<String> filas = new ArrayList<>();
+        clsUtilLectorTabla.leer(nombre, new ByteArrayInputStream(contenido.getBytes(StandardCharsets.UTF_8)),
+                (numero, celdas) -> filas.add(numero + ":" + celdas));
+        return filas;
+    }
+}
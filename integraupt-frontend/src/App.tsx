@@ -5,6 +5,7 @@ import { Dashboard } from './components/Dashboard';
 import './styles/App.css';
 import { isBackendLoginType } from './utils/apiConfig';
 import { sendLogoutBeacon } from './utils/logout';
+import { clearAuthToken, setAuthToken } from './utils/authToken';
 
 interface User {
   id: string;
@@ -73,6 +74,8 @@ function App() {
                if (backendSession?.user) {
                  const normalized = toUser({ ...backendSession.user, token: backendSession.token ?? backendSession.user.token });
                  if (normalized) {
+                   // Sesiones guardadas antes de que el token se almacenara aparte
+                   setAuthToken(backendSession.token ?? backendSession.user.token);
                    setUser(normalized);
                    setLoading(false);
                    return;
@@ -80,6 +83,7 @@ function App() {
                }
              } catch (error) {
                localStorage.removeItem('backend_session');
+               clearAuthToken();
              }
            }
       const adminSession = localStorage.getItem('admin_session');
@@ -112,6 +116,7 @@ function App() {
         if (event === 'SIGNED_OUT') {
           localStorage.removeItem('admin_session');
            localStorage.removeItem('backend_session');
+           clearAuthToken();
         }
           const normalizedSupabaseUser = toUser(session?.user as unknown);
                 setUser(normalizedSupabaseUser);
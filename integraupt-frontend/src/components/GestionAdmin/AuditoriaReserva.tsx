@@ -1,4 +1,5 @@
 import React, { useState, useEffect } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import { apiUrl } from '../../config/api';
 import {
   AlertCircle,
@@ -56,6 +57,34 @@ interface AuditoriaReserva {
   solicitanteReserva?: string;
 }
 
+// El backend entrega la auditoría por páginas (máximo 500 registros) y envía el cursor de la
+// siguiente en este header; se recorren todas para que estadísticas y exportaciones vean el total.
+const HEADER_SIGUIENTE_CURSOR = 'X-Siguiente-Cursor';
+const TAMANO_PAGINA = 500;
+
+const obtenerTodasLasPaginas = async (
+  ruta: string,
+  params: URLSearchParams = new URLSearchParams()
+): Promise<AuditoriaReserva[]> => {
+  const registros: AuditoriaReserva[] = [];
+  let cursor: string | null = null;
+  do {
+    const pagina = new URLSearchParams(params);
+    pagina.set('tamano', String(TAMANO_PAGINA));
+    if (cursor) {
+      pagina.set('cursor', cursor);
+    }
+    const response: Response = await apiFetch(`${apiUrl(ruta)}?${pagina}`);
+    if (!response.ok) {
+      throw new Error(`Error ${response.status} al consultar ${ruta}`);
+    }
+    const data: AuditoriaReserva[] = await response.json();
+    registros.push(...data);
+    cursor = response.headers.get(HEADER_SIGUIENTE_CURSOR);
+  } while (cursor);
+  return registros;
+};
+
 interface AuditoriaReservaProps {
   onAuditLog: (user: string, action: string, module: string, status: 'success' | 'failed', motivo: string) => void;
 }
@@ -84,13 +113,7 @@ export const AuditoriaReserva: React.FC<AuditoriaReservaProps> = ({ onAuditLog }
       setCargando(true);
       setError(null);
       
-      const response = await fetch(apiUrl('auditoria-reservas'));
-      
-      if (!response.ok) {
-        throw new Error('Error al cargar los registros de auditoría');
-      }
-      
-      const data = await response.json();
+      const data = await obtenerTodasLasPaginas('auditoria-reservas');
       setAuditorias(data);
       setMensajeInfo(null);
       
@@ -122,12 +145,7 @@ export const AuditoriaReserva: React.FC<AuditoriaReservaProps> = ({ onAuditLog }
       if (filtros.fechaInicio) params.append('fechaInicio', filtros.fechaInicio + 'T00:00:00');
       if (filtros.fechaFin) params.append('fechaFin', filtros.fechaFin + 'T23:59:59');
       
-      const response = await fetch(`${apiUrl('auditoria-reservas/buscar')}?${params}`);
-
-      
-      if (!response.ok) throw new Error('Error en la búsqueda');
-      
-      const data = await response.json();
+      const data = await obtenerTodasLasPaginas('auditoria-reservas/buscar', params);
       setAuditorias(data);
       
     } catch (err) {
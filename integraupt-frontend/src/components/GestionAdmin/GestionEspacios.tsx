@@ -1,4 +1,5 @@
 import React, { useState, useEffect } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import { AlertCircle, Plus, Edit, Trash2, Search, X, Check, Filter } from 'lucide-react';
 import { obtenerFacultades, obtenerEscuelas, type CatalogoItem } from '../IntegraUPT/services/catalogosService';
 
@@ -237,7 +238,7 @@ export const GestionEspacios: React.FC<GestionEspaciosProps> = ({ onAuditLog })
   const loadEspacios = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8080/api/espacios');
+      const response = await apiFetch('http://localhost:8080/api/espacios');
       if (!response.ok) throw new Error('Error al cargar espacios');
       
       const data = await response.json();
@@ -356,7 +357,7 @@ export const GestionEspacios: React.FC<GestionEspaciosProps> = ({ onAuditLog })
         console.log(`🔄 Modo EDICIÓN - URL: ${url}, ID: ${editingEspacio.id}`);
       }
 
-      const response = await fetch(url, {
+      const response = await apiFetch(url, {
         method,
         headers: { 
           'Content-Type': 'application/json',
@@ -416,7 +417,7 @@ export const GestionEspacios: React.FC<GestionEspaciosProps> = ({ onAuditLog })
     try {
       console.log(`🗑️ Eliminando espacio ID: ${id}`);
 
-      const response = await fetch(`http://localhost:8080/api/espacios/${id}`, {
+      const response = await apiFetch(`http://localhost:8080/api/espacios/${id}`, {
         method: 'DELETE',
       });
 
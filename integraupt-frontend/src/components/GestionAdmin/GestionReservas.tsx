@@ -1,4 +1,5 @@
 import React, { useCallback, useEffect, useMemo, useState } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import {
   AlertCircle,
   Calendar,
@@ -31,6 +32,10 @@ interface Reserva {
   horaFin?: string;
 }
 
+// El listado llega por páginas; el cursor de la siguiente viaja en este header
+const HEADER_SIGUIENTE_CURSOR = 'X-Siguiente-Cursor';
+const TAMANO_PAGINA = 500;
+
 interface GestionReservasProps {
   onAuditLog: (user: string, action: string, module: string, status: 'success' | 'failed', motivo: string) => void;
 }
@@ -64,12 +69,19 @@ export const GestionReservas: React.FC<GestionReservasProps> = ({ onAuditLog })
     setCargando(true);
     setError(null);
     try {
-      const response = await fetch(`${urlBase}?estado=${encodeURIComponent(estadoActivo)}`, {
-        method: 'GET',
-        headers: { 'Accept': 'application/json' }
-      });
-      if (!response.ok) throw new Error('No se pudo obtener la lista de reservas');
-      const data = await response.json();
+      const data: any[] = [];
+      let cursor: string | null = null;
+      do {
+        const params = new URLSearchParams({ estado: estadoActivo, tamano: String(TAMANO_PAGINA) });
+        if (cursor) params.set('cursor', cursor);
+        const response: Response = await apiFetch(`${urlBase}?${params}`, {
+          method: 'GET',
+          headers: { 'Accept': 'application/json' }
+        });
+        if (!response.ok) throw new Error('No se pudo obtener la lista de reservas');
+        data.push(...(await response.json()));
+        cursor = response.headers.get(HEADER_SIGUIENTE_CURSOR);
+      } while (cursor);
       const reservasMapeadas: Reserva[] = Array.isArray(data)
         ? data.map((reserva: any) => ({
             id: Number(reserva.id),
@@ -147,7 +159,7 @@ export const GestionReservas: React.FC<GestionReservasProps> = ({ onAuditLog })
   const manejarAprobacion = async (reserva: Reserva) => {
     setProcesandoAccion(true);
     try {
-      const response = await fetch(`${urlBase}/${reserva.id}/aprobar`, { method: 'PUT' });
+      const response = await apiFetch(`${urlBase}/${reserva.id}/aprobar`, { method: 'PUT' });
       if (!response.ok) throw new Error('No se pudo aprobar la reserva');
       onAuditLog('admin', 'Aprobar Reserva', 'Reservas', 'success', `Reserva #${reserva.id} aprobada`);
       setMensaje({ tipo: 'success', texto: 'La reserva ha sido aprobada correctamente.' });
@@ -180,7 +192,7 @@ export const GestionReservas: React.FC<GestionReservasProps> = ({ onAuditLog })
     }
     setProcesandoAccion(true);
     try {
-      const response = await fetch(`${urlBase}/${reservaSeleccionada.id}/rechazar`, {
+      const response = await apiFetch(`${urlBase}/${reservaSeleccionada.id}/rechazar`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify({ motivo: motivoRechazo })
@@ -1,5 +1,6 @@
 // components/GestionUsuarios.tsx
 import React, { useState, useEffect } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import { AlertCircle, Plus, Edit, Trash2, Search, X, Check, Filter } from 'lucide-react';
 import { obtenerFacultades, obtenerEscuelas, type CatalogoItem } from '../IntegraUPT/services/catalogosService';
 
@@ -314,7 +315,7 @@ export const GestionUsuarios: React.FC<GestionUsuariosProps> = ({ onAuditLog })
   const loadUsuarios = async () => {
     try {
       setLoading(true);
-      const response = await fetch('http://localhost:8080/api/usuarios');
+      const response = await apiFetch('http://localhost:8080/api/usuarios');
       if (!response.ok) throw new Error('Error al cargar usuarios');
       
       const data = await response.json();
@@ -397,7 +398,7 @@ export const GestionUsuarios: React.FC<GestionUsuariosProps> = ({ onAuditLog })
       
       const method = editingUsuario ? 'PUT' : 'POST';
 
-      const response = await fetch(url, {
+      const response = await apiFetch(url, {
         method,
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(usuarioData)
@@ -444,7 +445,7 @@ export const GestionUsuarios: React.FC<GestionUsuariosProps> = ({ onAuditLog })
     if (!confirm('¿Estás seguro de eliminar este usuario?')) return;
 
     try {
-      const response = await fetch(`http://localhost:8080/api/usuarios/${id}`, {
+      const response = await apiFetch(`http://localhost:8080/api/usuarios/${id}`, {
         method: 'DELETE',
       });
 
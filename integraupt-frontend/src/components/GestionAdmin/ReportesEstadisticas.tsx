@@ -1,4 +1,5 @@
 import React, { useState, useEffect } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import { Download, BarChart3, Users, Calendar, Server, TrendingUp } from 'lucide-react';
 
 interface EstadisticasGenerales {
@@ -53,9 +54,9 @@ export const ReportesEstadisticas: React.FC<ReportesEstadisticasProps> = ({ onAu
       setError(null);
 
       const [estadisticasRes, usoEspaciosRes, reservasMesRes] = await Promise.all([
-        fetch(`${urlBase}/estadisticas-generales`),
-        fetch(`${urlBase}/uso-espacios`),
-        fetch(`${urlBase}/reservas-mes`)
+        apiFetch(`${urlBase}/estadisticas-generales`),
+        apiFetch(`${urlBase}/uso-espacios`),
+        apiFetch(`${urlBase}/reservas-mes`)
       ]);
 
       if (!estadisticasRes.ok || !usoEspaciosRes.ok || !reservasMesRes.ok) {
@@ -106,7 +107,7 @@ export const ReportesEstadisticas: React.FC<ReportesEstadisticasProps> = ({ onAu
 
   const descargarReportePDF = async () => {
     try {
-      const response = await fetch('http://localhost:8080/api/exportacion/pdf');
+      const response = await apiFetch('http://localhost:8080/api/exportacion/pdf');
       if (!response.ok) throw new Error('Error al generar PDF');
       
       const blob = await response.blob();
@@ -139,7 +140,7 @@ export const ReportesEstadisticas: React.FC<ReportesEstadisticasProps> = ({ onAu
 
   const descargarReporteExcel = async () => {
     try {
-      const response = await fetch('http://localhost:8080/api/exportacion/excel');
+      const response = await apiFetch('http://localhost:8080/api/exportacion/excel');
       if (!response.ok) throw new Error('Error al generar Excel');
       
       const blob = await response.blob();
@@ -1,4 +1,5 @@
 import React, { useEffect, useState } from 'react';
+import { apiFetch } from '../../utils/authToken';
 import { Navigation } from './Navigation';
 import {
   User,
@@ -95,7 +96,7 @@ export const PerfilScreen: React.FC<PerfilScreenProps> = ({
       setError(null);
 
       try {
-        const response = await fetch(`${API_BASE_URL}/api/usuarios/${parsedId}`, {
+        const response = await apiFetch(`${API_BASE_URL}/api/usuarios/${parsedId}`, {
           signal: controller.signal,
         });
         const data = (await response.json().catch(() => null)) as UsuarioResponse | null;
@@ -177,7 +178,7 @@ export const PerfilScreen: React.FC<PerfilScreenProps> = ({
     setPasswordFeedback(null);
 
     try {
-      const loginResponse = await fetch(`${API_BASE_URL}/api/auth/login`, {
+      const loginResponse = await apiFetch(`${API_BASE_URL}/api/auth/login`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -197,7 +198,7 @@ export const PerfilScreen: React.FC<PerfilScreenProps> = ({
         throw new Error(message);
       }
 
-      const updateResponse = await fetch(`${API_BASE_URL}/api/usuarios/${usuario.id}`, {
+      const updateResponse = await apiFetch(`${API_BASE_URL}/api/usuarios/${usuario.id}`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -1,3 +1,5 @@
+import { apiFetch } from '../../../utils/authToken';
+
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
 export interface CatalogoItem {
@@ -6,7 +8,7 @@ export interface CatalogoItem {
 }
 
 async function fetchJson<T>(url: string): Promise<T> {
-  const response = await fetch(url, {
+  const response = await apiFetch(url, {
     headers: { 'Accept': 'application/json' }
   });
 
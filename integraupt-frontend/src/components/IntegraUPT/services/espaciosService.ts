@@ -1,4 +1,5 @@
 import type { Espacio } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
@@ -62,7 +63,7 @@ class EspaciosService {
               url.searchParams.set('escuelaId', String(params.escuelaId));
             }
 
-            const response = await fetch(url.toString(), {
+            const response = await apiFetch(url.toString(), {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -83,7 +84,7 @@ class EspaciosService {
 
   async getEspacioById(id: string): Promise<Espacio | null> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/espacios/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/espacios/${id}`, {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -107,7 +108,7 @@ class EspaciosService {
 
   async createEspacio(espacioData: EspacioFormData): Promise<Espacio> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/espacios`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/espacios`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -130,7 +131,7 @@ class EspaciosService {
 
   async updateEspacio(id: string, espacioData: EspacioFormData): Promise<Espacio> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/espacios/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/espacios/${id}`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -153,7 +154,7 @@ class EspaciosService {
 
   async deleteEspacio(id: string): Promise<void> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/espacios/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/espacios/${id}`, {
         method: 'DELETE',
         headers: {
           'Content-Type': 'application/json',
@@ -178,7 +179,7 @@ class EspaciosService {
               url.searchParams.set('escuelaId', String(params.escuelaId));
             }
 
-            const response = await fetch(url.toString(), {
+            const response = await apiFetch(url.toString(), {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -1,4 +1,5 @@
 import type { Horario, CursoHorario } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
@@ -41,7 +42,7 @@ class HorariosService {
      private bloquesHorariosCache: BloqueHorarioCatalogoMap = { ...DEFAULT_BLOQUES_HORARIOS };
   async getAllHorarios(): Promise<Horario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -52,7 +53,7 @@ class HorariosService {
 
   async getHorarioById(id: string): Promise<Horario | null> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/${id}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/${id}`);
       if (!response.ok) {
         if (response.status === 404) return null;
         throw new Error(`Error ${response.status}: ${response.statusText}`);
@@ -67,7 +68,7 @@ class HorariosService {
 
   async createHorario(horarioData: HorarioFormData): Promise<Horario> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(horarioData),
@@ -83,7 +84,7 @@ class HorariosService {
 
   async updateHorario(id: string, horarioData: HorarioFormData): Promise<Horario> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/${id}`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(horarioData),
@@ -99,7 +100,7 @@ class HorariosService {
 
   async deleteHorario(id: string): Promise<void> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/${id}`, { method: 'DELETE' });
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/${id}`, { method: 'DELETE' });
       const result = await response.json();
       if (!response.ok || !result.success) throw new Error(result.message || 'Error al eliminar el horario');
     } catch (error) {
@@ -110,7 +111,7 @@ class HorariosService {
 
   async getHorariosPorEspacio(espacioId: number): Promise<Horario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/espacio/${espacioId}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/espacio/${espacioId}`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -121,7 +122,7 @@ class HorariosService {
 
   async getHorariosPorDia(diaSemana: string): Promise<Horario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/dia/${diaSemana}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/dia/${diaSemana}`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -132,7 +133,7 @@ class HorariosService {
 
   async getHorariosDisponibles(): Promise<Horario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/disponibles`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/disponibles`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -143,7 +144,7 @@ class HorariosService {
 
   async getHorariosOcupados(): Promise<Horario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/ocupados`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/ocupados`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -154,7 +155,7 @@ class HorariosService {
 
   async actualizarOcupacion(id: string, ocupado: boolean): Promise<Horario> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/${id}/ocupacion`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/${id}/ocupacion`, {
         method: 'PATCH',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify({ ocupado }),
@@ -170,7 +171,7 @@ class HorariosService {
 
   async getAllCursosHorarios(): Promise<CursoHorario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -181,7 +182,7 @@ class HorariosService {
 
   async getCursoHorarioById(id: string): Promise<CursoHorario | null> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos/${id}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos/${id}`);
       if (!response.ok) {
         if (response.status === 404) return null;
         throw new Error(`Error ${response.status}: ${response.statusText}`);
@@ -196,7 +197,7 @@ class HorariosService {
 
   async createCursoHorario(cursoHorarioData: CursoHorarioFormData): Promise<CursoHorario> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos`, {
         method: 'POST',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(cursoHorarioData),
@@ -212,7 +213,7 @@ class HorariosService {
 
   async updateCursoHorario(id: string, cursoHorarioData: CursoHorarioFormData): Promise<CursoHorario> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos/${id}`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos/${id}`, {
         method: 'PUT',
         headers: { 'Content-Type': 'application/json' },
         body: JSON.stringify(cursoHorarioData),
@@ -228,7 +229,7 @@ class HorariosService {
 
   async deleteCursoHorario(id: string): Promise<void> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos/${id}`, { method: 'DELETE' });
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos/${id}`, { method: 'DELETE' });
       const result = await response.json();
       if (!response.ok || !result.success) throw new Error(result.message || 'Error al eliminar el horario de curso');
     } catch (error) {
@@ -239,7 +240,7 @@ class HorariosService {
 
   async searchCursosHorarios(curso: string): Promise<CursoHorario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos/buscar?curso=${encodeURIComponent(curso)}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos/buscar?curso=${encodeURIComponent(curso)}`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
@@ -253,7 +254,7 @@ class HorariosService {
     }
 
     async fetchBloquesHorarios(): Promise<BloqueHorarioCatalogoMap> {
-      const response = await fetch(`${API_BASE_URL}/api/bloques-horarios`);
+      const response = await apiFetch(`${API_BASE_URL}/api/bloques-horarios`);
 
       if (!response.ok) {
         throw new Error(`Error ${response.status}: ${response.statusText}`);
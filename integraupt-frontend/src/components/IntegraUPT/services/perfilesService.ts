@@ -1,4 +1,5 @@
 import type { Profile, ApiResponse } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 // Configuración del servicio
 const BACKEND_BASE_URL = 'http://localhost:8080'; // Ajustar según tu configuración
@@ -109,11 +110,10 @@ class PerfilesService {
       }
 
       // En producción, hacer llamada real al backend
-      const response = await fetch(`${PERFILES_SERVICE_URL}/profiles`, {
+      const response = await apiFetch(`${PERFILES_SERVICE_URL}/profiles`, {
         method: 'GET',
         headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${localStorage.getItem('access_token')}` // Ajustar según tu sistema de auth
+          'Content-Type': 'application/json'
         }
       });
 
@@ -142,11 +142,10 @@ class PerfilesService {
         return mockProfiles.find(profile => profile.id === id) || null;
       }
 
-      const response = await fetch(`${PERFILES_SERVICE_URL}/profiles/${id}`, {
+      const response = await apiFetch(`${PERFILES_SERVICE_URL}/profiles/${id}`, {
         method: 'GET',
         headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${localStorage.getItem('access_token')}`
+          'Content-Type': 'application/json'
         }
       });
 
@@ -179,11 +178,10 @@ class PerfilesService {
         return mockProfiles[profileIndex];
       }
 
-      const response = await fetch(`${PERFILES_SERVICE_URL}/profiles/${id}`, {
+      const response = await apiFetch(`${PERFILES_SERVICE_URL}/profiles/${id}`, {
         method: 'PUT',
         headers: {
-          'Content-Type': 'application/json',
-          'Authorization': `Bearer ${localStorage.getItem('access_token')}`
+          'Content-Type': 'application/json'
         },
         body: JSON.stringify(updates)
       });
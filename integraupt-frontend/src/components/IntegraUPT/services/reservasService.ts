@@ -1,7 +1,12 @@
 import type { Reservacion } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
+// GET /api/reservas responde por páginas; el cursor de la siguiente llega en este header
+const HEADER_SIGUIENTE_CURSOR = 'X-Siguiente-Cursor';
+const TAMANO_PAGINA = 500;
+
 export interface ReservaFormData {
   usuario: number;
   espacio: number;
@@ -12,9 +17,17 @@ export interface ReservaFormData {
 }
 
 class ReservasService {
-  async getAllReservas(): Promise<any[]> {
-    try {
-      const response = await fetch(`${API_BASE_URL}/api/reservas`, {
+  // Recorre todas las páginas del listado siguiendo el cursor hasta que el backend deja de enviarlo
+  private async obtenerTodasLasPaginas(params: URLSearchParams = new URLSearchParams()): Promise<any[]> {
+    const reservas: any[] = [];
+    let cursor: string | null = null;
+    do {
+      const pagina = new URLSearchParams(params);
+      pagina.set('tamano', String(TAMANO_PAGINA));
+      if (cursor) {
+        pagina.set('cursor', cursor);
+      }
+      const response: Response = await apiFetch(`${API_BASE_URL}/api/reservas?${pagina}`, {
         method: 'GET',
         headers: {
           'Content-Type': 'application/json',
@@ -25,7 +38,15 @@ class ReservasService {
         throw new Error(`Error ${response.status}: ${response.statusText}`);
       }
 
-      return await response.json();
+      reservas.push(...(await response.json()));
+      cursor = response.headers.get(HEADER_SIGUIENTE_CURSOR);
+    } while (cursor);
+    return reservas;
+  }
+
+  async getAllReservas(): Promise<any[]> {
+    try {
+      return await this.obtenerTodasLasPaginas();
     } catch (error) {
       console.error('Error fetching reservas:', error);
       throw error;
@@ -34,22 +55,11 @@ class ReservasService {
 
   async getReservasPorEstado(estado?: string): Promise<any[]> {
     try {
-      const url = estado
-        ? `${API_BASE_URL}/api/reservas?estado=${estado}`
-        : `${API_BASE_URL}/api/reservas`;
-
-      const response = await fetch(url, {
-        method: 'GET',
-        headers: {
-          'Content-Type': 'application/json',
-        },
-      });
-
-      if (!response.ok) {
-        throw new Error(`Error ${response.status}: ${response.statusText}`);
+      const params = new URLSearchParams();
+      if (estado) {
+        params.set('estado', estado);
       }
-
-      return await response.json();
+      return await this.obtenerTodasLasPaginas(params);
     } catch (error) {
       console.error('Error fetching reservas por estado:', error);
       throw error;
@@ -58,7 +68,7 @@ class ReservasService {
 
   async crearReserva(reservaData: ReservaFormData): Promise<any> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/reservas`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/reservas`, {
         method: 'POST',
         headers: {
           'Content-Type': 'application/json',
@@ -79,7 +89,7 @@ class ReservasService {
 
   async aprobarReserva(id: number): Promise<any> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/reservas/${id}/aprobar`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/reservas/${id}/aprobar`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -99,7 +109,7 @@ class ReservasService {
 
   async rechazarReserva(id: number, motivo: string): Promise<any> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/reservas/${id}/rechazar`, {
+      const response = await apiFetch(`${API_BASE_URL}/api/reservas/${id}/rechazar`, {
         method: 'PUT',
         headers: {
           'Content-Type': 'application/json',
@@ -1,5 +1,6 @@
 // serviciosScreenService.ts - ARCHIVO COMPLETO CORREGIDO
 import type { Horario, CursoHorario } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
@@ -138,7 +139,7 @@ class ServiciosScreenService {
    */
   async getAllBloquesHorarios(): Promise<any[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/bloques-horarios`);
+      const response = await apiFetch(`${API_BASE_URL}/api/bloques-horarios`);
       if (!response.ok) {
         // Si no existe el endpoint, intentar alternativas
         console.warn('Endpoint /api/bloques-horarios no disponible, intentando alternativas...');
@@ -165,7 +166,7 @@ class ServiciosScreenService {
 
       for (const endpoint of endpoints) {
         try {
-          const response = await fetch(`${API_BASE_URL}${endpoint}`);
+          const response = await apiFetch(`${API_BASE_URL}${endpoint}`);
           if (response.ok) {
             console.log(`✅ Endpoint encontrado: ${endpoint}`);
             return await response.json();
@@ -189,7 +190,7 @@ class ServiciosScreenService {
    */
   async getCursosConEspacio(): Promise<CursoConEspacio[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
 
       const cursos: CursoHorarioExtendido[] = await response.json();
@@ -217,7 +218,7 @@ class ServiciosScreenService {
   // Métodos auxiliares para fetch
   private async fetchHorariosPorEspacio(espacioId: number): Promise<any[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios/espacio/${espacioId}`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios/espacio/${espacioId}`);
       if (!response.ok) {
         console.error('Error fetching horarios por espacio:', response.status);
         return [];
@@ -231,7 +232,7 @@ class ServiciosScreenService {
 
   private async fetchTodosLosCursosHorarios(): Promise<any[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/horarios-cursos`);
+      const response = await apiFetch(`${API_BASE_URL}/api/horarios-cursos`);
       if (!response.ok) {
         console.error('Error fetching cursos horarios:', response.status);
         return [];
@@ -259,7 +260,7 @@ class ServiciosScreenService {
 
     for (const endpoint of endpoints) {
       try {
-        const response = await fetch(`${API_BASE_URL}${endpoint}`);
+        const response = await apiFetch(`${API_BASE_URL}${endpoint}`);
         console.log(`${endpoint}: ${response.status} ${response.statusText}`);
         if (response.ok) {
           const data = await response.json();
@@ -1,11 +1,12 @@
 import type { Usuario } from '../types';
+import { apiFetch } from '../../../utils/authToken';
 
 const API_BASE_URL = import.meta.env.VITE_BACKEND_URL ?? 'http://localhost:8080';
 
 class UsuariosService {
   async getDocentes(): Promise<Usuario[]> {
     try {
-      const response = await fetch(`${API_BASE_URL}/api/usuarios/docentes`);
+      const response = await apiFetch(`${API_BASE_URL}/api/usuarios/docentes`);
       if (!response.ok) throw new Error(`Error ${response.status}: ${response.statusText}`);
       return await response.json();
     } catch (error) {
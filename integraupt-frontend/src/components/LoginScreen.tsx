@@ -12,6 +12,7 @@ import {
 } from 'lucide-react';
 import '../styles/LoginScreen.css';
 import { API_BASE_URL } from '../utils/apiConfig';
+import { setAuthToken } from '../utils/authToken';
 type LoginType = 'academic' | 'administrative';
 
 interface BackendPerfil {
@@ -180,6 +181,8 @@ export const LoginScreen: FC = () => {
       };
 
       localStorage.setItem('backend_session', JSON.stringify(sessionPayload));
+      // El token viaja como Bearer en las llamadas al backend (ver utils/authToken)
+      setAuthToken(data.token);
       window.dispatchEvent(new CustomEvent<BackendSessionPayload>('backend-login', { detail: sessionPayload }));
       setInfoMessage(data.message ?? 'Inicio de sesión exitoso. Redirigiendo...');
     } catch (loginError) {
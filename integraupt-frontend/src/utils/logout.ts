@@ -1,4 +1,5 @@
 import { API_BASE_URL } from './apiConfig';
+import { authHeaders, clearAuthToken, getAuthToken } from './authToken';
 
 const parseUserId = (userId: string | number | null | undefined): number | null => {
   if (typeof userId === 'number' && Number.isFinite(userId)) {
@@ -20,9 +21,11 @@ const buildPayload = (userId: number) => JSON.stringify({ usuarioId: userId });
 
 const getLogoutUrl = () => `${API_BASE_URL}/api/auth/logout`;
 
+// El backend cierra la sesión del token enviado; sin token no hay sesión que cerrar
 export const requestBackendLogout = async (userId: string | number | null | undefined): Promise<void> => {
   const numericId = parseUserId(userId);
-  if (numericId === null) {
+  if (numericId === null || !getAuthToken()) {
+    clearAuthToken();
     return;
   }
 
@@ -30,44 +33,38 @@ export const requestBackendLogout = async (userId: string | number | null | unde
     await fetch(getLogoutUrl(), {
       method: 'POST',
       headers: {
-        'Content-Type': 'application/json'
+        'Content-Type': 'application/json',
+        ...authHeaders()
       },
       body: buildPayload(numericId)
     });
   } catch (error) {
     console.error('No se pudo cerrar la sesión en el backend:', error);
+  } finally {
+    clearAuthToken();
   }
 };
 
+// sendBeacon no permite la cabecera Authorization; fetch con keepalive sí y sobrevive a la navegación
 export const sendLogoutBeacon = (userId: string | number | null | undefined): void => {
   const numericId = parseUserId(userId);
-  if (numericId === null) {
+  if (numericId === null || !getAuthToken() || typeof fetch !== 'function') {
     return;
   }
 
-  const payload = buildPayload(numericId);
-  const url = getLogoutUrl();
-
-  if (typeof navigator !== 'undefined' && typeof navigator.sendBeacon === 'function') {
-    const blob = new Blob([payload], { type: 'application/json' });
-    const sent = navigator.sendBeacon(url, blob);
-    if (sent) {
-      return;
-    }
-  }
-
-  if (typeof fetch === 'function') {
-    try {
-      void fetch(url, {
-        method: 'POST',
-        headers: {
-          'Content-Type': 'application/json'
-        },
-        body: payload,
-        keepalive: true
-      });
-    } catch (error) {
-      console.error('No se pudo enviar el cierre de sesión durante la navegación:', error);
-    }
+  try {
+    void fetch(getLogoutUrl(), {
+      method: 'POST',
+      headers: {
+        'Content-Type': 'application/json',
+        ...authHeaders()
+      },
+      body: buildPayload(numericId),
+      keepalive: true
+    });
+  } catch (error) {
+    console.error('No se pudo enviar el cierre de sesión durante la navegación:', error);
+  } finally {
+    clearAuthToken();
   }
-};
\ No newline at end of file
+};